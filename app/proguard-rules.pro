@@ -18,4 +18,14 @@
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+#-renamesourcefileattribute SourceFile
+
+# Debug messages are never logged in release builds, so drop the calls to the logging facade
+# together with the work that only serves them.
+-assumenosideeffects class edu.uga.cs.shopsync.utils.Logs {
+    public static boolean isDebugEnabled();
+    public static void d(...);
+}
+-assumevalues class edu.uga.cs.shopsync.utils.Logs {
+    public static boolean isDebugEnabled() return false;
+}
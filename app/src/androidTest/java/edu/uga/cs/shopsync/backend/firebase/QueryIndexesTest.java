@@ -0,0 +1,186 @@
+package edu.uga.cs.shopsync.backend.firebase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import edu.uga.cs.shopsync.backend.models.BasketItemModel;
+import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
+import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+import edu.uga.cs.shopsync.backend.models.UserProfileModel;
+
+/**
+ * Runs the indexed queries against the database emulator, with the rules and indexes of
+ * database.rules.json. Start the emulators from the root of the repository before running the
+ * tests, e.g. with {@code firebase emulators:exec --only auth,database
+ * "./gradlew connectedAndroidTest"}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryIndexesTest {
+
+    // the host machine as seen from the Android emulator
+    private static final String EMULATOR_HOST = "10.0.2.2";
+    private static final int DATABASE_EMULATOR_PORT = 9000;
+    private static final int AUTH_EMULATOR_PORT = 9099;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private DatabaseReference rootReference;
+    private String shopSyncUid;
+    private ShopSyncsFirebaseReference shopSyncsFirebaseReference;
+    private UsersFirebaseReference usersFirebaseReference;
+
+    @BeforeClass
+    public static void setUpEmulators() throws Exception {
+        FirebaseDatabase.getInstance().useEmulator(EMULATOR_HOST, DATABASE_EMULATOR_PORT);
+        FirebaseAuth.getInstance().useEmulator(EMULATOR_HOST, AUTH_EMULATOR_PORT);
+
+        // the rules only allow signed in users
+        await(FirebaseAuth.getInstance().signInAnonymously());
+    }
+
+    @Before
+    public void setUp() {
+        rootReference = FirebaseDatabase.getInstance().getReference();
+        shopSyncUid = rootReference.push().getKey();
+        shopSyncsFirebaseReference = new ShopSyncsFirebaseReference(
+                rootReference.child(ShopSyncsFirebaseReference.SHOP_SYNCS_COLLECTION),
+                rootReference);
+        usersFirebaseReference = new UsersFirebaseReference(
+                FirebaseAuth.getInstance(),
+                rootReference,
+                rootReference.child(UsersFirebaseReference.USER_PROFILES_COLLECTION),
+                rootReference.child(UsersFirebaseReference.EMAIL_INDEX_COLLECTION));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        await(rootReference.child(ShopSyncsFirebaseReference.SHOP_SYNCS_COLLECTION)
+                      .child(shopSyncUid).removeValue());
+    }
+
+    @Test
+    public void testGetPurchasedItemsWithUserUid() throws Exception {
+        // Arrange
+        addPurchasedItems(purchasedItem("purchase1", "user1", "item1"),
+                          purchasedItem("purchase2", "user2", "item2"),
+                          purchasedItem("purchase3", "user1", "item3"));
+
+        // Act
+        DataSnapshot result = await(shopSyncsFirebaseReference.getPurchasedItemsWithUserUid(
+                shopSyncUid, "user1"));
+
+        // Assert
+        Set<String> purchasedItemUids = new HashSet<>();
+        result.getChildren().forEach(child -> purchasedItemUids.add(child.getKey()));
+        assertEquals(Set.of("purchase1", "purchase3"), purchasedItemUids);
+    }
+
+    @Test
+    public void testCheckIfPurchasedItemExistsForBasketItem() throws Exception {
+        // Arrange
+        addPurchasedItems(purchasedItem("purchase1", "user1", "item1"));
+
+        // Act
+        boolean exists = checkIfPurchasedItemExistsForBasketItem("item1");
+        boolean missing = checkIfPurchasedItemExistsForBasketItem("item2");
+
+        // Assert
+        assertTrue(exists);
+        assertFalse(missing);
+    }
+
+    @Test
+    public void testCheckIfPurchasedItemExistsForShoppingItem() throws Exception {
+        // Arrange
+        addPurchasedItems(purchasedItem("purchase1", "user1", "item1"));
+
+        // Act
+        CompletableFuture<Boolean> exists = new CompletableFuture<>();
+        shopSyncsFirebaseReference.checkIfPurchasedItemExistsForShoppingItem(
+                shopSyncUid, "item1", exists::complete);
+        CompletableFuture<Boolean> missing = new CompletableFuture<>();
+        shopSyncsFirebaseReference.checkIfPurchasedItemExistsForShoppingItem(
+                shopSyncUid, "item2", missing::complete);
+
+        // Assert
+        assertTrue(exists.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertFalse(missing.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testGetUserProfileWithEmail() throws Exception {
+        // Arrange
+        String userUid = rootReference.push().getKey();
+        String email = userUid + "@example.com";
+        DatabaseReference userProfile = rootReference
+                .child(UsersFirebaseReference.USER_PROFILES_COLLECTION).child(userUid);
+        await(userProfile.setValue(new UserProfileModel(userUid, email, "user")));
+
+        try {
+            // Act
+            DataSnapshot result = await(usersFirebaseReference.getUserProfileWithEmail(email));
+
+            // Assert
+            assertEquals(1, result.getChildrenCount());
+            DataSnapshot child = result.getChildren().iterator().next();
+            UserProfileModel found = child.getValue(UserProfileModel.class);
+            assertNotNull(found);
+            assertEquals(userUid, found.getUserUid());
+        } finally {
+            await(userProfile.removeValue());
+        }
+    }
+
+    private boolean checkIfPurchasedItemExistsForBasketItem(String basketItemUid)
+            throws Exception {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        shopSyncsFirebaseReference.checkIfPurchasedItemExistsForBasketItem(
+                shopSyncUid, basketItemUid, result::complete);
+        return result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void addPurchasedItems(PurchasedItemModel... purchasedItems) throws Exception {
+        Map<String, Object> childUpdates = new HashMap<>();
+        for (PurchasedItemModel purchasedItem : purchasedItems) {
+            childUpdates.put(purchasedItem.getPurchasedItemUid(), purchasedItem.toMap());
+        }
+        await(shopSyncsFirebaseReference.getPurchasedItemsCollection(shopSyncUid)
+                      .updateChildren(childUpdates));
+    }
+
+    private static PurchasedItemModel purchasedItem(String purchasedItemUid, String userUid,
+                                                    String shoppingItemUid) {
+        return new PurchasedItemModel(
+                purchasedItemUid, userUid + "@example.com",
+                new ShoppingItemModel(shoppingItemUid, "Item " + shoppingItemUid, false),
+                new BasketItemModel(userUid, shoppingItemUid, 1, 1.0));
+    }
+
+    private static <T> T await(Task<T> task) throws Exception {
+        return Tasks.await(task, TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+}
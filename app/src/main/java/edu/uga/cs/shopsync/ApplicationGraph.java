@@ -3,8 +3,11 @@ package edu.uga.cs.shopsync;
 import javax.inject.Singleton;
 
 import dagger.Component;
+import edu.uga.cs.shopsync.backend.services.ServiceMetrics;
 import edu.uga.cs.shopsync.backend.services.ShopSyncsService;
+import edu.uga.cs.shopsync.backend.services.SnapshotDecoder;
 import edu.uga.cs.shopsync.backend.services.UsersService;
+import edu.uga.cs.shopsync.utils.Tracer;
 
 /**
  * The application graph.
@@ -27,4 +30,25 @@ public interface ApplicationGraph {
      */
     UsersService usersService();
 
+    /**
+     * Returns the decoder that converts snapshots to models off the main thread.
+     *
+     * @return the snapshot decoder
+     */
+    SnapshotDecoder snapshotDecoder();
+
+    /**
+     * Returns the metrics of the calls of the services, which can be dumped on demand.
+     *
+     * @return the service metrics
+     */
+    ServiceMetrics serviceMetrics();
+
+    /**
+     * Returns the tracer of the database calls, which is disabled until a sink is set.
+     *
+     * @return the tracer
+     */
+    Tracer tracer();
+
 }
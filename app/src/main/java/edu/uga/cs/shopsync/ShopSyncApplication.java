@@ -0,0 +1,44 @@
+package edu.uga.cs.shopsync;
+
+import android.app.Application;
+
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.io.File;
+
+import edu.uga.cs.shopsync.utils.Logs;
+import edu.uga.cs.shopsync.utils.TraceFileWriter;
+
+/**
+ * The application. Configures the database before any activity creates a reference to it.
+ */
+public class ShopSyncApplication extends Application {
+
+    private static final String TAG = "ShopSyncApplication";
+
+    /**
+     * The size of the on-disk database cache in bytes.
+     */
+    private static final long DATABASE_CACHE_SIZE_BYTES = 50L * 1024 * 1024;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // keep a local copy of the synced data and queue writes on disk, so screens read from
+        // the cache and writes survive losing connectivity or the app being killed; the database
+        // replays the queued writes and reconciles the cache once it is back online
+        FirebaseDatabase database = FirebaseDatabase.getInstance();
+        database.setPersistenceEnabled(true);
+        database.setPersistenceCacheSizeBytes(DATABASE_CACHE_SIZE_BYTES);
+        Logs.d(TAG, "onCreate: database persistence enabled");
+
+        // trace the database calls of debug builds to files/traces, which can be pulled with
+        // adb run-as and opened in chrome://tracing or Perfetto
+        if (BuildConfig.DEBUG) {
+            ApplicationGraphSingleton.getInstance().tracer()
+                    .enable(new TraceFileWriter(new File(getFilesDir(), "traces")));
+        }
+    }
+
+}
@@ -14,15 +14,16 @@ import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
 import edu.uga.cs.shopsync.backend.models.UserProfileModel;
 import edu.uga.cs.shopsync.backend.services.ShopSyncsService;
 import edu.uga.cs.shopsync.backend.services.UsersService;
+import edu.uga.cs.shopsync.utils.Logs;
 
 public class TemporaryStuff {
 
     public static boolean testAddNewUser(ApplicationGraph applicationGraph) {
-        Log.d("TemporaryStuff", "testAddNewUser");
+        Logs.d("TemporaryStuff", "testAddNewUser");
 
         UsersService usersService = applicationGraph.usersService();
         usersService.createUser("dawg@mail.com", "dawg", "password",
-                                userProfile -> Log.d("TemporaryStuff", "user created"), null);
+                                userProfile -> Logs.d("TemporaryStuff", "user created"), null);
         return true;
     }
 
@@ -35,20 +36,20 @@ public class TemporaryStuff {
                     if (task.isSuccessful()) {
                         DataSnapshot dataSnapshot = task.getResult();
                         if (dataSnapshot == null) {
-                            Log.d("TemporaryStuff", "data snapshot is null");
+                            Logs.d("TemporaryStuff", "data snapshot is null");
                             return;
                         }
 
                         for (DataSnapshot child : dataSnapshot.getChildren()) {
-                            Log.d("TemporaryStuff", "child: " + child);
+                            Logs.d("TemporaryStuff", "child: {}", child);
 
                             UserProfileModel _userProfile = child.getValue(UserProfileModel.class);
 
-                            Log.d("TemporaryStuff", "expected user profile: " + userProfile);
-                            Log.d("TemporaryStuff", "actual user profile: " + _userProfile);
+                            Logs.d("TemporaryStuff", "expected user profile: {}", userProfile);
+                            Logs.d("TemporaryStuff", "actual user profile: {}", _userProfile);
 
                             if (userProfile.equals(_userProfile)) {
-                                Log.d("TemporaryStuff", "user profile matches");
+                                Logs.d("TemporaryStuff", "user profile matches");
                             } else {
                                 Log.e("TemporaryStuff", "user profile does not match");
                             }
@@ -57,7 +58,7 @@ public class TemporaryStuff {
                             break;
                         }
                     } else {
-                        Log.d("TemporaryStuff", "failed to get user profile");
+                        Logs.d("TemporaryStuff", "failed to get user profile");
                     }
                 });
 
@@ -66,7 +67,7 @@ public class TemporaryStuff {
     }
 
     public static void testAddShoppingItem(ApplicationGraph applicationGraph) {
-        Log.d("TemporaryStuff", "testAddShoppingItemToShoppingBasket");
+        Logs.d("TemporaryStuff", "testAddShoppingItemToShoppingBasket");
 
         UsersService usersService = applicationGraph.usersService();
 
@@ -95,7 +96,7 @@ public class TemporaryStuff {
     }
 
     public static void testAddShoppingItemToShoppingBasket(ApplicationGraph applicationGraph) {
-        Log.d("TemporaryStuff", "testAddShoppingItemToShoppingBasket");
+        Logs.d("TemporaryStuff", "testAddShoppingItemToShoppingBasket");
 
         UsersService usersService = applicationGraph.usersService();
 
@@ -114,7 +115,7 @@ public class TemporaryStuff {
                         .addShoppingBasket(shopSync.getUid(), userProfile.getUserUid());
 
                 Consumer<BasketItemModel> addBasketItemOnSuccess = basketItem -> {
-                    Log.d("TemporaryStuff", "addBasketItemOnSuccess");
+                    Logs.d("TemporaryStuff", "addBasketItemOnSuccess");
 
                     // purchase the item
                     shopSyncsService.addPurchasedItem(shopSync.getUid(), shoppingBasket.getUid(),
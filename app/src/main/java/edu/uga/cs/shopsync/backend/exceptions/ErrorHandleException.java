@@ -0,0 +1,37 @@
+package edu.uga.cs.shopsync.backend.exceptions;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import edu.uga.cs.shopsync.utils.ErrorHandle;
+
+/**
+ * Exception that carries the {@link ErrorHandle} of a failed call. Futures fail with it, so the
+ * failure of a future holds the same error handle that the error consumer of the call would
+ * receive.
+ */
+public class ErrorHandleException extends RuntimeException {
+
+    private final ErrorHandle errorHandle;
+
+    public ErrorHandleException(@NonNull ErrorHandle errorHandle) {
+        this(errorHandle, null);
+    }
+
+    public ErrorHandleException(@NonNull ErrorHandle errorHandle, @Nullable Throwable cause) {
+        super(errorHandle.errorMessage(), cause);
+        this.errorHandle = errorHandle;
+    }
+
+    public @NonNull ErrorHandle getErrorHandle() {
+        return errorHandle;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "ErrorHandleException{" +
+                "errorHandle=" + errorHandle +
+                '}';
+    }
+}
@@ -6,60 +6,129 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
 import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.Transaction;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import edu.uga.cs.shopsync.backend.exceptions.IllegalNullValueException;
+import edu.uga.cs.shopsync.backend.exceptions.TaskFailureException;
 import edu.uga.cs.shopsync.backend.models.BasketItemModel;
 import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
 import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+import edu.uga.cs.shopsync.backend.models.ShopSyncSummaryModel;
 import edu.uga.cs.shopsync.backend.models.ShoppingBasketModel;
 import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+import edu.uga.cs.shopsync.backend.services.SnapshotDecoder;
 import edu.uga.cs.shopsync.utils.ErrorHandle;
 import edu.uga.cs.shopsync.utils.ErrorType;
+import edu.uga.cs.shopsync.utils.Logs;
+import edu.uga.cs.shopsync.utils.MapDiff;
+import edu.uga.cs.shopsync.utils.Tracer;
+import edu.uga.cs.shopsync.utils.UtilMethods;
 
 /**
- * Provides methods to modify the shop_syncs collection and its nested collections.
+ * Provides methods to modify the shop_syncs collection and its nested collections. Every mutation
+ * also keeps the denormalized shop_sync_summaries node up to date in the same multi-path update,
+ * so that list and metadata screens never need to download a full shop sync tree. Purchases
+ * additionally keep a per user cost ledger under costs/{shopSyncUid}/{userUid}, so settling the
+ * cost of a shop sync never needs to scan its purchased items.
  */
 @Singleton
 public class ShopSyncsFirebaseReference {
 
     private static final String TAG = "ShopSyncsFirebaseReference";
     public static final String SHOP_SYNCS_COLLECTION = "shop_syncs";
+    public static final String SHOP_SYNC_SUMMARIES_COLLECTION = "shop_sync_summaries";
+    public static final String COSTS_COLLECTION = "costs";
     public static final String SHOPPING_ITEMS_NESTED_COLLECTION = "shoppingItems";
     public static final String SHOPPING_BASKETS_NESTED_COLLECTION = "shoppingBaskets";
     public static final String PURCHASED_ITEMS_NESTED_COLLECTION = "purchasedItems";
+    public static final String BASKET_ITEMS_NESTED_COLLECTION = "basketItems";
+    public static final String UID_FIELD = "uid";
     public static final String NAME_FIELD = "name";
-    public static final String USER_UID_FIELD = "userUid";
+    public static final String DESCRIPTION_FIELD = "description";
+    public static final String IN_BASKET_FIELD = "inBasket";
+    public static final String MEMBER_COUNT_FIELD = "memberCount";
+    public static final String SHOPPING_ITEM_COUNT_FIELD = "shoppingItemCount";
+    public static final String PURCHASED_ITEM_COUNT_FIELD = "purchasedItemCount";
+    public static final String TOTAL_COST_FIELD = "totalCost";
+    // marks a cost ledger that holds the purchases from before ledgers were maintained
+    public static final String COSTS_BACKFILLED_FIELD = "backfilled";
+    // counts the guarded updates of a shop sync; database.rules.json only accepts increments by one
+    public static final String VERSION_FIELD = "version";
+    private static final int MAX_GUARDED_UPDATE_ATTEMPTS = 5;
+    private static final double COST_EPSILON = 1e-9;
+
+    // paths within a purchased item that are queried; each has an index in database.rules.json
+    public static final String PURCHASED_ITEM_BASKET_ITEM_UID_PATH = "basketItem/shoppingItemUid";
+    public static final String PURCHASED_ITEM_SHOPPING_ITEM_UID_PATH =
+            "shoppingItem/shoppingItemUid";
+    public static final String PURCHASED_ITEM_USER_UID_PATH = "basketItem/shoppingBasketUid";
 
     private final DatabaseReference shopSyncsCollection;
+    private final DatabaseReference rootReference;
+    private final Tracer tracer;
 
     /**
-     * Constructs a new ShopSyncsFirebaseReference. Empty constructor required for injection.
+     * Constructs a new ShopSyncsFirebaseReference.
+     *
+     * @param tracer the tracer of the database calls
      */
     @Inject
-    public ShopSyncsFirebaseReference() {
+    public ShopSyncsFirebaseReference(@NonNull Tracer tracer) {
         shopSyncsCollection = FirebaseDatabase.getInstance().getReference(SHOP_SYNCS_COLLECTION);
-        Log.d("ShopSyncsFirebaseReference", "ShopSyncsFirebaseReference: created");
+        rootReference = FirebaseDatabase.getInstance().getReference();
+        this.tracer = tracer;
+        Logs.d("ShopSyncsFirebaseReference", "ShopSyncsFirebaseReference: created");
     }
 
     /**
      * Constructs a new ShopSyncsFirebaseReference. Used for testing only.
      *
      * @param shopSyncsCollection the reference to the shop syncs collection
+     * @param rootReference       the reference to the root of the database, used for multi-path
+     *                            updates
      */
-    ShopSyncsFirebaseReference(@NonNull DatabaseReference shopSyncsCollection) {
+    ShopSyncsFirebaseReference(@NonNull DatabaseReference shopSyncsCollection,
+                               @NonNull DatabaseReference rootReference) {
+        this(shopSyncsCollection, rootReference, new Tracer());
+    }
+
+    /**
+     * Constructs a new ShopSyncsFirebaseReference. Used for testing only.
+     *
+     * @param shopSyncsCollection the reference to the shop syncs collection
+     * @param rootReference       the reference to the root of the database, used for multi-path
+     *                            updates
+     * @param tracer              the tracer of the database calls
+     */
+    ShopSyncsFirebaseReference(@NonNull DatabaseReference shopSyncsCollection,
+                               @NonNull DatabaseReference rootReference, @NonNull Tracer tracer) {
         this.shopSyncsCollection = shopSyncsCollection;
-        Log.d("ShopSyncsFirebaseReference", "ShopSyncsFirebaseReference: created");
+        this.rootReference = rootReference;
+        this.tracer = tracer;
+        Logs.d("ShopSyncsFirebaseReference", "ShopSyncsFirebaseReference: created");
     }
 
     /**
@@ -71,6 +140,23 @@ public class ShopSyncsFirebaseReference {
         return shopSyncsCollection;
     }
 
+    /**
+     * Keeps the shop sync with the given uid, its summary, and its cost ledger synced to the
+     * local cache even when no listener is attached, so they can be read while offline.
+     *
+     * @param shopSyncUid the uid of the shop sync
+     * @param keepSynced  whether the shop sync should be kept synced
+     */
+    public void keepShopSyncSynced(@NonNull String shopSyncUid, boolean keepSynced) {
+        Logs.d("ShopSyncsFirebaseReference",
+                "keepShopSyncSynced: shop sync uid ({}), keep synced ({})", shopSyncUid,
+                keepSynced);
+        shopSyncsCollection.child(shopSyncUid).keepSynced(keepSynced);
+        rootReference.child(SHOP_SYNC_SUMMARIES_COLLECTION).child(shopSyncUid)
+                .keepSynced(keepSynced);
+        rootReference.child(COSTS_COLLECTION).child(shopSyncUid).keepSynced(keepSynced);
+    }
+
     /**
      * Returns the shopping baskets collection for the shop sync with the given uid.
      *
@@ -78,8 +164,8 @@ public class ShopSyncsFirebaseReference {
      * @return the shopping baskets collection for the shop sync with the given uid
      */
     public DatabaseReference getShoppingItemsCollection(@NonNull String shopSyncUid) {
-        Log.d("ShopSyncsFirebaseReference", "getShoppingItemsCollection: shop sync uid (" +
-                shopSyncUid + ")");
+        Logs.d("ShopSyncsFirebaseReference", "getShoppingItemsCollection: shop sync uid ({})",
+                shopSyncUid);
         return shopSyncsCollection.child(shopSyncUid).child(SHOPPING_ITEMS_NESTED_COLLECTION);
     }
 
@@ -90,8 +176,8 @@ public class ShopSyncsFirebaseReference {
      * @return the shopping baskets collection for the shop sync with the given uid
      */
     public DatabaseReference getShoppingBasketsCollection(@NonNull String shopSyncUid) {
-        Log.d("ShopSyncsFirebaseReference", "getShoppingBasketsCollection: shop sync uid (" +
-                shopSyncUid + ")");
+        Logs.d("ShopSyncsFirebaseReference", "getShoppingBasketsCollection: shop sync uid ({})",
+                shopSyncUid);
         return shopSyncsCollection.child(shopSyncUid).child(SHOPPING_BASKETS_NESTED_COLLECTION);
     }
 
@@ -102,11 +188,28 @@ public class ShopSyncsFirebaseReference {
      * @return the purchased items collection for the shop sync with the given uid
      */
     public DatabaseReference getPurchasedItemsCollection(@NonNull String shopSyncUid) {
-        Log.d("ShopSyncsFirebaseReference", "getPurchasedItemsCollection: shop sync uid (" +
-                shopSyncUid + ")");
+        Logs.d("ShopSyncsFirebaseReference", "getPurchasedItemsCollection: shop sync uid ({})",
+                shopSyncUid);
         return shopSyncsCollection.child(shopSyncUid).child(PURCHASED_ITEMS_NESTED_COLLECTION);
     }
 
+    /**
+     * Returns the basket items collection of the shopping basket with the given uid.
+     *
+     * @param shopSyncUid       the uid of the shop sync
+     * @param shoppingBasketUid the uid of the shopping basket, same as the uid of the user who
+     *                          owns the shopping basket
+     * @return the basket items collection of the shopping basket with the given uid
+     */
+    public DatabaseReference getBasketItemsCollection(@NonNull String shopSyncUid,
+                                                      @NonNull String shoppingBasketUid) {
+        Logs.d("ShopSyncsFirebaseReference",
+                "getBasketItemsCollection: shop sync uid ({}), shopping basket uid ({})",
+                shopSyncUid, shoppingBasketUid);
+        return getShoppingBasketsCollection(shopSyncUid).child(shoppingBasketUid)
+                .child(BASKET_ITEMS_NESTED_COLLECTION);
+    }
+
     /**
      * Adds a shop sync with the given name, description, and user uids.
      *
@@ -118,8 +221,8 @@ public class ShopSyncsFirebaseReference {
                                      @Nullable Collection<ShoppingItemModel> shoppingItems,
                                      @Nullable Map<String, ShoppingBasketModel> shoppingBaskets,
                                      @Nullable Collection<PurchasedItemModel> purchasedItems) {
-        Log.d("ShopSyncsFirebaseReference", "addShopSync: name (" + name + "), description (" +
-                description + ")");
+        Logs.d("ShopSyncsFirebaseReference", "addShopSync: name ({}), description ({})",
+                name, description);
 
         String uid = shopSyncsCollection.push().getKey();
         if (uid == null) {
@@ -148,7 +251,15 @@ public class ShopSyncsFirebaseReference {
 
         ShopSyncModel newShopSync = new ShopSyncModel(uid, name, description, shoppingItemsMap,
                                                       shoppingBaskets, purchasedItemsMap);
-        shopSyncsCollection.child(uid).setValue(newShopSync);
+
+        Map<String, Object> childUpdates = new HashMap<>();
+        childUpdates.put(shopSyncPath(uid), newShopSync.toMap());
+        childUpdates.put(summaryPath(uid), summarizeShopSync(newShopSync).toMap());
+
+        Map<String, Object> costs = new HashMap<>(summarizeCosts(purchasedItemsMap.values()));
+        costs.put(COSTS_BACKFILLED_FIELD, true);
+        childUpdates.put(costsPath(uid), costs);
+        rootReference.updateChildren(childUpdates);
 
         return newShopSync;
     }
@@ -160,38 +271,275 @@ public class ShopSyncsFirebaseReference {
      * @return the task that attempts to get the shop sync with the given uid
      */
     public Task<DataSnapshot> getShopSyncWithUid(@NonNull String uid) {
-        Log.d("ShopSyncsFirebaseReference", "getShopSyncWithUid: uid (" + uid + ")");
+        Logs.d("ShopSyncsFirebaseReference", "getShopSyncWithUid: uid ({})", uid);
         return shopSyncsCollection.child(uid).get();
     }
 
     /**
-     * Returns the task that attempts to update the shop sync.
+     * Returns the task that attempts to get the summary of the shop sync with the given uid. The
+     * summary only holds the metadata and counters of the shop sync, so its size does not depend
+     * on the number of items in the shop sync.
      *
-     * @param updatedShopSync the updated shop sync
-     * @return the task that attempts to update the shop sync
+     * @param uid the uid of the shop sync
+     * @return the task that attempts to get the summary of the shop sync with the given uid
      */
-    public Task<Void> updateShopSync(@NonNull ShopSyncModel updatedShopSync) {
-        Log.d("ShopSyncsFirebaseReference", "updateShopSync: updated shop sync (" +
-                updatedShopSync + ")");
+    public Task<DataSnapshot> getShopSyncSummaryWithUid(@NonNull String uid) {
+        Logs.d("ShopSyncsFirebaseReference", "getShopSyncSummaryWithUid: uid ({})", uid);
+        return rootReference.child(SHOP_SYNC_SUMMARIES_COLLECTION).child(uid).get();
+    }
 
-        String shopSyncUid = updatedShopSync.getUid();
-        Map<String, Object> shopSyncValues = updatedShopSync.toMap();
+    /**
+     * Returns whether the summary holds the metadata of its shop sync. Counter increments that
+     * reach a shop sync without a summary create a summary node that only holds those counters,
+     * which is treated as if there was no summary.
+     *
+     * @param summary the summary, or null
+     * @return true if the summary holds the uid and the name of its shop sync
+     */
+    public static boolean isCompleteSummary(@Nullable ShopSyncSummaryModel summary) {
+        return summary != null && summary.getUid() != null && summary.getName() != null;
+    }
 
-        Map<String, Object> childUpdates = new HashMap<>();
-        childUpdates.put("/" + shopSyncUid, shopSyncValues);
+    /**
+     * Returns the task that attempts to store the summary of a shop sync if the shop sync has no
+     * complete summary yet. Used to backfill summaries for shop syncs that were created before
+     * summaries were maintained. The summary is merged into the summary node in a transaction,
+     * so a complete summary that another client stored in the meantime is kept. The counters of
+     * an incomplete summary are replaced, since the given summary was computed from the shop
+     * sync after the changes that those counters count.
+     *
+     * @param summary the summary of the shop sync
+     * @return the task that attempts to set the summary, with the summary that is stored once
+     * the transaction is committed
+     */
+    public Task<DataSnapshot> setShopSyncSummaryIfAbsent(@NonNull ShopSyncSummaryModel summary) {
+        Logs.d("ShopSyncsFirebaseReference", "setShopSyncSummaryIfAbsent: summary ({})", summary);
+
+        DatabaseReference summaryReference =
+                rootReference.child(SHOP_SYNC_SUMMARIES_COLLECTION).child(summary.getUid());
+        TaskCompletionSource<DataSnapshot> taskCompletionSource = new TaskCompletionSource<>();
+        summaryReference.runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                Map<String, Object> currentSummary = asMap(currentData.getValue());
+                if (currentSummary != null && currentSummary.get(UID_FIELD) != null &&
+                        currentSummary.get(NAME_FIELD) != null) {
+                    return Transaction.success(currentData);
+                }
+
+                Map<String, Object> mergedSummary = currentSummary == null ? new HashMap<>() :
+                        new HashMap<>(currentSummary);
+                mergedSummary.putAll(summary.toMap());
+                currentData.setValue(mergedSummary);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed,
+                                   @Nullable DataSnapshot currentData) {
+                if (error != null || !committed) {
+                    Log.e(TAG, "setShopSyncSummaryIfAbsent: transaction failed: " + error);
+                    taskCompletionSource.setException(error != null ? error.toException() :
+                            new IllegalStateException("Transaction was not committed"));
+                    return;
+                }
+
+                taskCompletionSource.setResult(currentData);
+            }
+        });
+        return taskCompletionSource.getTask();
+    }
+
+    /**
+     * Computes the summary of the given shop sync from its nested collections.
+     *
+     * @param shopSync the shop sync
+     * @return the summary of the shop sync
+     */
+    public ShopSyncSummaryModel summarizeShopSync(@NonNull ShopSyncModel shopSync) {
+        long memberCount = shopSync.getShoppingBaskets() == null ? 0 :
+                shopSync.getShoppingBaskets().size();
+        long shoppingItemCount = shopSync.getShoppingItems() == null ? 0 :
+                shopSync.getShoppingItems().size();
+
+        long purchasedItemCount = 0;
+        double totalCost = 0;
+        if (shopSync.getPurchasedItems() != null) {
+            for (PurchasedItemModel purchasedItem : shopSync.getPurchasedItems().values()) {
+                purchasedItemCount++;
+                totalCost += UtilMethods.costOf(purchasedItem);
+            }
+        }
+
+        return new ShopSyncSummaryModel(shopSync.getUid(), shopSync.getName(),
+                                        shopSync.getDescription(), memberCount, shoppingItemCount,
+                                        purchasedItemCount, totalCost);
+    }
+
+    /**
+     * Returns the task that attempts to get the cost ledger of the shop sync with the given uid.
+     * The ledger maps the uid of every user that purchased items to the total cost of their
+     * purchases.
+     *
+     * @param shopSyncUid the uid of the shop sync
+     * @return the task that attempts to get the cost ledger of the shop sync
+     */
+    public Task<DataSnapshot> getCostsWithShopSyncUid(@NonNull String shopSyncUid) {
+        Logs.d("ShopSyncsFirebaseReference", "getCostsWithShopSyncUid: shop sync uid ({})",
+                shopSyncUid);
+        return rootReference.child(COSTS_COLLECTION).child(shopSyncUid).get();
+    }
+
+    /**
+     * Returns the task that attempts to backfill the cost ledger of a shop sync. Used for shop
+     * syncs with purchases from before ledgers were maintained. The ledger is merged in a
+     * transaction on the ledger node and marked with {@link #COSTS_BACKFILLED_FIELD}, so it is
+     * backfilled once even if purchases already created entries for some users. The given costs
+     * replace the entries of their users, since they were computed from the purchased items after
+     * the purchases those entries count; entries of other users are kept.
+     *
+     * @param shopSyncUid    the uid of the shop sync
+     * @param costsByUserUid the total cost of the purchases of each user
+     * @return the task that attempts to backfill the cost ledger, with the ledger that is stored
+     * once the transaction is committed
+     */
+    public Task<DataSnapshot> backfillCosts(@NonNull String shopSyncUid,
+                                            @NonNull Map<String, Double> costsByUserUid) {
+        Logs.d("ShopSyncsFirebaseReference", "backfillCosts: shop sync uid ({}), costs ({})",
+                shopSyncUid, costsByUserUid);
+
+        DatabaseReference costsReference = rootReference.child(COSTS_COLLECTION).child(shopSyncUid);
+        TaskCompletionSource<DataSnapshot> taskCompletionSource = new TaskCompletionSource<>();
+        costsReference.runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                Map<String, Object> currentCosts = asMap(currentData.getValue());
+                if (currentCosts != null && currentCosts.containsKey(COSTS_BACKFILLED_FIELD)) {
+                    return Transaction.success(currentData);
+                }
+
+                Map<String, Object> mergedCosts = currentCosts == null ? new HashMap<>() :
+                        new HashMap<>(currentCosts);
+                mergedCosts.putAll(costsByUserUid);
+                mergedCosts.put(COSTS_BACKFILLED_FIELD, true);
+                currentData.setValue(mergedCosts);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed,
+                                   @Nullable DataSnapshot currentData) {
+                if (error != null || !committed) {
+                    Log.e(TAG, "backfillCosts: transaction failed: " + error);
+                    taskCompletionSource.setException(error != null ? error.toException() :
+                            new IllegalStateException("Transaction was not committed"));
+                    return;
+                }
+
+                taskCompletionSource.setResult(currentData);
+            }
+        });
+        return taskCompletionSource.getTask();
+    }
+
+    /**
+     * Computes the total cost of the purchases of each user from the given purchased items.
+     *
+     * @param purchasedItems the purchased items
+     * @return the total cost of the purchases of each user, keyed by user uid
+     */
+    public Map<String, Double> summarizeCosts(
+            @NonNull Collection<PurchasedItemModel> purchasedItems) {
+        return UtilMethods.computeCostsByUserUid(purchasedItems);
+    }
+
+    /**
+     * Returns the task that attempts to update the shop sync. Only the fields that differ between
+     * the shop sync as it was loaded and the updated shop sync are written, each at its own path,
+     * so concurrent edits to the rest of the shop sync are kept. The summary and the cost ledger
+     * are adjusted by the differences between the two shop syncs, with server-side increments for
+     * the counters and costs.
+     *
+     * @param baselineShopSync the shop sync as it was loaded
+     * @param updatedShopSync  the updated shop sync, with the same uid
+     * @return the task that attempts to update the shop sync
+     */
+    public Task<Void> updateShopSync(@NonNull ShopSyncModel baselineShopSync,
+                                     @NonNull ShopSyncModel updatedShopSync) {
+        String shopSyncUid = updatedShopSync.getUid();
+        Map<String, Object> childUpdates = MapDiff.diff(shopSyncPath(shopSyncUid),
+                                                        baselineShopSync.toValueMap(),
+                                                        updatedShopSync.toValueMap());
+        Logs.d("ShopSyncsFirebaseReference", "updateShopSync: shop sync uid ({}), changed paths {}",
+                shopSyncUid, childUpdates.keySet());
+
+        String summaryPath = summaryPath(shopSyncUid);
+        ShopSyncSummaryModel baselineSummary = summarizeShopSync(baselineShopSync);
+        ShopSyncSummaryModel updatedSummary = summarizeShopSync(updatedShopSync);
+        if (!Objects.equals(baselineSummary.getName(), updatedSummary.getName())) {
+            childUpdates.put(summaryPath + "/" + NAME_FIELD, updatedSummary.getName());
+        }
+        if (!Objects.equals(baselineSummary.getDescription(), updatedSummary.getDescription())) {
+            childUpdates.put(summaryPath + "/" + DESCRIPTION_FIELD,
+                             updatedSummary.getDescription());
+        }
+        putIncrement(childUpdates, summaryPath + "/" + MEMBER_COUNT_FIELD,
+                     updatedSummary.getMemberCount() - baselineSummary.getMemberCount());
+        putIncrement(childUpdates, summaryPath + "/" + SHOPPING_ITEM_COUNT_FIELD,
+                     updatedSummary.getShoppingItemCount() -
+                             baselineSummary.getShoppingItemCount());
+        putIncrement(childUpdates, summaryPath + "/" + PURCHASED_ITEM_COUNT_FIELD,
+                     updatedSummary.getPurchasedItemCount() -
+                             baselineSummary.getPurchasedItemCount());
+        putIncrement(childUpdates, summaryPath + "/" + TOTAL_COST_FIELD,
+                     updatedSummary.getTotalCost() - baselineSummary.getTotalCost());
+
+        // the cost of every user whose purchases changed is adjusted by the difference
+        Map<String, Double> baselineCosts = baselineShopSync.getPurchasedItems() == null ?
+                Map.of() : summarizeCosts(baselineShopSync.getPurchasedItems().values());
+        Map<String, Double> updatedCosts = updatedShopSync.getPurchasedItems() == null ?
+                Map.of() : summarizeCosts(updatedShopSync.getPurchasedItems().values());
+        Set<String> userUids = new HashSet<>(baselineCosts.keySet());
+        userUids.addAll(updatedCosts.keySet());
+        for (String userUid : userUids) {
+            putIncrement(childUpdates, costsPath(shopSyncUid) + "/" + userUid,
+                         updatedCosts.getOrDefault(userUid, 0.0) -
+                                 baselineCosts.getOrDefault(userUid, 0.0));
+        }
 
-        return shopSyncsCollection.updateChildren(childUpdates);
+        return rootReference.updateChildren(childUpdates);
     }
 
     /**
-     * Returns the task that attempts to delete the shop sync with the given uid.
+     * Returns the task that attempts to delete the shop sync with the given uid. The shop sync
+     * tree, its summary, its cost ledger and both sides of the mapping between the shop sync and
+     * each of its members are removed in one multi-path update, so the deletion is never applied
+     * partially.
      *
      * @param shopSyncUid the uid of the shop sync to delete
+     * @param memberUids  the uids of the members of the shop sync
      * @return the task that attempts to delete the shop sync with the given uid
      */
-    public Task<Void> deleteShopSync(@NonNull String shopSyncUid) {
-        Log.d("ShopSyncsFirebaseReference", "deleteShopSync: shop sync uid (" + shopSyncUid + ")");
-        return shopSyncsCollection.child(shopSyncUid).removeValue();
+    public Task<Void> deleteShopSync(@NonNull String shopSyncUid,
+                                     @NonNull Collection<String> memberUids) {
+        Logs.d("ShopSyncsFirebaseReference", "deleteShopSync: shop sync uid ({}), member uids {}",
+                shopSyncUid, memberUids);
+
+        Map<String, Object> childUpdates = new HashMap<>();
+        childUpdates.put(shopSyncPath(shopSyncUid), null);
+        childUpdates.put(summaryPath(shopSyncUid), null);
+        childUpdates.put(costsPath(shopSyncUid), null);
+        childUpdates.put("/" + UserShopSyncMapFirebaseReference.SHOP_SYNC_TO_USERS_MAP + "/" +
+                                 shopSyncUid, null);
+        for (String memberUid : memberUids) {
+            childUpdates.put(UserShopSyncMapFirebaseReference.userToShopSyncPath(memberUid,
+                                                                                 shopSyncUid),
+                             null);
+        }
+
+        return rootReference.updateChildren(childUpdates);
     }
 
     /**
@@ -205,8 +553,9 @@ public class ShopSyncsFirebaseReference {
      */
     public ShoppingItemModel addShoppingItem(@NonNull String shopSyncUid, @NonNull String name,
                                              boolean inBasket) {
-        Log.d("ShopSyncsFirebaseReference", "addShoppingItem: shop sync uid (" + shopSyncUid +
-                "), name (" + name + "), in basket (" + inBasket + ")");
+        Logs.d("ShopSyncsFirebaseReference",
+                "addShoppingItem: shop sync uid ({}), name ({}), in basket ({})", shopSyncUid, name,
+                inBasket);
 
         DatabaseReference shoppingItemsCollection = getShoppingItemsCollection(shopSyncUid);
 
@@ -217,10 +566,17 @@ public class ShopSyncsFirebaseReference {
         }
 
         ShoppingItemModel newShoppingItem = new ShoppingItemModel(uid, name, inBasket);
-        shoppingItemsCollection.child(uid).setValue(newShoppingItem);
 
-        Log.d("ShopSyncsFirebaseReference", "addShoppingItem: added shopping item with " + "name "
-                + name + ", in basket " + inBasket + ", and uid (" + uid + ")");
+        Map<String, Object> childUpdates = new HashMap<>();
+        childUpdates.put(shopSyncPath(shopSyncUid) + "/" + SHOPPING_ITEMS_NESTED_COLLECTION + "/" +
+                                 uid, newShoppingItem.toMap());
+        childUpdates.put(summaryPath(shopSyncUid) + "/" + SHOPPING_ITEM_COUNT_FIELD,
+                         ServerValue.increment(1));
+        rootReference.updateChildren(childUpdates);
+
+        Logs.d("ShopSyncsFirebaseReference",
+                "addShoppingItem: added shopping item with name {}, in basket {}, and uid ({})",
+                name, inBasket, uid);
         return newShoppingItem;
     }
 
@@ -233,9 +589,10 @@ public class ShopSyncsFirebaseReference {
      */
     public Task<DataSnapshot> getShoppingItemWithUid(@NonNull String shopSyncUid,
                                                      @NonNull String uid) {
-        Log.d("ShopSyncsFirebaseReference", "getShoppingItemWithUid: shop sync uid (" +
-                shopSyncUid + "), uid (" + uid + ")");
-        return getShoppingItemsCollection(shopSyncUid).child(uid).get();
+        Logs.d("ShopSyncsFirebaseReference", "getShoppingItemWithUid: shop sync uid ({}), uid ({})",
+                shopSyncUid, uid);
+        return tracer.traceTask("getShoppingItemWithUid",
+                                getShoppingItemsCollection(shopSyncUid).child(uid).get());
     }
 
     /**
@@ -245,11 +602,44 @@ public class ShopSyncsFirebaseReference {
      * @return the task that attempts to get the shopping items with the given shop sync uid
      */
     public Task<DataSnapshot> getShoppingItemsWithShopSyncUid(@NonNull String shopSyncUid) {
-        Log.d("ShopSyncsFirebaseReference", "getShoppingItemsWithShopSyncUid: shop sync uid (" +
-                shopSyncUid + ")");
+        Logs.d("ShopSyncsFirebaseReference", "getShoppingItemsWithShopSyncUid: shop sync uid ({})",
+                shopSyncUid);
         return getShoppingItemsCollection(shopSyncUid).get();
     }
 
+    /**
+     * Returns the task that attempts to get a page of the shopping items of the shop sync with
+     * the given uid. Pages are ordered by key, newest first, so the first page holds the most
+     * recently added shopping items and every following page the ones added before them.
+     *
+     * @param shopSyncUid  the uid of the shop sync
+     * @param endBeforeKey the key of the oldest shopping item of the previous page, or null to get
+     *                     the first page
+     * @param pageSize     the maximum number of shopping items in the page
+     * @return the task that attempts to get the page, whose children are in ascending key order
+     */
+    public Task<DataSnapshot> getShoppingItemsPage(@NonNull String shopSyncUid,
+                                                   @Nullable String endBeforeKey, int pageSize) {
+        Logs.d("ShopSyncsFirebaseReference",
+                "getShoppingItemsPage: shop sync uid ({}), end before key ({}), page size ({})",
+                shopSyncUid, endBeforeKey, pageSize);
+        return pageQuery(getShoppingItemsCollection(shopSyncUid), endBeforeKey, pageSize).get();
+    }
+
+    /**
+     * Returns the query over the shopping items of the shop sync with the given uid whose keys
+     * are in the given range. Used to listen to the shopping items of the loaded pages only.
+     *
+     * @param shopSyncUid  the uid of the shop sync
+     * @param startAtKey   the smallest key in the range, or null for no lower bound
+     * @param endBeforeKey the key right after the range, or null for no upper bound
+     * @return the query over the shopping items in the range
+     */
+    public Query getShoppingItemsWindow(@NonNull String shopSyncUid, @Nullable String startAtKey,
+                                        @Nullable String endBeforeKey) {
+        return windowQuery(getShoppingItemsCollection(shopSyncUid), startAtKey, endBeforeKey);
+    }
+
     /**
      * Returns the task that attempts to get the shopping items with the given name.
      *
@@ -259,8 +649,8 @@ public class ShopSyncsFirebaseReference {
      */
     public Task<DataSnapshot> getShoppingItemsWithName(@NonNull String shopSyncUid,
                                                        @NonNull String name) {
-        Log.d("ShopSyncsFirebaseReference", "getShoppingItemsWithName: shop sync uid (" +
-                shopSyncUid + "), name (" + name + ")");
+        Logs.d("ShopSyncsFirebaseReference",
+                "getShoppingItemsWithName: shop sync uid ({}), name ({})", shopSyncUid, name);
         return getShoppingItemsCollection(shopSyncUid).orderByChild(NAME_FIELD).equalTo(name).get();
     }
 
@@ -273,8 +663,9 @@ public class ShopSyncsFirebaseReference {
      */
     public Task<Void> updateShoppingItem(@NonNull String shopSyncUid,
                                          @NonNull ShoppingItemModel updatedShoppingItem) {
-        Log.d("ShopSyncsFirebaseReference", "updateShoppingItem: shop sync uid (" + shopSyncUid +
-                "), updated shopping item (" + updatedShoppingItem + ")");
+        Logs.d("ShopSyncsFirebaseReference",
+                "updateShoppingItem: shop sync uid ({}), updated shopping item ({})", shopSyncUid,
+                updatedShoppingItem);
 
         String uid = updatedShoppingItem.getShoppingItemUid();
         Map<String, Object> shoppingItemValues = updatedShoppingItem.toMap();
@@ -286,16 +677,47 @@ public class ShopSyncsFirebaseReference {
     }
 
     /**
-     * Returns the task that attempts to delete the shopping item with the given uid.
+     * Builds the update that overwrites the shopping item. The path is relative to the root of
+     * the database, so the update can be batched with other writes.
+     *
+     * @param shopSyncUid         the uid of the shop sync
+     * @param updatedShoppingItem the updated shopping item
+     * @return the map of child updates
+     */
+    public Map<String, Object> buildShoppingItemUpdates(
+            @NonNull String shopSyncUid, @NonNull ShoppingItemModel updatedShoppingItem) {
+        Map<String, Object> childUpdates = new HashMap<>();
+        childUpdates.put(shopSyncPath(shopSyncUid) + "/" + SHOPPING_ITEMS_NESTED_COLLECTION + "/" +
+                                 updatedShoppingItem.getShoppingItemUid(),
+                         updatedShoppingItem.toMap());
+        return childUpdates;
+    }
+
+    /**
+     * Returns the task that attempts to delete the shopping item with the given uid. The shopping
+     * item count of the summary is only decremented if this call deleted the shopping item, so
+     * deleting it twice does not count it out twice.
      *
      * @param shopSyncUid the uid of the shop sync
      * @param uid         the uid of the shopping item
      * @return the task that attempts to delete the shopping item with the given uid
      */
     public Task<Void> deleteShoppingItem(@NonNull String shopSyncUid, @NonNull String uid) {
-        Log.d("ShopSyncsFirebaseReference", "deleteShoppingItem: shop sync uid (" + shopSyncUid +
-                "), uid (" + uid + ")");
-        return getShoppingItemsCollection(shopSyncUid).child(uid).removeValue();
+        Logs.d("ShopSyncsFirebaseReference", "deleteShoppingItem: shop sync uid ({}), uid ({})",
+                shopSyncUid, uid);
+
+        return runGuardedUpdate(shopSyncUid, "deleteShoppingItem", snapshots -> {
+            if (snapshots.get(0).getValue() == null) {
+                return null;
+            }
+
+            Map<String, Object> childUpdates = new HashMap<>();
+            childUpdates.put(shopSyncPath(shopSyncUid) + "/" + SHOPPING_ITEMS_NESTED_COLLECTION +
+                                     "/" + uid, null);
+            childUpdates.put(summaryPath(shopSyncUid) + "/" + SHOPPING_ITEM_COUNT_FIELD,
+                             ServerValue.increment(-1));
+            return childUpdates;
+        }, getShoppingItemsCollection(shopSyncUid).child(uid));
     }
 
     /**
@@ -307,8 +729,9 @@ public class ShopSyncsFirebaseReference {
      */
     public void checkIfShoppingBasketExists(@NonNull String shopSyncUid, @NonNull String userUid,
                                             @NonNull Consumer<Boolean> resultConsumer) {
-        Log.d("ShopSyncsFirebaseReference", "checkIfShoppingBasketExists: shop sync uid (" +
-                shopSyncUid + "), user uid (" + userUid + ")");
+        Logs.d("ShopSyncsFirebaseReference",
+                "checkIfShoppingBasketExists: shop sync uid ({}), user uid ({})", shopSyncUid,
+                userUid);
 
         DatabaseReference shoppingBasketsCollection = getShoppingBasketsCollection(shopSyncUid);
         shoppingBasketsCollection.child(userUid).get().addOnCompleteListener(task -> {
@@ -324,7 +747,8 @@ public class ShopSyncsFirebaseReference {
     /**
      * Adds a shopping basket to the shop sync with the given uid, then returns the newly created
      * {@link ShoppingBasketModel}. The uid of the shopping basket is the same as the uid of the
-     * user who owns the shopping basket.
+     * user who owns the shopping basket. A user who already has a shopping basket keeps it and is
+     * not counted as a member again.
      *
      * @param shopSyncUid the uid of the shop sync
      * @param userUid     the uid of the user
@@ -332,19 +756,94 @@ public class ShopSyncsFirebaseReference {
      */
     public ShoppingBasketModel addShoppingBasket(@NonNull String shopSyncUid,
                                                  @NonNull String userUid) {
-        Log.d("ShopSyncsFirebaseReference", "addShoppingBasket: shop sync uid (" + shopSyncUid +
-                "), user uid (" + userUid + ")");
-
-        DatabaseReference shoppingBasketsCollection = getShoppingBasketsCollection(shopSyncUid);
+        Logs.d("ShopSyncsFirebaseReference", "addShoppingBasket: shop sync uid ({}), user uid ({})",
+                shopSyncUid, userUid);
 
         ShoppingBasketModel newShoppingBasket = new ShoppingBasketModel(userUid, new HashMap<>());
-        shoppingBasketsCollection.child(userUid).setValue(newShoppingBasket);
 
-        Log.d("ShopSyncsFirebaseReference", "addShoppingBasket: added shopping basket with " +
-                "uid (" + userUid + ")");
+        // every member owns exactly one shopping basket, so the member count follows the baskets
+        runGuardedUpdate(shopSyncUid, "addShoppingBasket", snapshots -> {
+            if (snapshots.get(0).getValue() != null) {
+                return null;
+            }
+
+            Map<String, Object> childUpdates = new HashMap<>();
+            childUpdates.put(shopSyncPath(shopSyncUid) + "/" + SHOPPING_BASKETS_NESTED_COLLECTION +
+                                     "/" + userUid, newShoppingBasket.toValueMap());
+            childUpdates.put(summaryPath(shopSyncUid) + "/" + MEMBER_COUNT_FIELD,
+                             ServerValue.increment(1));
+            return childUpdates;
+        }, getShoppingBasketsCollection(shopSyncUid).child(userUid));
+
+        Logs.d("ShopSyncsFirebaseReference",
+                "addShoppingBasket: added shopping basket with uid ({})", userUid);
         return newShoppingBasket;
     }
 
+    /**
+     * Returns the task that attempts to add the users with the given uids to the shop sync with
+     * the given uid. The shopping basket of every user is read in a guarded update, and only the
+     * users without one are added: their mappings to the shop sync and an empty shopping basket
+     * are written together with the member count, which grows by the number of users added. The
+     * task completes with the uids of the users that were added; users that were already members
+     * are left untouched.
+     *
+     * @param shopSyncUid the uid of the shop sync
+     * @param userUids    the uids of the users
+     * @return the task that attempts to add the users
+     */
+    public Task<Set<String>> addMembers(@NonNull String shopSyncUid,
+                                        @NonNull Collection<String> userUids) {
+        Logs.d("ShopSyncsFirebaseReference", "addMembers: shop sync uid ({}), user uids {}",
+                shopSyncUid, userUids);
+
+        List<String> invitedUids = new ArrayList<>(new LinkedHashSet<>(userUids));
+        List<DatabaseReference> references = new ArrayList<>();
+        for (String userUid : invitedUids) {
+            references.add(getShoppingBasketsCollection(shopSyncUid).child(userUid));
+        }
+
+        String shopSyncPath = shopSyncPath(shopSyncUid);
+        Set<String> addedUids = new LinkedHashSet<>();
+        Function<List<DataSnapshot>, Map<String, Object>> addition = snapshots -> {
+            addedUids.clear();
+            Map<String, Object> childUpdates = new HashMap<>();
+            for (int i = 0; i < invitedUids.size(); i++) {
+                // a member always has a shopping basket, which must not be replaced
+                if (snapshots.get(i).getValue() != null) {
+                    continue;
+                }
+
+                String userUid = invitedUids.get(i);
+                addedUids.add(userUid);
+                childUpdates.put(UserShopSyncMapFirebaseReference.userToShopSyncPath(
+                        userUid, shopSyncUid), true);
+                childUpdates.put(UserShopSyncMapFirebaseReference.shopSyncToUserPath(
+                        shopSyncUid, userUid), true);
+                childUpdates.put(shopSyncPath + "/" + SHOPPING_BASKETS_NESTED_COLLECTION + "/" +
+                                         userUid,
+                                 new ShoppingBasketModel(userUid, new HashMap<>()).toMap());
+            }
+            if (addedUids.isEmpty()) {
+                return null;
+            }
+
+            childUpdates.put(summaryPath(shopSyncUid) + "/" + MEMBER_COUNT_FIELD,
+                             ServerValue.increment(addedUids.size()));
+            return childUpdates;
+        };
+
+        TaskCompletionSource<Set<String>> taskCompletionSource = new TaskCompletionSource<>();
+        runGuardedUpdate(shopSyncUid, "addMembers", addition, references, 1, exception -> {
+            if (exception == null) {
+                taskCompletionSource.setResult(new LinkedHashSet<>(addedUids));
+            } else {
+                taskCompletionSource.setException(exception);
+            }
+        });
+        return taskCompletionSource.getTask();
+    }
+
     /**
      * Returns the task that attempts to get the shopping basket with the given uid.
      *
@@ -355,8 +854,9 @@ public class ShopSyncsFirebaseReference {
      */
     public Task<DataSnapshot> getShoppingBasketWithUid(@NonNull String shopSyncUid,
                                                        @NonNull String shoppingBasketUid) {
-        Log.d("ShopSyncsFirebaseReference", "getShoppingBasketWithUid: shop sync uid (" +
-                shopSyncUid + "), shopping basket uid (" + shoppingBasketUid + ")");
+        Logs.d("ShopSyncsFirebaseReference",
+                "getShoppingBasketWithUid: shop sync uid ({}), shopping basket uid ({})",
+                shopSyncUid, shoppingBasketUid);
         return getShoppingBasketsCollection(shopSyncUid).child(shoppingBasketUid).get();
     }
 
@@ -369,8 +869,9 @@ public class ShopSyncsFirebaseReference {
      */
     public Task<Void> updateShoppingBasket(@NonNull String shopSyncUid,
                                            @NonNull ShoppingBasketModel updatedShoppingBasket) {
-        Log.d("ShopSyncsFirebaseReference", "updateShoppingBasket: shop sync uid (" + shopSyncUid +
-                "), updated shopping basket (" + updatedShoppingBasket + ")");
+        Logs.d("ShopSyncsFirebaseReference",
+                "updateShoppingBasket: shop sync uid ({}), updated shopping basket ({})",
+                shopSyncUid, updatedShoppingBasket);
 
         String userUid = updatedShoppingBasket.getUid();
         Map<String, Object> shoppingBasketValues = updatedShoppingBasket.toMap();
@@ -391,32 +892,38 @@ public class ShopSyncsFirebaseReference {
     public void deleteShoppingBasket(@NonNull String shopSyncUid, @NonNull String shoppingBasketUid,
                                      @Nullable Runnable onSuccess,
                                      @Nullable Consumer<ErrorHandle> onFailure) {
-        Log.d("ShopSyncsFirebaseReference", "deleteShoppingBasket: shop sync uid (" + shopSyncUid +
-                "), shopping basket uid (" + shoppingBasketUid + ")");
+        Logs.d("ShopSyncsFirebaseReference",
+                "deleteShoppingBasket: shop sync uid ({}), shopping basket uid ({})", shopSyncUid,
+                shoppingBasketUid);
 
         getShoppingBasketWithUid(shopSyncUid, shoppingBasketUid).addOnSuccessListener(data -> {
-            ShoppingBasketModel shoppingBasket = data.getValue(ShoppingBasketModel.class);
+            ShoppingBasketModel shoppingBasket =
+                    SnapshotDecoder.decodeValue(data, ShoppingBasketModel.class);
             if (shoppingBasket == null) {
                 Log.e(TAG, "deleteShoppingBasket: shopping basket is null");
                 return;
             }
 
-            // set corresponding shopping items to not in basket
-            shoppingBasket.getBasketItems()
-                    .forEach((key, basketItem) -> getShoppingItemsCollection(shopSyncUid)
-                            .child(basketItem.getShoppingItemUid()).child("inBasket")
-                            .setValue(false));
-
-            // delete shopping basket
-            getShoppingBasketsCollection(shopSyncUid).child(shoppingBasketUid).removeValue()
-                    .addOnCompleteListener(task -> {
-                        if (task.isSuccessful() && onSuccess != null) {
-                            onSuccess.run();
-                        } else if (onFailure != null) {
-                            onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
-                                                             "Failed to delete shopping basket"));
-                        }
-                    });
+            // set corresponding shopping items to not in basket and delete the shopping basket
+            Map<String, Object> childUpdates = new HashMap<>();
+            if (shoppingBasket.getBasketItems() != null) {
+                shoppingBasket.getBasketItems().values().forEach(basketItem -> childUpdates.put(
+                        shopSyncPath(shopSyncUid) +
+                                shoppingItemInBasketPath(basketItem.getShoppingItemUid()), false));
+            }
+            childUpdates.put(shopSyncPath(shopSyncUid) + "/" + SHOPPING_BASKETS_NESTED_COLLECTION +
+                                     "/" + shoppingBasketUid, null);
+            childUpdates.put(summaryPath(shopSyncUid) + "/" + MEMBER_COUNT_FIELD,
+                             ServerValue.increment(-1));
+
+            rootReference.updateChildren(childUpdates).addOnCompleteListener(task -> {
+                if (task.isSuccessful() && onSuccess != null) {
+                    onSuccess.run();
+                } else if (!task.isSuccessful() && onFailure != null) {
+                    onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                     "Failed to delete shopping basket"));
+                }
+            });
         });
     }
 
@@ -438,62 +945,115 @@ public class ShopSyncsFirebaseReference {
                               @NonNull String shoppingItemUid, long quantity,
                               double pricePerUnit, @Nullable Consumer<BasketItemModel> onSuccess,
                               @Nullable Consumer<ErrorHandle> onFailure) {
-        Log.d(TAG, "addBasketItem: shop sync uid (" + shopSyncUid + "), shopping basket uid " +
-                "(" + shoppingBasketUid + "), shopping item uid (" + shoppingItemUid + "), " +
-                "quantity (" + quantity + "), price per unit (" + pricePerUnit + ")");
-
-        getShoppingBasketWithUid(shopSyncUid, shoppingBasketUid).addOnCompleteListener(task -> {
-            if (task.isSuccessful()) {
-                Log.d(TAG, "addBasketItem: task completed for getting shopping basket");
-
-                DataSnapshot dataSnapshot = task.getResult();
-                ShoppingBasketModel shoppingBasket =
-                        dataSnapshot.getValue(ShoppingBasketModel.class);
-
-                if (shoppingBasket == null) {
-                    Log.e(TAG, "addBasketItem: shopping basket is null");
-                    if (onFailure != null) {
-                        onFailure.accept(new ErrorHandle(ErrorType.ILLEGAL_NULL_VALUE,
-                                                         "Shopping basket is null"));
+        Logs.d(TAG, "addBasketItem: shop sync uid ({}), shopping basket uid ({}), shopping " +
+                "item uid ({}), quantity ({}), price per unit ({})", shopSyncUid, shoppingBasketUid,
+                shoppingItemUid, quantity, pricePerUnit);
+
+        Tracer.Span span = tracer.startSpan("addBasketItem");
+        Consumer<BasketItemModel> tracedOnSuccess = span.ending(onSuccess);
+        Consumer<ErrorHandle> tracedOnFailure = span.ending(onFailure);
+
+        // only the one basket item is read and written, so the payload does not depend on the
+        // size of the shopping basket
+        Task<DataSnapshot> basketItemTask;
+        try (Tracer.Scope ignored = span.makeCurrent()) {
+            basketItemTask = tracer.traceTask(
+                    "getBasketItem",
+                    getBasketItemsCollection(shopSyncUid, shoppingBasketUid)
+                            .child(shoppingItemUid).get());
+        }
+        basketItemTask
+                .addOnCompleteListener(span.completeListener(task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "addBasketItem: failed to get basket item");
+                        tracedOnFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                               "Failed to get basket item"));
+                        return;
                     }
-                    return;
-                }
 
-                // check if basket item already exists
-                if (shoppingBasket.getBasketItems().containsKey(shoppingItemUid)) {
-                    Log.e(TAG, "addBasketItem: basket item already exists");
-                    if (onFailure != null) {
-                        onFailure.accept(new ErrorHandle(ErrorType.ENTITY_ALREADY_EXISTS,
-                                                         "Basket item already exists"));
+                    // check if basket item already exists
+                    DataSnapshot dataSnapshot = task.getResult();
+                    if (dataSnapshot != null && dataSnapshot.exists()) {
+                        Log.e(TAG, "addBasketItem: basket item already exists");
+                        tracedOnFailure.accept(new ErrorHandle(ErrorType.ENTITY_ALREADY_EXISTS,
+                                                               "Basket item already exists"));
+                        return;
                     }
-                    return;
-                }
 
-                // add the basket item to the shopping cart
-                BasketItemModel newBasketItem = new BasketItemModel(
-                        shoppingBasketUid, shoppingItemUid, quantity, pricePerUnit);
-                shoppingBasket.getBasketItems().put(shoppingItemUid, newBasketItem);
-                // update the shopping cart
-                updateShoppingBasket(shopSyncUid, shoppingBasket);
+                    // add the basket item and set the shopping item's "in basket" flag to true
+                    BasketItemModel newBasketItem = new BasketItemModel(
+                            shoppingBasketUid, shoppingItemUid, quantity, pricePerUnit);
+
+                    String shopSyncPath = shopSyncPath(shopSyncUid);
+                    Map<String, Object> childUpdates = new HashMap<>();
+                    childUpdates.put(shopSyncPath + basketItemPath(shoppingBasketUid,
+                                                                   shoppingItemUid),
+                                     newBasketItem.toMap());
+                    childUpdates.put(shopSyncPath + shoppingItemInBasketPath(shoppingItemUid),
+                                     true);
+
+                    tracer.traceTask("writeBasketItem", rootReference.updateChildren(childUpdates))
+                            .addOnCompleteListener(updateTask -> {
+                                if (updateTask.isSuccessful()) {
+                                    Logs.d(TAG, "addBasketItem: successfully added basket item " +
+                                            "to shopping basket");
+                                    tracedOnSuccess.accept(newBasketItem);
+                                } else {
+                                    Log.e(TAG, "addBasketItem: failed to add basket item");
+                                    tracedOnFailure.accept(new ErrorHandle(
+                                            ErrorType.TASK_FAILED,
+                                            "Failed to add basket item"));
+                                }
+                            });
+                }));
+    }
 
-                // set the shopping item's "in basket" flag to true
-                getShoppingItemsCollection(shopSyncUid).child(shoppingItemUid)
-                        .child("inBasket").setValue(true);
+    /**
+     * Returns the task that attempts to update the quantity and price per unit of the basket item.
+     * Only the basket item itself is written, not the shopping basket that contains it.
+     *
+     * @param shopSyncUid       the uid of the shop sync
+     * @param updatedBasketItem the updated basket item
+     * @return the task that attempts to update the basket item
+     */
+    public Task<Void> updateBasketItem(@NonNull String shopSyncUid,
+                                       @NonNull BasketItemModel updatedBasketItem) {
+        Logs.d("ShopSyncsFirebaseReference",
+                "updateBasketItem: shop sync uid ({}), updated basket item ({})", shopSyncUid,
+                updatedBasketItem);
 
-                if (onSuccess != null) {
-                    Log.d(TAG, "addBasketItem: successfully added basket item to shopping basket");
-                    onSuccess.accept(newBasketItem);
-                }
-            } else if (onFailure != null) {
-                onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
-                                                 "Failed to get shopping basket"));
-            }
-        });
+        String shoppingItemUid = updatedBasketItem.getShoppingItemUid();
+        Map<String, Object> basketItemValues = updatedBasketItem.toMap();
+
+        Map<String, Object> childUpdates = new HashMap<>();
+        childUpdates.put("/" + shoppingItemUid, basketItemValues);
+
+        return getBasketItemsCollection(shopSyncUid, updatedBasketItem.getShoppingBasketUid())
+                .updateChildren(childUpdates);
+    }
+
+    /**
+     * Builds the update that overwrites the basket item. The path is relative to the root of the
+     * database, so the update can be batched with other writes.
+     *
+     * @param shopSyncUid       the uid of the shop sync
+     * @param updatedBasketItem the updated basket item
+     * @return the map of child updates
+     */
+    public Map<String, Object> buildBasketItemUpdates(@NonNull String shopSyncUid,
+                                                      @NonNull BasketItemModel updatedBasketItem) {
+        Map<String, Object> childUpdates = new HashMap<>();
+        childUpdates.put(shopSyncPath(shopSyncUid) +
+                                 basketItemPath(updatedBasketItem.getShoppingBasketUid(),
+                                                updatedBasketItem.getShoppingItemUid()),
+                         updatedBasketItem.toMap());
+        return childUpdates;
     }
 
     /**
      * Checks if a purchased item exists for the given shop sync uid and basket item uid. The result
-     * is passed to the given consumer.
+     * is passed to the given consumer. Basket items are keyed by the uid of their shopping item,
+     * so the uid of a basket item is the uid of its shopping item.
      *
      * @param shopSyncUid    the uid of the shop sync
      * @param basketItemUid  the uid of the basket item
@@ -502,11 +1062,13 @@ public class ShopSyncsFirebaseReference {
     public void checkIfPurchasedItemExistsForBasketItem(@NonNull String shopSyncUid,
                                                         @NonNull String basketItemUid,
                                                         @NonNull Consumer<Boolean> resultConsumer) {
-        Log.d("ShopSyncsFirebaseReference", "checkIfPurchasedItemExistsForBasketItem: shop sync " +
-                "uid (" + shopSyncUid + "), basket item uid (" + basketItemUid + ")");
+        Logs.d("ShopSyncsFirebaseReference",
+                "checkIfPurchasedItemExistsForBasketItem: shop sync uid ({}), basket item uid ({})",
+                shopSyncUid, basketItemUid);
 
         DatabaseReference purchasedItemsCollection = getPurchasedItemsCollection(shopSyncUid);
-        purchasedItemsCollection.orderByChild("basketItem/uid").equalTo(basketItemUid)
+        purchasedItemsCollection.orderByChild(PURCHASED_ITEM_BASKET_ITEM_UID_PATH)
+                .equalTo(basketItemUid)
                 .get().addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
                         DataSnapshot dataSnapshot = task.getResult();
@@ -528,11 +1090,12 @@ public class ShopSyncsFirebaseReference {
     public void checkIfPurchasedItemExistsForShoppingItem(@NonNull String shopSyncUid,
                                                           @NonNull String shoppingItemUid,
                                                           @NonNull Consumer<Boolean> resultConsumer) {
-        Log.d("ShopSyncsFirebaseReference", "checkIfPurchasedItemExistsForShoppingItem: shop " +
-                "sync uid (" + shopSyncUid + "), shopping item uid (" + shoppingItemUid + ")");
+        Logs.d("ShopSyncsFirebaseReference", "checkIfPurchasedItemExistsForShoppingItem: shop " +
+                "sync uid ({}), shopping item uid ({})", shopSyncUid, shoppingItemUid);
 
         DatabaseReference purchasedItemsCollection = getPurchasedItemsCollection(shopSyncUid);
-        purchasedItemsCollection.orderByChild("shoppingItem/uid").equalTo(shoppingItemUid)
+        purchasedItemsCollection.orderByChild(PURCHASED_ITEM_SHOPPING_ITEM_UID_PATH)
+                .equalTo(shoppingItemUid)
                 .get().addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
                         DataSnapshot dataSnapshot = task.getResult();
@@ -545,7 +1108,10 @@ public class ShopSyncsFirebaseReference {
 
     /**
      * Adds a purchased item to the shop sync with the given uid, then returns the newly created
-     * {@link PurchasedItemModel}.
+     * {@link PurchasedItemModel}. The shopping item and the basket item are read in the same
+     * guarded update that turns them into the purchased item, so an item that another member
+     * purchased first, or a basket item that was already purchased, fails the call instead of
+     * being counted twice.
      *
      * @param shopSyncUid       the uid of the shop sync
      * @param shoppingBasketUid the uid of the shopping basket that contains the basket item; this
@@ -558,56 +1124,104 @@ public class ShopSyncsFirebaseReference {
                                  @NonNull BasketItemModel basketItem, @NonNull String userEmail,
                                  @Nullable Consumer<PurchasedItemModel> resultConsumer,
                                  @Nullable Consumer<ErrorHandle> onFailure) {
-        Log.d("ShopSyncsFirebaseReference", "addPurchasedItem: shop sync uid (" + shopSyncUid +
-                "), user uid (" + shoppingBasketUid + "), basket item (" + basketItem + ")");
+        Logs.d("ShopSyncsFirebaseReference",
+                "addPurchasedItem: shop sync uid ({}), user uid ({}), basket item ({})",
+                shopSyncUid, shoppingBasketUid, basketItem);
 
-        // get shopping item
-        getShoppingItemWithUid(shopSyncUid, basketItem.getShoppingItemUid())
-                .addOnSuccessListener(shoppingItemData -> {
-                    ShoppingItemModel shoppingItem = shoppingItemData.getValue(
-                            ShoppingItemModel.class);
+        Tracer.Span span = tracer.startSpan("addPurchasedItem");
+        Consumer<PurchasedItemModel> tracedResultConsumer = span.ending(resultConsumer);
+        Consumer<ErrorHandle> tracedOnFailure = span.ending(onFailure);
 
-                    if (shoppingItem == null) {
-                        Log.e(TAG, "addPurchasedItem: shopping item is null");
-                        if (onFailure != null) {
-                            onFailure.accept(new ErrorHandle(ErrorType.ILLEGAL_NULL_VALUE,
-                                                             "Shopping item is null"));
-                        }
-                        return;
-                    }
-
-                    DatabaseReference purchasedItemsCollection =
-                            getPurchasedItemsCollection(shopSyncUid);
-
-                    // generate new uid for the purchased item
-                    String uid = purchasedItemsCollection.push().getKey();
-                    if (uid == null) {
-                        Log.e("ShopSyncsFirebaseReference", "addPurchasedItem: uid is" +
-                                " null");
-                        if (onFailure != null) {
-                            onFailure.accept(new ErrorHandle(ErrorType.ILLEGAL_NULL_VALUE,
-                                                             "Uid for new purchased item is null"));
-                        }
-                        return;
-                    }
+        // generate new uid for the purchased item
+        String uid = getPurchasedItemsCollection(shopSyncUid).push().getKey();
+        if (uid == null) {
+            Log.e("ShopSyncsFirebaseReference", "addPurchasedItem: uid is null");
+            tracedOnFailure.accept(new ErrorHandle(ErrorType.ILLEGAL_NULL_VALUE,
+                                                   "Uid for new purchased item is null"));
+            return;
+        }
 
-                    // delete the corresponding basket item from the shopping basket
-                    deleteBasketItem(shopSyncUid, shoppingBasketUid,
-                                     basketItem.getShoppingItemUid(), onFailure, false);
+        // remove the basket item and the shopping item and create the purchased item in one
+        // atomic write so that a purchase is never left half applied
+        String shoppingItemUid = basketItem.getShoppingItemUid();
+        AtomicReference<PurchasedItemModel> newPurchasedItem = new AtomicReference<>();
+        AtomicReference<ErrorHandle> rejection = new AtomicReference<>();
+        Function<List<DataSnapshot>, Map<String, Object>> purchase = snapshots -> {
+            newPurchasedItem.set(null);
+            rejection.set(null);
+
+            ShoppingItemModel shoppingItem = SnapshotDecoder.decodeValue(
+                    snapshots.get(0), ShoppingItemModel.class);
+            if (shoppingItem == null) {
+                rejection.set(new ErrorHandle(ErrorType.ILLEGAL_NULL_VALUE,
+                                              "Shopping item is null"));
+                return null;
+            }
+            if (snapshots.get(1).getValue() == null) {
+                rejection.set(new ErrorHandle(ErrorType.ILLEGAL_NULL_VALUE,
+                                              "Basket item is null"));
+                return null;
+            }
 
-                    // delete the shopping item
-                    getShoppingItemsCollection(shopSyncUid).child(basketItem.getShoppingItemUid())
-                            .removeValue();
+            newPurchasedItem.set(new PurchasedItemModel(uid, userEmail, shoppingItem, basketItem));
+            return buildPurchaseUpdates(shopSyncUid, shoppingBasketUid, newPurchasedItem.get());
+        };
+
+        List<DatabaseReference> references = List.of(
+                getShoppingItemsCollection(shopSyncUid).child(shoppingItemUid),
+                getBasketItemsCollection(shopSyncUid, shoppingBasketUid).child(shoppingItemUid));
+        try (Tracer.Scope ignored = span.makeCurrent()) {
+            runGuardedUpdate(shopSyncUid, "writePurchase", purchase, references, 1, exception -> {
+                if (exception != null) {
+                    Log.e(TAG, "addPurchasedItem: failed to add purchased item (" + uid + ")",
+                          exception);
+                    tracedOnFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                           "Failed to add purchased item"));
+                } else if (rejection.get() != null) {
+                    Log.e(TAG, "addPurchasedItem: " + rejection.get().errorMessage());
+                    tracedOnFailure.accept(rejection.get());
+                } else {
+                    Logs.d(TAG, "addPurchasedItem: successfully added purchased item ({})", uid);
+                    tracedResultConsumer.accept(newPurchasedItem.get());
+                }
+            });
+        }
+    }
 
-                    // create new purchased item
-                    PurchasedItemModel newPurchasedItem = new PurchasedItemModel(
-                            uid, userEmail, shoppingItem, basketItem);
-                    purchasedItemsCollection.child(uid).setValue(newPurchasedItem);
+    /**
+     * Builds the multi-path update that turns the basket item of the given purchased item into
+     * the purchased item. The paths are relative to the root of the database. The returned map
+     * removes the basket item from the shopping basket, removes the shopping item from the
+     * shopping list, adds the purchased item, updates the counters and the running total of the
+     * shop sync summary, and adds the cost of the purchase to the purchaser's cost ledger entry.
+     * The counters assume that the shopping item and the basket item both exist, so the update
+     * must be built from reads of the same guarded update.
+     *
+     * @param shopSyncUid       the uid of the shop sync
+     * @param shoppingBasketUid the uid of the shopping basket that contains the basket item
+     * @param purchasedItem     the purchased item to add
+     * @return the map of child updates
+     */
+    Map<String, Object> buildPurchaseUpdates(@NonNull String shopSyncUid,
+                                             @NonNull String shoppingBasketUid,
+                                             @NonNull PurchasedItemModel purchasedItem) {
+        String shoppingItemUid = purchasedItem.getBasketItem().getShoppingItemUid();
+        String shopSyncPath = shopSyncPath(shopSyncUid);
+        String summaryPath = summaryPath(shopSyncUid);
 
-                    if (resultConsumer != null) {
-                        resultConsumer.accept(newPurchasedItem);
-                    }
-                });
+        Map<String, Object> childUpdates = new HashMap<>();
+        childUpdates.put(shopSyncPath + basketItemPath(shoppingBasketUid, shoppingItemUid), null);
+        childUpdates.put(shopSyncPath + "/" + SHOPPING_ITEMS_NESTED_COLLECTION + "/" +
+                                 shoppingItemUid, null);
+        childUpdates.put(shopSyncPath + "/" + PURCHASED_ITEMS_NESTED_COLLECTION + "/" +
+                                 purchasedItem.getPurchasedItemUid(), purchasedItem.toMap());
+        childUpdates.put(summaryPath + "/" + SHOPPING_ITEM_COUNT_FIELD, ServerValue.increment(-1));
+        childUpdates.put(summaryPath + "/" + PURCHASED_ITEM_COUNT_FIELD, ServerValue.increment(1));
+        childUpdates.put(summaryPath + "/" + TOTAL_COST_FIELD,
+                         ServerValue.increment(UtilMethods.costOf(purchasedItem)));
+        childUpdates.put(costPath(shopSyncUid, shoppingBasketUid),
+                         ServerValue.increment(UtilMethods.costOf(purchasedItem)));
+        return childUpdates;
     }
 
     /**
@@ -627,59 +1241,264 @@ public class ShopSyncsFirebaseReference {
                                  @NonNull String shoppingItemUid,
                                  @Nullable Consumer<ErrorHandle> onFailure,
                                  boolean updateShoppingItemInBasketStatus) {
-        getShoppingBasketWithUid(shopSyncUid, shoppingBasketUid).addOnCompleteListener(task -> {
-            if (task.isSuccessful()) {
-                DataSnapshot dataSnapshot = task.getResult();
+        Logs.d(TAG, "deleteBasketItem: shop sync uid ({}), shopping basket uid ({}), shopping " +
+                "item uid ({})", shopSyncUid, shoppingBasketUid, shoppingItemUid);
 
-                ShoppingBasketModel shoppingBasket =
-                        dataSnapshot.getValue(ShoppingBasketModel.class);
-                if (shoppingBasket == null) {
-                    Log.e(TAG, "addPurchasedItem: shopping basket is null");
-                    return;
-                }
+        String shopSyncPath = shopSyncPath(shopSyncUid);
+        Map<String, Object> childUpdates = new HashMap<>();
+        childUpdates.put(shopSyncPath + basketItemPath(shoppingBasketUid, shoppingItemUid), null);
+        if (updateShoppingItemInBasketStatus) {
+            childUpdates.put(shopSyncPath + shoppingItemInBasketPath(shoppingItemUid), false);
+        }
 
-                BasketItemModel basketItem = shoppingBasket.getBasketItems()
-                        .remove(shoppingItemUid);
-                updateShoppingBasket(shopSyncUid, shoppingBasket);
-
-                if (updateShoppingItemInBasketStatus && basketItem != null) {
-                    getShoppingItemWithUid(shopSyncUid, basketItem.getShoppingItemUid())
-                            .addOnCompleteListener(shoppingItemTask -> {
-                                if (shoppingItemTask.isSuccessful()) {
-                                    DataSnapshot shoppingItemDataSnapshot =
-                                            shoppingItemTask.getResult();
-                                    if (shoppingItemDataSnapshot == null) {
-                                        Log.e(TAG, "Shopping item data snapshot is null");
-                                        throw new IllegalNullValueException("Shopping item data " +
-                                                                                    "snapshot is " +
-                                                                                    "null");
-                                    }
-
-                                    ShoppingItemModel shoppingItem =
-                                            shoppingItemDataSnapshot.getValue(ShoppingItemModel.class);
-                                    if (shoppingItem == null || shoppingItem.getShoppingItemUid() == null ||
-                                            shoppingItem.getShoppingItemUid().isBlank()) {
-                                        Log.e(TAG, "Shopping item uid is null or blank");
-                                        throw new IllegalNullValueException("Shopping item uid is" +
-                                                                                    " null or " +
-                                                                                    "blank: " + shoppingItem);
-                                    }
-
-                                    shoppingItem.setInBasket(false);
-                                    updateShoppingItem(shopSyncUid, shoppingItem);
-                                }
-                            });
-                }
+        tracer.traceTask("deleteBasketItem", rootReference.updateChildren(childUpdates))
+                .addOnCompleteListener(task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "deleteBasketItem: failed to delete basket item");
+                        if (onFailure != null) {
+                            onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                             "Failed to delete basket item"));
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Returns the task that reads the given nodes and writes the change that the transition
+     * builds from them, together with the updates of the summary and the cost ledger that the
+     * change calls for, in one multi-path update. The update also increments the version of the
+     * shop sync, and the database rules only accept a version one above the stored one, so the
+     * update is rejected if any other guarded update of the shop sync was written since the
+     * version was read. A rejected update is built again from fresh reads, so counters are only
+     * adjusted for changes that are written, and they are written with those changes or not at
+     * all.
+     * <p>
+     * The transition returns the updates, relative to the root of the database, or null if the
+     * nodes are left as they are.
+     *
+     * @param shopSyncUid the uid of the shop sync
+     * @param name        the name of the write, used for tracing
+     * @param transition  the function that builds the updates from the snapshots of the nodes,
+     *                    in the order of the references
+     * @param references  the references to the nodes that the change depends on
+     * @return the task that completes once the updates are written
+     */
+    private Task<Void> runGuardedUpdate(
+            @NonNull String shopSyncUid, @NonNull String name,
+            @NonNull Function<List<DataSnapshot>, Map<String, Object>> transition,
+            @NonNull DatabaseReference... references) {
+        TaskCompletionSource<Void> taskCompletionSource = new TaskCompletionSource<>();
+        runGuardedUpdate(shopSyncUid, name, transition, List.of(references), 1, exception -> {
+            if (exception == null) {
+                taskCompletionSource.setResult(null);
             } else {
-                Log.e(TAG, "addPurchasedItem: failed to get shopping basket");
-                if (onFailure != null) {
-                    onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
-                                                     "Failed to get shopping basket"));
+                taskCompletionSource.setException(exception);
+            }
+        });
+        return taskCompletionSource.getTask();
+    }
+
+    private void runGuardedUpdate(
+            @NonNull String shopSyncUid, @NonNull String name,
+            @NonNull Function<List<DataSnapshot>, Map<String, Object>> transition,
+            @NonNull List<DatabaseReference> references, int attempt,
+            @NonNull Consumer<Exception> onComplete) {
+        // the version is read first, so the nodes are at least as new as the version
+        DatabaseReference versionReference =
+                shopSyncsCollection.child(shopSyncUid).child(VERSION_FIELD);
+        versionReference.get().addOnCompleteListener(versionTask -> {
+            if (!versionTask.isSuccessful()) {
+                Log.e(TAG, "runGuardedUpdate: failed to read the version of shop sync (" +
+                        shopSyncUid + ")", versionTask.getException());
+                onComplete.accept(new TaskFailureException(
+                        versionTask, "Failed to read the version of (" + shopSyncUid + ")"));
+                return;
+            }
+
+            DataSnapshot versionSnapshot = versionTask.getResult();
+            Long version = versionSnapshot == null ? null : versionSnapshot.getValue(Long.class);
+            readAll(references, new ArrayList<>(), snapshots -> {
+                Map<String, Object> updates = transition.apply(snapshots);
+                if (updates == null || updates.isEmpty()) {
+                    onComplete.accept(null);
+                    return;
                 }
+
+                Map<String, Object> guardedUpdates = new HashMap<>(updates);
+                guardedUpdates.put(shopSyncPath(shopSyncUid) + "/" + VERSION_FIELD,
+                                   (version == null ? 0 : version) + 1);
+                tracer.traceTask(name, rootReference.updateChildren(guardedUpdates))
+                        .addOnCompleteListener(task -> {
+                            if (task.isSuccessful()) {
+                                onComplete.accept(null);
+                            } else if (attempt < MAX_GUARDED_UPDATE_ATTEMPTS) {
+                                Logs.d(TAG, "runGuardedUpdate: {} of shop sync ({}) was " +
+                                        "rejected, retrying", name, shopSyncUid);
+                                runGuardedUpdate(shopSyncUid, name, transition, references,
+                                                 attempt + 1, onComplete);
+                            } else {
+                                Log.e(TAG, "runGuardedUpdate: failed to write " + name +
+                                        " of shop sync (" + shopSyncUid + ")",
+                                      task.getException());
+                                onComplete.accept(new TaskFailureException(
+                                        task, "Failed to write " + name + " of (" +
+                                                shopSyncUid + ")"));
+                            }
+                        });
+            }, onComplete);
+        });
+    }
+
+    /**
+     * Reads the nodes one after another and passes their snapshots, in the order of the
+     * references, to the consumer.
+     *
+     * @param references the references to the nodes that are left to read
+     * @param snapshots  the snapshots of the nodes that were read
+     * @param onSuccess  the consumer that accepts the snapshots of all nodes
+     * @param onFailure  the consumer that accepts the exception if a read fails
+     */
+    private static void readAll(@NonNull List<DatabaseReference> references,
+                                @NonNull List<DataSnapshot> snapshots,
+                                @NonNull Consumer<List<DataSnapshot>> onSuccess,
+                                @NonNull Consumer<Exception> onFailure) {
+        if (snapshots.size() == references.size()) {
+            onSuccess.accept(snapshots);
+            return;
+        }
+
+        DatabaseReference reference = references.get(snapshots.size());
+        reference.get().addOnCompleteListener(task -> {
+            if (!task.isSuccessful() || task.getResult() == null) {
+                Log.e(TAG, "readAll: failed to read (" + reference.getKey() + ")",
+                      task.getException());
+                onFailure.accept(new TaskFailureException(
+                        task, "Failed to read (" + reference.getKey() + ")"));
+                return;
             }
+
+            snapshots.add(task.getResult());
+            readAll(references, snapshots, onSuccess, onFailure);
         });
     }
 
+    /**
+     * Returns the path of the shop sync relative to the root of the database.
+     *
+     * @param shopSyncUid the uid of the shop sync
+     * @return the path of the shop sync
+     */
+    private static String shopSyncPath(@NonNull String shopSyncUid) {
+        return "/" + SHOP_SYNCS_COLLECTION + "/" + shopSyncUid;
+    }
+
+    /**
+     * Returns the path of the shop sync summary relative to the root of the database.
+     *
+     * @param shopSyncUid the uid of the shop sync
+     * @return the path of the shop sync summary
+     */
+    private static String summaryPath(@NonNull String shopSyncUid) {
+        return "/" + SHOP_SYNC_SUMMARIES_COLLECTION + "/" + shopSyncUid;
+    }
+
+    private static void putIncrement(@NonNull Map<String, Object> childUpdates,
+                                     @NonNull String path, double delta) {
+        // sums of the same costs in another order may differ in the last bits
+        if (Math.abs(delta) > COST_EPSILON) {
+            childUpdates.put(path, ServerValue.increment(delta));
+        }
+    }
+
+    private static void putIncrement(@NonNull Map<String, Object> childUpdates,
+                                     @NonNull String path, long delta) {
+        if (delta != 0) {
+            childUpdates.put(path, ServerValue.increment(delta));
+        }
+    }
+
+    /**
+     * Returns the path of the cost ledger of the shop sync relative to the root of the database.
+     *
+     * @param shopSyncUid the uid of the shop sync
+     * @return the path of the cost ledger
+     */
+    private static String costsPath(@NonNull String shopSyncUid) {
+        return "/" + COSTS_COLLECTION + "/" + shopSyncUid;
+    }
+
+    /**
+     * Returns the path of the cost ledger entry of the user relative to the root of the database.
+     *
+     * @param shopSyncUid the uid of the shop sync
+     * @param userUid     the uid of the user
+     * @return the path of the cost ledger entry
+     */
+    private static String costPath(@NonNull String shopSyncUid, @NonNull String userUid) {
+        return costsPath(shopSyncUid) + "/" + userUid;
+    }
+
+    /**
+     * Decodes the purchased item that the snapshot holds.
+     *
+     * @param snapshot the snapshot of the purchased item
+     * @return the purchased item, or null if the purchased item does not exist
+     */
+    private static @Nullable PurchasedItemModel decodePurchasedItem(
+            @NonNull DataSnapshot snapshot) {
+        Map<String, Object> value = asMap(snapshot.getValue());
+        return value == null ? null : PurchasedItemModel.of(value);
+    }
+
+    /**
+     * Returns the value of a node as a map.
+     *
+     * @param value the value of the node
+     * @return the value as a map, or null if the node does not hold children
+     */
+    @SuppressWarnings("unchecked")
+    private static @Nullable Map<String, Object> asMap(@Nullable Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    /**
+     * Returns the uid of the user that purchased the item, which is the uid of the shopping
+     * basket the item was purchased from.
+     *
+     * @param purchasedItem the purchased item
+     * @return the uid of the purchaser, or null if it is unknown
+     */
+    private static @Nullable String purchaserOf(@Nullable PurchasedItemModel purchasedItem) {
+        if (purchasedItem == null || purchasedItem.getBasketItem() == null) {
+            return null;
+        }
+        return purchasedItem.getBasketItem().getShoppingBasketUid();
+    }
+
+    /**
+     * Returns the path of the basket item relative to its shop sync.
+     *
+     * @param shoppingBasketUid the uid of the shopping basket
+     * @param shoppingItemUid   the uid of the shopping item
+     * @return the path of the basket item
+     */
+    private static String basketItemPath(@NonNull String shoppingBasketUid,
+                                         @NonNull String shoppingItemUid) {
+        return "/" + SHOPPING_BASKETS_NESTED_COLLECTION + "/" + shoppingBasketUid + "/" +
+                BASKET_ITEMS_NESTED_COLLECTION + "/" + shoppingItemUid;
+    }
+
+    /**
+     * Returns the path of the "in basket" flag of the shopping item relative to its shop sync.
+     *
+     * @param shoppingItemUid the uid of the shopping item
+     * @return the path of the "in basket" flag
+     */
+    private static String shoppingItemInBasketPath(@NonNull String shoppingItemUid) {
+        return "/" + SHOPPING_ITEMS_NESTED_COLLECTION + "/" + shoppingItemUid + "/" +
+                IN_BASKET_FIELD;
+    }
+
     /**
      * Returns the task that attempts to get the purchased item with the given uid.
      *
@@ -689,8 +1508,8 @@ public class ShopSyncsFirebaseReference {
      */
     public Task<DataSnapshot> getPurchasedItemWithUid(@NonNull String shopSyncUid,
                                                       @NonNull String uid) {
-        Log.d("ShopSyncsFirebaseReference", "getPurchasedItemWithUid: shop sync uid (" +
-                shopSyncUid + "), uid (" + uid + ")");
+        Logs.d("ShopSyncsFirebaseReference",
+                "getPurchasedItemWithUid: shop sync uid ({}), uid ({})", shopSyncUid, uid);
         return getPurchasedItemsCollection(shopSyncUid).child(uid).get();
     }
 
@@ -701,14 +1520,48 @@ public class ShopSyncsFirebaseReference {
      * @return the task that attempts to get the purchased items with the given shop sync uid
      */
     public Task<DataSnapshot> getPurchasedItemsWithShopSyncUid(String shopSyncUid) {
-        Log.d("ShopSyncsFirebaseReference", "getPurchasedItemsWithShopSyncUid: shop sync uid (" +
-                shopSyncUid + ")");
+        Logs.d("ShopSyncsFirebaseReference", "getPurchasedItemsWithShopSyncUid: shop sync uid ({})",
+                shopSyncUid);
         return getPurchasedItemsCollection(shopSyncUid).get();
     }
 
+    /**
+     * Returns the task that attempts to get a page of the purchased items of the shop sync with
+     * the given uid. Pages are ordered by key, newest first, like the pages of shopping items.
+     *
+     * @param shopSyncUid  the uid of the shop sync
+     * @param endBeforeKey the key of the oldest purchased item of the previous page, or null to
+     *                     get the first page
+     * @param pageSize     the maximum number of purchased items in the page
+     * @return the task that attempts to get the page, whose children are in ascending key order
+     */
+    public Task<DataSnapshot> getPurchasedItemsPage(@NonNull String shopSyncUid,
+                                                    @Nullable String endBeforeKey, int pageSize) {
+        Logs.d("ShopSyncsFirebaseReference",
+                "getPurchasedItemsPage: shop sync uid ({}), end before key ({}), page size ({})",
+                shopSyncUid, endBeforeKey, pageSize);
+        return pageQuery(getPurchasedItemsCollection(shopSyncUid), endBeforeKey, pageSize).get();
+    }
+
+    /**
+     * Returns the query over the purchased items of the shop sync with the given uid whose keys
+     * are in the given range. Used to listen to the purchased items of the loaded pages only.
+     *
+     * @param shopSyncUid  the uid of the shop sync
+     * @param startAtKey   the smallest key in the range, or null for no lower bound
+     * @param endBeforeKey the key right after the range, or null for no upper bound
+     * @return the query over the purchased items in the range
+     */
+    public Query getPurchasedItemsWindow(@NonNull String shopSyncUid,
+                                         @Nullable String startAtKey,
+                                         @Nullable String endBeforeKey) {
+        return windowQuery(getPurchasedItemsCollection(shopSyncUid), startAtKey, endBeforeKey);
+    }
+
     /**
      * Returns the task that attempts to get the purchased items with the given shop sync uid
-     * and user uid.
+     * and user uid. A purchased item belongs to the user whose shopping basket it was bought
+     * from, and the uid of a shopping basket is the uid of its user.
      *
      * @param shopSyncUid the uid of the shop sync
      * @param userUid     the uid of the user
@@ -716,14 +1569,18 @@ public class ShopSyncsFirebaseReference {
      */
     public Task<DataSnapshot> getPurchasedItemsWithUserUid(@NonNull String shopSyncUid,
                                                            @NonNull String userUid) {
-        Log.d("ShopSyncsFirebaseReference", "getPurchasedItemsWithUserUid: shop sync uid (" +
-                shopSyncUid + "), user uid (" + userUid + ")");
-        return getPurchasedItemsCollection(shopSyncUid).orderByChild(USER_UID_FIELD)
+        Logs.d("ShopSyncsFirebaseReference",
+                "getPurchasedItemsWithUserUid: shop sync uid ({}), user uid ({})", shopSyncUid,
+                userUid);
+        return getPurchasedItemsCollection(shopSyncUid).orderByChild(PURCHASED_ITEM_USER_UID_PATH)
                 .equalTo(userUid).get();
     }
 
     /**
-     * Returns the task that attempts to update the purchased item.
+     * Returns the task that attempts to update the purchased item. The purchased item is replaced
+     * in a guarded update that also adjusts the summary and the cost ledger by the difference
+     * between the replaced value and the updated one, so concurrent edits of the same purchased
+     * item are each applied to the totals exactly once.
      *
      * @param shopSyncUid          the uid of the shop sync
      * @param updatedPurchasedItem the updated purchased item
@@ -731,20 +1588,48 @@ public class ShopSyncsFirebaseReference {
      */
     public Task<Void> updatePurchasedItem(@NonNull String shopSyncUid,
                                           @NonNull PurchasedItemModel updatedPurchasedItem) {
-        Log.d("ShopSyncsFirebaseReference", "updatePurchasedItem: shop sync uid (" + shopSyncUid +
-                "), updated purchased item (" + updatedPurchasedItem + ")");
+        Logs.d("ShopSyncsFirebaseReference",
+                "updatePurchasedItem: shop sync uid ({}), updated purchased item ({})", shopSyncUid,
+                updatedPurchasedItem);
 
         String uid = updatedPurchasedItem.getPurchasedItemUid();
-        Map<String, Object> purchasedItemValues = updatedPurchasedItem.toMap();
-
-        Map<String, Object> childUpdates = new HashMap<>();
-        childUpdates.put("/" + uid, purchasedItemValues);
-
-        return getPurchasedItemsCollection(shopSyncUid).updateChildren(childUpdates);
+        return runGuardedUpdate(shopSyncUid, "updatePurchasedItem", snapshots -> {
+            // the replaced value is needed to adjust the running total of the summary
+            PurchasedItemModel oldPurchasedItem = decodePurchasedItem(snapshots.get(0));
+
+            String summaryPath = summaryPath(shopSyncUid);
+            Map<String, Object> childUpdates = new HashMap<>();
+            childUpdates.put(shopSyncPath(shopSyncUid) + "/" + PURCHASED_ITEMS_NESTED_COLLECTION +
+                                     "/" + uid, updatedPurchasedItem.toMap());
+            if (oldPurchasedItem == null) {
+                childUpdates.put(summaryPath + "/" + PURCHASED_ITEM_COUNT_FIELD,
+                                 ServerValue.increment(1));
+            }
+            childUpdates.put(summaryPath + "/" + TOTAL_COST_FIELD,
+                             ServerValue.increment(UtilMethods.costOf(updatedPurchasedItem) -
+                                                   UtilMethods.costOf(oldPurchasedItem)));
+
+            // the purchaser may change, so the old cost and the new cost are applied separately
+            Map<String, Double> costChanges = new HashMap<>();
+            String oldPurchaser = purchaserOf(oldPurchasedItem);
+            if (oldPurchaser != null) {
+                costChanges.merge(oldPurchaser, -UtilMethods.costOf(oldPurchasedItem), Double::sum);
+            }
+            String newPurchaser = purchaserOf(updatedPurchasedItem);
+            if (newPurchaser != null) {
+                costChanges.merge(newPurchaser, UtilMethods.costOf(updatedPurchasedItem),
+                                  Double::sum);
+            }
+            costChanges.forEach((userUid, change) -> childUpdates.put(
+                    costPath(shopSyncUid, userUid), ServerValue.increment(change)));
+            return childUpdates;
+        }, getPurchasedItemsCollection(shopSyncUid).child(uid));
     }
 
     /**
-     * Returns the task that attempts to delete the purchased item with the given uid.
+     * Returns the task that attempts to delete the purchased item with the given uid. The
+     * purchased item is deleted in a guarded update, and the summary and the cost ledger are only
+     * adjusted if this call deleted it.
      *
      * @param shopSyncUid      the uid of the shop sync
      * @param purchasedItemUid the uid of the purchased item
@@ -752,9 +1637,32 @@ public class ShopSyncsFirebaseReference {
      */
     public Task<Void> deletePurchasedItem(@NonNull String shopSyncUid,
                                           @NonNull String purchasedItemUid) {
-        Log.d("ShopSyncsFirebaseReference", "deletePurchasedItem: shop sync uid (" + shopSyncUid +
-                "), uid (" + purchasedItemUid + ")");
-        return getPurchasedItemsCollection(shopSyncUid).child(purchasedItemUid).removeValue();
+        Logs.d("ShopSyncsFirebaseReference", "deletePurchasedItem: shop sync uid ({}), uid ({})",
+                shopSyncUid, purchasedItemUid);
+
+        return runGuardedUpdate(shopSyncUid, "deletePurchasedItem", snapshots -> {
+            // the deleted value is needed to adjust the running total of the summary
+            PurchasedItemModel purchasedItem = decodePurchasedItem(snapshots.get(0));
+            if (purchasedItem == null) {
+                return null;
+            }
+
+            String summaryPath = summaryPath(shopSyncUid);
+            Map<String, Object> childUpdates = new HashMap<>();
+            childUpdates.put(shopSyncPath(shopSyncUid) + "/" + PURCHASED_ITEMS_NESTED_COLLECTION +
+                                     "/" + purchasedItemUid, null);
+            childUpdates.put(summaryPath + "/" + PURCHASED_ITEM_COUNT_FIELD,
+                             ServerValue.increment(-1));
+            childUpdates.put(summaryPath + "/" + TOTAL_COST_FIELD,
+                             ServerValue.increment(-UtilMethods.costOf(purchasedItem)));
+
+            String purchaser = purchaserOf(purchasedItem);
+            if (purchaser != null) {
+                childUpdates.put(costPath(shopSyncUid, purchaser),
+                                 ServerValue.increment(-UtilMethods.costOf(purchasedItem)));
+            }
+            return childUpdates;
+        }, getPurchasedItemsCollection(shopSyncUid).child(purchasedItemUid));
     }
 
     /**
@@ -764,9 +1672,42 @@ public class ShopSyncsFirebaseReference {
      * @return the task that attempts to delete all purchased items with the given shop sync uid
      */
     public Task<Void> deleteAllPurchasedItems(@NonNull String shopSyncUid) {
-        Log.d("ShopSyncsFirebaseReference",
-              "deleteAllPurchasedItems: shop sync uid (" + shopSyncUid + ")");
-        return getPurchasedItemsCollection(shopSyncUid).removeValue();
+        Logs.d("ShopSyncsFirebaseReference", "deleteAllPurchasedItems: shop sync uid ({})",
+                shopSyncUid);
+
+        String summaryPath = summaryPath(shopSyncUid);
+        Map<String, Object> childUpdates = new HashMap<>();
+        childUpdates.put(shopSyncPath(shopSyncUid) + "/" + PURCHASED_ITEMS_NESTED_COLLECTION, null);
+        childUpdates.put(summaryPath + "/" + PURCHASED_ITEM_COUNT_FIELD, 0);
+        childUpdates.put(summaryPath + "/" + TOTAL_COST_FIELD, 0);
+
+        // the emptied ledger is complete, so it is not backfilled again
+        childUpdates.put(costsPath(shopSyncUid), Map.of(COSTS_BACKFILLED_FIELD, true));
+
+        return rootReference.updateChildren(childUpdates);
+    }
+
+    private static Query pageQuery(@NonNull DatabaseReference collection,
+                                   @Nullable String endBeforeKey, int pageSize) {
+        // push ids grow with time, so the last keys are the newest children
+        Query query = collection.orderByKey();
+        if (endBeforeKey != null) {
+            query = query.endBefore(endBeforeKey);
+        }
+        return query.limitToLast(pageSize);
+    }
+
+    private static Query windowQuery(@NonNull DatabaseReference collection,
+                                     @Nullable String startAtKey,
+                                     @Nullable String endBeforeKey) {
+        Query query = collection.orderByKey();
+        if (startAtKey != null) {
+            query = query.startAt(startAtKey);
+        }
+        if (endBeforeKey != null) {
+            query = query.endBefore(endBeforeKey);
+        }
+        return query;
     }
 
 }
\ No newline at end of file
@@ -9,19 +9,26 @@ import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import javax.inject.Inject;
 
+import edu.uga.cs.shopsync.utils.Logs;
+
 /**
- * Firebase reference for user to shop syncs map.
+ * Firebase reference for user to shop syncs map. The mapping is kept in both directions, and both
+ * sides of a mapping are always removed in the same multi-path update.
  */
 public class UserShopSyncMapFirebaseReference {
 
     private static final String TAG = "UserShopSyncsMapFirebaseReference";
-    private static final String USER_TO_SHOP_SYNCS_MAP = "user_to_shop_syncs_map";
-    private static final String SHOP_SYNC_TO_USERS_MAP = "shop_sync_to_users_map";
+    public static final String USER_TO_SHOP_SYNCS_MAP = "user_to_shop_syncs_map";
+    public static final String SHOP_SYNC_TO_USERS_MAP = "shop_sync_to_users_map";
 
     private final DatabaseReference userToShopSyncsMapReference;
     private final DatabaseReference shopSyncToUsersMapReference;
+    private final DatabaseReference rootReference;
 
     /**
      * Constructs a new UserShopSyncsMapFirebaseReference. Empty constructor required for
@@ -33,19 +40,50 @@ public class UserShopSyncMapFirebaseReference {
                 .getReference(USER_TO_SHOP_SYNCS_MAP);
         shopSyncToUsersMapReference = FirebaseDatabase.getInstance()
                 .getReference(SHOP_SYNC_TO_USERS_MAP);
-        Log.d(TAG, "UserShopSyncsMapFirebaseReference: created");
+        rootReference = FirebaseDatabase.getInstance().getReference();
+        Logs.d(TAG, "UserShopSyncsMapFirebaseReference: created");
     }
 
     /**
      * Constructs a new UserShopSyncsMapFirebaseReference. Used for testing only.
      *
      * @param userToShopSyncsMapReference the reference to the user to shop syncs map
+     * @param shopSyncToUsersMapReference the reference to the shop sync to users map
+     * @param rootReference               the reference to the root of the database, used for
+     *                                    multi-path updates
      */
     UserShopSyncMapFirebaseReference(@NonNull DatabaseReference userToShopSyncsMapReference,
-                                     @NonNull DatabaseReference shopSyncToUsersMapReference) {
+                                     @NonNull DatabaseReference shopSyncToUsersMapReference,
+                                     @NonNull DatabaseReference rootReference) {
         this.userToShopSyncsMapReference = userToShopSyncsMapReference;
         this.shopSyncToUsersMapReference = shopSyncToUsersMapReference;
-        Log.d(TAG, "UserShopSyncsMapFirebaseReference: created");
+        this.rootReference = rootReference;
+        Logs.d(TAG, "UserShopSyncsMapFirebaseReference: created");
+    }
+
+    /**
+     * Returns the path, from the root of the database, of the shop sync in the shop syncs of the
+     * user.
+     *
+     * @param userUid     the user id
+     * @param shopSyncUid the shop sync id
+     * @return the path of the mapping from the user to the shop sync
+     */
+    public static String userToShopSyncPath(@NonNull String userUid,
+                                            @NonNull String shopSyncUid) {
+        return "/" + USER_TO_SHOP_SYNCS_MAP + "/" + userUid + "/" + shopSyncUid;
+    }
+
+    /**
+     * Returns the path, from the root of the database, of the user in the users of the shop sync.
+     *
+     * @param shopSyncUid the shop sync id
+     * @param userUid     the user id
+     * @return the path of the mapping from the shop sync to the user
+     */
+    public static String shopSyncToUserPath(@NonNull String shopSyncUid,
+                                            @NonNull String userUid) {
+        return "/" + SHOP_SYNC_TO_USERS_MAP + "/" + shopSyncUid + "/" + userUid;
     }
 
     /**
@@ -55,8 +93,8 @@ public class UserShopSyncMapFirebaseReference {
      * @param shopSyncId the shop sync id
      */
     public void addShopSyncToUser(@NonNull String userId, @NonNull String shopSyncId) {
-        Log.d(TAG, "addShopSyncToUser: adding user (" + userId + ") and shop sync (" + shopSyncId
-                + ") mappings");
+        Logs.d(TAG, "addShopSyncToUser: adding user ({}) and shop sync ({}) mappings",
+                userId, shopSyncId);
         userToShopSyncsMapReference.child(userId).child(shopSyncId).setValue(true);
         shopSyncToUsersMapReference.child(shopSyncId).child(userId).setValue(true);
     }
@@ -68,8 +106,8 @@ public class UserShopSyncMapFirebaseReference {
      * @return the task that attempts to get the shop syncs associated with the given user id
      */
     public Task<DataSnapshot> getShopSyncsAssociatedWithUser(@NonNull String userUid) {
-        Log.d(TAG, "getShopSyncsAssociatedWithUser: getting shop syncs associated with user ("
-                + userUid + ")");
+        Logs.d(TAG, "getShopSyncsAssociatedWithUser: getting shop syncs associated with user ({})",
+                userUid);
         return userToShopSyncsMapReference.child(userUid).get();
     }
 
@@ -80,8 +118,8 @@ public class UserShopSyncMapFirebaseReference {
      * @return the task that attempts to get the users associated with the given shop sync id
      */
     public Task<DataSnapshot> getUsersAssociatedWithShopSync(@NonNull String shopSyncUid) {
-        Log.d(TAG, "getUsersAssociatedWithShopSync: getting users associated with shop sync ("
-                + shopSyncUid + ")");
+        Logs.d(TAG, "getUsersAssociatedWithShopSync: getting users associated with shop sync ({})",
+                shopSyncUid);
         return shopSyncToUsersMapReference.child(shopSyncUid).get();
     }
 
@@ -92,37 +130,38 @@ public class UserShopSyncMapFirebaseReference {
      * @param shopSyncId the shop sync id
      */
     public void removeUserShopSyncMapping(@NonNull String userId, @NonNull String shopSyncId) {
-        Log.d(TAG, "removeUserShopSyncMapping: removing user (" + userId + ") and shop sync ("
-                + shopSyncId + ") mappings");
+        Logs.d(TAG, "removeUserShopSyncMapping: removing user ({}) and shop sync ({}) mappings",
+                userId, shopSyncId);
         userToShopSyncsMapReference.child(userId).child(shopSyncId).removeValue();
         shopSyncToUsersMapReference.child(shopSyncId).child(userId).removeValue();
     }
 
     /**
-     * Removes all shop sync mappings for the user.
+     * Removes all shop sync mappings for the user. The mappings are read first, then both sides of
+     * every mapping are removed in one multi-path update.
      *
      * @param userId the user id
      */
     public void removeUser(@NonNull String userId) {
-        Log.d(TAG, "removeUser: removing all shop sync mappings for user (" + userId + ")");
+        Logs.d(TAG, "removeUser: removing all shop sync mappings for user ({})", userId);
 
         // get all shop syncs associated with the user and delete the mappings
         getShopSyncsAssociatedWithUser(userId).addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
                 DataSnapshot dataSnapshot = task.getResult();
 
-                // for each shop sync associated with the user, remove the user from the shop sync
+                // remove the user from every shop sync and the user's own side of the map
+                Map<String, Object> childUpdates = new HashMap<>();
                 for (DataSnapshot shopSyncSnapshot : dataSnapshot.getChildren()) {
                     String shopSyncUid = shopSyncSnapshot.getKey();
                     if (shopSyncUid != null) {
-                        removeUserShopSyncMapping(userId, shopSyncUid);
+                        childUpdates.put(shopSyncToUserPath(shopSyncUid, userId), null);
                     }
                 }
+                childUpdates.put("/" + USER_TO_SHOP_SYNCS_MAP + "/" + userId, null);
+                rootReference.updateChildren(childUpdates);
 
-                // remove the user from the user to shop syncs map
-                userToShopSyncsMapReference.child(userId).removeValue();
-
-                Log.d(TAG, "removeUser: successfully removed all shop sync mappings for user");
+                Logs.d(TAG, "removeUser: removing {} paths for user", childUpdates.size());
             } else {
                 Log.e(TAG, "removeUser: failed to get shop syncs associated with user",
                       task.getException());
@@ -131,31 +170,33 @@ public class UserShopSyncMapFirebaseReference {
     }
 
     /**
-     * Removes all user mappings for the shop sync.
+     * Removes all user mappings for the shop sync. The mappings are read first, then both sides of
+     * every mapping are removed in one multi-path update. To delete the shop sync itself in the
+     * same update, use
+     * {@link ShopSyncsFirebaseReference#deleteShopSync(String, java.util.Collection)}.
      *
      * @param shopSyncUid the shop sync uid
      */
     public void removeShopSync(@NonNull String shopSyncUid) {
-        Log.d(TAG, "removeShopSync: removing all user mappings for shop sync (" + shopSyncUid +
-                ")");
+        Logs.d(TAG, "removeShopSync: removing all user mappings for shop sync ({})", shopSyncUid);
 
         // get all users associated with the shop sync and delete the mappings
         getUsersAssociatedWithShopSync(shopSyncUid).addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
                 DataSnapshot dataSnapshot = task.getResult();
 
-                // for each user associated with the shop sync, remove the shop sync from the user
+                // remove the shop sync from every user and the shop sync's own side of the map
+                Map<String, Object> childUpdates = new HashMap<>();
                 for (DataSnapshot userSnapshot : dataSnapshot.getChildren()) {
                     String userId = userSnapshot.getKey();
                     if (userId != null) {
-                        removeUserShopSyncMapping(userId, shopSyncUid);
+                        childUpdates.put(userToShopSyncPath(userId, shopSyncUid), null);
                     }
                 }
+                childUpdates.put("/" + SHOP_SYNC_TO_USERS_MAP + "/" + shopSyncUid, null);
+                rootReference.updateChildren(childUpdates);
 
-                // remove the shop sync from the shop sync to users map
-                shopSyncToUsersMapReference.child(shopSyncUid).removeValue();
-
-                Log.d(TAG, "removeShopSync: successfully removed all user mappings for shop sync");
+                Logs.d(TAG, "removeShopSync: removing {} paths for shop sync", childUpdates.size());
             } else {
                 Log.e(TAG, "removeShopSync: failed to get users associated with shop sync",
                       task.getException());
@@ -16,7 +16,14 @@ import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ValueEventListener;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import javax.inject.Inject;
@@ -28,6 +35,7 @@ import edu.uga.cs.shopsync.backend.exceptions.UserAlreadyExistsException;
 import edu.uga.cs.shopsync.backend.models.UserProfileModel;
 import edu.uga.cs.shopsync.utils.ErrorHandle;
 import edu.uga.cs.shopsync.utils.ErrorType;
+import edu.uga.cs.shopsync.utils.Logs;
 
 /**
  * Provides methods to modify the firebase auth instance and the user profile collection.
@@ -38,32 +46,67 @@ public class UsersFirebaseReference {
     private static final String TAG = "UsersFirebaseReference";
     public static final String USER_PROFILES_COLLECTION = "user_profiles";
     public static final String USER_EMAIL_FIELD = "email";
+    public static final String EMAIL_INDEX_COLLECTION = "email_index";
 
     private final FirebaseAuth firebaseAuth;
+    private final DatabaseReference rootReference;
     private final DatabaseReference usersCollection;
+    private final DatabaseReference emailIndexCollection;
 
     /**
      * Constructs a new UsersFirebaseReference. Empty constructor required for injection. Uses the
-     * default firebase auth instance and the user_profiles collection.
+     * default firebase auth instance, the user_profiles collection and the email_index collection.
      */
     @Inject
     public UsersFirebaseReference() {
         firebaseAuth = FirebaseAuth.getInstance();
+        rootReference = FirebaseDatabase.getInstance().getReference();
         usersCollection = FirebaseDatabase.getInstance().getReference(USER_PROFILES_COLLECTION);
-        Log.d(TAG, "UsersFirebaseReference: created");
+        emailIndexCollection =
+                FirebaseDatabase.getInstance().getReference(EMAIL_INDEX_COLLECTION);
+        Logs.d(TAG, "UsersFirebaseReference: created");
     }
 
     /**
-     * Package-private constructor for testing only. Uses the given firebase auth instance and the
-     * user_profiles collection.
+     * Package-private constructor for testing only. Uses the given firebase auth instance, the
+     * user_profiles collection and the email_index collection.
      *
-     * @param firebaseAuth    the firebase auth instance
-     * @param usersCollection the user_profiles collection
+     * @param firebaseAuth         the firebase auth instance
+     * @param rootReference        the reference to the root of the database, used for multi-path
+     *                             updates
+     * @param usersCollection      the user_profiles collection
+     * @param emailIndexCollection the email_index collection
      */
     UsersFirebaseReference(@NonNull FirebaseAuth firebaseAuth,
-                           @NonNull DatabaseReference usersCollection) {
+                           @NonNull DatabaseReference rootReference,
+                           @NonNull DatabaseReference usersCollection,
+                           @NonNull DatabaseReference emailIndexCollection) {
         this.firebaseAuth = firebaseAuth;
+        this.rootReference = rootReference;
         this.usersCollection = usersCollection;
+        this.emailIndexCollection = emailIndexCollection;
+    }
+
+    /**
+     * Returns the key of the email in the email_index collection. Emails are compared without
+     * case and surrounding whitespace, and the characters that are not allowed in database keys
+     * are percent-encoded.
+     *
+     * @param email the email
+     * @return the key of the email
+     */
+    public static @NonNull String normalizeEmail(@NonNull String email) {
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder(normalized.length() + 8);
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            switch (c) {
+                case '%', '.', '#', '$', '[', ']', '/' ->
+                        key.append('%').append(String.format(Locale.ROOT, "%02X", (int) c));
+                default -> key.append(c);
+            }
+        }
+        return key.toString();
     }
 
     /**
@@ -78,7 +121,8 @@ public class UsersFirebaseReference {
     /**
      * Attempts to create a new user and add a user profile model to the user_profiles collection.
      * If the username already exists, the task will fail. If the task succeeds, the user will be
-     * signed in automatically.
+     * signed in automatically. The profile and the email_index entry of the user are written in a
+     * single multi-path update, so a user is never left without its index entry.
      *
      * @param email     the user's email address
      * @param username  the user's username
@@ -90,13 +134,13 @@ public class UsersFirebaseReference {
                            @Nullable Consumer<UserProfileModel> onSuccess,
                            @Nullable Consumer<ErrorHandle> onError)
             throws TaskFailureException, UserAlreadyExistsException, IllegalNullValueException {
-        Log.d(TAG, "createUser: creating user with email " + email);
+        Logs.d(TAG, "createUser: creating user with email {}", email);
 
-        getUserProfileWithEmail(email).addOnCompleteListener(_checkIfExistsTask -> {
-            Log.d(TAG, "createUser: task to check if username exists is complete");
+        getUserUidWithEmail(email).addOnCompleteListener(_checkIfExistsTask -> {
+            Logs.d(TAG, "createUser: task to check if username exists is complete");
 
             if (_checkIfExistsTask.isSuccessful()) {
-                Log.d(TAG, "createUser: task to check if username exists is complete");
+                Logs.d(TAG, "createUser: task to check if username exists is complete");
                 DataSnapshot dataSnapshot = _checkIfExistsTask.getResult();
 
                 // the data snapshot object should not be null
@@ -112,7 +156,8 @@ public class UsersFirebaseReference {
                 }
 
                 // if the data snapshot exists, a user with the provided email already exists and
-                // the task should fail
+                // the task should fail; profiles that were never indexed are caught by firebase
+                // auth, which rejects emails that are already in use
                 if (dataSnapshot.exists()) {
                     Log.e(TAG, "createUser: user already exists with the email: " + email);
                     if (onError != null) {
@@ -129,7 +174,8 @@ public class UsersFirebaseReference {
                         .createUserWithEmailAndPassword(email, password)
                         .addOnCompleteListener(_createUserTask -> {
                             if (_createUserTask.isSuccessful()) {
-                                Log.d(TAG, "createUser: successfully created user with username " +
+                                Logs.d(TAG,
+                                        "createUser: successfully created user with username {}",
                                         username);
                                 FirebaseUser user = firebaseAuth.getCurrentUser();
 
@@ -142,19 +188,15 @@ public class UsersFirebaseReference {
                                                                                 " creation");
                                 }
 
-                                // add the user profile to the user_profiles collection
+                                // add the user profile to the user_profiles collection and the
+                                // email to the email_index collection in one update
                                 String userUid = user.getUid();
                                 String userEmail = user.getEmail();
                                 UserProfileModel userProfileModel = new UserProfileModel(
                                         userUid, userEmail, username);
-                                usersCollection.child(userUid).setValue(userProfileModel);
-
-                                Log.d(TAG, "createUser: created user with username " + username);
-
-                                // run the on success runnable if it is not null
-                                if (onSuccess != null) {
-                                    onSuccess.accept(userProfileModel);
-                                }
+                                insertUserProfile(userProfileModel,
+                                                  userEmail != null ? userEmail : email,
+                                                  onSuccess, onError);
                             } else {
                                 // if the task to create the user fails, throw an exception
                                 Log.e(TAG,
@@ -179,7 +221,9 @@ public class UsersFirebaseReference {
     }
 
     /**
-     * Attempts to sing in the user with the given email and password.
+     * Attempts to sing in the user with the given email and password. Once the user is signed in,
+     * its email is added to the email_index collection, which backfills the entry for users that
+     * were created before the collection existed.
      *
      * @param email    the user's email
      * @param password the user's password
@@ -187,8 +231,10 @@ public class UsersFirebaseReference {
      */
     public @NonNull Task<AuthResult> signInUser(@NonNull String email,
                                                 @NonNull String password) {
-        Log.d(TAG, "signInUser: signing in user with email " + email);
-        return firebaseAuth.signInWithEmailAndPassword(email, password);
+        Logs.d(TAG, "signInUser: signing in user with email {}", email);
+        Task<AuthResult> signInTask = firebaseAuth.signInWithEmailAndPassword(email, password);
+        signInTask.addOnSuccessListener(authResult -> indexCurrentUserEmail());
+        return signInTask;
     }
 
     /**
@@ -197,7 +243,7 @@ public class UsersFirebaseReference {
      * @return if there is a user currently signed in.
      */
     public boolean isCurrentUserSignedIn() {
-        Log.d(TAG, "isCurrentUserSignedIn: checking if current user is signed in");
+        Logs.d(TAG, "isCurrentUserSignedIn: checking if current user is signed in");
         return getCurrentFirebaseUser() != null;
     }
 
@@ -208,7 +254,7 @@ public class UsersFirebaseReference {
      * @return the task that fetches the user profile.
      */
     public @NonNull Task<DataSnapshot> getUserProfileWithUid(@NonNull String userUid) {
-        Log.d(TAG, "getUserProfileWithUid: getting user profile with uid (" + userUid + ")");
+        Logs.d(TAG, "getUserProfileWithUid: getting user profile with uid ({})", userUid);
         return usersCollection.child(userUid).get();
     }
 
@@ -219,10 +265,89 @@ public class UsersFirebaseReference {
      * @return the task that fetches the user profile.
      */
     public Task<DataSnapshot> getUserProfileWithEmail(@NonNull String email) {
-        Log.d(TAG, "getUserProfileWithEmail: getting user profile with email (" + email + ")");
+        Logs.d(TAG, "getUserProfileWithEmail: getting user profile with email ({})", email);
         return usersCollection.orderByChild(USER_EMAIL_FIELD).equalTo(email).get();
     }
 
+    /**
+     * Returns the task that fetches the uid of the user with the given email from the email_index
+     * collection. The snapshot does not exist if no user with the email is indexed.
+     *
+     * @param email the user's email.
+     * @return the task that fetches the uid of the user.
+     */
+    public @NonNull Task<DataSnapshot> getUserUidWithEmail(@NonNull String email) {
+        Logs.d(TAG, "getUserUidWithEmail: getting user uid with email ({})", email);
+        return emailIndexCollection.child(normalizeEmail(email)).get();
+    }
+
+    /**
+     * Resolves the emails to the uids of their users. Every distinct email is looked up by key in
+     * the email_index collection, and all lookups run at the same time. Emails that are not
+     * indexed, which is the case for profiles created before the collection existed whose users
+     * have not signed in since, are looked up in the user_profiles collection instead. The entry
+     * itself is only ever written by the user it belongs to.
+     *
+     * @param emails    the emails to resolve
+     * @param onSuccess the consumer that consumes the map from every email that belongs to a user
+     *                  to the uid of the user; emails that belong to no user are left out
+     * @param onFailure the consumer that consumes the error if a lookup fails
+     */
+    public void resolveEmails(@NonNull Collection<String> emails,
+                              @NonNull Consumer<Map<String, String>> onSuccess,
+                              @Nullable Consumer<ErrorHandle> onFailure) {
+        Set<String> distinctEmails = new LinkedHashSet<>(emails);
+        Logs.d(TAG, "resolveEmails: resolving {} emails", distinctEmails.size());
+
+        Map<String, String> userUids = new HashMap<>();
+        if (distinctEmails.isEmpty()) {
+            onSuccess.accept(userUids);
+            return;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(distinctEmails.size());
+        AtomicBoolean failed = new AtomicBoolean(false);
+        Consumer<Boolean> onLookupComplete = successful -> {
+            if (failed.get()) {
+                return;
+            }
+            if (!successful) {
+                failed.set(true);
+                if (onFailure != null) {
+                    onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                     "Failed to resolve emails"));
+                }
+                return;
+            }
+            if (remaining.decrementAndGet() == 0) {
+                Logs.d(TAG, "resolveEmails: resolved {} of {} emails",
+                        userUids.size(), distinctEmails.size());
+                onSuccess.accept(userUids);
+            }
+        };
+
+        for (String email : distinctEmails) {
+            getUserUidWithEmail(email).addOnCompleteListener(task -> {
+                DataSnapshot snapshot = task.isSuccessful() ? task.getResult() : null;
+                if (snapshot == null) {
+                    Log.e(TAG, "resolveEmails: failed to look up email (" + email + ")",
+                          task.getException());
+                    onLookupComplete.accept(false);
+                    return;
+                }
+
+                String userUid = snapshot.getValue(String.class);
+                if (userUid != null) {
+                    userUids.put(email, userUid);
+                    onLookupComplete.accept(true);
+                    return;
+                }
+
+                resolveUnindexedEmail(email, userUids, onLookupComplete);
+            });
+        }
+    }
+
     /**
      * Updates the user profile with the given user profile model.
      *
@@ -230,8 +355,8 @@ public class UsersFirebaseReference {
      * @noinspection UnusedReturnValue
      */
     public @NonNull Task<Void> updateUserProfile(@NonNull UserProfileModel userProfileModel) {
-        Log.d(TAG, "updateUserProfile: updating user profile with uid (" +
-                userProfileModel.getUserUid() + ")");
+        Logs.d(TAG, "updateUserProfile: updating user profile with uid ({})",
+                userProfileModel.getUserUid());
         return usersCollection.child(userProfileModel.getUserUid()).setValue(userProfileModel);
     }
 
@@ -242,11 +367,11 @@ public class UsersFirebaseReference {
      * @return the task that fetches the user profile of the current user.
      */
     public @Nullable Task<DataSnapshot> getCurrentUserProfile() {
-        Log.d(TAG, "getCurrentUserProfile: getting current user profile");
+        Logs.d(TAG, "getCurrentUserProfile: getting current user profile");
 
         FirebaseUser user = getCurrentFirebaseUser();
         if (user == null) {
-            Log.d(TAG, "getCurrentUserProfile: current user is not signed in");
+            Logs.d(TAG, "getCurrentUserProfile: current user is not signed in");
             return null;
         }
 
@@ -266,7 +391,7 @@ public class UsersFirebaseReference {
      * Signs out the current user.
      */
     public void signOut() {
-        Log.d(TAG, "signOut: signing out current user");
+        Logs.d(TAG, "signOut: signing out current user");
         firebaseAuth.signOut();
     }
 
@@ -279,7 +404,7 @@ public class UsersFirebaseReference {
      */
     public String deleteCurrentUser(@NonNull String password, @Nullable Runnable onSuccess,
                                     @Nullable Runnable onFailure) {
-        Log.d(TAG, "deleteCurrentUser: deleting user");
+        Logs.d(TAG, "deleteCurrentUser: deleting user");
 
         FirebaseUser user = getCurrentFirebaseUser();
         if (user == null) {
@@ -302,7 +427,7 @@ public class UsersFirebaseReference {
     public void changeUserPassword(@NonNull String oldPassword, @NonNull String newPassword,
                                    @Nullable Runnable onUpdatePassword,
                                    @Nullable Runnable onFailureToAuthenticate) {
-        Log.d(TAG, "changeUserPassword: changing user password");
+        Logs.d(TAG, "changeUserPassword: changing user password");
 
         FirebaseUser user = getCurrentFirebaseUser();
         if (user == null) {
@@ -327,15 +452,84 @@ public class UsersFirebaseReference {
         return EmailAuthProvider.getCredential(email, password);
     }
 
+    private void insertUserProfile(@NonNull UserProfileModel userProfileModel,
+                                   @NonNull String email,
+                                   @Nullable Consumer<UserProfileModel> onSuccess,
+                                   @Nullable Consumer<ErrorHandle> onError) {
+        String userUid = userProfileModel.getUserUid();
+        Map<String, Object> childUpdates = new HashMap<>();
+        childUpdates.put("/" + USER_PROFILES_COLLECTION + "/" + userUid, userProfileModel);
+        childUpdates.put("/" + EMAIL_INDEX_COLLECTION + "/" + normalizeEmail(email), userUid);
+
+        rootReference.updateChildren(childUpdates).addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                Logs.d(TAG, "insertUserProfile: created user with username {}",
+                        userProfileModel.getUsername());
+                if (onSuccess != null) {
+                    onSuccess.accept(userProfileModel);
+                }
+            } else {
+                Log.e(TAG, "insertUserProfile: failed to insert user profile with uid (" +
+                        userUid + ")", task.getException());
+                if (onError != null) {
+                    onError.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                   "Failed to insert user profile"));
+                }
+            }
+        });
+    }
+
+    private void indexCurrentUserEmail() {
+        FirebaseUser user = getCurrentFirebaseUser();
+        String email = user != null ? user.getEmail() : null;
+        if (email == null) {
+            return;
+        }
+
+        // writing the uid again is a no-op for users that are already indexed
+        Logs.d(TAG, "indexCurrentUserEmail: indexing email of user with uid ({})", user.getUid());
+        emailIndexCollection.child(normalizeEmail(email)).setValue(user.getUid());
+    }
+
+    private void resolveUnindexedEmail(@NonNull String email,
+                                       @NonNull Map<String, String> userUids,
+                                       @NonNull Consumer<Boolean> onLookupComplete) {
+        Logs.d(TAG, "resolveUnindexedEmail: email ({}) is not indexed", email);
+
+        getUserProfileWithEmail(email).addOnCompleteListener(task -> {
+            DataSnapshot snapshot = task.isSuccessful() ? task.getResult() : null;
+            if (snapshot == null) {
+                Log.e(TAG, "resolveUnindexedEmail: failed to look up email (" + email + ")",
+                      task.getException());
+                onLookupComplete.accept(false);
+                return;
+            }
+
+            // there should only be one profile with the email
+            for (DataSnapshot child : snapshot.getChildren()) {
+                String userUid = child.getKey();
+                if (userUid != null) {
+                    userUids.put(email, userUid);
+                    break;
+                }
+            }
+            onLookupComplete.accept(true);
+        });
+    }
+
     private void deleteUser(@NonNull FirebaseUser user, @Nullable Runnable onSuccess,
                             @Nullable Runnable onFailure) {
-        Log.d(TAG, "deleteUser: deleting user with uid (" + user.getUid() + ")");
+        Logs.d(TAG, "deleteUser: deleting user with uid ({})", user.getUid());
 
         user.delete().addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
-                // remove the user account and profile
+                // remove the user account, profile and email index entry
                 usersCollection.child(user.getUid()).removeValue();
-                Log.d(TAG, "User account and profile deleted.");
+                String email = user.getEmail();
+                if (email != null) {
+                    emailIndexCollection.child(normalizeEmail(email)).removeValue();
+                }
+                Logs.d(TAG, "User account and profile deleted.");
 
                 if (onSuccess != null) {
                     onSuccess.run();
@@ -351,7 +545,7 @@ public class UsersFirebaseReference {
     private void reauthenticateAndRun(@NonNull FirebaseUser user, @NonNull String password,
                                       @Nullable Runnable onSuccess, @Nullable Runnable onFailure)
             throws IllegalNullValueException {
-        Log.d(TAG, "reauthenticateAndRun: re-authenticating user with uid (" + user.getUid() + ")");
+        Logs.d(TAG, "reauthenticateAndRun: re-authenticating user with uid ({})", user.getUid());
 
         String email = user.getEmail();
         if (email == null) {
@@ -362,8 +556,9 @@ public class UsersFirebaseReference {
         AuthCredential credential = getCredential(email, password);
         user.reauthenticate(credential).addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
-                Log.d(TAG, "reauthenticateAndRun: successfully re-authenticated user with uid (" +
-                        user.getUid() + ")");
+                Logs.d(TAG,
+                        "reauthenticateAndRun: successfully re-authenticated user with uid ({})",
+                        user.getUid());
                 if (onSuccess != null) {
                     onSuccess.run();
                 }
@@ -380,8 +575,8 @@ public class UsersFirebaseReference {
                                                  @NonNull String newPassword,
                                                  @Nullable Runnable onUpdatePassword,
                                                  @Nullable Runnable onFailureToAuthenticate) {
-        Log.d(TAG, "reauthenticateAndUpdatePassword: re-authenticating and updating password " +
-                "for user with uid (" + user.getUid() + ")");
+        Logs.d(TAG, "reauthenticateAndUpdatePassword: re-authenticating and updating password " +
+                "for user with uid ({})", user.getUid());
         reauthenticateAndRun(user, oldPassword, () -> updatePassword(user, newPassword,
                                                                      onUpdatePassword),
                              onFailureToAuthenticate);
@@ -389,7 +584,7 @@ public class UsersFirebaseReference {
 
     private void updatePassword(@NonNull FirebaseUser user, @NonNull String newPassword,
                                 @Nullable Runnable onUpdatePassword) {
-        Log.d(TAG, "updatePassword: updating password for user with uid (" + user.getUid() + ")");
+        Logs.d(TAG, "updatePassword: updating password for user with uid ({})", user.getUid());
         Task<Void> updatePasswordTask = user.updatePassword(newPassword);
         if (onUpdatePassword != null) {
             updatePasswordTask.addOnCompleteListener(t -> onUpdatePassword.run());
@@ -36,6 +36,19 @@ public class BasketItemModel {
         return map;
     }
 
+    public static BasketItemModel of(@NonNull Map<String, Object> map) {
+        BasketItemModel basketItem = new BasketItemModel();
+        basketItem.fromMap(map);
+        return basketItem;
+    }
+
+    public void fromMap(@NonNull Map<String, Object> map) {
+        shoppingBasketUid = ModelMaps.asString(map.get("shoppingBasketUid"), shoppingBasketUid);
+        shoppingItemUid = ModelMaps.asString(map.get("shoppingItemUid"), shoppingItemUid);
+        quantity = ModelMaps.asLong(map.get("quantity"), quantity);
+        pricePerUnit = ModelMaps.asDouble(map.get("pricePerUnit"), pricePerUnit);
+    }
+
     public String getShoppingBasketUid() {
         return shoppingBasketUid;
     }
@@ -0,0 +1,150 @@
+package edu.uga.cs.shopsync.backend.models;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Helpers for the {@code fromMap} methods of the models. The maps are either read from the
+ * database, in which case nested models are maps and whole numbers are longs, or built by
+ * {@code toMap}, in which case nested models may already be models.
+ */
+final class ModelMaps {
+
+    private ModelMaps() {
+    }
+
+    /**
+     * Returns the value as a map, or null if it is not a map.
+     *
+     * @param value the value
+     * @return the map, or null
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> asMap(@Nullable Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    /**
+     * Returns the value as a string, or the default value if it is not a string.
+     *
+     * @param value        the value
+     * @param defaultValue the default value
+     * @return the string, or the default value
+     */
+    static String asString(@Nullable Object value, String defaultValue) {
+        return value instanceof String s ? s : defaultValue;
+    }
+
+    /**
+     * Returns the value as a long, or the default value if it is not a number.
+     *
+     * @param value        the value
+     * @param defaultValue the default value
+     * @return the long, or the default value
+     */
+    static long asLong(@Nullable Object value, long defaultValue) {
+        return value instanceof Number n ? n.longValue() : defaultValue;
+    }
+
+    /**
+     * Returns the value as a double, or the default value if it is not a number. The database
+     * returns whole numbers as longs, even if they were written as doubles.
+     *
+     * @param value        the value
+     * @param defaultValue the default value
+     * @return the double, or the default value
+     */
+    static double asDouble(@Nullable Object value, double defaultValue) {
+        return value instanceof Number n ? n.doubleValue() : defaultValue;
+    }
+
+    /**
+     * Returns the value as a boolean, or the default value if it is not a boolean.
+     *
+     * @param value        the value
+     * @param defaultValue the default value
+     * @return the boolean, or the default value
+     */
+    static boolean asBoolean(@Nullable Object value, boolean defaultValue) {
+        return value instanceof Boolean b ? b : defaultValue;
+    }
+
+    /**
+     * Returns the value as a model, or null if it is neither a model nor a map.
+     *
+     * @param value   the value
+     * @param type    the type of the model
+     * @param decoder the function that decodes a map to a model
+     * @param <T>     the type of the model
+     * @return the model, or null
+     */
+    @Nullable
+    static <T> T asModel(@Nullable Object value, @NonNull Class<T> type,
+                         @NonNull Function<Map<String, Object>, T> decoder) {
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+
+        Map<String, Object> map = asMap(value);
+        return map == null ? null : decoder.apply(map);
+    }
+
+    /**
+     * Returns the value as a map of models, or null if it is not a map. Children that are
+     * neither models nor maps are skipped.
+     *
+     * @param value   the value
+     * @param type    the type of the models
+     * @param decoder the function that decodes a map to a model
+     * @param <T>     the type of the models
+     * @return the map of models, or null
+     */
+    @Nullable
+    static <T> Map<String, T> asModelMap(@Nullable Object value, @NonNull Class<T> type,
+                                         @NonNull Function<Map<String, Object>, T> decoder) {
+        Map<String, Object> children = asMap(value);
+        if (children == null) {
+            return null;
+        }
+
+        // sized up front so the map is never rehashed while it is filled
+        Map<String, T> models = new HashMap<>((int) (children.size() / 0.75f) + 1);
+        for (Map.Entry<String, Object> child : children.entrySet()) {
+            T model = asModel(child.getValue(), type, decoder);
+            if (model != null) {
+                models.put(child.getKey(), model);
+            }
+        }
+        return models;
+    }
+
+    /**
+     * Returns the models as a map of plain values, the way they are stored in the database, or
+     * null if there are no models.
+     *
+     * @param models  the models, keyed by their uid
+     * @param encoder the function that converts a model to a map of plain values
+     * @param <T>     the type of the models
+     * @return the map of plain values, or null
+     */
+    @Nullable
+    static <T> Map<String, Object> toValueMaps(@Nullable Map<String, T> models,
+                                               @NonNull Function<T, Map<String, Object>> encoder) {
+        if (models == null) {
+            return null;
+        }
+
+        Map<String, Object> values = new HashMap<>((int) (models.size() / 0.75f) + 1);
+        for (Map.Entry<String, T> model : models.entrySet()) {
+            values.put(model.getKey(), model.getValue() == null ? null :
+                    encoder.apply(model.getValue()));
+        }
+        return values;
+    }
+
+}
@@ -41,6 +41,31 @@ public class PurchasedItemModel {
         return map;
     }
 
+    public static PurchasedItemModel of(@NonNull Map<String, Object> map) {
+        PurchasedItemModel purchasedItem = new PurchasedItemModel();
+        purchasedItem.fromMap(map);
+        return purchasedItem;
+    }
+
+    public void fromMap(@NonNull Map<String, Object> map) {
+        purchasedItemUid = ModelMaps.asString(map.get("purchasedItemUid"), purchasedItemUid);
+        userEmail = ModelMaps.asString(map.get("userEmail"), userEmail);
+
+        ShoppingItemModel _shoppingItem = ModelMaps.asModel(map.get("shoppingItem"),
+                                                            ShoppingItemModel.class,
+                                                            ShoppingItemModel::of);
+        if (_shoppingItem != null) {
+            shoppingItem = _shoppingItem;
+        }
+
+        BasketItemModel _basketItem = ModelMaps.asModel(map.get("basketItem"),
+                                                        BasketItemModel.class,
+                                                        BasketItemModel::of);
+        if (_basketItem != null) {
+            basketItem = _basketItem;
+        }
+    }
+
     public String getPurchasedItemUid() {
         return purchasedItemUid;
     }
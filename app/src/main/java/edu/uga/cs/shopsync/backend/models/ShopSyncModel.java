@@ -46,36 +46,54 @@ public class ShopSyncModel {
         return result;
     }
 
-    @SuppressWarnings("unchecked")
-    public void fromMap(@NonNull Map<String, Object> map) {
-        String _uid = (String) map.get("uid");
-        if (_uid != null) {
-            uid = _uid;
-        }
-
-        String _name = (String) map.get("name");
-        if (_name != null) {
-            name = _name;
-        }
+    /**
+     * Returns the shop sync as a map of plain values, including all of its nested collections,
+     * the way it is stored in the database. Unlike {@link #toMap()}, no model instances are
+     * shared with the shop sync, so the map can be kept as the baseline of later edits.
+     *
+     * @return the shop sync as a map of plain values
+     */
+    public Map<String, Object> toValueMap() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("uid", uid);
+        result.put("name", name);
+        result.put("description", description);
+        result.put("shoppingItems", ModelMaps.toValueMaps(shoppingItems,
+                                                          ShoppingItemModel::toMap));
+        result.put("shoppingBaskets", ModelMaps.toValueMaps(shoppingBaskets,
+                                                            ShoppingBasketModel::toValueMap));
+        result.put("purchasedItems", ModelMaps.toValueMaps(purchasedItems,
+                                                           PurchasedItemModel::toMap));
+        return result;
+    }
 
-        String _description = (String) map.get("description");
-        if (_description != null) {
-            description = _description;
-        }
+    public static ShopSyncModel of(@NonNull Map<String, Object> map) {
+        ShopSyncModel shopSync = new ShopSyncModel();
+        shopSync.fromMap(map);
+        return shopSync;
+    }
 
-        Object _shoppingItems = map.get("shoppingItems");
-        if (_shoppingItems instanceof Map) {
-            shoppingItems = (Map<String, ShoppingItemModel>) _shoppingItems;
+    public void fromMap(@NonNull Map<String, Object> map) {
+        uid = ModelMaps.asString(map.get("uid"), uid);
+        name = ModelMaps.asString(map.get("name"), name);
+        description = ModelMaps.asString(map.get("description"), description);
+
+        Map<String, ShoppingItemModel> _shoppingItems = ModelMaps.asModelMap(
+                map.get("shoppingItems"), ShoppingItemModel.class, ShoppingItemModel::of);
+        if (_shoppingItems != null) {
+            shoppingItems = _shoppingItems;
         }
 
-        Object _shoppingBaskets = map.get("shoppingBaskets");
-        if (_shoppingBaskets instanceof Map) {
-            shoppingBaskets = (Map<String, ShoppingBasketModel>) _shoppingBaskets;
+        Map<String, ShoppingBasketModel> _shoppingBaskets = ModelMaps.asModelMap(
+                map.get("shoppingBaskets"), ShoppingBasketModel.class, ShoppingBasketModel::of);
+        if (_shoppingBaskets != null) {
+            shoppingBaskets = _shoppingBaskets;
         }
 
-        Object _purchasedItems = map.get("purchasedItems");
-        if (_purchasedItems instanceof Map) {
-            purchasedItems = (Map<String, PurchasedItemModel>) _purchasedItems;
+        Map<String, PurchasedItemModel> _purchasedItems = ModelMaps.asModelMap(
+                map.get("purchasedItems"), PurchasedItemModel.class, PurchasedItemModel::of);
+        if (_purchasedItems != null) {
+            purchasedItems = _purchasedItems;
         }
     }
 
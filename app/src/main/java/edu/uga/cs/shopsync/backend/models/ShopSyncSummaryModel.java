@@ -0,0 +1,132 @@
+package edu.uga.cs.shopsync.backend.models;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public class ShopSyncSummaryModel {
+
+    private String uid;
+    private String name;
+    private String description;
+    private long memberCount;
+    private long shoppingItemCount;
+    private long purchasedItemCount;
+    private double totalCost;
+
+    public ShopSyncSummaryModel() {
+        uid = null;
+        name = null;
+        description = null;
+        memberCount = 0;
+        shoppingItemCount = 0;
+        purchasedItemCount = 0;
+        totalCost = 0;
+    }
+
+    public ShopSyncSummaryModel(String uid, String name, String description, long memberCount,
+                                long shoppingItemCount, long purchasedItemCount,
+                                double totalCost) {
+        this.uid = uid;
+        this.name = name;
+        this.description = description;
+        this.memberCount = memberCount;
+        this.shoppingItemCount = shoppingItemCount;
+        this.purchasedItemCount = purchasedItemCount;
+        this.totalCost = totalCost;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("uid", uid);
+        map.put("name", name);
+        map.put("description", description);
+        map.put("memberCount", memberCount);
+        map.put("shoppingItemCount", shoppingItemCount);
+        map.put("purchasedItemCount", purchasedItemCount);
+        map.put("totalCost", totalCost);
+        return map;
+    }
+
+    public String getUid() {
+        return uid;
+    }
+
+    public void setUid(String uid) {
+        this.uid = uid;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public long getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(long memberCount) {
+        this.memberCount = memberCount;
+    }
+
+    public long getShoppingItemCount() {
+        return shoppingItemCount;
+    }
+
+    public void setShoppingItemCount(long shoppingItemCount) {
+        this.shoppingItemCount = shoppingItemCount;
+    }
+
+    public long getPurchasedItemCount() {
+        return purchasedItemCount;
+    }
+
+    public void setPurchasedItemCount(long purchasedItemCount) {
+        this.purchasedItemCount = purchasedItemCount;
+    }
+
+    public double getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(double totalCost) {
+        this.totalCost = totalCost;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(uid);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ShopSyncSummaryModel s && s.uid != null && s.uid.equals(uid);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "ShopSyncSummaryModel{" +
+                "uid='" + uid + '\'' +
+                ", name='" + name + '\'' +
+                ", description='" + description + '\'' +
+                ", memberCount=" + memberCount +
+                ", shoppingItemCount=" + shoppingItemCount +
+                ", purchasedItemCount=" + purchasedItemCount +
+                ", totalCost=" + totalCost +
+                '}';
+    }
+}
@@ -27,6 +27,36 @@ public class ShoppingBasketModel {
         return result;
     }
 
+    /**
+     * Returns the shopping basket as a map of plain values, including its basket items, the way
+     * it is stored in the database. Unlike {@link #toMap()}, no model instances are shared with
+     * the shopping basket.
+     *
+     * @return the shopping basket as a map of plain values
+     */
+    public Map<String, Object> toValueMap() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("uid", uid);
+        result.put("basketItems", ModelMaps.toValueMaps(basketItems, BasketItemModel::toMap));
+        return result;
+    }
+
+    public static ShoppingBasketModel of(@NonNull Map<String, Object> map) {
+        ShoppingBasketModel shoppingBasket = new ShoppingBasketModel();
+        shoppingBasket.fromMap(map);
+        return shoppingBasket;
+    }
+
+    public void fromMap(@NonNull Map<String, Object> map) {
+        uid = ModelMaps.asString(map.get("uid"), uid);
+
+        Map<String, BasketItemModel> _basketItems = ModelMaps.asModelMap(
+                map.get("basketItems"), BasketItemModel.class, BasketItemModel::of);
+        if (_basketItems != null) {
+            basketItems = _basketItems;
+        }
+    }
+
     public String getUid() {
         return uid;
     }
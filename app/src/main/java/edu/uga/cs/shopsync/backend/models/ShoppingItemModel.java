@@ -31,21 +31,16 @@ public class ShoppingItemModel {
         return map;
     }
 
-    public void fromMap(Map<String, Object> map) {
-        String _shoppingItemUid = (String) map.get("shoppingItemUid");
-        if (_shoppingItemUid != null) {
-            shoppingItemUid = _shoppingItemUid;
-        }
-
-        String _name = (String) map.get("name");
-        if (_name != null) {
-            name = _name;
-        }
-
-        Object _inBasket = map.get("inBasket");
-        if (_inBasket instanceof Boolean) {
-            inBasket = (Boolean) _inBasket;
-        }
+    public static ShoppingItemModel of(@NonNull Map<String, Object> map) {
+        ShoppingItemModel shoppingItem = new ShoppingItemModel();
+        shoppingItem.fromMap(map);
+        return shoppingItem;
+    }
+
+    public void fromMap(@NonNull Map<String, Object> map) {
+        shoppingItemUid = ModelMaps.asString(map.get("shoppingItemUid"), shoppingItemUid);
+        name = ModelMaps.asString(map.get("name"), name);
+        inBasket = ModelMaps.asBoolean(map.get("inBasket"), inBasket);
     }
 
     public String getShoppingItemUid() {
@@ -0,0 +1,65 @@
+package edu.uga.cs.shopsync.backend.services;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of inviting users to a shop sync, which holds the outcome of every invited email in
+ * the order in which the emails were given.
+ *
+ * @param shopSyncUid the uid of the shop sync
+ * @param outcomes    the outcome of every invited email
+ */
+public record InvitationResult(@NonNull String shopSyncUid,
+                               @NonNull Map<String, Outcome> outcomes) {
+
+    /**
+     * The outcome of inviting a single email.
+     */
+    public enum Outcome {
+
+        /**
+         * The user was added to the shop sync.
+         */
+        INVITED,
+
+        /**
+         * The user was already a member of the shop sync and was left as is.
+         */
+        ALREADY_MEMBER,
+
+        /**
+         * No user has the email.
+         */
+        NOT_FOUND
+    }
+
+    /**
+     * Returns the emails that have the given outcome, in the order in which they were given.
+     *
+     * @param outcome the outcome
+     * @return the emails with the outcome
+     */
+    public @NonNull List<String> getEmailsWithOutcome(@NonNull Outcome outcome) {
+        List<String> emails = new ArrayList<>();
+        outcomes.forEach((email, emailOutcome) -> {
+            if (emailOutcome == outcome) {
+                emails.add(email);
+            }
+        });
+        return emails;
+    }
+
+    /**
+     * Returns whether at least one user was added to the shop sync.
+     *
+     * @return true if at least one user was added
+     */
+    public boolean hasInvitedUsers() {
+        return outcomes.containsValue(Outcome.INVITED);
+    }
+
+}
@@ -0,0 +1,384 @@
+package edu.uga.cs.shopsync.backend.services;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.DataSnapshot;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import edu.uga.cs.shopsync.utils.ErrorHandle;
+import edu.uga.cs.shopsync.utils.ErrorType;
+import edu.uga.cs.shopsync.utils.Histogram;
+
+/**
+ * Records how the operations of the services perform: the latency of every successful call, the
+ * number of failed calls by error type, and the size of the data that the calls read or write.
+ * Recording does not lock, so it can be done from the main thread and the decode threads alike.
+ * <p>
+ * Payload sizes are estimated as the length of the JSON that the database transfers for the
+ * value. Estimating a size walks the whole value, so only one in {@link #PAYLOAD_SAMPLE_INTERVAL}
+ * payloads of an operation is measured.
+ * <p>
+ * The metrics are kept in memory for the lifetime of the process and can be written to logcat or
+ * a file on demand.
+ */
+@Singleton
+public class ServiceMetrics {
+
+    private static final String TAG = "ServiceMetrics";
+
+    /**
+     * The number of payloads of an operation of which one is measured.
+     */
+    public static final int PAYLOAD_SAMPLE_INTERVAL = 8;
+
+    // returned for operations that were never called, so that reading does not add them
+    private static final OperationMetrics NO_METRICS = new OperationMetrics();
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final int payloadSampleInterval;
+
+    /**
+     * Constructs a new ServiceMetrics that measures time with the elapsed realtime clock.
+     */
+    @Inject
+    public ServiceMetrics() {
+        this(SystemClock::elapsedRealtimeNanos, PAYLOAD_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Constructs a new ServiceMetrics. Used for testing only.
+     *
+     * @param clock                 the clock that returns the current time in nanoseconds
+     * @param payloadSampleInterval the number of payloads of an operation of which one is
+     *                              measured
+     */
+    ServiceMetrics(@NonNull LongSupplier clock, int payloadSampleInterval) {
+        this.clock = clock;
+        this.payloadSampleInterval = payloadSampleInterval;
+    }
+
+    /**
+     * Returns the time at which a call starts, to be passed to the methods that record the end of
+     * the call.
+     *
+     * @return the current time in nanoseconds
+     */
+    public long startTime() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Records a successful call of the operation.
+     *
+     * @param operation the name of the operation
+     * @param startTime the time at which the call started, as returned by {@link #startTime()}
+     */
+    public void recordSuccess(@NonNull String operation, long startTime) {
+        operationMetrics(operation).latencyMicros.record((clock.getAsLong() - startTime) / 1000);
+    }
+
+    /**
+     * Records a failed call of the operation. The latency of failed calls is not recorded, so
+     * that timeouts do not hide the latency of the calls that succeed.
+     *
+     * @param operation the name of the operation
+     * @param errorType the type of the error
+     */
+    public void recordFailure(@NonNull String operation, @NonNull ErrorType errorType) {
+        operationMetrics(operation).errorCounts.incrementAndGet(errorType.ordinal());
+    }
+
+    /**
+     * Records the size of the value that a call of the operation read or wrote, if the payload
+     * is sampled.
+     *
+     * @param operation the name of the operation
+     * @param value     the value, such as a snapshot or the map of a model
+     */
+    public void recordPayload(@NonNull String operation, @Nullable Object value) {
+        OperationMetrics metrics = operationMetrics(operation);
+        if (isSampled(metrics)) {
+            metrics.payloadBytes.record(estimatePayloadSize(value));
+        }
+    }
+
+    /**
+     * Returns a consumer that records a successful call of the operation and then passes the
+     * value to the given consumer.
+     *
+     * @param operation the name of the operation
+     * @param startTime the time at which the call started
+     * @param onSuccess the consumer of the value, if any
+     * @param <T>       the type of the value
+     * @return the consumer that records the call
+     */
+    @NonNull
+    public <T> Consumer<T> recordOnSuccess(@NonNull String operation, long startTime,
+                                           @Nullable Consumer<T> onSuccess) {
+        return recordOnSuccess(operation, startTime, onSuccess, null);
+    }
+
+    /**
+     * Returns a consumer that records a successful call of the operation and the size of its
+     * payload, and then passes the value to the given consumer. The payload is only built if it
+     * is sampled.
+     *
+     * @param operation the name of the operation
+     * @param startTime the time at which the call started
+     * @param onSuccess the consumer of the value, if any
+     * @param payload   the function that returns the payload of the value, if any
+     * @param <T>       the type of the value
+     * @return the consumer that records the call
+     */
+    @NonNull
+    public <T> Consumer<T> recordOnSuccess(@NonNull String operation, long startTime,
+                                           @Nullable Consumer<T> onSuccess,
+                                           @Nullable Function<T, Object> payload) {
+        return value -> {
+            recordSuccess(operation, startTime);
+            OperationMetrics metrics = operationMetrics(operation);
+            if (payload != null && value != null && isSampled(metrics)) {
+                metrics.payloadBytes.record(estimatePayloadSize(payload.apply(value)));
+            }
+            if (onSuccess != null) {
+                onSuccess.accept(value);
+            }
+        };
+    }
+
+    /**
+     * Returns a consumer that records a failed call of the operation and then passes the error to
+     * the given consumer.
+     *
+     * @param operation the name of the operation
+     * @param onFailure the consumer of the error, if any
+     * @return the consumer that records the failure
+     */
+    @NonNull
+    public Consumer<ErrorHandle> recordOnFailure(@NonNull String operation,
+                                                 @Nullable Consumer<ErrorHandle> onFailure) {
+        return errorHandle -> {
+            recordFailure(operation, errorHandle.errorType());
+            if (onFailure != null) {
+                onFailure.accept(errorHandle);
+            }
+        };
+    }
+
+    /**
+     * Records the call of the operation that the task performs once the task completes. A
+     * failed task is recorded as {@link ErrorType#TASK_FAILED}, and the result of a successful
+     * task, if any, as the payload.
+     *
+     * @param operation the name of the operation
+     * @param task      the task
+     * @param <T>       the type of the result of the task
+     * @return the given task
+     */
+    @NonNull
+    public <T> Task<T> recordTask(@NonNull String operation, @NonNull Task<T> task) {
+        long startTime = startTime();
+        task.addOnCompleteListener(completedTask -> {
+            if (completedTask.isSuccessful()) {
+                recordSuccess(operation, startTime);
+                T result = completedTask.getResult();
+                if (result != null) {
+                    recordPayload(operation, result);
+                }
+            } else {
+                recordFailure(operation, ErrorType.TASK_FAILED);
+            }
+        });
+        return task;
+    }
+
+    /**
+     * Returns the latencies in microseconds of the successful calls of the operation.
+     *
+     * @param operation the name of the operation
+     * @return the snapshot of the latencies
+     */
+    public @NonNull Histogram.Snapshot getLatencyMicros(@NonNull String operation) {
+        return knownOperationMetrics(operation).latencyMicros.snapshot();
+    }
+
+    /**
+     * Returns the estimated sizes in bytes of the sampled payloads of the operation.
+     *
+     * @param operation the name of the operation
+     * @return the snapshot of the payload sizes
+     */
+    public @NonNull Histogram.Snapshot getPayloadBytes(@NonNull String operation) {
+        return knownOperationMetrics(operation).payloadBytes.snapshot();
+    }
+
+    /**
+     * Returns the number of failed calls of the operation with the given error type.
+     *
+     * @param operation the name of the operation
+     * @param errorType the type of the error
+     * @return the number of failed calls
+     */
+    public long getErrorCount(@NonNull String operation, @NonNull ErrorType errorType) {
+        return knownOperationMetrics(operation).errorCounts.get(errorType.ordinal());
+    }
+
+    /**
+     * Returns a report of the metrics of all the operations, one line per operation, in the
+     * order of the operation names.
+     *
+     * @return the report
+     */
+    public @NonNull String dump() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, OperationMetrics> entry : new TreeMap<>(operations).entrySet()) {
+            report.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the report of the metrics to logcat.
+     */
+    public void dumpToLogcat() {
+        for (String line : dump().split("\n")) {
+            if (!line.isEmpty()) {
+                Log.i(TAG, line);
+            }
+        }
+    }
+
+    /**
+     * Writes the report of the metrics to the given file, replacing its contents.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public void dumpToFile(@NonNull File file) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file),
+                                                    StandardCharsets.UTF_8)) {
+            writer.write(dump());
+        }
+    }
+
+    private OperationMetrics operationMetrics(String operation) {
+        // get first, so that recording an operation that is already known never locks
+        OperationMetrics metrics = operations.get(operation);
+        return metrics != null ? metrics :
+                operations.computeIfAbsent(operation, name -> new OperationMetrics());
+    }
+
+    private boolean isSampled(OperationMetrics metrics) {
+        return metrics.payloadCount.incrementAndGet() % payloadSampleInterval == 0;
+    }
+
+    private OperationMetrics knownOperationMetrics(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        return metrics != null ? metrics : NO_METRICS;
+    }
+
+    /**
+     * Estimates the length of the JSON of the value. Snapshots are walked without converting
+     * them to maps.
+     *
+     * @param value the value
+     * @return the estimated size in bytes
+     */
+    static long estimatePayloadSize(@Nullable Object value) {
+        if (value instanceof DataSnapshot snapshot) {
+            if (!snapshot.hasChildren()) {
+                return estimatePayloadSize(snapshot.getValue());
+            }
+
+            long size = 2;
+            for (DataSnapshot child : snapshot.getChildren()) {
+                size += String.valueOf(child.getKey()).length() + 4 +
+                        estimatePayloadSize(child);
+            }
+            return size;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 2;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += String.valueOf(entry.getKey()).length() + 4 +
+                        estimatePayloadSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 2;
+            for (Object element : collection) {
+                size += 1 + estimatePayloadSize(element);
+            }
+            return size;
+        }
+        if (value instanceof String string) {
+            return string.length() + 2;
+        }
+        return String.valueOf(value).length();
+    }
+
+    /**
+     * The metrics of one operation.
+     */
+    private static final class OperationMetrics {
+
+        private final Histogram latencyMicros = new Histogram();
+        private final Histogram payloadBytes = new Histogram();
+        private final AtomicLongArray errorCounts =
+                new AtomicLongArray(ErrorType.values().length);
+        private final AtomicLong payloadCount = new AtomicLong();
+
+        @NonNull
+        @Override
+        public String toString() {
+            Histogram.Snapshot latency = latencyMicros.snapshot();
+            StringBuilder line = new StringBuilder(String.format(
+                    Locale.US, "count %d, p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    latency.count(), latency.p50() / 1000.0, latency.p95() / 1000.0,
+                    latency.p99() / 1000.0, latency.max() / 1000.0));
+
+            for (ErrorType errorType : ErrorType.values()) {
+                long errorCount = errorCounts.get(errorType.ordinal());
+                if (errorCount > 0) {
+                    line.append(", ").append(errorType).append(' ').append(errorCount);
+                }
+            }
+
+            Histogram.Snapshot payload = payloadBytes.snapshot();
+            if (payload.count() > 0) {
+                line.append(String.format(Locale.US,
+                                          ", payload p50 %d B, p95 %d B, max %d B (%d sampled)",
+                                          payload.p50(), payload.p95(), payload.max(),
+                                          payload.count()));
+            }
+            return line.toString();
+        }
+    }
+
+}
@@ -10,9 +10,21 @@ import androidx.annotation.Nullable;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import javax.inject.Inject;
@@ -23,10 +35,15 @@ import edu.uga.cs.shopsync.backend.firebase.UserShopSyncMapFirebaseReference;
 import edu.uga.cs.shopsync.backend.models.BasketItemModel;
 import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
 import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+import edu.uga.cs.shopsync.backend.models.ShopSyncSummaryModel;
 import edu.uga.cs.shopsync.backend.models.ShoppingBasketModel;
 import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+import edu.uga.cs.shopsync.frontend.dtos.ShopSyncDto;
 import edu.uga.cs.shopsync.utils.ErrorHandle;
 import edu.uga.cs.shopsync.utils.ErrorType;
+import edu.uga.cs.shopsync.utils.Futures;
+import edu.uga.cs.shopsync.utils.Logs;
+import edu.uga.cs.shopsync.utils.Tracer;
 
 /**
  * Service class for shop syncs.
@@ -36,18 +53,41 @@ public class ShopSyncsService {
 
     private static final String TAG = "ShopSyncsService";
 
+    /**
+     * The maximum number of shop syncs that {@link #getShopSyncDtos} loads at the same time.
+     */
+    public static final int MAX_CONCURRENT_SHOP_SYNC_LOADS = 8;
+
     private final UsersService usersService;
     private final ShopSyncsFirebaseReference shopSyncsFirebaseReference;
     private final UserShopSyncMapFirebaseReference userShopSyncMapFirebaseReference;
 
+    // holds quantity, price and name edits; flushed before any other write to the same data so
+    // that a pending edit is never applied after it
+    private final WriteOutbox writeOutbox;
+
+    // converts large snapshots to models off the main thread
+    private final SnapshotDecoder snapshotDecoder;
+
+    private final ServiceMetrics serviceMetrics;
+    private final Tracer tracer;
+
     @Inject
     public ShopSyncsService(@NonNull UsersService usersService,
                             @NonNull ShopSyncsFirebaseReference shopSyncsFirebaseReference,
-                            @NonNull UserShopSyncMapFirebaseReference userShopSyncMapFirebaseReference) {
+                            @NonNull UserShopSyncMapFirebaseReference userShopSyncMapFirebaseReference,
+                            @NonNull WriteOutbox writeOutbox,
+                            @NonNull SnapshotDecoder snapshotDecoder,
+                            @NonNull ServiceMetrics serviceMetrics,
+                            @NonNull Tracer tracer) {
         this.usersService = usersService;
         this.shopSyncsFirebaseReference = shopSyncsFirebaseReference;
         this.userShopSyncMapFirebaseReference = userShopSyncMapFirebaseReference;
-        Log.d(TAG, "ShopSyncsService: created");
+        this.writeOutbox = writeOutbox;
+        this.snapshotDecoder = snapshotDecoder;
+        this.serviceMetrics = serviceMetrics;
+        this.tracer = tracer;
+        Logs.d(TAG, "ShopSyncsService: created");
     }
 
     /**
@@ -59,6 +99,49 @@ public class ShopSyncsService {
         return shopSyncsFirebaseReference;
     }
 
+    /**
+     * Returns the outbox that batches and coalesces frequent edits.
+     *
+     * @return the write outbox
+     */
+    public WriteOutbox getWriteOutbox() {
+        return writeOutbox;
+    }
+
+    /**
+     * Returns the decoder that converts snapshots to models off the main thread.
+     *
+     * @return the snapshot decoder
+     */
+    public SnapshotDecoder getSnapshotDecoder() {
+        return snapshotDecoder;
+    }
+
+    /**
+     * Returns the metrics of the calls of the services.
+     *
+     * @return the service metrics
+     */
+    public ServiceMetrics getServiceMetrics() {
+        return serviceMetrics;
+    }
+
+    /**
+     * Returns the tracer of the database calls.
+     *
+     * @return the tracer
+     */
+    public Tracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Immediately writes all edits that are waiting in the outbox.
+     */
+    public void flushPendingWrites() {
+        writeOutbox.flush();
+    }
+
     /**
      * Returns the user shop sync map firebase reference.
      *
@@ -107,9 +190,9 @@ public class ShopSyncsService {
         userUids.forEach(userUid -> userShopSyncMapFirebaseReference
                 .addShopSyncToUser(userUid, shopSync.getUid()));
 
-        Log.d(TAG, "addShopSync: successfully added shop sync " + shopSync);
+        Logs.d(TAG, "addShopSync: successfully added shop sync {}", shopSync);
         if (onSuccess != null) {
-            Log.d(TAG, "addShopSync: running on success runnable");
+            Logs.d(TAG, "addShopSync: running on success runnable");
             onSuccess.accept(shopSync);
         }
     }
@@ -125,6 +208,108 @@ public class ShopSyncsService {
         addShoppingBasket(shopSyncUid, userUid);
     }
 
+    /**
+     * Invites the users with the given emails to the shop sync with the given uid. The emails are
+     * resolved to users, and the users are added in one guarded update that also checks which of
+     * them are members already, so a user that joins in the meantime is not added twice. The
+     * result consumer is called once, after the update is written, with the outcome of every
+     * email. Blank emails are ignored.
+     *
+     * @param shopSyncUid the uid of the shop sync
+     * @param emails      the emails of the users to invite
+     * @param onSuccess   the consumer that consumes the outcome of every email
+     * @param onFailure   the consumer that consumes the error if the emails could not be resolved
+     *                    or the users could not be added
+     */
+    public void inviteUsers(@NonNull String shopSyncUid, @NonNull Collection<String> emails,
+                            @NonNull Consumer<InvitationResult> onSuccess,
+                            @Nullable Consumer<ErrorHandle> onFailure) {
+        Set<String> invitedEmails = new LinkedHashSet<>();
+        for (String email : emails) {
+            if (email != null && !email.isBlank()) {
+                invitedEmails.add(email.trim());
+            }
+        }
+        Logs.d(TAG, "inviteUsers: inviting {} to shop sync ({})", invitedEmails, shopSyncUid);
+
+        usersService.resolveEmails(
+                invitedEmails,
+                userUids -> addInvitedMembers(shopSyncUid, invitedEmails, userUids, onSuccess,
+                                              onFailure),
+                errorHandle -> {
+                    Log.e(TAG, "inviteUsers: failed to invite users: " +
+                            errorHandle.errorMessage());
+                    if (onFailure != null) {
+                        onFailure.accept(errorHandle);
+                    }
+                });
+    }
+
+    /**
+     * Returns a future that completes with the outcome of inviting the users with the given
+     * emails, as {@link #inviteUsers(String, Collection, Consumer, Consumer)} does.
+     *
+     * @param shopSyncUid the uid of the shop sync
+     * @param emails      the emails of the users to invite
+     * @return the future that completes with the outcome of every email
+     */
+    public @NonNull CompletableFuture<InvitationResult> inviteUsersAsync(
+            @NonNull String shopSyncUid, @NonNull Collection<String> emails) {
+        return Futures.fromCallbacks(
+                (onSuccess, onFailure) -> inviteUsers(shopSyncUid, emails, onSuccess, onFailure));
+    }
+
+    private void addInvitedMembers(@NonNull String shopSyncUid,
+                                   @NonNull Set<String> invitedEmails,
+                                   @NonNull Map<String, String> userUids,
+                                   @NonNull Consumer<InvitationResult> onSuccess,
+                                   @Nullable Consumer<ErrorHandle> onFailure) {
+        if (userUids.isEmpty()) {
+            Logs.d(TAG, "addInvitedMembers: no users found for shop sync ({})", shopSyncUid);
+            onSuccess.accept(new InvitationResult(shopSyncUid,
+                                                  outcomesOf(invitedEmails, userUids, Set.of())));
+            return;
+        }
+
+        shopSyncsFirebaseReference.addMembers(shopSyncUid, new LinkedHashSet<>(userUids.values()))
+                .addOnCompleteListener(task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "addInvitedMembers: failed to add members to shop sync (" +
+                                shopSyncUid + ")", task.getException());
+                        if (onFailure != null) {
+                            onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                             "Failed to add members to shop " +
+                                                                     "sync with uid (" +
+                                                                     shopSyncUid + ")"));
+                        }
+                        return;
+                    }
+
+                    Set<String> addedUids = task.getResult();
+                    Logs.d(TAG, "addInvitedMembers: added {} members to shop sync ({})",
+                            addedUids.size(), shopSyncUid);
+                    onSuccess.accept(new InvitationResult(
+                            shopSyncUid, outcomesOf(invitedEmails, userUids, addedUids)));
+                });
+    }
+
+    private static Map<String, InvitationResult.Outcome> outcomesOf(
+            @NonNull Set<String> invitedEmails, @NonNull Map<String, String> userUids,
+            @NonNull Set<String> addedUids) {
+        Map<String, InvitationResult.Outcome> outcomes = new LinkedHashMap<>();
+        for (String email : invitedEmails) {
+            String userUid = userUids.get(email);
+            if (userUid == null) {
+                outcomes.put(email, InvitationResult.Outcome.NOT_FOUND);
+            } else if (addedUids.contains(userUid)) {
+                outcomes.put(email, InvitationResult.Outcome.INVITED);
+            } else {
+                outcomes.put(email, InvitationResult.Outcome.ALREADY_MEMBER);
+            }
+        }
+        return outcomes;
+    }
+
     /**
      * Returns the task that attempts to get the shop sync with the given uid.
      *
@@ -132,8 +317,145 @@ public class ShopSyncsService {
      * @return the task that attempts to get the shop sync with the given uid
      */
     public Task<DataSnapshot> getShopSyncWithUid(@NonNull String uid) {
-        Log.d(TAG, "getShopSyncWithUid: getting shop sync with uid (" + uid + ")");
-        return shopSyncsFirebaseReference.getShopSyncWithUid(uid);
+        Logs.d(TAG, "getShopSyncWithUid: getting shop sync with uid ({})", uid);
+        return serviceMetrics.recordTask("getShopSyncWithUid",
+                                         shopSyncsFirebaseReference.getShopSyncWithUid(uid));
+    }
+
+    /**
+     * Returns a future that completes with the shop sync with the given uid, or with null if the
+     * shop sync does not exist.
+     *
+     * @param uid the uid of the shop sync
+     * @return the future that completes with the shop sync
+     */
+    public @NonNull CompletableFuture<ShopSyncModel> getShopSyncAsync(@NonNull String uid) {
+        return Futures.fromTask(getShopSyncWithUid(uid)).thenCompose(
+                snapshot -> Futures.fromCallbacks((onSuccess, onFailure) -> snapshotDecoder.decode(
+                        snapshot, ShopSyncModel.class, onSuccess, onFailure)));
+    }
+
+    /**
+     * Returns the task that attempts to get the summary of the shop sync with the given uid.
+     *
+     * @param uid the uid of the shop sync
+     * @return the task that attempts to get the summary of the shop sync with the given uid
+     */
+    public Task<DataSnapshot> getShopSyncSummaryWithUid(@NonNull String uid) {
+        Logs.d(TAG, "getShopSyncSummaryWithUid: getting shop sync summary with uid ({})", uid);
+        return shopSyncsFirebaseReference.getShopSyncSummaryWithUid(uid);
+    }
+
+    /**
+     * Gets the summary of the shop sync with the given uid. If the shop sync has no summary yet,
+     * the summary is computed from the full shop sync once and stored, so later calls only
+     * download the summary. The consumer receives null if the shop sync does not exist.
+     *
+     * @param uid       the uid of the shop sync
+     * @param onSuccess the consumer that consumes the summary, or null if the shop sync does not
+     *                  exist
+     * @param onFailure the consumer that consumes the error if any
+     */
+    public void getShopSyncSummary(@NonNull String uid,
+                                   @NonNull Consumer<ShopSyncSummaryModel> onSuccess,
+                                   @Nullable Consumer<ErrorHandle> onFailure) {
+        Logs.d(TAG, "getShopSyncSummary: getting shop sync summary with uid ({})", uid);
+
+        shopSyncsFirebaseReference.getShopSyncSummaryWithUid(uid).addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "getShopSyncSummary: failed to get shop sync summary",
+                      task.getException());
+                if (onFailure != null) {
+                    onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                     "Failed to get shop sync summary"));
+                }
+                return;
+            }
+
+            snapshotDecoder.decode(task.getResult(), ShopSyncSummaryModel.class, summary -> {
+                if (ShopSyncsFirebaseReference.isCompleteSummary(summary)) {
+                    onSuccess.accept(summary);
+                    return;
+                }
+
+                // shop syncs created before summaries were maintained have none, or only the
+                // counters that changed since, so build it once
+                backfillShopSyncSummary(uid, onSuccess, onFailure);
+            }, onFailure);
+        });
+    }
+
+    /**
+     * Returns a future that completes with the summary of the shop sync with the given uid, as
+     * {@link #getShopSyncSummary(String, Consumer, Consumer)} does.
+     *
+     * @param uid the uid of the shop sync
+     * @return the future that completes with the summary, or with null if the shop sync does not
+     * exist
+     */
+    public @NonNull CompletableFuture<ShopSyncSummaryModel> getShopSyncSummaryAsync(
+            @NonNull String uid) {
+        return Futures.fromCallbacks(
+                (onSuccess, onFailure) -> getShopSyncSummary(uid, onSuccess, onFailure));
+    }
+
+    /**
+     * Computes the summary of the shop sync with the given uid from the full shop sync, stores
+     * it unless another summary was stored in the meantime, and passes the stored summary to the
+     * consumer. The consumer receives null if the shop sync does not exist.
+     *
+     * @param uid       the uid of the shop sync
+     * @param onSuccess the consumer that consumes the summary
+     * @param onFailure the consumer that consumes the error if any
+     */
+    private void backfillShopSyncSummary(@NonNull String uid,
+                                         @NonNull Consumer<ShopSyncSummaryModel> onSuccess,
+                                         @Nullable Consumer<ErrorHandle> onFailure) {
+        shopSyncsFirebaseReference.getShopSyncWithUid(uid).addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "backfillShopSyncSummary: failed to get shop sync",
+                      task.getException());
+                if (onFailure != null) {
+                    onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                     "Failed to get shop sync"));
+                }
+                return;
+            }
+
+            snapshotDecoder.decode(task.getResult(), ShopSyncModel.class, shopSync -> {
+                if (shopSync == null) {
+                    Logs.d(TAG, "backfillShopSyncSummary: shop sync with uid ({}) does not exist",
+                            uid);
+                    onSuccess.accept(null);
+                    return;
+                }
+
+                ShopSyncSummaryModel summary =
+                        shopSyncsFirebaseReference.summarizeShopSync(shopSync);
+                shopSyncsFirebaseReference.setShopSyncSummaryIfAbsent(summary)
+                        .addOnCompleteListener(setTask -> {
+                            if (!setTask.isSuccessful()) {
+                                Log.e(TAG, "backfillShopSyncSummary: failed to set summary",
+                                      setTask.getException());
+                                if (onFailure != null) {
+                                    onFailure.accept(new ErrorHandle(
+                                            ErrorType.TASK_FAILED,
+                                            "Failed to set shop sync summary"));
+                                }
+                                return;
+                            }
+
+                            // another client may have stored the summary first, so the stored
+                            // summary is passed on rather than the computed one
+                            snapshotDecoder.decode(setTask.getResult(),
+                                                   ShopSyncSummaryModel.class, storedSummary -> {
+                                Logs.d(TAG, "backfillShopSyncSummary: stored summary {}",
+                                        storedSummary);
+                                onSuccess.accept(storedSummary);
+                            }, onFailure);
+                        });
+            }, onFailure);
+        });
     }
 
     /**
@@ -146,7 +468,7 @@ public class ShopSyncsService {
     public void getShopSyncsForUser(@NonNull String userUid,
                                     @NonNull Consumer<List<String>> shopSyncUidsConsumer,
                                     @Nullable Consumer<ErrorHandle> onError) {
-        Log.d(TAG, "getShopSyncsForUser: getting shop syncs for user (" + userUid + ")");
+        Logs.d(TAG, "getShopSyncsForUser: getting shop syncs for user ({})", userUid);
 
         userShopSyncMapFirebaseReference.getShopSyncsAssociatedWithUser(userUid)
                 .addOnCompleteListener(task -> {
@@ -163,8 +485,8 @@ public class ShopSyncsService {
                                 }
                             }
 
-                            Log.d(TAG, "getShopSyncsForUser: successfully got shop syncs for user" +
-                                    " (" + userUid + ") with shop sync uids " + shopSyncUids);
+                            Logs.d(TAG, "getShopSyncsForUser: successfully got shop syncs for " +
+                                    "user ({}) with shop sync uids {}", userUid, shopSyncUids);
 
                             // consume the shop sync uids
                             shopSyncUidsConsumer.accept(shopSyncUids);
@@ -196,6 +518,18 @@ public class ShopSyncsService {
                 });
     }
 
+    /**
+     * Returns a future that completes with the uids of the shop syncs of the given user.
+     *
+     * @param userUid the user uid
+     * @return the future that completes with the shop sync uids
+     */
+    public @NonNull CompletableFuture<List<String>> getShopSyncsForUserAsync(
+            @NonNull String userUid) {
+        return Futures.fromCallbacks(
+                (onSuccess, onFailure) -> getShopSyncsForUser(userUid, onSuccess, onFailure));
+    }
+
     /**
      * Returns the task that attempts to get the users associated with the given shop sync uid.
      *
@@ -206,7 +540,7 @@ public class ShopSyncsService {
     public void getUsersForShopSync(@NonNull String shopSyncUid,
                                     @NonNull Consumer<List<String>> userUidsConsumer,
                                     @Nullable Consumer<ErrorHandle> onError) {
-        Log.d(TAG, "getUsersForShopSync: getting users for shop sync (" + shopSyncUid + ")");
+        Logs.d(TAG, "getUsersForShopSync: getting users for shop sync ({})", shopSyncUid);
 
         userShopSyncMapFirebaseReference.getUsersAssociatedWithShopSync(shopSyncUid)
                 .addOnCompleteListener(task -> {
@@ -223,8 +557,8 @@ public class ShopSyncsService {
                                 }
                             }
 
-                            Log.d(TAG, "getUsersForShopSync: successfully got users for shop sync" +
-                                    " (" + shopSyncUid + ") with user uids " + userUids);
+                            Logs.d(TAG, "getUsersForShopSync: successfully got users for shop " +
+                                    "sync ({}) with user uids {}", shopSyncUid, userUids);
 
                             // consume the user uids
                             userUidsConsumer.accept(userUids);
@@ -257,36 +591,235 @@ public class ShopSyncsService {
     }
 
     /**
-     * Returns the task that attempts to update the shop sync with the given shop sync.
+     * Returns a future that completes with the uids of the members of the given shop sync.
+     *
+     * @param shopSyncUid the shop sync uid
+     * @return the future that completes with the user uids
+     */
+    public @NonNull CompletableFuture<List<String>> getUsersForShopSyncAsync(
+            @NonNull String shopSyncUid) {
+        return Futures.fromCallbacks(
+                (onSuccess, onFailure) -> getUsersForShopSync(shopSyncUid, onSuccess, onFailure));
+    }
+
+    /**
+     * Loads lightweight {@link ShopSyncDto} summaries for the shop syncs with the given uids. Only
+     * the summary and member uids of each shop sync are downloaded. Up to
+     * {@link #MAX_CONCURRENT_SHOP_SYNC_LOADS} shop syncs are loaded at the same time, and the
+     * result consumer is called once after every shop sync has been loaded. The dtos are in the
+     * same order as the given uids; shop syncs that no longer exist are left out. If any load
+     * fails, only the error consumer is called.
      *
-     * @param updatedShopSync the updated shop sync
+     * @param shopSyncUids the shop sync uids
+     * @param onSuccess    the consumer that consumes the loaded dtos
+     * @param onFailure    the consumer that consumes the error if any
+     */
+    public void getShopSyncDtos(@NonNull List<String> shopSyncUids,
+                                @NonNull Consumer<List<ShopSyncDto>> onSuccess,
+                                @Nullable Consumer<ErrorHandle> onFailure) {
+        Logs.d(TAG, "getShopSyncDtos: loading shop syncs with uids {}", shopSyncUids);
+
+        int count = shopSyncUids.size();
+        if (count == 0) {
+            onSuccess.accept(new ArrayList<>());
+            return;
+        }
+
+        ShopSyncDto[] results = new ShopSyncDto[count];
+        AtomicInteger nextIndex = new AtomicInteger(0);
+        AtomicInteger remaining = new AtomicInteger(count);
+        AtomicReference<ErrorHandle> firstError = new AtomicReference<>(null);
+
+        // each finished load starts the next pending one, so at most
+        // MAX_CONCURRENT_SHOP_SYNC_LOADS loads are ever in flight
+        Runnable[] loadNext = new Runnable[1];
+        loadNext[0] = () -> {
+            int index = nextIndex.getAndIncrement();
+            if (index >= count) {
+                return;
+            }
+
+            loadShopSyncDto(shopSyncUids.get(index), (shopSyncDto, errorHandle) -> {
+                if (errorHandle != null) {
+                    firstError.compareAndSet(null, errorHandle);
+                } else {
+                    results[index] = shopSyncDto;
+                }
+
+                if (remaining.decrementAndGet() > 0) {
+                    loadNext[0].run();
+                    return;
+                }
+
+                ErrorHandle error = firstError.get();
+                if (error != null) {
+                    Log.e(TAG, "getShopSyncDtos: failed to load shop syncs: " + error.errorMessage());
+                    if (onFailure != null) {
+                        onFailure.accept(error);
+                    }
+                    return;
+                }
+
+                List<ShopSyncDto> shopSyncDtos = new ArrayList<>(count);
+                for (ShopSyncDto result : results) {
+                    if (result != null) {
+                        shopSyncDtos.add(result);
+                    }
+                }
+
+                Logs.d(TAG, "getShopSyncDtos: loaded {} shop syncs", shopSyncDtos.size());
+                onSuccess.accept(shopSyncDtos);
+            });
+        };
+
+        for (int i = 0; i < Math.min(count, MAX_CONCURRENT_SHOP_SYNC_LOADS); i++) {
+            loadNext[0].run();
+        }
+    }
+
+    /**
+     * Returns a future that completes with the dtos of the shop syncs with the given uids, as
+     * {@link #getShopSyncDtos(List, Consumer, Consumer)} does.
+     *
+     * @param shopSyncUids the shop sync uids
+     * @return the future that completes with the loaded dtos
+     */
+    public @NonNull CompletableFuture<List<ShopSyncDto>> getShopSyncDtosAsync(
+            @NonNull List<String> shopSyncUids) {
+        return Futures.fromCallbacks(
+                (onSuccess, onFailure) -> getShopSyncDtos(shopSyncUids, onSuccess, onFailure));
+    }
+
+    /**
+     * Loads the dto of the shop sync with the given uid. The summary and the member uids are
+     * fetched in parallel. The callback receives either the dto, which is null if the shop sync
+     * does not exist, or an error handle.
+     *
+     * @param shopSyncUid the shop sync uid
+     * @param callback    the callback that receives the dto or the error handle
+     */
+    private void loadShopSyncDto(@NonNull String shopSyncUid,
+                                 @NonNull BiConsumer<ShopSyncDto, ErrorHandle> callback) {
+        AtomicReference<ShopSyncSummaryModel> summaryResult = new AtomicReference<>(null);
+        AtomicReference<List<String>> userUidsResult = new AtomicReference<>(null);
+        AtomicReference<ErrorHandle> error = new AtomicReference<>(null);
+        AtomicInteger pending = new AtomicInteger(2);
+
+        Runnable onComplete = () -> {
+            if (pending.decrementAndGet() > 0) {
+                return;
+            }
+
+            if (error.get() != null) {
+                callback.accept(null, error.get());
+                return;
+            }
+
+            ShopSyncSummaryModel summary = summaryResult.get();
+            if (summary == null) {
+                Logs.d(TAG, "loadShopSyncDto: shop sync with uid ({}) does not exist", shopSyncUid);
+                callback.accept(null, null);
+                return;
+            }
+
+            callback.accept(new ShopSyncDto(shopSyncUid, summary.getName(),
+                                            summary.getDescription() == null ? "" :
+                                                    summary.getDescription(),
+                                            userUidsResult.get()), null);
+        };
+
+        getShopSyncSummary(shopSyncUid, summary -> {
+            summaryResult.set(summary);
+            onComplete.run();
+        }, errorHandle -> {
+            error.compareAndSet(null, errorHandle);
+            onComplete.run();
+        });
+
+        userShopSyncMapFirebaseReference.getUsersAssociatedWithShopSync(shopSyncUid)
+                .addOnCompleteListener(task -> {
+                    if (!task.isSuccessful()) {
+                        error.compareAndSet(null, new ErrorHandle(ErrorType.TASK_FAILED,
+                                                                  "Failed to load shop sync " +
+                                                                          "with uid (" +
+                                                                          shopSyncUid + ")"));
+                        onComplete.run();
+                        return;
+                    }
+
+                    List<String> userUids = new ArrayList<>();
+                    DataSnapshot usersSnapshot = task.getResult();
+                    if (usersSnapshot != null) {
+                        for (DataSnapshot userSnapshot : usersSnapshot.getChildren()) {
+                            String userUid = userSnapshot.getKey();
+                            if (userUid != null) {
+                                userUids.add(userUid);
+                            }
+                        }
+                    }
+                    userUidsResult.set(userUids);
+                    onComplete.run();
+                });
+    }
+
+    /**
+     * Returns the task that attempts to update the shop sync with the given shop sync. Only the
+     * fields that differ from the shop sync as it was loaded are written.
+     *
+     * @param baselineShopSync the shop sync as it was loaded
+     * @param updatedShopSync  the updated shop sync
      * @return the task that attempts to update the shop sync with the given shop sync
      */
-    public Task<Void> updateShopSync(@NonNull ShopSyncModel updatedShopSync) {
-        Log.d(TAG, "updateShopSync: updating shop sync with uid (" + updatedShopSync.getUid() +
-                ")");
-        return shopSyncsFirebaseReference.updateShopSync(updatedShopSync);
+    public Task<Void> updateShopSync(@NonNull ShopSyncModel baselineShopSync,
+                                     @NonNull ShopSyncModel updatedShopSync) {
+        Logs.d(TAG, "updateShopSync: updating shop sync with uid ({})", updatedShopSync.getUid());
+        writeOutbox.flush();
+        return serviceMetrics.recordTask("updateShopSync", shopSyncsFirebaseReference
+                .updateShopSync(baselineShopSync, updatedShopSync));
     }
 
     /**
-     * Returns the task that attempts to delete the shop sync with the given uid.
+     * Deletes the shop sync with the given uid, together with its summary, its cost ledger and
+     * every mapping between it and its members, in one multi-path update.
      *
      * @param shopSyncUid the uid of the shop sync to delete
      */
     public void deleteShopSync(@NonNull String shopSyncUid) {
-        Log.d(TAG, "deleteShopSync: deleting shop sync with uid (" + shopSyncUid + ")");
+        Logs.d(TAG, "deleteShopSync: deleting shop sync with uid ({})", shopSyncUid);
+        writeOutbox.flush();
 
-        // Remove the shop sync from the shop syncs collection
-        shopSyncsFirebaseReference.deleteShopSync(shopSyncUid).addOnCompleteListener(task -> {
-            if (task.isSuccessful()) {
-                // Remove the shop sync from the user to shop syncs map
-                userShopSyncMapFirebaseReference.removeShopSync(shopSyncUid);
-                Log.d(TAG,
-                      "deleteShopSync: successfully deleted shop sync with uid " + shopSyncUid);
-            } else {
-                Log.e(TAG, "deleteShopSync: failed to delete shop sync with uid " + shopSyncUid);
-            }
-        });
+        // the members are read first so that their side of the mapping is removed in the same
+        // update as the shop sync itself
+        userShopSyncMapFirebaseReference.getUsersAssociatedWithShopSync(shopSyncUid)
+                .addOnCompleteListener(membersTask -> {
+                    if (!membersTask.isSuccessful()) {
+                        Log.e(TAG, "deleteShopSync: failed to get members of shop sync with uid " +
+                                shopSyncUid, membersTask.getException());
+                        return;
+                    }
+
+                    List<String> memberUids = new ArrayList<>();
+                    DataSnapshot membersSnapshot = membersTask.getResult();
+                    if (membersSnapshot != null) {
+                        for (DataSnapshot memberSnapshot : membersSnapshot.getChildren()) {
+                            String memberUid = memberSnapshot.getKey();
+                            if (memberUid != null) {
+                                memberUids.add(memberUid);
+                            }
+                        }
+                    }
+
+                    shopSyncsFirebaseReference.deleteShopSync(shopSyncUid, memberUids)
+                            .addOnCompleteListener(task -> {
+                                if (task.isSuccessful()) {
+                                    Logs.d(TAG, "deleteShopSync: successfully deleted shop " +
+                                            "sync with uid {}", shopSyncUid);
+                                } else {
+                                    Log.e(TAG, "deleteShopSync: failed to delete shop sync with " +
+                                            "uid " + shopSyncUid, task.getException());
+                                }
+                            });
+                });
     }
 
     /**
@@ -324,6 +857,37 @@ public class ShopSyncsService {
         return shopSyncsFirebaseReference.getShoppingItemsWithShopSyncUid(shopSyncUid);
     }
 
+    /**
+     * Returns the task that attempts to get a page of the shopping items of the shop sync with
+     * the given uid, newest first.
+     *
+     * @param shopSyncUid  the shop sync uid
+     * @param endBeforeKey the key of the oldest shopping item of the previous page, or null to get
+     *                     the first page
+     * @param pageSize     the maximum number of shopping items in the page
+     * @return the task that attempts to get the page
+     */
+    public Task<DataSnapshot> getShoppingItemsPage(@NonNull String shopSyncUid,
+                                                   @Nullable String endBeforeKey, int pageSize) {
+        return shopSyncsFirebaseReference.getShoppingItemsPage(shopSyncUid, endBeforeKey,
+                                                               pageSize);
+    }
+
+    /**
+     * Returns the query over the shopping items of the shop sync with the given uid whose keys
+     * are in the given range.
+     *
+     * @param shopSyncUid  the shop sync uid
+     * @param startAtKey   the smallest key in the range, or null for no lower bound
+     * @param endBeforeKey the key right after the range, or null for no upper bound
+     * @return the query over the shopping items in the range
+     */
+    public Query getShoppingItemsWindow(@NonNull String shopSyncUid, @Nullable String startAtKey,
+                                        @Nullable String endBeforeKey) {
+        return shopSyncsFirebaseReference.getShoppingItemsWindow(shopSyncUid, startAtKey,
+                                                                 endBeforeKey);
+    }
+
     /**
      * Returns the task that attempts to get the shopping items with the given name.
      *
@@ -336,15 +900,20 @@ public class ShopSyncsService {
     }
 
     /**
-     * Returns the task that attempts to update the shopping item with the given shopping item.
+     * Updates the shopping item with the given shopping item. The write goes through the outbox,
+     * so repeated edits of the same shopping item within the flush window are sent only once.
      *
      * @param shopSyncUid         the shop sync uid
      * @param updatedShoppingItem the updated shopping item
-     * @return the task that attempts to update the shopping item with the given shopping item
+     * @param onSuccess           the runnable that is run once the shopping item is written
+     * @param onFailure           the consumer that consumes the error if any
      */
-    public Task<Void> updateShoppingItem(String shopSyncUid,
-                                         ShoppingItemModel updatedShoppingItem) {
-        return shopSyncsFirebaseReference.updateShoppingItem(shopSyncUid, updatedShoppingItem);
+    public void updateShoppingItem(@NonNull String shopSyncUid,
+                                   @NonNull ShoppingItemModel updatedShoppingItem,
+                                   @Nullable Runnable onSuccess,
+                                   @Nullable Consumer<ErrorHandle> onFailure) {
+        writeOutbox.enqueue(shopSyncsFirebaseReference.buildShoppingItemUpdates(
+                shopSyncUid, updatedShoppingItem), onSuccess, onFailure);
     }
 
     /**
@@ -355,6 +924,7 @@ public class ShopSyncsService {
      * @return the task that attempts to delete the shopping item with the given item id
      */
     public Task<Void> deleteShoppingItem(String shopSyncUid, String itemId) {
+        writeOutbox.flush();
         return shopSyncsFirebaseReference.deleteShoppingItem(shopSyncUid, itemId);
     }
 
@@ -404,6 +974,7 @@ public class ShopSyncsService {
      */
     public Task<Void> updateShoppingBasket(String shopSyncUid,
                                            ShoppingBasketModel updatedShoppingBasket) {
+        writeOutbox.flush();
         return shopSyncsFirebaseReference.updateShoppingBasket(shopSyncUid, updatedShoppingBasket);
     }
 
@@ -419,6 +990,7 @@ public class ShopSyncsService {
     public void deleteShoppingBasket(@NonNull String shopSyncUid, @NonNull String userUid,
                                      @Nullable Runnable onSuccess,
                                      @Nullable Consumer<ErrorHandle> onFailure) {
+        writeOutbox.flush();
         shopSyncsFirebaseReference.deleteShoppingBasket(shopSyncUid, userUid, onSuccess, onFailure);
     }
 
@@ -438,8 +1010,31 @@ public class ShopSyncsService {
                               @NonNull String shoppingItemUid, long quantity, double pricePerUnit,
                               @Nullable Consumer<BasketItemModel> onSuccess,
                               @Nullable Consumer<ErrorHandle> onFailure) {
-        shopSyncsFirebaseReference.addBasketItem(shopSyncUid, shoppingBasketUid, shoppingItemUid,
-                                                 quantity, pricePerUnit, onSuccess, onFailure);
+        long startTime = serviceMetrics.startTime();
+        writeOutbox.flush();
+        shopSyncsFirebaseReference.addBasketItem(
+                shopSyncUid, shoppingBasketUid, shoppingItemUid, quantity, pricePerUnit,
+                serviceMetrics.recordOnSuccess("addBasketItem", startTime, onSuccess,
+                                               BasketItemModel::toMap),
+                serviceMetrics.recordOnFailure("addBasketItem", onFailure));
+    }
+
+    /**
+     * Updates the quantity and price per unit of the basket item. The write goes through the
+     * outbox, so repeated edits of the same basket item within the flush window are sent only
+     * once.
+     *
+     * @param shopSyncUid       the shop sync uid
+     * @param updatedBasketItem the updated basket item
+     * @param onSuccess         the runnable that is run once the basket item is written
+     * @param onFailure         the consumer that consumes the error if any
+     */
+    public void updateBasketItem(@NonNull String shopSyncUid,
+                                 @NonNull BasketItemModel updatedBasketItem,
+                                 @Nullable Runnable onSuccess,
+                                 @Nullable Consumer<ErrorHandle> onFailure) {
+        writeOutbox.enqueue(shopSyncsFirebaseReference.buildBasketItemUpdates(
+                shopSyncUid, updatedBasketItem), onSuccess, onFailure);
     }
 
     /**
@@ -473,7 +1068,9 @@ public class ShopSyncsService {
     }
 
     /**
-     * Adds a purchased item using the provided basket item.
+     * Adds a purchased item using the provided basket item. The purchase is traced as one span,
+     * with the lookup of the purchaser's profile and the calls of the firebase reference as its
+     * children.
      *
      * @param shopSyncUid       the shop sync uid
      * @param shoppingBasketUid the shopping basket uid
@@ -484,21 +1081,34 @@ public class ShopSyncsService {
                                  @NonNull BasketItemModel basketItem,
                                  @Nullable Consumer<PurchasedItemModel> resultConsumer,
                                  @Nullable Consumer<ErrorHandle> onFailure) {
-        Log.d(TAG,
-              "addPurchasedItem: adding purchased item with shopping basket uid (" +
-                      shoppingBasketUid + ") and basket item (" + basketItem + ")");
+        Logs.d(TAG, "addPurchasedItem: adding purchased item with shopping basket uid ({}) and " +
+                "basket item ({})", shoppingBasketUid, basketItem);
 
-        usersService.getUserProfileWithUid(shoppingBasketUid).addOnCompleteListener(task -> {
+        long startTime = serviceMetrics.startTime();
+        Consumer<PurchasedItemModel> recordingResultConsumer = serviceMetrics.recordOnSuccess(
+                "addPurchasedItem", startTime, resultConsumer, PurchasedItemModel::toMap);
+        Consumer<ErrorHandle> recordingOnFailure =
+                serviceMetrics.recordOnFailure("addPurchasedItem", onFailure);
+
+        Tracer.Span span = tracer.startSpan("purchase");
+        Consumer<PurchasedItemModel> tracedResultConsumer = span.ending(recordingResultConsumer);
+        Consumer<ErrorHandle> tracedOnFailure = span.ending(recordingOnFailure);
+
+        writeOutbox.flush();
+        Task<DataSnapshot> userProfileTask;
+        try (Tracer.Scope ignored = span.makeCurrent()) {
+            userProfileTask = tracer.traceTask(
+                    "getUserProfileWithUid", usersService.getUserProfileWithUid(shoppingBasketUid));
+        }
+        userProfileTask.addOnCompleteListener(span.completeListener(task -> {
             if (task.isSuccessful()) {
                 DataSnapshot dataSnapshot = task.getResult();
                 if (dataSnapshot == null) {
                     Log.e(TAG, "addPurchasedItem: failed to get user profile with uid (" +
                             shoppingBasketUid + ")");
-                    if (onFailure != null) {
-                        onFailure.accept(new ErrorHandle(
-                                ErrorType.ILLEGAL_NULL_VALUE,
-                                "Failed to get user profile with uid (" + shoppingBasketUid + ")"));
-                    }
+                    tracedOnFailure.accept(new ErrorHandle(
+                            ErrorType.ILLEGAL_NULL_VALUE,
+                            "Failed to get user profile with uid (" + shoppingBasketUid + ")"));
                     return;
                 }
 
@@ -506,19 +1116,24 @@ public class ShopSyncsService {
                 if (userEmail == null) {
                     Log.e(TAG, "addPurchasedItem: failed to get user email with uid (" +
                             shoppingBasketUid + ")");
-                    if (onFailure != null) {
-                        onFailure.accept(new ErrorHandle(
-                                ErrorType.ILLEGAL_NULL_VALUE,
-                                "Failed to get user email with uid (" + shoppingBasketUid + ")"));
-                    }
+                    tracedOnFailure.accept(new ErrorHandle(
+                            ErrorType.ILLEGAL_NULL_VALUE,
+                            "Failed to get user email with uid (" + shoppingBasketUid + ")"));
                     return;
                 }
 
                 shopSyncsFirebaseReference.addPurchasedItem(shopSyncUid, shoppingBasketUid,
-                                                            basketItem, userEmail, resultConsumer,
-                                                            onFailure);
+                                                            basketItem, userEmail,
+                                                            tracedResultConsumer,
+                                                            tracedOnFailure);
+            } else {
+                Log.e(TAG, "addPurchasedItem: failed to get user profile with uid (" +
+                        shoppingBasketUid + ")", task.getException());
+                tracedOnFailure.accept(new ErrorHandle(
+                        ErrorType.TASK_FAILED,
+                        "Failed to get user profile with uid (" + shoppingBasketUid + ")"));
             }
-        });
+        }));
     }
 
     /**
@@ -538,6 +1153,7 @@ public class ShopSyncsService {
                                  @NonNull String shoppingItemUid,
                                  @Nullable Consumer<ErrorHandle> onFailure,
                                  boolean updateShoppingItemInBasketStatus) {
+        writeOutbox.flush();
         shopSyncsFirebaseReference.deleteBasketItem(shopSyncUid, shoppingBasketUid,
                                                     shoppingItemUid, onFailure,
                                                     updateShoppingItemInBasketStatus);
@@ -552,8 +1168,8 @@ public class ShopSyncsService {
      */
     public Task<DataSnapshot> getPurchasedItemsWithUid(@NonNull String shopSyncUid,
                                                        @NonNull String uid) {
-        Log.d(TAG, "getPurchasedItemsWithUid: getting purchased items with shop sync uid + (" +
-                shopSyncUid + ") and uid + ");
+        Logs.d(TAG, "getPurchasedItemsWithUid: getting purchased items with shop sync uid ({}) " +
+                "and uid ({})", shopSyncUid, uid);
         return shopSyncsFirebaseReference.getPurchasedItemWithUid(shopSyncUid, uid);
     }
 
@@ -564,11 +1180,58 @@ public class ShopSyncsService {
      * @return the task that attempts to get the purchased items with the given shop sync uid
      */
     public Task<DataSnapshot> getPurchasedItemsWithShopSyncUid(@NonNull String shopSyncUid) {
-        Log.d(TAG, "getPurchasedItemsWithShopSyncUid: getting purchased items with shop sync uid " +
-                "(" + shopSyncUid + ")");
+        Logs.d(TAG,
+                "getPurchasedItemsWithShopSyncUid: getting purchased items with shop sync uid ({})",
+                shopSyncUid);
         return shopSyncsFirebaseReference.getPurchasedItemsWithShopSyncUid(shopSyncUid);
     }
 
+    /**
+     * Returns a future that completes with the purchased items of the shop sync with the given
+     * uid.
+     *
+     * @param shopSyncUid the shop sync uid
+     * @return the future that completes with the purchased items
+     */
+    public @NonNull CompletableFuture<List<PurchasedItemModel>> getPurchasedItemsAsync(
+            @NonNull String shopSyncUid) {
+        return Futures.fromTask(getPurchasedItemsWithShopSyncUid(shopSyncUid)).thenCompose(
+                snapshot -> Futures.fromCallbacks((onSuccess, onFailure) -> snapshotDecoder
+                        .decodeChildren(snapshot, PurchasedItemModel.class, onSuccess, onFailure)));
+    }
+
+    /**
+     * Returns the task that attempts to get a page of the purchased items of the shop sync with
+     * the given uid, newest first.
+     *
+     * @param shopSyncUid  the shop sync uid
+     * @param endBeforeKey the key of the oldest purchased item of the previous page, or null to
+     *                     get the first page
+     * @param pageSize     the maximum number of purchased items in the page
+     * @return the task that attempts to get the page
+     */
+    public Task<DataSnapshot> getPurchasedItemsPage(@NonNull String shopSyncUid,
+                                                    @Nullable String endBeforeKey, int pageSize) {
+        return shopSyncsFirebaseReference.getPurchasedItemsPage(shopSyncUid, endBeforeKey,
+                                                                pageSize);
+    }
+
+    /**
+     * Returns the query over the purchased items of the shop sync with the given uid whose keys
+     * are in the given range.
+     *
+     * @param shopSyncUid  the shop sync uid
+     * @param startAtKey   the smallest key in the range, or null for no lower bound
+     * @param endBeforeKey the key right after the range, or null for no upper bound
+     * @return the query over the purchased items in the range
+     */
+    public Query getPurchasedItemsWindow(@NonNull String shopSyncUid,
+                                         @Nullable String startAtKey,
+                                         @Nullable String endBeforeKey) {
+        return shopSyncsFirebaseReference.getPurchasedItemsWindow(shopSyncUid, startAtKey,
+                                                                  endBeforeKey);
+    }
+
     /**
      * Returns the task that attempts to get the purchased items with the given user uid.
      *
@@ -578,11 +1241,143 @@ public class ShopSyncsService {
      */
     public Task<DataSnapshot> getPurchasedItemsWithUserUid(@NonNull String shopSyncUid,
                                                            @NonNull String userUid) {
-        Log.d(TAG, "getPurchasedItemsWithUserUid: getting purchased items with shop sync uid " +
-                "(" + shopSyncUid + ") and user uid (" + userUid + ")");
+        Logs.d(TAG, "getPurchasedItemsWithUserUid: getting purchased items with shop sync uid " +
+                "({}) and user uid ({})", shopSyncUid, userUid);
         return shopSyncsFirebaseReference.getPurchasedItemsWithUserUid(shopSyncUid, userUid);
     }
 
+    /**
+     * Gets the total cost of the purchases of each user in the shop sync with the given uid from
+     * the shop sync's cost ledger. If the shop sync has no ledger yet, the ledger is computed from
+     * the purchased items once and stored, so later calls only download the ledger.
+     *
+     * @param shopSyncUid the shop sync uid
+     * @param onSuccess   the consumer that consumes the total cost of each user, keyed by user uid
+     * @param onFailure   the consumer that consumes the error if any
+     */
+    public void getCostsForShopSync(@NonNull String shopSyncUid,
+                                    @NonNull Consumer<Map<String, Double>> onSuccess,
+                                    @Nullable Consumer<ErrorHandle> onFailure) {
+        Logs.d(TAG, "getCostsForShopSync: getting costs with shop sync uid ({})", shopSyncUid);
+
+        shopSyncsFirebaseReference.getCostsWithShopSyncUid(shopSyncUid)
+                .addOnCompleteListener(task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "getCostsForShopSync: failed to get costs", task.getException());
+                        if (onFailure != null) {
+                            onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                             "Failed to get costs"));
+                        }
+                        return;
+                    }
+
+                    DataSnapshot costsSnapshot = task.getResult();
+                    if (costsSnapshot != null && costsSnapshot.hasChild(
+                            ShopSyncsFirebaseReference.COSTS_BACKFILLED_FIELD)) {
+                        onSuccess.accept(decodeCosts(costsSnapshot));
+                        return;
+                    }
+
+                    // shop syncs with purchases from before the ledger was maintained have no
+                    // ledger, or only the entries of the purchases made since
+                    backfillCosts(shopSyncUid, onSuccess, onFailure);
+                });
+    }
+
+    /**
+     * Returns a future that completes with the total cost of the purchases of each user in the
+     * shop sync with the given uid, as {@link #getCostsForShopSync(String, Consumer, Consumer)}
+     * does.
+     *
+     * @param shopSyncUid the shop sync uid
+     * @return the future that completes with the total cost of each user, keyed by user uid
+     */
+    public @NonNull CompletableFuture<Map<String, Double>> getCostsForShopSyncAsync(
+            @NonNull String shopSyncUid) {
+        return Futures.fromCallbacks(
+                (onSuccess, onFailure) -> getCostsForShopSync(shopSyncUid, onSuccess, onFailure));
+    }
+
+    /**
+     * Computes the cost ledger of the shop sync with the given uid from its purchased items,
+     * merges it into the stored ledger unless another client backfilled it first, and passes the
+     * stored ledger to the consumer.
+     *
+     * @param shopSyncUid the shop sync uid
+     * @param onSuccess   the consumer that consumes the total cost of each user
+     * @param onFailure   the consumer that consumes the error if any
+     */
+    private void backfillCosts(@NonNull String shopSyncUid,
+                               @NonNull Consumer<Map<String, Double>> onSuccess,
+                               @Nullable Consumer<ErrorHandle> onFailure) {
+        shopSyncsFirebaseReference.getPurchasedItemsWithShopSyncUid(shopSyncUid)
+                .addOnCompleteListener(task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "backfillCosts: failed to get purchased items",
+                              task.getException());
+                        if (onFailure != null) {
+                            onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                             "Failed to get purchased items"));
+                        }
+                        return;
+                    }
+
+                    snapshotDecoder.decodeChildren(
+                            task.getResult(), PurchasedItemModel.class, purchasedItems -> {
+                        Map<String, Double> costsByUserUid =
+                                shopSyncsFirebaseReference.summarizeCosts(purchasedItems);
+                        shopSyncsFirebaseReference.backfillCosts(shopSyncUid, costsByUserUid)
+                                .addOnCompleteListener(backfillTask -> {
+                                    if (!backfillTask.isSuccessful()) {
+                                        Log.e(TAG, "backfillCosts: failed to backfill costs",
+                                              backfillTask.getException());
+                                        if (onFailure != null) {
+                                            onFailure.accept(new ErrorHandle(
+                                                    ErrorType.TASK_FAILED,
+                                                    "Failed to backfill costs"));
+                                        }
+                                        return;
+                                    }
+
+                                    // another client may have backfilled the ledger first
+                                    Map<String, Double> storedCosts =
+                                            decodeCosts(backfillTask.getResult());
+                                    Logs.d(TAG, "backfillCosts: backfilled costs {}",
+                                            storedCosts);
+                                    onSuccess.accept(storedCosts);
+                                });
+                    }, onFailure);
+                });
+    }
+
+    /**
+     * Converts the cost ledger of a shop sync to the total cost of each user, skipping the mark
+     * of a backfilled ledger.
+     *
+     * @param costsSnapshot the snapshot of the cost ledger
+     * @return the total cost of each user, keyed by user uid
+     */
+    private static Map<String, Double> decodeCosts(@Nullable DataSnapshot costsSnapshot) {
+        Map<String, Double> costsByUserUid = new HashMap<>();
+        if (costsSnapshot == null) {
+            return costsByUserUid;
+        }
+
+        for (DataSnapshot child : costsSnapshot.getChildren()) {
+            String userUid = child.getKey();
+            if (userUid == null ||
+                    userUid.equals(ShopSyncsFirebaseReference.COSTS_BACKFILLED_FIELD)) {
+                continue;
+            }
+
+            Double cost = child.getValue(Double.class);
+            if (cost != null) {
+                costsByUserUid.put(userUid, cost);
+            }
+        }
+        return costsByUserUid;
+    }
+
     /**
      * Returns the task that attempts to update the purchased item with the given purchased item.
      *
@@ -592,8 +1387,8 @@ public class ShopSyncsService {
      */
     public Task<Void> updatePurchasedItem(@NonNull String shopSyncUid,
                                           @NonNull PurchasedItemModel updatedPurchasedItem) {
-        Log.d(TAG, "updatePurchasedItem: updating purchased item with shop sync uid (" +
-                shopSyncUid + ") and purchased item uid (" + updatedPurchasedItem.getPurchasedItemUid() + ")");
+        Logs.d(TAG, "updatePurchasedItem: updating purchased item with shop sync uid ({}) and " +
+                "purchased item uid ({})", shopSyncUid, updatedPurchasedItem.getPurchasedItemUid());
         return shopSyncsFirebaseReference.updatePurchasedItem(shopSyncUid, updatedPurchasedItem);
     }
 
@@ -606,8 +1401,8 @@ public class ShopSyncsService {
      */
     public @NonNull Task<Void> deletePurchasedItem(@NonNull String shopSyncUid,
                                                    @NonNull String purchasedItemId) {
-        Log.d(TAG, "deletePurchasedItem: deleting purchased item with shop sync uid (" +
-                shopSyncUid + ") and item id (" + purchasedItemId + ")");
+        Logs.d(TAG, "deletePurchasedItem: deleting purchased item with shop sync uid ({}) and " +
+                "item id ({})", shopSyncUid, purchasedItemId);
         return shopSyncsFirebaseReference.deletePurchasedItem(shopSyncUid, purchasedItemId);
     }
 
@@ -618,8 +1413,8 @@ public class ShopSyncsService {
      * @return the task that attempts to delete all purchased items with the given shop sync uid
      */
     public @NonNull Task<Void> deleteAllPurchasedItems(@NonNull String shopSyncUid) {
-        Log.d(TAG, "deleteAllPurchasedItems: deleting all purchased items with shop sync uid (" +
-                shopSyncUid + ")");
+        Logs.d(TAG, "deleteAllPurchasedItems: deleting all purchased items with shop sync uid ({})",
+                shopSyncUid);
         return shopSyncsFirebaseReference.deleteAllPurchasedItems(shopSyncUid);
     }
 }
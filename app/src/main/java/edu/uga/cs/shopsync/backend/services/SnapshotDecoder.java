@@ -0,0 +1,258 @@
+package edu.uga.cs.shopsync.backend.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import edu.uga.cs.shopsync.backend.models.BasketItemModel;
+import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
+import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+import edu.uga.cs.shopsync.backend.models.ShoppingBasketModel;
+import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+import edu.uga.cs.shopsync.utils.ErrorHandle;
+import edu.uga.cs.shopsync.utils.ErrorType;
+import edu.uga.cs.shopsync.utils.Logs;
+
+/**
+ * Converts data snapshots to models off the main thread. The database delivers snapshots on the
+ * main thread, and converting a large snapshot to a model by reflection can take long enough to
+ * drop frames, so the conversion runs on a small pool of decode threads and only the finished
+ * models are posted back to the main thread.
+ * <p>
+ * The pool and its queue are bounded. If the queue is full, the snapshot is handed back to the
+ * main looper and submitted to the pool again a frame later, so it is never decoded on the thread
+ * that submitted it, which is usually the main thread.
+ * <p>
+ * Results of a single call are delivered in the order of the snapshot's children. Results of
+ * separate calls may be delivered in any order.
+ * <p>
+ * The models that have a hand-written {@code fromMap} are decoded from the plain values of the
+ * snapshot by that method; other types go through the reflection-based
+ * {@link DataSnapshot#getValue(Class)}.
+ */
+@Singleton
+public class SnapshotDecoder {
+
+    private static final String TAG = "SnapshotDecoder";
+
+    /**
+     * The number of threads that decode snapshots.
+     */
+    public static final int DECODE_THREAD_COUNT = 2;
+
+    /**
+     * The maximum number of snapshots that wait to be decoded.
+     */
+    public static final int DECODE_QUEUE_CAPACITY = 64;
+
+    /**
+     * The delay, in milliseconds, before a snapshot that did not fit in the full queue is
+     * submitted again.
+     */
+    public static final long DECODE_RETRY_DELAY_MILLIS = 16;
+
+    private static final Map<Class<?>, Function<Map<String, Object>, ?>> CODECS = Map.of(
+            ShopSyncModel.class, ShopSyncModel::of,
+            ShoppingItemModel.class, ShoppingItemModel::of,
+            ShoppingBasketModel.class, ShoppingBasketModel::of,
+            BasketItemModel.class, BasketItemModel::of,
+            PurchasedItemModel.class, PurchasedItemModel::of);
+
+    private final Executor decodeExecutor;
+    private final Executor mainExecutor;
+
+    /**
+     * Constructs a new SnapshotDecoder that decodes on its own bounded pool and delivers the
+     * results on the main thread.
+     */
+    @Inject
+    public SnapshotDecoder() {
+        this(new Handler(Looper.getMainLooper()));
+    }
+
+    private SnapshotDecoder(@NonNull Handler mainHandler) {
+        this(newDecodeExecutor(runnable -> mainHandler.postDelayed(runnable,
+                                                                   DECODE_RETRY_DELAY_MILLIS)),
+             mainHandler::post);
+    }
+
+    /**
+     * Constructs a new SnapshotDecoder. Used for testing only.
+     *
+     * @param decodeExecutor the executor that decodes the snapshots
+     * @param mainExecutor   the executor that runs on the main thread
+     */
+    SnapshotDecoder(@NonNull Executor decodeExecutor, @NonNull Executor mainExecutor) {
+        this.decodeExecutor = decodeExecutor;
+        this.mainExecutor = mainExecutor;
+        Logs.d(TAG, "SnapshotDecoder: created");
+    }
+
+    /**
+     * Converts the snapshot to a model of the given type and passes it to the consumer on the
+     * main thread.
+     *
+     * @param snapshot  the snapshot to convert
+     * @param type      the type of the model
+     * @param onSuccess the consumer that consumes the model, or null if the snapshot is null or
+     *                  holds no data
+     * @param onFailure the consumer that consumes the error if the snapshot could not be
+     *                  converted
+     * @param <T>       the type of the model
+     */
+    public <T> void decode(@Nullable DataSnapshot snapshot, @NonNull Class<T> type,
+                           @NonNull Consumer<T> onSuccess,
+                           @Nullable Consumer<ErrorHandle> onFailure) {
+        decodeExecutor.execute(() -> {
+            T value;
+            try {
+                value = snapshot == null ? null : decodeValue(snapshot, type);
+            } catch (RuntimeException e) {
+                deliverFailure(type, e, onFailure);
+                return;
+            }
+
+            mainExecutor.execute(() -> onSuccess.accept(value));
+        });
+    }
+
+    /**
+     * Converts the children of the snapshot to models of the given type and passes them to the
+     * consumer on the main thread, in the order of the children. Children that hold no data are
+     * skipped.
+     *
+     * @param snapshot  the snapshot whose children to convert
+     * @param type      the type of the models
+     * @param onSuccess the consumer that consumes the models, which is empty if the snapshot is
+     *                  null
+     * @param onFailure the consumer that consumes the error if a child could not be converted
+     * @param <T>       the type of the models
+     */
+    public <T> void decodeChildren(@Nullable DataSnapshot snapshot, @NonNull Class<T> type,
+                                   @NonNull Consumer<List<T>> onSuccess,
+                                   @Nullable Consumer<ErrorHandle> onFailure) {
+        decodeChildren(snapshot == null ? List.of() : snapshot.getChildren(), type, onSuccess,
+                       onFailure);
+    }
+
+    /**
+     * Converts the snapshots to models of the given type and passes them to the consumer on the
+     * main thread, in the order of the snapshots. Snapshots that hold no data are skipped.
+     *
+     * @param snapshots the snapshots to convert
+     * @param type      the type of the models
+     * @param onSuccess the consumer that consumes the models
+     * @param onFailure the consumer that consumes the error if a snapshot could not be converted
+     * @param <T>       the type of the models
+     */
+    public <T> void decodeChildren(@NonNull Iterable<DataSnapshot> snapshots,
+                                   @NonNull Class<T> type, @NonNull Consumer<List<T>> onSuccess,
+                                   @Nullable Consumer<ErrorHandle> onFailure) {
+        decodeExecutor.execute(() -> {
+            List<T> values = new ArrayList<>();
+            try {
+                for (DataSnapshot child : snapshots) {
+                    T value = decodeValue(child, type);
+                    if (value == null) {
+                        Log.w(TAG, "decodeChildren: skipping child (" + child.getKey() + ") " +
+                                "with no data");
+                        continue;
+                    }
+                    values.add(value);
+                }
+            } catch (RuntimeException e) {
+                deliverFailure(type, e, onFailure);
+                return;
+            }
+
+            mainExecutor.execute(() -> onSuccess.accept(values));
+        });
+    }
+
+    /**
+     * Converts the snapshot to a model of the given type on the calling thread. Meant for small
+     * snapshots, such as the child of a child event.
+     *
+     * @param snapshot the snapshot to convert
+     * @param type     the type of the model
+     * @param <T>      the type of the model
+     * @return the model, or null if the snapshot holds no data
+     * @throws IllegalArgumentException if the snapshot does not hold a model of the given type
+     */
+    @Nullable
+    public static <T> T decodeValue(@NonNull DataSnapshot snapshot, @NonNull Class<T> type) {
+        Function<Map<String, Object>, ?> codec = CODECS.get(type);
+        if (codec == null) {
+            return snapshot.getValue(type);
+        }
+
+        Object value = snapshot.getValue();
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Snapshot (" + snapshot.getKey() + ") does not " +
+                                                       "hold a " + type.getSimpleName());
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = (Map<String, Object>) value;
+        return type.cast(codec.apply(map));
+    }
+
+    private void deliverFailure(@NonNull Class<?> type, @NonNull RuntimeException e,
+                                @Nullable Consumer<ErrorHandle> onFailure) {
+        Log.e(TAG, "deliverFailure: failed to decode " + type.getSimpleName(), e);
+        if (onFailure != null) {
+            mainExecutor.execute(() -> onFailure.accept(new ErrorHandle(
+                    ErrorType.TASK_FAILED, "Failed to decode " + type.getSimpleName())));
+        }
+    }
+
+    /**
+     * Returns the bounded pool that decodes snapshots. A snapshot that is rejected because the
+     * queue is full is passed to the retry executor, which submits it to the pool again later.
+     *
+     * @param retryExecutor the executor that runs the resubmission of a rejected snapshot later
+     * @return the pool
+     */
+    @NonNull
+    static ThreadPoolExecutor newDecodeExecutor(@NonNull Executor retryExecutor) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                DECODE_THREAD_COUNT, DECODE_THREAD_COUNT, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(DECODE_QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-decoder-" +
+                    threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, (runnable, pool) -> {
+            if (!pool.isShutdown()) {
+                Logs.d(TAG, "newDecodeExecutor: decode queue is full, retrying later");
+                retryExecutor.execute(() -> pool.execute(runnable));
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+}
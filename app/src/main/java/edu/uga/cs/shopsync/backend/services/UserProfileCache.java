@@ -0,0 +1,180 @@
+package edu.uga.cs.shopsync.backend.services;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.DataSnapshot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import edu.uga.cs.shopsync.utils.Logs;
+
+/**
+ * Read-through cache for user profile reads. Entries are kept in least recently used order and
+ * expire after a fixed time to live. Concurrent reads of the same user share a single in-flight
+ * task instead of each going to the network, and failed reads are never cached.
+ */
+@Singleton
+public class UserProfileCache {
+
+    private static final String TAG = "UserProfileCache";
+
+    /**
+     * The default maximum number of cached user profiles.
+     */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    /**
+     * The default time to live of a cached user profile in milliseconds.
+     */
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * A cached read together with the time it was started.
+     */
+    private record Entry(Task<DataSnapshot> task, long createdAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries;
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+
+    /**
+     * Constructs a new UserProfileCache with the default size and time to live.
+     */
+    @Inject
+    public UserProfileCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS, SystemClock::elapsedRealtime);
+    }
+
+    /**
+     * Constructs a new UserProfileCache. Used for testing only.
+     *
+     * @param maxSize   the maximum number of cached user profiles
+     * @param ttlMillis the time to live of a cached user profile in milliseconds
+     * @param clock     the clock that returns the current time in milliseconds
+     */
+    UserProfileCache(int maxSize, long ttlMillis, @NonNull LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserProfileCache.this.maxSize;
+            }
+        };
+        Logs.d(TAG, "UserProfileCache: created");
+    }
+
+    /**
+     * Returns the cached task for the user with the given uid, or starts a new read with the
+     * given loader if there is no usable entry. An entry is usable if its read is still in
+     * flight, or if it succeeded and has not expired.
+     *
+     * @param userUid the user's unique id
+     * @param loader  the function that starts a read of the user profile
+     * @return the task that fetches the user profile
+     */
+    public synchronized @NonNull Task<DataSnapshot> get(
+            @NonNull String userUid, @NonNull Function<String, Task<DataSnapshot>> loader) {
+        long now = clock.getAsLong();
+
+        Entry entry = entries.get(userUid);
+        if (entry != null && isUsable(entry, now)) {
+            hitCount.incrementAndGet();
+            return entry.task();
+        }
+
+        missCount.incrementAndGet();
+        Task<DataSnapshot> task = loader.apply(userUid);
+        Entry newEntry = new Entry(task, now);
+        entries.put(userUid, newEntry);
+
+        // failed reads are dropped so that the next caller retries
+        task.addOnCompleteListener(completedTask -> {
+            if (!completedTask.isSuccessful()) {
+                remove(userUid, newEntry);
+            }
+        });
+
+        return task;
+    }
+
+    /**
+     * Removes the cached user profile of the user with the given uid.
+     *
+     * @param userUid the user's unique id
+     */
+    public synchronized void invalidate(@NonNull String userUid) {
+        entries.remove(userUid);
+    }
+
+    /**
+     * Removes all cached user profiles.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of cached user profiles, including expired ones that were not evicted
+     * yet.
+     *
+     * @return the number of cached user profiles
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of reads that were served from the cache, including reads that joined
+     * an in-flight read.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of reads that went to the network.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private boolean isUsable(@NonNull Entry entry, long now) {
+        Task<DataSnapshot> task = entry.task();
+        if (!task.isComplete()) {
+            return true;
+        }
+        return task.isSuccessful() && now - entry.createdAt() < ttlMillis;
+    }
+
+    private synchronized void remove(@NonNull String userUid, @NonNull Entry entry) {
+        // only remove the entry if it has not been replaced in the meantime
+        if (entries.get(userUid) == entry) {
+            entries.remove(userUid);
+        }
+    }
+
+}
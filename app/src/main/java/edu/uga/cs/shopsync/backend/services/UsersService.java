@@ -1,6 +1,5 @@
 package edu.uga.cs.shopsync.backend.services;
 
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -11,6 +10,9 @@ import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.ValueEventListener;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import javax.inject.Inject;
@@ -23,6 +25,8 @@ import edu.uga.cs.shopsync.backend.firebase.UserShopSyncMapFirebaseReference;
 import edu.uga.cs.shopsync.backend.firebase.UsersFirebaseReference;
 import edu.uga.cs.shopsync.backend.models.UserProfileModel;
 import edu.uga.cs.shopsync.utils.ErrorHandle;
+import edu.uga.cs.shopsync.utils.Futures;
+import edu.uga.cs.shopsync.utils.Logs;
 
 /**
  * Service class for users.
@@ -34,13 +38,19 @@ public class UsersService {
 
     private final UsersFirebaseReference usersFirebaseReference;
     private final UserShopSyncMapFirebaseReference userShopSyncMapFirebaseReference;
+    private final UserProfileCache userProfileCache;
+    private final ServiceMetrics serviceMetrics;
 
     @Inject
     public UsersService(@NonNull UsersFirebaseReference usersFirebaseReference,
-                        @NonNull UserShopSyncMapFirebaseReference userShopSyncMapFirebaseReference) {
+                        @NonNull UserShopSyncMapFirebaseReference userShopSyncMapFirebaseReference,
+                        @NonNull UserProfileCache userProfileCache,
+                        @NonNull ServiceMetrics serviceMetrics) {
         this.usersFirebaseReference = usersFirebaseReference;
         this.userShopSyncMapFirebaseReference = userShopSyncMapFirebaseReference;
-        Log.d(TAG, "UsersService: created");
+        this.userProfileCache = userProfileCache;
+        this.serviceMetrics = serviceMetrics;
+        Logs.d(TAG, "UsersService: created");
     }
 
     /**
@@ -67,7 +77,11 @@ public class UsersService {
                            @Nullable Consumer<UserProfileModel> onSuccess,
                            @Nullable Consumer<ErrorHandle> onError)
             throws TaskFailureException, UserAlreadyExistsException, IllegalNullValueException {
-        usersFirebaseReference.createUser(email, username, password, onSuccess, onError);
+        long startTime = serviceMetrics.startTime();
+        usersFirebaseReference.createUser(
+                email, username, password,
+                serviceMetrics.recordOnSuccess("createUser", startTime, onSuccess),
+                serviceMetrics.recordOnFailure("createUser", onError));
     }
 
     /**
@@ -84,6 +98,7 @@ public class UsersService {
      * Attempts to sign out the current user.
      */
     public void signOut() {
+        userProfileCache.invalidateAll();
         usersFirebaseReference.signOut();
     }
 
@@ -113,13 +128,30 @@ public class UsersService {
     }
 
     /**
-     * Returns the task that fetches the user profile for the user with the given unique id.
+     * Returns the task that fetches the user profile for the user with the given unique id. The
+     * profile is served from the {@link UserProfileCache} if possible.
      *
      * @param userUid the user's unique id.
      * @return the task that fetches the user profile.
      */
     public @NonNull Task<DataSnapshot> getUserProfileWithUid(@NonNull String userUid) {
-        return usersFirebaseReference.getUserProfileWithUid(userUid);
+        return serviceMetrics.recordTask("getUserProfileWithUid", userProfileCache.get(
+                userUid, usersFirebaseReference::getUserProfileWithUid));
+    }
+
+    /**
+     * Returns a future that completes with the user profile for the user with the given unique
+     * id, or with null if the user has no profile. The profile is served from the
+     * {@link UserProfileCache} if possible.
+     *
+     * @param userUid the user's unique id.
+     * @return the future that completes with the user profile.
+     */
+    public @NonNull CompletableFuture<UserProfileModel> getUserProfileAsync(
+            @NonNull String userUid) {
+        return Futures.fromTask(getUserProfileWithUid(userUid))
+                .thenApply(snapshot -> snapshot == null ? null :
+                        snapshot.getValue(UserProfileModel.class));
     }
 
     /**
@@ -132,6 +164,33 @@ public class UsersService {
         return usersFirebaseReference.getUserProfileWithEmail(email);
     }
 
+    /**
+     * Resolves the emails to the uids of their users with one key lookup per email.
+     *
+     * @param emails    the emails to resolve
+     * @param onSuccess the consumer that consumes the map from every email that belongs to a user
+     *                  to the uid of the user; emails that belong to no user are left out
+     * @param onFailure the consumer that consumes the error if a lookup fails
+     */
+    public void resolveEmails(@NonNull Collection<String> emails,
+                              @NonNull Consumer<Map<String, String>> onSuccess,
+                              @Nullable Consumer<ErrorHandle> onFailure) {
+        usersFirebaseReference.resolveEmails(emails, onSuccess, onFailure);
+    }
+
+    /**
+     * Returns a future that completes with the map from every email that belongs to a user to the
+     * uid of the user, as {@link #resolveEmails(Collection, Consumer, Consumer)} does.
+     *
+     * @param emails the emails to resolve
+     * @return the future that completes with the uid of the user of every resolved email
+     */
+    public @NonNull CompletableFuture<Map<String, String>> resolveEmailsAsync(
+            @NonNull Collection<String> emails) {
+        return Futures.fromCallbacks(
+                (onSuccess, onFailure) -> resolveEmails(emails, onSuccess, onFailure));
+    }
+
     /**
      * Returns the task that fetches the user profile of the current user. Returns null if the
      * current user is not signed
@@ -163,5 +222,6 @@ public class UsersService {
                                   @Nullable Runnable onFailure) {
         String userUid = usersFirebaseReference.deleteCurrentUser(password, onSuccess, onFailure);
         userShopSyncMapFirebaseReference.removeUser(userUid);
+        userProfileCache.invalidate(userUid);
     }
 }
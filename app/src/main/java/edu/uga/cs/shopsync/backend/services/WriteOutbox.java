@@ -0,0 +1,257 @@
+package edu.uga.cs.shopsync.backend.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import edu.uga.cs.shopsync.utils.ErrorHandle;
+import edu.uga.cs.shopsync.utils.ErrorType;
+import edu.uga.cs.shopsync.utils.Logs;
+
+/**
+ * Outbox for frequent, last-write-wins updates such as edits of a quantity or a name. Writes are
+ * held for a short window, writes to the same path within the window are coalesced so only the
+ * latest value is sent, and everything pending is then flushed as a single multi-path update of
+ * the database root.
+ * <p>
+ * Once flushed, writes are queued by the database client, which persists them on disk and
+ * replays them after process death or a loss of connectivity. Only the writes of the current
+ * window are held in memory, so callers that are about to go away should call {@link #flush()}.
+ * Any other write that touches the same data must also call {@link #flush()} first, so that a
+ * pending write cannot be applied after it.
+ */
+@Singleton
+public class WriteOutbox {
+
+    private static final String TAG = "WriteOutbox";
+
+    /**
+     * The default time in milliseconds that writes are held before they are flushed.
+     */
+    public static final long DEFAULT_FLUSH_DELAY_MILLIS = 300;
+
+    private final DatabaseReference rootReference;
+    private final long flushDelayMillis;
+    private final BiConsumer<Runnable, Long> scheduler;
+    private final LongSupplier clock;
+
+    private final Map<String, Object> pendingUpdates = new LinkedHashMap<>();
+    private final List<Runnable> pendingSuccessCallbacks = new ArrayList<>();
+    private final List<Consumer<ErrorHandle>> pendingFailureCallbacks = new ArrayList<>();
+    private boolean flushScheduled = false;
+
+    private long enqueuedWriteCount = 0;
+    private long coalescedWriteCount = 0;
+    private long flushCount = 0;
+    private long completedFlushCount = 0;
+    private long totalFlushLatencyMillis = 0;
+    private long lastFlushLatencyMillis = 0;
+    private long maxFlushLatencyMillis = 0;
+
+    /**
+     * Constructs a new WriteOutbox that flushes on the main thread after the default delay.
+     */
+    @Inject
+    public WriteOutbox() {
+        this(FirebaseDatabase.getInstance().getReference(), DEFAULT_FLUSH_DELAY_MILLIS,
+             new Handler(Looper.getMainLooper())::postDelayed, SystemClock::elapsedRealtime);
+    }
+
+    /**
+     * Constructs a new WriteOutbox. Used for testing only.
+     *
+     * @param rootReference    the reference to the root of the database
+     * @param flushDelayMillis the time in milliseconds that writes are held before they are
+     *                         flushed
+     * @param scheduler        the function that runs the given runnable after the given delay in
+     *                         milliseconds
+     * @param clock            the clock that returns the current time in milliseconds
+     */
+    WriteOutbox(@NonNull DatabaseReference rootReference, long flushDelayMillis,
+                @NonNull BiConsumer<Runnable, Long> scheduler, @NonNull LongSupplier clock) {
+        this.rootReference = rootReference;
+        this.flushDelayMillis = flushDelayMillis;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        Logs.d(TAG, "WriteOutbox: created");
+    }
+
+    /**
+     * Adds the given updates to the outbox. The paths are relative to the root of the database.
+     * A pending update of the same path is replaced. If a path is an ancestor or a descendant of
+     * a pending path, the pending updates are flushed first, since a multi-path update cannot
+     * contain both.
+     *
+     * @param updates   the updates to write
+     * @param onSuccess the runnable that is run once the updates are written
+     * @param onFailure the consumer that consumes the error if the updates could not be written
+     */
+    public synchronized void enqueue(@NonNull Map<String, Object> updates,
+                                     @Nullable Runnable onSuccess,
+                                     @Nullable Consumer<ErrorHandle> onFailure) {
+        for (String path : updates.keySet()) {
+            if (overlapsPendingPath(path)) {
+                Logs.d(TAG, "enqueue: path ({}) overlaps a pending path, flushing", path);
+                flush();
+                break;
+            }
+        }
+
+        updates.forEach((path, value) -> {
+            if (pendingUpdates.containsKey(path)) {
+                coalescedWriteCount++;
+            }
+            pendingUpdates.put(path, value);
+        });
+        enqueuedWriteCount += updates.size();
+
+        if (onSuccess != null) {
+            pendingSuccessCallbacks.add(onSuccess);
+        }
+        if (onFailure != null) {
+            pendingFailureCallbacks.add(onFailure);
+        }
+
+        if (!flushScheduled) {
+            flushScheduled = true;
+            scheduler.accept(this::flush, flushDelayMillis);
+        }
+    }
+
+    /**
+     * Writes all pending updates as a single multi-path update. Does nothing if there are no
+     * pending updates.
+     */
+    public synchronized void flush() {
+        flushScheduled = false;
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> batch = new HashMap<>(pendingUpdates);
+        List<Runnable> successCallbacks = new ArrayList<>(pendingSuccessCallbacks);
+        List<Consumer<ErrorHandle>> failureCallbacks = new ArrayList<>(pendingFailureCallbacks);
+        pendingUpdates.clear();
+        pendingSuccessCallbacks.clear();
+        pendingFailureCallbacks.clear();
+        flushCount++;
+
+        Logs.d(TAG, "flush: flushing {} writes", batch.size());
+        long startedAt = clock.getAsLong();
+        rootReference.updateChildren(batch).addOnCompleteListener(task -> {
+            recordFlushLatency(clock.getAsLong() - startedAt);
+
+            if (task.isSuccessful()) {
+                successCallbacks.forEach(Runnable::run);
+            } else {
+                Log.e(TAG, "flush: failed to flush " + batch.size() + " writes",
+                      task.getException());
+                ErrorHandle errorHandle = new ErrorHandle(ErrorType.TASK_FAILED,
+                                                          "Failed to flush writes");
+                failureCallbacks.forEach(onFailure -> onFailure.accept(errorHandle));
+            }
+        });
+    }
+
+    /**
+     * Returns the number of paths that are waiting to be flushed.
+     *
+     * @return the number of pending paths
+     */
+    public synchronized int getQueueDepth() {
+        return pendingUpdates.size();
+    }
+
+    /**
+     * Returns the number of path writes that were added to the outbox.
+     *
+     * @return the number of enqueued writes
+     */
+    public synchronized long getEnqueuedWriteCount() {
+        return enqueuedWriteCount;
+    }
+
+    /**
+     * Returns the number of path writes that replaced a pending write of the same path and so
+     * were never sent on their own.
+     *
+     * @return the number of coalesced writes
+     */
+    public synchronized long getCoalescedWriteCount() {
+        return coalescedWriteCount;
+    }
+
+    /**
+     * Returns the number of multi-path updates that were sent.
+     *
+     * @return the number of flushes
+     */
+    public synchronized long getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Returns the time in milliseconds between the start and the completion of the last
+     * completed flush.
+     *
+     * @return the latency of the last flush
+     */
+    public synchronized long getLastFlushLatencyMillis() {
+        return lastFlushLatencyMillis;
+    }
+
+    /**
+     * Returns the longest time in milliseconds between the start and the completion of a flush.
+     *
+     * @return the maximum flush latency
+     */
+    public synchronized long getMaxFlushLatencyMillis() {
+        return maxFlushLatencyMillis;
+    }
+
+    /**
+     * Returns the average time in milliseconds between the start and the completion of a flush.
+     *
+     * @return the average flush latency, or zero if no flush has completed
+     */
+    public synchronized double getAverageFlushLatencyMillis() {
+        return completedFlushCount == 0 ? 0 :
+                (double) totalFlushLatencyMillis / completedFlushCount;
+    }
+
+    private synchronized void recordFlushLatency(long latencyMillis) {
+        completedFlushCount++;
+        totalFlushLatencyMillis += latencyMillis;
+        lastFlushLatencyMillis = latencyMillis;
+        maxFlushLatencyMillis = Math.max(maxFlushLatencyMillis, latencyMillis);
+    }
+
+    private boolean overlapsPendingPath(@NonNull String path) {
+        for (String pendingPath : pendingUpdates.keySet()) {
+            if (path.startsWith(pendingPath + "/") || pendingPath.startsWith(path + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
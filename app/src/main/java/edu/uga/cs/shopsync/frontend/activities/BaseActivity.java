@@ -18,6 +18,7 @@ import edu.uga.cs.shopsync.ApplicationGraph;
 import edu.uga.cs.shopsync.ApplicationGraphSingleton;
 import edu.uga.cs.shopsync.R;
 import edu.uga.cs.shopsync.backend.services.UsersService;
+import edu.uga.cs.shopsync.utils.Logs;
 
 /**
  * Base activity class for all activities in the app. This class provides a common interface for
@@ -114,8 +115,8 @@ public class BaseActivity extends AppCompatActivity {
         if (currentUser == null) {
             throw new IllegalStateException("Current user cannot be null at this point");
         }
-        Log.d(TAG, "checkIfUserIsLoggedInAndFetch: user signed in with email " +
-                currentUser.getEmail() + " and id (" + currentUser.getUid() + ")");
+        Logs.d(TAG, "checkIfUserIsLoggedInAndFetch: user signed in with email {} and id ({})",
+                currentUser.getEmail(), currentUser.getUid());
 
         return currentUser;
     }
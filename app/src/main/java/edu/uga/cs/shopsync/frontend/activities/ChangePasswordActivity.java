@@ -29,6 +29,7 @@ import edu.uga.cs.shopsync.ApplicationGraph;
 import edu.uga.cs.shopsync.R;
 import edu.uga.cs.shopsync.backend.exceptions.IllegalNullValueException;
 import edu.uga.cs.shopsync.frontend.utils.TextWatcherAdapter;
+import edu.uga.cs.shopsync.utils.Logs;
 import edu.uga.cs.shopsync.utils.PasswordStrength;
 
 /**
@@ -85,7 +86,7 @@ public class ChangePasswordActivity extends BaseActivity {
      */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
-        Log.d(TAG, "onCreate: called");
+        Logs.d(TAG, "onCreate: called");
         super.onCreate(savedInstanceState);
 
         // check if user is logged in
@@ -170,14 +171,14 @@ public class ChangePasswordActivity extends BaseActivity {
         // back button
         Button backButton = findViewById(R.id.backButton);
         backButton.setOnClickListener(v -> {
-            Log.d(TAG, "Back button clicked");
+            Logs.d(TAG, "Back button clicked");
             finish();
         });
 
         // change password button
         Button changePasswordButton = findViewById(R.id.changePasswordButton);
         changePasswordButton.setOnClickListener(v -> {
-            Log.d(TAG, "changePasswordButton: change password button clicked");
+            Logs.d(TAG, "changePasswordButton: change password button clicked");
 
             String oldPassword = oldPasswordEditText.getText().toString();
             String newPassword = newPasswordEditText.getText().toString();
@@ -313,7 +314,7 @@ public class ChangePasswordActivity extends BaseActivity {
 
         user.reauthenticate(credential).addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
-                Log.d(TAG, "reAuthenticateUser: re-authentication successful");
+                Logs.d(TAG, "reAuthenticateUser: re-authentication successful");
                 updatePassword(user, newPassword);
             } else {
                 Log.e(TAG, "reAuthenticateUser: re-authentication failed", task.getException());
@@ -327,7 +328,7 @@ public class ChangePasswordActivity extends BaseActivity {
     private void updatePassword(FirebaseUser user, String newPassword) {
         user.updatePassword(newPassword).addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
-                Log.d(TAG, "updatePassword: password updated successfully");
+                Logs.d(TAG, "updatePassword: password updated successfully");
 
                 Toast.makeText(ChangePasswordActivity.this, "Password updated successfully.",
                                Toast.LENGTH_SHORT).show();
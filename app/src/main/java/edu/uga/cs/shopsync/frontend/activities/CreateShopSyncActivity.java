@@ -22,7 +22,6 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.ActionBar;
 
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,10 +31,11 @@ import java.util.function.Supplier;
 
 import edu.uga.cs.shopsync.R;
 import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
-import edu.uga.cs.shopsync.backend.models.UserProfileModel;
+import edu.uga.cs.shopsync.backend.services.InvitationResult;
 import edu.uga.cs.shopsync.frontend.Constants;
 import edu.uga.cs.shopsync.frontend.utils.TextWatcherAdapter;
 import edu.uga.cs.shopsync.utils.ErrorHandle;
+import edu.uga.cs.shopsync.utils.Logs;
 
 /**
  * Activity for creating a new Shop Sync.
@@ -73,7 +73,7 @@ public class CreateShopSyncActivity extends BaseActivity {
         // set up the back button
         Button backButton = findViewById(R.id.backButton);
         backButton.setOnClickListener(v -> {
-            Log.d(TAG, "Back button clicked");
+            Logs.d(TAG, "Back button clicked");
             finish();
         });
 
@@ -143,59 +143,41 @@ public class CreateShopSyncActivity extends BaseActivity {
 
         // on success consumer
         Consumer<ShopSyncModel> onSuccess = shopSync -> {
-            Log.d(TAG, "onCreateShopSyncButtonClick: shop sync created successfully");
+            Logs.d(TAG, "onCreateShopSyncButtonClick: shop sync created successfully");
             Toast.makeText(this, "Shop Sync created successfully", Toast.LENGTH_SHORT).show();
 
             // add the current user to the list of invited users so that the current user is
-            // automatically added to the shop sync
+            // added to the shop sync, with a shopping basket, in the same update as the others
             invitedUserEmails.add(user.getEmail());
 
-            invitedUserEmails.forEach(invitedUserEmail -> applicationGraph.usersService()
-                    .getUserProfilesWithEmail(invitedUserEmail).addOnCompleteListener(task -> {
-                        if (task.isSuccessful()) {
-                            DataSnapshot dataSnapshot = task.getResult();
-                            if (dataSnapshot == null) {
-                                Log.e(TAG, "onCreateShopSyncButtonClick: failed to get user " +
-                                        "profile with email " + invitedUserEmail);
-                                createNotificationForFailedToInviteUser(shopSync, invitedUserEmail);
-                                return;
-                            }
-
-                            for (DataSnapshot child : dataSnapshot.getChildren()) {
-                                UserProfileModel userProfile =
-                                        child.getValue(UserProfileModel.class);
-                                if (userProfile == null || userProfile.getUserUid() == null ||
-                                        userProfile.getUserUid().isBlank()) {
-                                    Log.e(TAG, "onCreateShopSyncButtonClick: failed to get " +
-                                            "user profile with email " + invitedUserEmail);
-                                    createNotificationForFailedToInviteUser(shopSync,
-                                                                            invitedUserEmail);
-                                    return;
-                                }
-
-                                Log.d(TAG, "Fetching user profile with email " + invitedUserEmail +
-                                        " succeeded: " + userProfile);
-
-                                // TODO:
-                                // instead of adding the shop sync to the user, send a
-                                // notification to the user to accept the invitation
-
-                                applicationGraph.shopSyncsService().addShopSyncToUser(
-                                        userProfile.getUserUid(), shopSync.getUid());
-
-                                Intent intent = new Intent(this, MyShopSyncsActivity.class);
-                                intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
-                                startActivity(intent);
-
-                                // there should only be one child hence the break statement
-                                break;
-                            }
-                        } else {
-                            Log.e(TAG, "onCreateShopSyncButtonClick: failed to get user " +
-                                    "profile with email " + invitedUserEmail);
+            // TODO:
+            // instead of adding the shop sync to the users, send a
+            // notification to the users to accept the invitation
+
+            Consumer<InvitationResult> onInvited = result -> {
+                result.getEmailsWithOutcome(InvitationResult.Outcome.NOT_FOUND)
+                        .forEach(invitedUserEmail -> {
+                            Log.e(TAG, "onCreateShopSyncButtonClick: no user with email " +
+                                    invitedUserEmail);
                             createNotificationForFailedToInviteUser(shopSync, invitedUserEmail);
-                        }
-                    }));
+                        });
+
+                Intent intent = new Intent(this, MyShopSyncsActivity.class);
+                intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
+                startActivity(intent);
+            };
+
+            Consumer<ErrorHandle> onInviteFailure = errorHandle -> {
+                Log.e(TAG, "onCreateShopSyncButtonClick: failed to invite users: " + errorHandle);
+                Toast.makeText(this, "Failed to invite users", Toast.LENGTH_SHORT).show();
+                invitedUserEmails.stream()
+                        .filter(invitedUserEmail -> !invitedUserEmail.isBlank())
+                        .forEach(invitedUserEmail -> createNotificationForFailedToInviteUser(
+                                shopSync, invitedUserEmail));
+            };
+
+            applicationGraph.shopSyncsService().inviteUsers(shopSync.getUid(), invitedUserEmails,
+                                                            onInvited, onInviteFailure);
         };
 
         // on failure consumer
@@ -205,8 +187,9 @@ public class CreateShopSyncActivity extends BaseActivity {
             Toast.makeText(this, "Failed to create Shop Sync", Toast.LENGTH_SHORT).show();
         };
 
+        // the current user is added along with the invited users once the shop sync exists
         applicationGraph.shopSyncsService().addShopSync
-                (shopSyncName, shopSyncDescription, List.of(user.getUid()), onSuccess, onFailure);
+                (shopSyncName, shopSyncDescription, List.of(), onSuccess, onFailure);
     }
 
     private void createNotificationForFailedToInviteUser(@NonNull ShopSyncModel shopSync,
@@ -250,7 +233,7 @@ public class CreateShopSyncActivity extends BaseActivity {
             TextWatcher editTextEmailWatcher = new TextWatcherAdapter() {
                 @Override
                 public void onTextChanged(CharSequence s, int start, int before, int count) {
-                    Log.d(TAG, "onTextChanged: email: " + email + ", s: " + s);
+                    Logs.d(TAG, "onTextChanged: email: {}, s: {}", email, s);
                     invitedUsers.set(position, s.toString());
                 }
             };
@@ -267,7 +250,7 @@ public class CreateShopSyncActivity extends BaseActivity {
             // set up delete button
             ImageButton buttonDelete = convertView.findViewById(R.id.buttonDelete);
             buttonDelete.setOnClickListener(v -> {
-                Log.d(TAG, "Delete button clicked for email: " + email);
+                Logs.d(TAG, "Delete button clicked for email: {}", email);
                 invitedUsers.remove(email);
                 textViewUserCount.setText(String.format(Locale.getDefault(), USER_COUNT_STRING,
                                                         userCountSupplier.get(),
@@ -24,13 +24,15 @@ import com.google.firebase.database.DatabaseReference;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Consumer;
 
 import edu.uga.cs.shopsync.R;
 import edu.uga.cs.shopsync.backend.exceptions.IllegalNullValueException;
 import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
-import edu.uga.cs.shopsync.backend.models.UserProfileModel;
+import edu.uga.cs.shopsync.backend.services.InvitationResult;
 import edu.uga.cs.shopsync.frontend.Constants;
 import edu.uga.cs.shopsync.frontend.activities.CreateShopSyncActivity.InvitedUsersAdapter;
+import edu.uga.cs.shopsync.utils.Logs;
 
 /**
  * Activity for editing a shop sync.
@@ -46,11 +48,12 @@ public class EditShopSyncActivity extends BaseActivity implements ChildEventList
     private InvitedUsersAdapter invitedUsersAdapter;
 
     private ShopSyncModel shopSync;
+    private ShopSyncModel baselineShopSync;
     private DatabaseReference shopSyncReference;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
-        Log.d(TAG, "onCreate");
+        Logs.d(TAG, "onCreate");
         super.onCreate(savedInstanceState);
 
         // check if user is logged in
@@ -71,61 +74,19 @@ public class EditShopSyncActivity extends BaseActivity implements ChildEventList
         applicationGraph.shopSyncsService()
                 .getShopSyncWithUid(shopSyncUid)
                 .addOnSuccessListener(data -> {
-                    Log.d(TAG, "Task to fetch shop sync finished with data snapshot = " + data);
-
-                    shopSync = data.getValue(ShopSyncModel.class);
-                    Log.d(TAG, "Shop sync = " + shopSync);
-                    if (shopSync == null || shopSync.getUid() == null ||
-                            shopSync.getUid().isBlank()) {
-                        Log.e(TAG, "Shop sync with uid " + shopSyncUid + " does not exist");
-                        Toast.makeText(this, "Shop sync does not exist", Toast.LENGTH_SHORT).show();
-                        finish();
-                        return;
-                    }
-
-                    setContentView(R.layout.activity_edit_shop_sync);
-
-                    // set up action bar
-                    ActionBar actionBar = getSupportActionBar();
-                    if (actionBar != null) {
-                        actionBar.setDisplayHomeAsUpEnabled(true);
-                    }
-
-                    // set up the back button
-                    Button backButton = findViewById(R.id.backButton);
-                    backButton.setOnClickListener(v -> {
-                        Log.d(TAG, "Back button clicked");
-                        finish();
-                    });
-
-                    // set up the edit text view for the description
-                    editTextShopSyncDescription = findViewById(R.id.editTextShopSyncDescription);
-                    String description = shopSync.getDescription();
-                    Log.d(TAG, "Shop sync description = " + description);
-                    editTextShopSyncDescription.setText(description);
-
-                    // set up the text view for the user count
-                    textViewUserCount = findViewById(R.id.textViewUserCount);
-                    int userCount = shopSync.getShoppingBaskets().size();
-                    Log.d(TAG, "User count = " + userCount);
-                    textViewUserCount.setText(String.format(Locale.getDefault(), USER_COUNT_STRING,
-                                                            userCount, SHOP_SYNC_MAX_USER_COUNT));
-
-                    // set up the button for inviting a user
-                    Button buttonInviteUser = findViewById(R.id.buttonInviteUser);
-                    buttonInviteUser.setOnClickListener(v -> onInviteUserButtonClick());
-
-                    // set up the button for updating the shop sync
-                    Button buttonUpdateShopSync = findViewById(R.id.buttonUpdateShopSync);
-                    buttonUpdateShopSync.setOnClickListener(v -> onUpdateShopSyncButtonClick());
-
-                    // set up the invited users array adapter
-                    invitedUserEmails = new ArrayList<>();
-                    invitedUsersAdapter = new InvitedUsersAdapter(this, invitedUserEmails,
-                                                                  textViewUserCount,
-                                                                  () -> invitedUserEmails.size());
-                    ListView listViewInvitedUsers = findViewById(R.id.listViewEditInvitedUsers);
-                    listViewInvitedUsers.setAdapter(invitedUsersAdapter);
+                    Logs.d(TAG, "Task to fetch shop sync finished with data snapshot = {}", data);
+
+                    // a shop sync snapshot holds every item, so it is decoded off the main thread
+                    applicationGraph.snapshotDecoder().decode(
+                            data, ShopSyncModel.class,
+                            loadedShopSync -> onShopSyncLoaded(shopSyncUid, loadedShopSync),
+                            errorHandle -> {
+                                Log.e(TAG, "Failed to decode shop sync: " +
+                                        errorHandle.errorMessage());
+                                Toast.makeText(this, "Failed to open the Edit Shop Sync activity",
+                                               Toast.LENGTH_SHORT).show();
+                                finish();
+                            });
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Failed to fetch shop sync metadata", e);
@@ -140,6 +101,67 @@ public class EditShopSyncActivity extends BaseActivity implements ChildEventList
         shopSyncReference.addChildEventListener(this);
     }
 
+    private void onShopSyncLoaded(@NonNull String shopSyncUid,
+                                  @Nullable ShopSyncModel loadedShopSync) {
+        shopSync = loadedShopSync;
+        Logs.d(TAG, "Shop sync = {}", shopSync);
+        if (shopSync == null || shopSync.getUid() == null ||
+                shopSync.getUid().isBlank()) {
+            Log.e(TAG, "Shop sync with uid " + shopSyncUid + " does not exist");
+            Toast.makeText(this, "Shop sync does not exist", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
+        }
+
+        // keep a copy of the shop sync as it was loaded, so only the edits on this screen are
+        // written and the changes that other members make in the meantime are kept
+        baselineShopSync = ShopSyncModel.of(shopSync.toValueMap());
+
+        setContentView(R.layout.activity_edit_shop_sync);
+
+        // set up action bar
+        ActionBar actionBar = getSupportActionBar();
+        if (actionBar != null) {
+            actionBar.setDisplayHomeAsUpEnabled(true);
+        }
+
+        // set up the back button
+        Button backButton = findViewById(R.id.backButton);
+        backButton.setOnClickListener(v -> {
+            Logs.d(TAG, "Back button clicked");
+            finish();
+        });
+
+        // set up the edit text view for the description
+        editTextShopSyncDescription = findViewById(R.id.editTextShopSyncDescription);
+        String description = shopSync.getDescription();
+        Logs.d(TAG, "Shop sync description = {}", description);
+        editTextShopSyncDescription.setText(description);
+
+        // set up the text view for the user count
+        textViewUserCount = findViewById(R.id.textViewUserCount);
+        int userCount = shopSync.getShoppingBaskets().size();
+        Logs.d(TAG, "User count = {}", userCount);
+        textViewUserCount.setText(String.format(Locale.getDefault(), USER_COUNT_STRING,
+                                                userCount, SHOP_SYNC_MAX_USER_COUNT));
+
+        // set up the button for inviting a user
+        Button buttonInviteUser = findViewById(R.id.buttonInviteUser);
+        buttonInviteUser.setOnClickListener(v -> onInviteUserButtonClick());
+
+        // set up the button for updating the shop sync
+        Button buttonUpdateShopSync = findViewById(R.id.buttonUpdateShopSync);
+        buttonUpdateShopSync.setOnClickListener(v -> onUpdateShopSyncButtonClick());
+
+        // set up the invited users array adapter
+        invitedUserEmails = new ArrayList<>();
+        invitedUsersAdapter = new InvitedUsersAdapter(this, invitedUserEmails,
+                                                      textViewUserCount,
+                                                      () -> invitedUserEmails.size());
+        ListView listViewInvitedUsers = findViewById(R.id.listViewEditInvitedUsers);
+        listViewInvitedUsers.setAdapter(invitedUsersAdapter);
+    }
+
     @Override
     protected void onStop() {
         super.onStop();
@@ -176,10 +198,12 @@ public class EditShopSyncActivity extends BaseActivity implements ChildEventList
         // shop sync description is optional and can be blank
         String shopSyncDescription = editTextShopSyncDescription.getText().toString().trim();
         shopSync.setDescription(shopSyncDescription);
+        ShopSyncModel updatedShopSync = ShopSyncModel.of(baselineShopSync.toValueMap());
+        updatedShopSync.setDescription(shopSyncDescription);
 
         // on success
         Runnable onSuccess = () -> {
-            Log.d(TAG, "Successfully updated shop sync");
+            Logs.d(TAG, "Successfully updated shop sync");
             Toast.makeText(this, "Successfully updated shop sync", Toast.LENGTH_SHORT).show();
 
             Intent intent = new Intent(this, ShopSyncActivity.class);
@@ -197,80 +221,34 @@ public class EditShopSyncActivity extends BaseActivity implements ChildEventList
         };
 
         // update the shop sync
-        applicationGraph.shopSyncsService().updateShopSync(shopSync);
-
-        // add invited users
-        invitedUserEmails.forEach(invitedUserEmail -> applicationGraph.usersService()
-                .getUserProfilesWithEmail(invitedUserEmail).addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        DataSnapshot dataSnapshot = task.getResult();
-                        if (dataSnapshot == null) {
-                            Log.e(TAG,
-                                  "Failed to fetch user profile with email " + invitedUserEmail);
-                            onFailure.run();
-                            return;
-                        }
-
-                        // check if the user exists
-                        if (!dataSnapshot.exists()) {
-                            Log.e(TAG, "User with email " + invitedUserEmail + " does not exist");
-                            onFailure.run();
-                            return;
-                        }
-
-                        for (DataSnapshot child : dataSnapshot.getChildren()) {
-                            UserProfileModel userProfile = child.getValue(UserProfileModel.class);
-
-                            Log.d(TAG, "Fetched from email = " + invitedUserEmail + " user " +
-                                    "profile = " + userProfile);
-
-                            if (userProfile == null || userProfile.getUserUid() == null ||
-                                    userProfile.getUserUid().isBlank()) {
-                                Log.e(TAG, "Failed to fetch user profile with email " +
-                                        invitedUserEmail);
-                                onFailure.run();
-                                continue;
-                            }
-
-                            Log.d(TAG, "Adding user with email " + invitedUserEmail +
-                                    " to shop sync with uid " + shopSync.getUid());
-
-                            String userProfileUid = userProfile.getUserUid();
-                            if (userProfileUid == null) {
-                                Log.e(TAG, "User profile uid is null");
-                                onFailure.run();
-                                continue;
-                            }
-
-                            if (shopSync.getShoppingBaskets().containsKey(userProfileUid)) {
-                                Log.d(TAG, "User with email " + invitedUserEmail +
-                                        " is already a member of the shop sync");
-
-                                // TODO:
-                                //  notify this user that the other user is already a member of the
-                                //  shop sync
-
-                                continue;
-                            }
-
-                            // add the user to the shop sync
-                            applicationGraph.shopSyncsService().addShopSyncToUser(
-                                    userProfileUid, shopSync.getUid());
-
-                            onSuccess.run();
-                        }
-                    } else {
-                        Log.e(TAG, "Failed to fetch user profile with email " + invitedUserEmail,
-                              task.getException());
-                        onFailure.run();
-                    }
-                })
-        );
+        applicationGraph.shopSyncsService().updateShopSync(baselineShopSync, updatedShopSync);
+
+        // add invited users; the screen is left once every invited user is written
+        Consumer<InvitationResult> onInvited = result -> {
+            result.getEmailsWithOutcome(InvitationResult.Outcome.NOT_FOUND).forEach(email -> {
+                Log.e(TAG, "User with email " + email + " does not exist");
+                Toast.makeText(this, "No user with email " + email, Toast.LENGTH_SHORT).show();
+            });
+
+            // TODO:
+            //  notify these users that the other users are already members of the shop sync
+            result.getEmailsWithOutcome(InvitationResult.Outcome.ALREADY_MEMBER).forEach(email ->
+                    Logs.d(TAG, "User with email {} is already a member of the shop sync",
+                           email));
+
+            onSuccess.run();
+        };
+
+        applicationGraph.shopSyncsService().inviteUsers(shopSync.getUid(), invitedUserEmails,
+                                                        onInvited, errorHandle -> {
+                    Log.e(TAG, "Failed to invite users: " + errorHandle);
+                    onFailure.run();
+                });
     }
 
     @Override
     public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "Shop sync child added with snapshot = " + snapshot);
+        Logs.d(TAG, "Shop sync child added with snapshot = {}", snapshot);
         if (shopSync == null) {
             Log.e(TAG, "Shop sync is null");
             return;
@@ -291,12 +269,12 @@ public class EditShopSyncActivity extends BaseActivity implements ChildEventList
             }
         }
 
-        Log.d(TAG, "Updated shop sync on child added = " + shopSync);
+        Logs.d(TAG, "Updated shop sync on child added = {}", shopSync);
     }
 
     @Override
     public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "Shop sync child changed with snapshot = " + snapshot);
+        Logs.d(TAG, "Shop sync child changed with snapshot = {}", snapshot);
         if (shopSync == null) {
             Log.e(TAG, "Shop sync is null");
             return;
@@ -317,12 +295,12 @@ public class EditShopSyncActivity extends BaseActivity implements ChildEventList
             }
         }
 
-        Log.d(TAG, "Updated shop sync on child changed = " + shopSync);
+        Logs.d(TAG, "Updated shop sync on child changed = {}", shopSync);
     }
 
     @Override
     public void onChildRemoved(@NonNull DataSnapshot snapshot) {
-        Log.d(TAG, "Shop sync child removed with snapshot = " + snapshot);
+        Logs.d(TAG, "Shop sync child removed with snapshot = {}", snapshot);
         if (shopSync == null) {
             Log.e(TAG, "Shop sync is null");
             return;
@@ -343,7 +321,7 @@ public class EditShopSyncActivity extends BaseActivity implements ChildEventList
 
     @Override
     public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "Shop sync child moved with snapshot = " + snapshot);
+        Logs.d(TAG, "Shop sync child moved with snapshot = {}", snapshot);
     }
 
     @Override
@@ -2,11 +2,11 @@ package edu.uga.cs.shopsync.frontend.activities;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
 import android.widget.Button;
 
 import edu.uga.cs.shopsync.ApplicationGraph;
 import edu.uga.cs.shopsync.R;
+import edu.uga.cs.shopsync.utils.Logs;
 
 /**
  * The main activity for the application. This activity is the first activity that is displayed
@@ -40,7 +40,7 @@ public class MainActivity extends BaseActivity {
 
         // if the user is already signed in, then redirect to the my account activity
         if (applicationGraph.usersService().isCurrentUserSignedIn()) {
-            Log.d(TAG, "onCreate: user already signed in, redirecting to my account activity");
+            Logs.d(TAG, "onCreate: user already signed in, redirecting to my account activity");
 
             Intent intent = new Intent(this, MyAccountActivity.class);
             intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
@@ -55,7 +55,7 @@ public class MainActivity extends BaseActivity {
         // set up the register button
         Button registerButton = findViewById(R.id.register_button);
         registerButton.setOnClickListener(v -> {
-            Log.d(TAG, "onCreate: register button clicked, redirecting to registration activity");
+            Logs.d(TAG, "onCreate: register button clicked, redirecting to registration activity");
             Intent intent = new Intent(MainActivity.this, RegistrationActivity.class);
             startActivity(intent);
         });
@@ -63,7 +63,7 @@ public class MainActivity extends BaseActivity {
         // set up the sign in button
         Button signInButton = findViewById(R.id.sign_in_button);
         signInButton.setOnClickListener(v -> {
-            Log.d(TAG, "onCreate: sign in button clicked, redirecting to sign in activity");
+            Logs.d(TAG, "onCreate: sign in button clicked, redirecting to sign in activity");
             Intent intent = new Intent(MainActivity.this, SignInActivity.class);
             startActivity(intent);
         });
@@ -72,8 +72,8 @@ public class MainActivity extends BaseActivity {
         Button forgotPassword = findViewById(R.id.forgot_password_button);
         forgotPassword.setOnClickListener(v -> {
 
-            Log.d(TAG, "onCreate: forgot password button clicked, redirecting to forgot password " +
-                    "activity");
+            Logs.d(TAG, "onCreate: forgot password button clicked, redirecting to forgot " +
+                    "password activity");
 
             // Redirect to ForgotPasswordActivity
             Intent intent = new Intent(MainActivity.this, ForgotPasswordActivity.class);
@@ -13,6 +13,7 @@ import com.google.firebase.database.DataSnapshot;
 import edu.uga.cs.shopsync.ApplicationGraph;
 import edu.uga.cs.shopsync.R;
 import edu.uga.cs.shopsync.backend.models.UserProfileModel;
+import edu.uga.cs.shopsync.utils.Logs;
 
 /**
  * Activity for displaying the user's account information.
@@ -58,7 +59,7 @@ public class MyAccountActivity extends BaseActivity {
         applicationGraph.usersService().getUserProfileWithUid(currentUser.getUid())
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
-                        Log.d(TAG, "onCreate: task for user profile is complete");
+                        Logs.d(TAG, "onCreate: task for user profile is complete");
 
                         // fetch the user profile model
                         DataSnapshot dataSnapshot = task.getResult();
@@ -82,10 +83,9 @@ public class MyAccountActivity extends BaseActivity {
                             return;
                         }
 
-                        Log.d(TAG, "onCreate: retrieved user profile with email " +
-                                userProfileModel.getEmail() + " and username " +
-                                userProfileModel.getUsername() + " and id (" +
-                                userProfileModel.getUserUid() + ")");
+                        Logs.d(TAG, "onCreate: retrieved user profile with email {} and " +
+                                "username {} and id ({})", userProfileModel.getEmail(),
+                                userProfileModel.getUsername(), userProfileModel.getUserUid());
 
                         // set the text views to display the user profile info
                         emailTextView.setText(userProfileModel.getEmail());
@@ -100,7 +100,7 @@ public class MyAccountActivity extends BaseActivity {
         // go to my shop syncs activity on button click
         Button buttonGoToMyShopSyncs = findViewById(R.id.buttonGoToMyShopSyncs);
         buttonGoToMyShopSyncs.setOnClickListener(v -> {
-            Log.d(TAG, "onCreate: go to my shop syncs button clicked, redirecting to my shop " +
+            Logs.d(TAG, "onCreate: go to my shop syncs button clicked, redirecting to my shop " +
                     "syncs activity");
             Intent intent = new Intent(this, MyShopSyncsActivity.class);
             startActivity(intent);
@@ -109,8 +109,8 @@ public class MyAccountActivity extends BaseActivity {
         // go to change password activity on button click
         Button buttonChangePassword = findViewById(R.id.buttonChangePassword);
         buttonChangePassword.setOnClickListener(v -> {
-            Log.d(TAG, "onCreate: change password button clicked, redirecting to change password " +
-                    "activity");
+            Logs.d(TAG, "onCreate: change password button clicked, redirecting to change " +
+                    "password activity");
             Intent intent = new Intent(this, ChangePasswordActivity.class);
             startActivity(intent);
         });
@@ -118,7 +118,7 @@ public class MyAccountActivity extends BaseActivity {
         // sign out on button click
         Button buttonSignOut = findViewById(R.id.buttonSignOut);
         buttonSignOut.setOnClickListener(v -> {
-            Log.d(TAG, "onCreate: sign out button clicked, signing out and redirecting to the " +
+            Logs.d(TAG, "onCreate: sign out button clicked, signing out and redirecting to the " +
                     "main activity");
 
             applicationGraph.usersService().signOut();
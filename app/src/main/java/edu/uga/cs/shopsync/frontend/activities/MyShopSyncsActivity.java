@@ -13,26 +13,28 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.ActionBar;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import edu.uga.cs.shopsync.R;
-import edu.uga.cs.shopsync.backend.exceptions.IllegalNullValueException;
-import edu.uga.cs.shopsync.backend.exceptions.TaskFailureException;
-import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+import edu.uga.cs.shopsync.backend.services.ShopSyncsService;
 import edu.uga.cs.shopsync.frontend.Constants;
 import edu.uga.cs.shopsync.frontend.dtos.ShopSyncDto;
+import edu.uga.cs.shopsync.utils.Futures;
+import edu.uga.cs.shopsync.utils.Logs;
 
 public class MyShopSyncsActivity extends BaseActivity {
 
     private static final String TAG = "MyShopSyncsActivity";
+    private static final long SHOP_SYNCS_LOAD_TIMEOUT_SECONDS = 20;
 
     /**
      * RecyclerView Adapter for displaying ShopSyncModel items.
@@ -110,7 +112,7 @@ public class MyShopSyncsActivity extends BaseActivity {
 
                 // set up the button to go to the shop sync activity on click
                 goToShopSyncButton.setOnClickListener(v -> {
-                    Log.d(TAG, "go to shop sync button clicked for shop sync: " + shopSyncDto);
+                    Logs.d(TAG, "go to shop sync button clicked for shop sync: {}", shopSyncDto);
 
                     Intent intent = new Intent(context, ShopSyncActivity.class);
                     intent.putExtra(Constants.SHOP_SYNC_UID, shopSyncDto.getUid());
@@ -122,6 +124,7 @@ public class MyShopSyncsActivity extends BaseActivity {
 
     private List<ShopSyncDto> shopSyncs;
     private ShopSyncsRecyclerViewAdapter adapter;
+    private CompletableFuture<List<ShopSyncDto>> shopSyncsLoad;
 
     @SuppressLint("NotifyDataSetChanged")
     @Override
@@ -134,9 +137,8 @@ public class MyShopSyncsActivity extends BaseActivity {
             return;
         }
 
-        Log.d(TAG,
-              "onCreate: user signed in with email " + currentUser.getEmail() + " and id (" +
-                      currentUser.getUid() + ")");
+        Logs.d(TAG, "onCreate: user signed in with email {} and id ({})",
+                currentUser.getEmail(), currentUser.getUid());
 
         setContentView(R.layout.activity_my_shop_syncs);
 
@@ -149,14 +151,14 @@ public class MyShopSyncsActivity extends BaseActivity {
         // set up back button
         Button backButton = findViewById(R.id.backButton);
         backButton.setOnClickListener(v -> {
-            Log.d(TAG, "Back button clicked");
+            Logs.d(TAG, "Back button clicked");
             finish();
         });
 
         // set up create shop sync button
         Button createShopSyncButton = findViewById(R.id.buttonCreateShopSync);
         createShopSyncButton.setOnClickListener(v -> {
-            Log.d(TAG, "Create shop sync button clicked");
+            Logs.d(TAG, "Create shop sync button clicked");
             Intent intent = new Intent(this, CreateShopSyncActivity.class);
             startActivity(intent);
         });
@@ -171,6 +173,7 @@ public class MyShopSyncsActivity extends BaseActivity {
         populateShopSyncs();
     }
 
+    @SuppressLint("NotifyDataSetChanged")
     private void populateShopSyncs() {
         FirebaseUser currentUser = checkIfUserIsLoggedInAndFetch(true);
         if (currentUser == null) {
@@ -178,65 +181,37 @@ public class MyShopSyncsActivity extends BaseActivity {
         }
         shopSyncs.clear();
 
-        // consumer that for each shop sync uid gets the corresponding ShopSyncModel from the
-        // database, then converts the model to a dto and adds the dto to the recycler adapter
-        Consumer<List<String>> shopSyncUidsConsumer = shopSyncUids ->
-                shopSyncUids.forEach(shopSyncUid -> applicationGraph.shopSyncsService()
-                        .getShopSyncWithUid(shopSyncUid)
-                        .addOnCompleteListener(task -> {
-                            if (task.isSuccessful()) {
-                                DataSnapshot dataSnapshot = task.getResult();
-
-                                // if the task was successful but the data snapshot is null,
-                                // throw an illegal state exception
-                                if (dataSnapshot == null) {
-                                    throw new IllegalNullValueException("getShopSyncWithUid: " +
-                                                                                "task was " +
-                                                                                "successful " +
-                                                                                "but data " +
-                                                                                "snapshot is" +
-                                                                                " null");
-                                }
-
-                                // get the shop sync model
-                                edu.uga.cs.shopsync.backend.models.ShopSyncModel shopSyncModel =
-                                        dataSnapshot.getValue(ShopSyncModel.class);
-                                if (shopSyncModel == null) {
-                                    throw new IllegalNullValueException("getShopSyncWithUid: " +
-                                                                                "task was " +
-                                                                                "successful " +
-                                                                                "but shop sync " +
-                                                                                "model " +
-                                                                                "is null");
-                                }
-
-                                // convert the shop sync model to a dto
-                                ShopSyncDto shopSyncDto = ShopSyncDto.fromModel(shopSyncModel);
-
-                                // consumer that gets the user uids for the shop sync and adds
-                                // them to the shop sync dto and then adds the shop sync dto to
-                                // the list of shop syncs in the recycler adapter
-                                Consumer<List<String>> userUidsConsumer = userUids -> {
-                                    shopSyncDto.setUserUids(userUids);
-                                    shopSyncs.add(shopSyncDto);
-                                    adapter.notifyItemInserted(shopSyncs.size() - 1);
-                                };
-
-                                // get the user uids for the shop sync
-                                applicationGraph.shopSyncsService()
-                                        .getUsersForShopSync(shopSyncDto.getUid(),
-                                                             userUidsConsumer, null);
-                            } else {
-                                Log.d(TAG,
-                                      "onCreate: failed to retrieve shop sync with uid " + shopSyncUid);
-                                throw new TaskFailureException(task, "getShopSyncWithUid: failed " +
-                                        "to retrieve shop sync with uid " + shopSyncUid);
-                            }
-                        }));
-
-        // get the shop syncs for the current user
-        applicationGraph.shopSyncsService().getShopSyncsForUser(currentUser.getUid(),
-                                                                shopSyncUidsConsumer, null);
+        // load the uids of the user's shop syncs and then their dtos in one batch; a load that
+        // is still running is cancelled so its stale result is never shown
+        if (shopSyncsLoad != null) {
+            shopSyncsLoad.cancel(false);
+        }
+        ShopSyncsService shopSyncsService = applicationGraph.shopSyncsService();
+        shopSyncsLoad = Futures.withDeadline(
+                shopSyncsService.getShopSyncsForUserAsync(currentUser.getUid())
+                        .thenCompose(shopSyncsService::getShopSyncDtosAsync),
+                SHOP_SYNCS_LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        shopSyncsLoad.whenCompleteAsync((shopSyncDtos, throwable) -> {
+            if (throwable != null) {
+                Log.e(TAG, "populateShopSyncs: failed to load shop syncs: " +
+                        Futures.errorHandleOf(throwable).errorMessage());
+                return;
+            }
+
+            Logs.d(TAG, "populateShopSyncs: loaded shop syncs {}", shopSyncDtos);
+            shopSyncs.clear();
+            shopSyncs.addAll(shopSyncDtos);
+            adapter.notifyDataSetChanged();
+        }, ContextCompat.getMainExecutor(this));
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+
+        if (shopSyncsLoad != null) {
+            shopSyncsLoad.cancel(false);
+        }
     }
 
 }
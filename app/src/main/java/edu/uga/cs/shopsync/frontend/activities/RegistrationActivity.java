@@ -30,6 +30,7 @@ import edu.uga.cs.shopsync.backend.models.UserProfileModel;
 import edu.uga.cs.shopsync.frontend.utils.TextWatcherAdapter;
 import edu.uga.cs.shopsync.utils.ErrorHandle;
 import edu.uga.cs.shopsync.utils.ErrorType;
+import edu.uga.cs.shopsync.utils.Logs;
 import edu.uga.cs.shopsync.utils.PasswordStrength;
 
 public class RegistrationActivity extends BaseActivity {
@@ -202,7 +203,7 @@ public class RegistrationActivity extends BaseActivity {
         }
 
         Consumer<UserProfileModel> onSuccess = userProfile -> {
-            Log.d(TAG, "User registered successfully");
+            Logs.d(TAG, "User registered successfully");
             showToast("User registered successfully");
             redirectToMyAccountActivity();
         };
@@ -309,7 +310,7 @@ public class RegistrationActivity extends BaseActivity {
     }
 
     private void redirectToMyAccountActivity() {
-        Log.d(TAG, "Redirecting to MyAccountActivity");
+        Logs.d(TAG, "Redirecting to MyAccountActivity");
         Intent intent = new Intent(RegistrationActivity.this, MyAccountActivity.class);
         intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
         startActivity(intent);
@@ -376,7 +377,7 @@ public class RegistrationActivity extends BaseActivity {
 
         // redirect if already logged in
         if (applicationGraph.usersService().isCurrentUserSignedIn()) {
-            Log.d(TAG, "User is already signed in, redirecting to MyAccountActivity");
+            Logs.d(TAG, "User is already signed in, redirecting to MyAccountActivity");
             Intent intent = new Intent(RegistrationActivity.this, MyAccountActivity.class);
             intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
             startActivity(intent);
@@ -476,7 +477,7 @@ public class RegistrationActivity extends BaseActivity {
         // back button
         Button backButton = findViewById(R.id.backButton);
         backButton.setOnClickListener(v -> {
-            Log.d(TAG, "Back button clicked");
+            Logs.d(TAG, "Back button clicked");
             finish();
         });
     }
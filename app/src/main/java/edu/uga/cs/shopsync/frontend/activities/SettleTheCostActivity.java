@@ -8,15 +8,20 @@ import android.widget.TableLayout;
 import android.widget.TableRow;
 import android.widget.TextView;
 
-import com.google.firebase.database.DataSnapshot;
+import androidx.core.content.ContextCompat;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import edu.uga.cs.shopsync.R;
 import edu.uga.cs.shopsync.backend.exceptions.IllegalNullValueException;
-import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+import edu.uga.cs.shopsync.backend.models.UserProfileModel;
 import edu.uga.cs.shopsync.frontend.Constants;
+import edu.uga.cs.shopsync.utils.Futures;
+import edu.uga.cs.shopsync.utils.Logs;
 import edu.uga.cs.shopsync.utils.UtilMethods;
 
 /**
@@ -25,6 +30,7 @@ import edu.uga.cs.shopsync.utils.UtilMethods;
 public class SettleTheCostActivity extends BaseActivity {
 
     private static final String TAG = "SettleTheCostActivity";
+    private static final long USER_PROFILES_TIMEOUT_SECONDS = 20;
 
     private TextView shopSyncNameTextView;
     private TextView shopSyncDescriptionTextView;
@@ -61,7 +67,7 @@ public class SettleTheCostActivity extends BaseActivity {
 
         Button backButton = findViewById(R.id.backButton);
         backButton.setOnClickListener(v -> {
-            Log.d(TAG, "onCreate: backButton clicked");
+            Logs.d(TAG, "onCreate: backButton clicked");
 
             Intent intent = new Intent(this, ShopSyncActivity.class);
             intent.putExtra(Constants.SHOP_SYNC_UID, shopSyncUid);
@@ -71,102 +77,82 @@ public class SettleTheCostActivity extends BaseActivity {
             finish();
         });
 
-        applicationGraph.shopSyncsService()
-                .getShopSyncWithUid(shopSyncUid)
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        DataSnapshot dataSnapshot = task.getResult();
-                        Log.d(TAG, "getShopSyncWithUid: dataSnapshot = " + dataSnapshot);
-                        if (dataSnapshot == null) {
-                            Log.e(TAG, "getShopSyncWithUid: dataSnapshot is null");
-                            throw new IllegalNullValueException("dataSnapshot is null");
-                        }
-
-                        ShopSyncModel shopSync = dataSnapshot.getValue(ShopSyncModel.class);
-                        Log.d(TAG, "getShopSyncWithUid: shopSync = " + shopSync);
-                        if (shopSync == null) {
-                            Log.e(TAG, "getShopSyncWithUid: shopSync is null");
-                            throw new IllegalNullValueException("shopSync is null");
-                        }
-
-                        shopSyncNameTextView.setText(shopSync.getName());
-                        shopSyncDescriptionTextView.setText(shopSync.getDescription());
-
-                        String averageCost = UtilMethods.truncateToDecimalPlaces(
-                                Double.parseDouble(totalCost) / shopSync.getShoppingBaskets()
-                                        .size(), 2);
-                        String averageCostText = "Average Cost: $" + averageCost;
-                        averageCostTextView.setText(averageCostText);
-
-                        computeTotalCosts(shopSync);
+        applicationGraph.shopSyncsService().getShopSyncSummary(shopSyncUid, summary -> {
+            Logs.d(TAG, "getShopSyncSummary: summary = {}", summary);
+            if (summary == null) {
+                Log.e(TAG, "getShopSyncSummary: summary is null");
+                throw new IllegalNullValueException("summary is null");
+            }
+
+            shopSyncNameTextView.setText(summary.getName());
+            shopSyncDescriptionTextView.setText(summary.getDescription());
+
+            long memberCount = Math.max(summary.getMemberCount(), 1);
+            String averageCost = UtilMethods.truncateToDecimalPlaces(
+                    Double.parseDouble(totalCost) / memberCount, 2);
+            String averageCostText = "Average Cost: $" + averageCost;
+            averageCostTextView.setText(averageCostText);
+        }, errorHandle -> Log.e(TAG, "getShopSyncSummary: " + errorHandle.errorMessage()));
+
+        // the cost ledger already holds the total cost of each user; the profiles of all users
+        // are then loaded at the same time
+        applicationGraph.shopSyncsService().getCostsForShopSyncAsync(shopSyncUid)
+                .thenCompose(this::loadUserCosts)
+                .whenCompleteAsync((userCosts, throwable) -> {
+                    if (throwable != null) {
+                        Log.e(TAG, "loadUserCosts: " +
+                                Futures.errorHandleOf(throwable).errorMessage());
+                        return;
                     }
-                });
+
+                    displayUserCosts(userCosts);
+                    deleteAllPurchasedItems(shopSyncUid);
+                }, ContextCompat.getMainExecutor(this));
     }
 
-    private void computeTotalCosts(ShopSyncModel shopSync) {
-        Map<String, Double> userCostsByUid = new HashMap<>();
-        shopSync.getPurchasedItems().values().forEach(purchasedItemModel -> {
-            String userUid = purchasedItemModel.getBasketItem().getShoppingBasketUid();
-            if (userUid == null) {
-                Log.e(TAG, "computeTotalCosts: userUid is null");
-                throw new IllegalNullValueException("userUid is null");
-            }
+    private CompletableFuture<List<Map.Entry<String, Double>>> loadUserCosts(
+            Map<String, Double> userCostsByUid) {
+        Logs.d(TAG, "loadUserCosts: userCostsByUid = {}", userCostsByUid);
 
-            if (!userCostsByUid.containsKey(userUid)) {
-                userCostsByUid.put(userUid, 0.0);
-            }
+        List<String> userUids = new ArrayList<>(userCostsByUid.keySet());
+        List<CompletableFuture<UserProfileModel>> userProfiles = new ArrayList<>();
+        for (String userUid : userUids) {
+            userProfiles.add(applicationGraph.usersService().getUserProfileAsync(userUid));
+        }
 
-            Double cost = userCostsByUid.get(userUid);
-            if (cost == null) {
-                Log.e(TAG, "computeTotalCosts: cost is null");
-                throw new IllegalNullValueException("cost is null");
+        return Futures.withDeadline(Futures.allOf(userProfiles), USER_PROFILES_TIMEOUT_SECONDS,
+                                    TimeUnit.SECONDS).thenApply(profiles -> {
+            List<Map.Entry<String, Double>> userCosts = new ArrayList<>();
+            for (int i = 0; i < userUids.size(); i++) {
+                UserProfileModel userProfile = profiles.get(i);
+                if (userProfile == null || userProfile.getUsername() == null) {
+                    Log.e(TAG, "loadUserCosts: no username for user (" + userUids.get(i) + ")");
+                    throw new IllegalNullValueException("username is null");
+                }
+                userCosts.add(Map.entry(userProfile.getUsername(),
+                                        userCostsByUid.get(userUids.get(i))));
             }
-
-            long quantity = purchasedItemModel.getBasketItem().getQuantity();
-            double pricePerUnit = purchasedItemModel.getBasketItem().getPricePerUnit();
-
-            cost += quantity * pricePerUnit;
-            userCostsByUid.put(userUid, cost);
+            return userCosts;
         });
-        Log.d(TAG, "computeTotalCosts: userCostsByUid = " + userCostsByUid);
-
-        userCostsByUid.forEach((userUid, cost) -> applicationGraph.usersService()
-                .getUserProfileWithUid(userUid)
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        DataSnapshot dataSnapshot = task.getResult();
-                        Log.d(TAG,
-                              "computeTotalCosts / getUserProfileWithUid: dataSnapshot = " + dataSnapshot);
-                        if (dataSnapshot == null) {
-                            Log.e(TAG, "computeTotalCosts / getUserProfileWithUid: dataSnapshot " +
-                                    "is null");
-                            throw new IllegalNullValueException("dataSnapshot is null");
-                        }
-
-                        String username = dataSnapshot.child("username").getValue(String.class);
-                        Log.d(TAG,
-                              "computeTotalCosts / getUserProfileWithUid: username = " + username);
-                        if (username == null) {
-                            Log.e(TAG, "computeTotalCosts: username is null");
-                            throw new IllegalNullValueException("username is null");
-                        }
-
-                        TableRow tableRow = new TableRow(this);
-                        TableLayout.LayoutParams tableLayoutParams = new TableLayout.LayoutParams(
-                                TableLayout.LayoutParams.WRAP_CONTENT,
-                                TableLayout.LayoutParams.WRAP_CONTENT);
-                        userCostsTable.addView(tableRow, tableLayoutParams);
-
-                        TextView userCostTextView = new TextView(this);
-                        String userCostText =
-                                username + ": \t$" + UtilMethods.truncateToDecimalPlaces(cost, 2);
-                        userCostTextView.setText(userCostText);
-                        userCostTextView.setTextSize(16);
-                        tableRow.addView(userCostTextView);
-                    }
-                }));
+    }
 
-        deleteAllPurchasedItems(shopSync.getUid());
+    private void displayUserCosts(List<Map.Entry<String, Double>> userCosts) {
+        Logs.d(TAG, "displayUserCosts: userCosts = {}", userCosts);
+
+        for (Map.Entry<String, Double> userCost : userCosts) {
+            TableRow tableRow = new TableRow(this);
+            TableLayout.LayoutParams tableLayoutParams = new TableLayout.LayoutParams(
+                    TableLayout.LayoutParams.WRAP_CONTENT,
+                    TableLayout.LayoutParams.WRAP_CONTENT);
+            userCostsTable.addView(tableRow, tableLayoutParams);
+
+            TextView userCostTextView = new TextView(this);
+            String userCostText = userCost.getKey() + ": \t$" +
+                    UtilMethods.truncateToDecimalPlaces(userCost.getValue(), 2);
+            userCostTextView.setText(userCostText);
+            userCostTextView.setTextSize(16);
+            tableRow.addView(userCostTextView);
+        }
     }
 
     private void deleteAllPurchasedItems(String shopSyncUid) {
@@ -8,16 +8,17 @@ import static edu.uga.cs.shopsync.frontend.fragments.BasketItemsFragment.ACTION_
 import static edu.uga.cs.shopsync.frontend.fragments.BasketItemsFragment.PROP_BASKET_ITEMS;
 import static edu.uga.cs.shopsync.frontend.fragments.PurchasedItemsFragment.ACTION_DELETE_PURCHASE;
 import static edu.uga.cs.shopsync.frontend.fragments.PurchasedItemsFragment.ACTION_INITIALIZE_PURCHASED_ITEMS;
+import static edu.uga.cs.shopsync.frontend.fragments.PurchasedItemsFragment.ACTION_LOAD_MORE_PURCHASED_ITEMS;
 import static edu.uga.cs.shopsync.frontend.fragments.PurchasedItemsFragment.ACTION_UNDO_PURCHASE;
 import static edu.uga.cs.shopsync.frontend.fragments.PurchasedItemsFragment.PROP_PURCHASED_ITEMS;
 import static edu.uga.cs.shopsync.frontend.fragments.ShoppingItemsFragment.ACTION_ADD_SHOPPING_ITEM;
 import static edu.uga.cs.shopsync.frontend.fragments.ShoppingItemsFragment.ACTION_DELETE_SHOPPING_ITEM;
 import static edu.uga.cs.shopsync.frontend.fragments.ShoppingItemsFragment.ACTION_INITIALIZE_SHOPPING_ITEMS;
+import static edu.uga.cs.shopsync.frontend.fragments.ShoppingItemsFragment.ACTION_LOAD_MORE_SHOPPING_ITEMS;
 import static edu.uga.cs.shopsync.frontend.fragments.ShoppingItemsFragment.ACTION_MOVE_SHOPPING_ITEM_TO_BASKET;
 import static edu.uga.cs.shopsync.frontend.fragments.ShoppingItemsFragment.ACTION_UPDATE_SHOPPING_ITEM;
 import static edu.uga.cs.shopsync.frontend.fragments.ShoppingItemsFragment.PROP_SHOPPING_ITEMS;
 
-import android.annotation.SuppressLint;
 import android.content.Intent;
 import android.content.res.Configuration;
 import android.graphics.Color;
@@ -41,7 +42,9 @@ import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.ValueEventListener;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -49,12 +52,15 @@ import java.util.function.Consumer;
 import edu.uga.cs.shopsync.R;
 import edu.uga.cs.shopsync.backend.exceptions.IllegalNullValueException;
 import edu.uga.cs.shopsync.backend.exceptions.TaskFailureException;
+import edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference;
 import edu.uga.cs.shopsync.backend.models.BasketItemModel;
 import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
-import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+import edu.uga.cs.shopsync.backend.models.ShopSyncSummaryModel;
 import edu.uga.cs.shopsync.backend.models.ShoppingBasketModel;
 import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
 import edu.uga.cs.shopsync.backend.models.UserProfileModel;
+import edu.uga.cs.shopsync.backend.services.ShopSyncsService;
+import edu.uga.cs.shopsync.backend.services.SnapshotDecoder;
 import edu.uga.cs.shopsync.frontend.Constants;
 import edu.uga.cs.shopsync.frontend.fragments.BasketItemsFragment;
 import edu.uga.cs.shopsync.frontend.fragments.BasketItemsFragment.BasketItemsAdapter;
@@ -63,9 +69,12 @@ import edu.uga.cs.shopsync.frontend.fragments.PurchasedItemsFragment.PurchasedIt
 import edu.uga.cs.shopsync.frontend.fragments.ShoppingItemsFragment;
 import edu.uga.cs.shopsync.frontend.fragments.ShoppingItemsFragment.ShoppingItemsAdapter;
 import edu.uga.cs.shopsync.frontend.utils.ChildEventListenerFragment;
-import edu.uga.cs.shopsync.utils.ArraySetList;
+import edu.uga.cs.shopsync.frontend.utils.ItemPager;
+import edu.uga.cs.shopsync.frontend.utils.ShoppingItemNameIndex;
 import edu.uga.cs.shopsync.utils.CallbackReceiver;
 import edu.uga.cs.shopsync.utils.ErrorHandle;
+import edu.uga.cs.shopsync.utils.IndexedList;
+import edu.uga.cs.shopsync.utils.Logs;
 import edu.uga.cs.shopsync.utils.Props;
 import edu.uga.cs.shopsync.utils.UtilMethods;
 
@@ -80,12 +89,13 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
     private static final String PURCHASED_ITEMS_FRAGMENT = "PurchasedItemsFragment";
     private static final int DEFAULT_QUANTITY = 1;
     private static final double DEFAULT_PRICE_PER_UNIT = 1.0;
+    private static final int PAGE_SIZE = 50;
 
     private enum ItemsListType {
         SHOPPING_ITEMS_LIST, BASKET_ITEMS_LIST, PURCHASED_ITEMS_LIST
     }
 
-    private final class FragmentChildEventListener implements ChildEventListener {
+    private class FragmentChildEventListener implements ChildEventListener {
 
         private final Class<?> fragmentClass;
 
@@ -98,7 +108,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                                  @Nullable String previousChildName) {
             ChildEventListenerFragment fragment = getCurrentChildEventListenerFragment();
             if (fragmentClass.isAssignableFrom(fragment.getClass())) {
-                fragment.onChildAdded(snapshot, previousChildName);
+                fragment.getChildEventCoalescer().onChildAdded(snapshot, previousChildName);
             }
         }
 
@@ -107,7 +117,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                                    @Nullable String previousChildName) {
             ChildEventListenerFragment fragment = getCurrentChildEventListenerFragment();
             if (fragmentClass.isAssignableFrom(fragment.getClass())) {
-                fragment.onChildChanged(snapshot, previousChildName);
+                fragment.getChildEventCoalescer().onChildChanged(snapshot, previousChildName);
             }
         }
 
@@ -115,7 +125,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
         public void onChildRemoved(@NonNull DataSnapshot snapshot) {
             ChildEventListenerFragment fragment = getCurrentChildEventListenerFragment();
             if (fragmentClass.isAssignableFrom(fragment.getClass())) {
-                fragment.onChildRemoved(snapshot);
+                fragment.getChildEventCoalescer().onChildRemoved(snapshot);
             }
         }
 
@@ -124,7 +134,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                                  @Nullable String previousChildName) {
             ChildEventListenerFragment fragment = getCurrentChildEventListenerFragment();
             if (fragmentClass.isAssignableFrom(fragment.getClass())) {
-                fragment.onChildMoved(snapshot, previousChildName);
+                fragment.getChildEventCoalescer().onChildMoved(snapshot, previousChildName);
             }
         }
 
@@ -132,21 +142,71 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
         public void onCancelled(@NonNull DatabaseError error) {
             ChildEventListenerFragment fragment = getCurrentChildEventListenerFragment();
             if (fragmentClass.isAssignableFrom(fragment.getClass())) {
-                fragment.onCancelled(error);
+                fragment.getChildEventCoalescer().onCancelled(error);
             }
         }
     }
 
+    // indexes the names of the shopping items in the windows that the shopping items pager has
+    // loaded, whichever fragment is shown; the names of the basket items are watched by the
+    // index on their own, so they do not depend on which pages were loaded
     private final FragmentChildEventListener shoppingItemsEventListener =
-            new FragmentChildEventListener(ShoppingItemsFragment.class);
+            new FragmentChildEventListener(ShoppingItemsFragment.class) {
+                @Override
+                public void onChildAdded(@NonNull DataSnapshot snapshot,
+                                         @Nullable String previousChildName) {
+                    indexShoppingItemName(snapshot);
+                    super.onChildAdded(snapshot, previousChildName);
+                }
+
+                @Override
+                public void onChildChanged(@NonNull DataSnapshot snapshot,
+                                           @Nullable String previousChildName) {
+                    indexShoppingItemName(snapshot);
+                    super.onChildChanged(snapshot, previousChildName);
+                }
+
+                @Override
+                public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                    String shoppingItemUid = snapshot.getKey();
+                    if (shoppingItemUid != null) {
+                        shoppingItemNameIndex.remove(shoppingItemUid);
+                    }
+                    super.onChildRemoved(snapshot);
+                }
+            };
+    // watches the names of the basket items from the moment they are added, whichever fragment
+    // is shown, so the rows of the basket resolve their names from the index
     private final FragmentChildEventListener basketItemsEventListener =
-            new FragmentChildEventListener(BasketItemsFragment.class);
+            new FragmentChildEventListener(BasketItemsFragment.class) {
+                @Override
+                public void onChildAdded(@NonNull DataSnapshot snapshot,
+                                         @Nullable String previousChildName) {
+                    String shoppingItemUid = snapshot.getKey();
+                    if (shoppingItemUid != null) {
+                        shoppingItemNameIndex.watch(shoppingItemUid);
+                    }
+                    super.onChildAdded(snapshot, previousChildName);
+                }
+
+                @Override
+                public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                    String shoppingItemUid = snapshot.getKey();
+                    if (shoppingItemUid != null) {
+                        shoppingItemNameIndex.unwatch(shoppingItemUid);
+                    }
+                    super.onChildRemoved(snapshot);
+                }
+            };
     private final FragmentChildEventListener purchasedItemsEventListener =
             new FragmentChildEventListener(PurchasedItemsFragment.class);
 
-    private DatabaseReference shoppingItemsReference;
+    private ShoppingItemNameIndex shoppingItemNameIndex;
+    private ItemPager shoppingItemsPager;
+    private ShoppingItemsAdapter shoppingItemsAdapter;
     private DatabaseReference shoppingBasketReference;
-    private DatabaseReference purchasedItemsReference;
+    private ItemPager purchasedItemsPager;
+    private PurchasedItemsAdapter purchasedItemsAdapter;
 
     private TextView shopSyncNameTextView;
     private TextView descriptionTextView;
@@ -155,7 +215,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
-        Log.d(TAG, "onCreate: called");
+        Logs.d(TAG, "onCreate: called");
         super.onCreate(savedInstanceState);
 
         // check that the user is logged in
@@ -173,6 +233,10 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
             throw new IllegalNullValueException("ShopSync started without shop sync id");
         }
 
+        // a shop sync that was opened once stays cached, so it can be used in the store offline
+        applicationGraph.shopSyncsService().getShopSyncsFirebaseReference()
+                .keepShopSyncSynced(shopSyncUid, true);
+
         // TODO: implement landscape layout
         /*
         if (getResources().getConfiguration().orientation == Configuration.ORIENTATION_LANDSCAPE) {
@@ -188,7 +252,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
         // set up the back button
         Button backButton = findViewById(R.id.backButton);
         backButton.setOnClickListener(v -> {
-            Log.d(TAG, "Back button clicked");
+            Logs.d(TAG, "Back button clicked");
 
             Intent intent = new Intent(this, MyShopSyncsActivity.class);
             intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
@@ -200,7 +264,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
         // set up button for editing the shop sync
         Button editShopSyncButton = findViewById(R.id.buttonEditShopSync);
         editShopSyncButton.setOnClickListener(v -> {
-            Log.d(TAG, "Edit shop sync button clicked");
+            Logs.d(TAG, "Edit shop sync button clicked");
             Intent intent = new Intent(this, EditShopSyncActivity.class);
             intent.putExtra(Constants.SHOP_SYNC_UID, shopSyncUid);
             startActivity(intent);
@@ -228,38 +292,40 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
         // set the shopping items button as the default selected button
         handleItemsTypeChange(shoppingItemsButton);
 
-        // fetch the shop sync from the database
-        applicationGraph.shopSyncsService().getShopSyncWithUid(shopSyncUid)
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        DataSnapshot dataSnapshot = task.getResult();
-                        if (dataSnapshot == null) {
-                            Log.e(TAG, "onCreate: DataSnapshot is null");
-                            throw new IllegalNullValueException("DataSnapshot is null");
-                        }
-
-                        ShopSyncModel shopSync = dataSnapshot.getValue(ShopSyncModel.class);
-                        if (shopSync == null) {
-                            Log.e(TAG, "onCreate: no shop sync found with id: " + shopSyncUid);
-                            throw new IllegalNullValueException("No shop sync found with id: " + shopSyncUid);
-                        }
+        // fetch the shop sync summary from the database
+        applicationGraph.shopSyncsService().getShopSyncSummary(shopSyncUid, summary -> {
+            if (summary == null) {
+                Log.e(TAG, "onCreate: no shop sync found with id: " + shopSyncUid);
+                throw new IllegalNullValueException("No shop sync found with id: " + shopSyncUid);
+            }
 
-                        Log.d(TAG, "onCreate: shop sync: " + shopSync);
+            Logs.d(TAG, "onCreate: shop sync summary: {}", summary);
 
-                        // populate the metadata
-                        populateMetaData(shopSync);
-                    } else {
-                        Log.e(TAG, "onCreate: failed to fetch shop sync with id: " + shopSyncUid,
-                              task.getException());
-                        throw new TaskFailureException(task, "Failed to fetch shop sync with id: "
-                                + shopSyncUid);
-                    }
-                });
+            // populate the metadata
+            populateMetaData(summary);
+        }, errorHandle -> {
+            Log.e(TAG, "onCreate: failed to fetch shop sync with id: " + shopSyncUid + ": " +
+                    errorHandle.errorMessage());
+            finish();
+        });
 
-        // add child event listener for shopping items
-        shoppingItemsReference = applicationGraph.shopSyncsService().getShopSyncsFirebaseReference()
-                .getShoppingItemsCollection(shopSyncUid);
-        shoppingItemsReference.addChildEventListener(shoppingItemsEventListener);
+        // names are looked up by the basket items, so they are indexed from the shopping items
+        // and watched for every basket item
+        shoppingItemNameIndex = new ShoppingItemNameIndex(
+                (shoppingItemUid, onLoaded) -> loadShoppingItemName(shopSyncUid, shoppingItemUid,
+                                                                    onLoaded),
+                (shoppingItemUid, onName) -> watchShoppingItemName(shopSyncUid, shoppingItemUid,
+                                                                   onName));
+
+        // shopping items are loaded page by page once their fragment is shown, and only the
+        // loaded pages are listened to
+        ShopSyncsService shopSyncsService = applicationGraph.shopSyncsService();
+        shoppingItemsPager = new ItemPager(
+                (endBeforeKey, pageSize) -> shopSyncsService.getShoppingItemsPage(
+                        shopSyncUid, endBeforeKey, pageSize),
+                (startAtKey, endBeforeKey) -> shopSyncsService.getShoppingItemsWindow(
+                        shopSyncUid, startAtKey, endBeforeKey),
+                shoppingItemsEventListener, PAGE_SIZE);
 
         // add child event listener for basket items
         shoppingBasketReference = applicationGraph.shopSyncsService()
@@ -267,19 +333,31 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                 .child(user.getUid()).child(Constants.BASKET_ITEMS_DB_KEY);
         shoppingBasketReference.addChildEventListener(basketItemsEventListener);
 
-        // add child event listener for purchased items
-        purchasedItemsReference = applicationGraph.shopSyncsService()
-                .getShopSyncsFirebaseReference().getPurchasedItemsCollection(shopSyncUid);
-        purchasedItemsReference.addChildEventListener(purchasedItemsEventListener);
+        // purchased items are loaded page by page like the shopping items
+        purchasedItemsPager = new ItemPager(
+                (endBeforeKey, pageSize) -> shopSyncsService.getPurchasedItemsPage(
+                        shopSyncUid, endBeforeKey, pageSize),
+                (startAtKey, endBeforeKey) -> shopSyncsService.getPurchasedItemsWindow(
+                        shopSyncUid, startAtKey, endBeforeKey),
+                purchasedItemsEventListener, PAGE_SIZE);
     }
 
     @Override
     protected void onStop() {
         super.onStop();
 
-        // remove the child event listener for shopping items
-        if (shoppingItemsReference != null) {
-            shoppingItemsReference.removeEventListener(shoppingItemsEventListener);
+        // send edits that are still waiting in the outbox before the activity goes away
+        applicationGraph.shopSyncsService().flushPendingWrites();
+
+        // remove the child event listeners of the loaded pages of shopping items
+        if (shoppingItemsPager != null) {
+            shoppingItemsPager.reset();
+        }
+
+        // the index is no longer kept up to date once the listeners are removed, and clearing it
+        // removes the listeners of the watched names
+        if (shoppingItemNameIndex != null) {
+            shoppingItemNameIndex.clear();
         }
 
         // remove the child event listener for basket items
@@ -287,27 +365,28 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
             shoppingBasketReference.removeEventListener(basketItemsEventListener);
         }
 
-        // remove the child event listener for purchased items
-        if (purchasedItemsReference != null) {
-            purchasedItemsReference.removeEventListener(purchasedItemsEventListener);
+        // remove the child event listeners of the loaded pages of purchased items
+        if (purchasedItemsPager != null) {
+            purchasedItemsPager.reset();
         }
+
+        // the events that the removed listeners buffered must not reach the shown fragment
+        cancelPendingChildEvents();
     }
 
     private void settleTheCost(String shopSyncUid) {
-        Log.d(TAG, "settleTheCost: called");
-
-        Consumer<List<PurchasedItemModel>> consumer = purchasedItems -> {
-            Log.d(TAG, "settleTheCost: purchased items size: " + purchasedItems.size());
+        Logs.d(TAG, "settleTheCost: called");
 
-            double totalCost = 0d;
-
-            for (PurchasedItemModel purchasedItem : purchasedItems) {
-                double pricePerUnit = purchasedItem.getBasketItem().getPricePerUnit();
-                long quantity = purchasedItem.getBasketItem().getQuantity();
-                totalCost += pricePerUnit * quantity;
+        // the summary keeps a running total, so the purchased items are not downloaded here
+        applicationGraph.shopSyncsService().getShopSyncSummary(shopSyncUid, summary -> {
+            if (summary == null) {
+                Log.e(TAG, "settleTheCost: no shop sync found with id: " + shopSyncUid);
+                return;
             }
 
-            Log.d(TAG, "settleTheCost: total cost: " + totalCost);
+            double totalCost = summary.getTotalCost();
+            Logs.d(TAG, "settleTheCost: purchased items count: {}, total cost: {}",
+                    summary.getPurchasedItemCount(), totalCost);
 
             Intent intent = new Intent(this, SettleTheCostActivity.class);
             intent.putExtra(Constants.SHOP_SYNC_UID, shopSyncUid);
@@ -317,14 +396,12 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
             startActivity(intent);
 
             finish();
-        };
-
-        onCallback(ACTION_INITIALIZE_PURCHASED_ITEMS, Props.of(
-                Pair.create(Constants.CONSUMER, consumer)));
+        }, errorHandle -> Log.e(TAG, "settleTheCost: failed to fetch shop sync summary: " +
+                errorHandle.errorMessage()));
     }
 
     private void setFragment(ItemsListType itemsListType) {
-        Log.d(TAG, "Updating fragments to display " + itemsListType + " items");
+        Logs.d(TAG, "Updating fragments to display {} items", itemsListType);
 
         FragmentManager fragmentManager = getSupportFragmentManager();
         FragmentTransaction transaction = fragmentManager.beginTransaction();
@@ -368,19 +445,26 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
         return (ChildEventListenerFragment) fragment;
     }
 
-    private void populateMetaData(ShopSyncModel shopSync) {
+    private void cancelPendingChildEvents() {
+        Fragment fragment = getSupportFragmentManager().findFragmentById(R.id.fragmentContainer);
+        if (fragment instanceof ChildEventListenerFragment childEventListenerFragment) {
+            childEventListenerFragment.getChildEventCoalescer().cancel();
+        }
+    }
+
+    private void populateMetaData(ShopSyncSummaryModel shopSync) {
         shopSyncNameTextView.setText(shopSync.getName());
-        Log.d(TAG, "populateMetaData: shop sync name: " + shopSync.getName());
+        Logs.d(TAG, "populateMetaData: shop sync name: {}", shopSync.getName());
 
         String description = shopSync.getDescription();
         if (description == null || description.isBlank()) {
-            Log.d(TAG, "populateMetaData: no description found for shop sync: " + shopSync);
+            Logs.d(TAG, "populateMetaData: no description found for shop sync: {}", shopSync);
             descriptionTextView.setVisibility(View.GONE);
         } else {
             String descriptionText = "Description: " + shopSync.getDescription();
             descriptionTextView.setText(descriptionText);
             descriptionTextView.setVisibility(View.VISIBLE);
-            Log.d(TAG, "populateMetaData: shop sync description: " + descriptionText);
+            Logs.d(TAG, "populateMetaData: shop sync description: {}", descriptionText);
         }
 
         Consumer<List<String>> userUidsConsumer =
@@ -393,8 +477,8 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
     }
 
     private void handleUserProfileData(DataSnapshot data, String userUid) {
-        Log.d(TAG,
-              "handleUserProfileData: handling user profile data for user with id: " + userUid);
+        Logs.d(TAG, "handleUserProfileData: handling user profile data for user with id: {}",
+                userUid);
 
         if (data == null) {
             Log.e(TAG, "handleUserProfileData: DataSnapshot is null for user with id: " + userUid);
@@ -406,7 +490,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
             Log.e(TAG, "handleUserProfileData: no user profile found with id: " + userUid);
             throw new IllegalNullValueException("No user profile found with id: " + userUid);
         }
-        Log.d(TAG, "handleUserProfileData: user profile: " + userProfile);
+        Logs.d(TAG, "handleUserProfileData: user profile: {}", userProfile);
 
         TextView usernameTextView = new TextView(this);
         String message = "Member: " + userProfile.getUsername();
@@ -431,14 +515,14 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
 
     @Override
     public void onCallback(@NonNull String action, @Nullable Props props) {
-        Log.d(TAG, "onCallback: called");
+        Logs.d(TAG, "onCallback: called");
 
         String shopSyncUid = getIntent().getStringExtra(Constants.SHOP_SYNC_UID);
         if (shopSyncUid == null) {
             throw new IllegalNullValueException("ShopSync started without shop sync id");
         }
 
-        Log.d(TAG, "onCallback: called with action " + action + " and props " + props);
+        Logs.d(TAG, "onCallback: called with action {} and props {}", action, props);
 
         switch (action) {
             case ACTION_ADD_SHOPPING_ITEM -> addShoppingItem(shopSyncUid);
@@ -454,6 +538,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                 }
                 initializeShoppingItems(shopSyncUid, props);
             }
+            case ACTION_LOAD_MORE_SHOPPING_ITEMS -> loadMoreShoppingItems();
             case ACTION_DELETE_SHOPPING_ITEM -> {
                 if (props == null) {
                     throw new IllegalNullValueException("Props cannot be null for " + action);
@@ -476,7 +561,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                 if (props == null) {
                     throw new IllegalNullValueException("Props cannot be null for " + action);
                 }
-                fetchItemNameByShoppingItemUid(shopSyncUid, props);
+                fetchItemNameByShoppingItemUid(props);
             }
             case ACTION_UPDATE_BASKET_ITEM -> {
                 if (props == null) {
@@ -502,6 +587,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                 }
                 initializePurchasedItems(shopSyncUid, props);
             }
+            case ACTION_LOAD_MORE_PURCHASED_ITEMS -> loadMorePurchasedItems();
             case ACTION_UNDO_PURCHASE -> {
                 if (props == null) {
                     throw new IllegalNullValueException("Props cannot be null for " + action);
@@ -518,16 +604,16 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
     }
 
     private void addShoppingItem(@NonNull String shopSyncUid) {
-        Log.d(TAG, "addShoppingItem: adding shopping item");
+        Logs.d(TAG, "addShoppingItem: adding shopping item");
 
         ShoppingItemModel shoppingItem = applicationGraph.shopSyncsService()
                 .addShoppingItem(shopSyncUid, "New " + "Shopping Item", false);
 
-        Log.d(TAG, "addShoppingItem: added shopping item: " + shoppingItem);
+        Logs.d(TAG, "addShoppingItem: added shopping item: {}", shoppingItem);
     }
 
     private void updateShoppingItem(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "updateShoppingItem: updating shopping item");
+        Logs.d(TAG, "updateShoppingItem: updating shopping item");
 
         ShoppingItemModel shoppingItem = props.get(Constants.SHOPPING_ITEM,
                                                    ShoppingItemModel.class);
@@ -535,13 +621,16 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
             throw new IllegalNullValueException("Shopping item is null");
         }
 
-        applicationGraph.shopSyncsService().updateShoppingItem(shopSyncUid, shoppingItem);
+        applicationGraph.shopSyncsService().updateShoppingItem(
+                shopSyncUid, shoppingItem, null,
+                errorHandle -> Log.e(TAG, "updateShoppingItem: failed to update shopping item " +
+                        "with uid: " + shoppingItem.getShoppingItemUid() + ": " +
+                        errorHandle.errorMessage()));
     }
 
     @SuppressWarnings("unchecked")
-    @SuppressLint("NotifyDataSetChanged")
     private void initializeShoppingItems(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "initializeShoppingItems: initializing shopping items");
+        Logs.d(TAG, "initializeShoppingItems: initializing shopping items");
 
         // fetch the adapter from the props
         ShoppingItemsAdapter adapter = (ShoppingItemsAdapter) props.get(Constants.ADAPTER);
@@ -557,46 +646,36 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
             Log.e(TAG, "populateShoppingItems: shopping items list is null");
             throw new IllegalNullValueException("Shopping items list is null");
         }
-        Log.d(TAG, "populateShoppingItems: shopping items list size: " + shoppingItems.size());
+        Logs.d(TAG, "populateShoppingItems: shopping items list size: {}", shoppingItems.size());
 
-        // fetch the shopping items list from the props and populate it
-        applicationGraph.shopSyncsService().getShoppingItemsWithShopSyncUid(shopSyncUid)
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        DataSnapshot dataSnapshot = task.getResult();
-                        if (dataSnapshot == null) {
-                            throw new IllegalNullValueException("DataSnapshot is null");
-                        }
+        // start over from the first page with the adapter of the shown fragment
+        shoppingItemsAdapter = adapter;
+        shoppingItemsPager.reset();
+        cancelPendingChildEvents();
+        loadMoreShoppingItems();
+    }
 
-                        // populate the shopping items list and notify the adapter
-                        for (DataSnapshot child : dataSnapshot.getChildren()) {
-                            // fetch and add the shopping item
-                            ShoppingItemModel shoppingItem =
-                                    child.getValue(ShoppingItemModel.class);
-                            if (shoppingItem == null) {
-                                Log.e(TAG,
-                                      "populateShoppingItems: no shopping item found with id: " +
-                                              child.getKey());
-                                throw new IllegalNullValueException("No shopping item found with "
-                                                                            + "id: " + child.getKey());
-                            }
-                            Log.d(TAG, "populateShoppingItems: shopping item: " + shoppingItem);
-                            if (!shoppingItems.contains(shoppingItem)) {
-                                shoppingItems.add(shoppingItem);
-                            }
-                        }
+    private void loadMoreShoppingItems() {
+        ShoppingItemsAdapter adapter = shoppingItemsAdapter;
+        if (adapter == null) {
+            Log.e(TAG, "loadMoreShoppingItems: shopping items are not initialized");
+            return;
+        }
 
-                        adapter.notifyDataSetChanged();
-                    } else {
-                        Log.e(TAG, "onCallback: failed to fetch shopping items",
-                              task.getException());
-                        throw new TaskFailureException(task, "Failed to fetch shopping items");
-                    }
-                });
+        Consumer<ErrorHandle> onFailure = errorHandle -> Log.e(
+                TAG, "loadMoreShoppingItems: failed to fetch shopping items: " +
+                        errorHandle.errorMessage());
+
+        // decode the page off the main thread and merge the shopping items into the list
+        shoppingItemsPager.loadNextPage(children -> applicationGraph.snapshotDecoder()
+                .decodeChildren(children, ShoppingItemModel.class,
+                                fetchedShoppingItems -> adapter.submitItems(fetchedShoppingItems,
+                                                                            null),
+                                onFailure), onFailure);
     }
 
     private void deleteShoppingItem(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "deleteShoppingItem: deleting shopping item");
+        Logs.d(TAG, "deleteShoppingItem: deleting shopping item");
 
         // fetch the shopping item from the props and delete it
         ShoppingItemModel shoppingItem = props.get(Constants.SHOPPING_ITEM,
@@ -609,7 +688,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                 .deleteShoppingItem(shopSyncUid, shoppingItem.getShoppingItemUid())
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
-                        Log.d(TAG, "deleteShoppingItem: successfully deleted shopping item");
+                        Logs.d(TAG, "deleteShoppingItem: successfully deleted shopping item");
                     } else {
                         Log.e(TAG, "deleteShoppingItem: failed to delete shopping item",
                               task.getException());
@@ -618,7 +697,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
     }
 
     private void moveShoppingItemToBasket(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "moveShoppingItemToBasket: moving shopping item to basket");
+        Logs.d(TAG, "moveShoppingItemToBasket: moving shopping item to basket");
 
         // shopping basket uid is the same as the user's uid
         FirebaseUser user = checkIfUserIsLoggedInAndFetch(true);
@@ -637,7 +716,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
 
         // on-success consumer
         Consumer<BasketItemModel> onSuccess = basketItem -> {
-            Log.d(TAG, "moveShoppingItemToBasket: successfully added shopping item to basket");
+            Logs.d(TAG, "moveShoppingItemToBasket: successfully added shopping item to basket");
 
             Runnable onSuccessRunnable = props.get(Constants.ON_SUCCESS, Runnable.class);
             if (onSuccessRunnable != null) {
@@ -661,10 +740,9 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                                DEFAULT_QUANTITY, DEFAULT_PRICE_PER_UNIT, onSuccess, onFailure);
     }
 
-    @SuppressLint("NotifyDataSetChanged")
     @SuppressWarnings("unchecked")
     private void initializeBasketItems(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "initializeBasketItems: initializing basket items");
+        Logs.d(TAG, "initializeBasketItems: initializing basket items");
 
         FirebaseUser user = checkIfUserIsLoggedInAndFetch(true);
         if (user == null) {
@@ -695,29 +773,33 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                             throw new IllegalNullValueException("DataSnapshot is null");
                         }
 
-                        ShoppingBasketModel shoppingBasket =
-                                dataSnapshot.getValue(ShoppingBasketModel.class);
-                        if (shoppingBasket == null) {
-                            Log.e(TAG, "initializeBasketItems: no shopping basket found with " +
-                                    "uid: " + user.getUid());
-                            throw new IllegalNullValueException("No shopping basket found with " +
-                                                                        "uid: " + user.getUid());
-                        }
-
-                        Map<String, BasketItemModel> shoppingBasketItems =
-                                shoppingBasket.getBasketItems();
-                        if (shoppingBasketItems == null) {
-                            throw new IllegalNullValueException("Shopping basket items is null");
-                        }
+                        applicationGraph.snapshotDecoder().decode(
+                                dataSnapshot, ShoppingBasketModel.class, shoppingBasket -> {
+                            if (shoppingBasket == null) {
+                                Log.e(TAG, "initializeBasketItems: no shopping basket found " +
+                                        "with uid: " + user.getUid());
+                                throw new IllegalNullValueException("No shopping basket found " +
+                                                                            "with uid: " +
+                                                                            user.getUid());
+                            }
 
-                        shoppingBasketItems.values().forEach(basketItem -> {
-                            // basket items extends ArraySetList so [contains] is constant time
-                            if (!basketItems.contains(basketItem)) {
-                                basketItems.add(basketItem);
+                            Map<String, BasketItemModel> shoppingBasketItems =
+                                    shoppingBasket.getBasketItems();
+                            if (shoppingBasketItems == null) {
+                                throw new IllegalNullValueException("Shopping basket items is " +
+                                                                            "null");
                             }
-                        });
 
-                        adapter.notifyDataSetChanged();
+                            // the names are watched before the rows are bound, so the rows wait
+                            // on the watched names instead of fetching them one by one
+                            shoppingBasketItems.keySet().forEach(shoppingItemNameIndex::watch);
+
+                            // only the rows of basket items that are not listed yet are bound,
+                            // so the names of the listed items are not fetched again
+                            adapter.submitItems(new ArrayList<>(shoppingBasketItems.values()),
+                                                null);
+                        }, errorHandle -> Log.e(TAG, "initializeBasketItems: failed to decode " +
+                                "shopping basket: " + errorHandle.errorMessage()));
                     } else {
                         Log.e(TAG, "initializeBasketItems: failed to fetch shopping basket",
                               task.getException());
@@ -726,8 +808,8 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                 });
     }
 
-    private void fetchItemNameByShoppingItemUid(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "fetchItemNameByShoppingItemUid: fetching item name");
+    private void fetchItemNameByShoppingItemUid(@NonNull Props props) {
+        Logs.d(TAG, "fetchItemNameByShoppingItemUid: fetching item name");
 
         String shoppingItemUid = props.get(Constants.SHOPPING_ITEM, String.class);
         if (shoppingItemUid == null) {
@@ -739,37 +821,86 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
             throw new IllegalNullValueException("Item text view cannot be null");
         }
 
+        // resolved synchronously from the index unless the item has not been seen yet
+        shoppingItemNameIndex.resolve(shoppingItemUid, name -> {
+            if (name == null) {
+                Log.e(TAG, "fetchItemNameByShoppingItemUid: no name found for shopping item " +
+                        "uid = " + shoppingItemUid);
+                return;
+            }
+
+            // the view may have been recycled for another item while the name was fetched
+            if (!shoppingItemUid.equals(itemTextView.getTag())) {
+                Logs.d(TAG, "fetchItemNameByShoppingItemUid: item text view was rebound");
+                return;
+            }
+
+            // set the name of the item in the text view
+            itemTextView.setText(name);
+        });
+    }
+
+    private void loadShoppingItemName(@NonNull String shopSyncUid, @NonNull String shoppingItemUid,
+                                      @NonNull Consumer<String> onLoaded) {
         applicationGraph.shopSyncsService().getShoppingItemWithUid(shopSyncUid, shoppingItemUid)
                 .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        DataSnapshot dataSnapshot = task.getResult();
-                        if (dataSnapshot == null) {
-                            Log.e(TAG, "fetchItemNameByShoppingItemUid: DataSnapshot is null");
-                            throw new IllegalNullValueException("DataSnapshot cannot be null");
-                        }
-
-                        ShoppingItemModel shoppingItem =
-                                dataSnapshot.getValue(ShoppingItemModel.class);
-                        if (shoppingItem == null || shoppingItem.getShoppingItemUid() == null ||
-                                shoppingItem.getShoppingItemUid().isBlank()) {
-                            Log.e(TAG, "fetchItemNameByShoppingItemUid: no shopping item " +
-                                    "found for shop sync uid = " + shopSyncUid + " and shopping " +
-                                    "item uid = " + shoppingItemUid);
-                            throw new IllegalNullValueException(
-                                    "No shopping item found for shop sync uid = " + shopSyncUid +
-                                            " and shopping item uid = " + shoppingItemUid);
-                        }
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "loadShoppingItemName: failed to fetch shopping item",
+                              task.getException());
+                        onLoaded.accept(null);
+                        return;
+                    }
 
-                        // set the name of the item in the text view
-                        itemTextView.setText(shoppingItem.getName());
-                        Log.d(TAG, "fetchItemNameByShoppingItemUid: item text view has been " +
-                                "set with the item's name");
+                    DataSnapshot dataSnapshot = task.getResult();
+                    ShoppingItemModel shoppingItem = dataSnapshot == null ? null :
+                            SnapshotDecoder.decodeValue(dataSnapshot, ShoppingItemModel.class);
+                    if (shoppingItem == null || shoppingItem.getName() == null) {
+                        Log.e(TAG, "loadShoppingItemName: no shopping item found for shop sync " +
+                                "uid = " + shopSyncUid + " and shopping item uid = " +
+                                shoppingItemUid);
+                        onLoaded.accept(null);
+                        return;
                     }
+
+                    onLoaded.accept(shoppingItem.getName());
                 });
     }
 
+    private Runnable watchShoppingItemName(@NonNull String shopSyncUid,
+                                           @NonNull String shoppingItemUid,
+                                           @NonNull Consumer<String> onName) {
+        DatabaseReference nameReference = applicationGraph.shopSyncsService()
+                .getShopSyncsFirebaseReference().getShoppingItemsCollection(shopSyncUid)
+                .child(shoppingItemUid).child(ShopSyncsFirebaseReference.NAME_FIELD);
+        ValueEventListener nameListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                onName.accept(snapshot.getValue(String.class));
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "watchShoppingItemName: listener for shopping item uid = " +
+                        shoppingItemUid + " was cancelled: " + error.getMessage());
+                onName.accept(null);
+            }
+        };
+
+        nameReference.addValueEventListener(nameListener);
+        return () -> nameReference.removeEventListener(nameListener);
+    }
+
+    private void indexShoppingItemName(@NonNull DataSnapshot snapshot) {
+        ShoppingItemModel shoppingItem =
+                SnapshotDecoder.decodeValue(snapshot, ShoppingItemModel.class);
+        if (shoppingItem != null && shoppingItem.getShoppingItemUid() != null &&
+                shoppingItem.getName() != null) {
+            shoppingItemNameIndex.put(shoppingItem.getShoppingItemUid(), shoppingItem.getName());
+        }
+    }
+
     private void updateBasketItem(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "updateBasketItem: updating basket item");
+        Logs.d(TAG, "updateBasketItem: updating basket item");
 
         // fetch the basket item from the props and update it
         BasketItemModel basketItem = props.get(Constants.BASKET_ITEM, BasketItemModel.class);
@@ -789,71 +920,19 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
         Runnable onSuccessRunnable = props.get(Constants.ON_SUCCESS, Runnable.class);
         Runnable onFailureRunnable = props.get(Constants.ON_FAILURE, Runnable.class);
 
-        applicationGraph.shopSyncsService().getShoppingBasketWithUid(shopSyncUid, shoppingBasketUid)
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        DataSnapshot dataSnapshot = task.getResult();
-                        if (dataSnapshot == null) {
-                            if (onFailureRunnable != null) {
-                                onFailureRunnable.run();
-                            }
-                            Log.e(TAG, "updateBasketItem: DataSnapshot is null");
-                            throw new IllegalNullValueException("DataSnapshot is null");
-                        }
-
-                        ShoppingBasketModel shoppingBasket =
-                                dataSnapshot.getValue(ShoppingBasketModel.class);
-                        if (shoppingBasket == null) {
-                            if (onFailureRunnable != null) {
-                                onFailureRunnable.run();
-                            }
-                            Log.e(TAG,
-                                  "updateBasketItem: no shopping basket found with uid: " + shoppingBasketUid);
-                            throw new IllegalNullValueException("No shopping basket found with " +
-                                                                        "uid: " + shoppingBasketUid);
-                        }
-
-                        Map<String, BasketItemModel> basketItems = shoppingBasket.getBasketItems();
-                        if (basketItems == null) {
-                            if (onFailureRunnable != null) {
-                                onFailureRunnable.run();
-                            }
-                            throw new IllegalNullValueException("Basket items is null");
-                        }
-
-                        BasketItemModel oldBasketItem = basketItems.get(shoppingItemUid);
-                        if (oldBasketItem == null) {
-                            if (onFailureRunnable != null) {
-                                onFailureRunnable.run();
-                            }
-                            Log.e(TAG,
-                                  "updateBasketItem: no basket item found with uid: " + shoppingItemUid);
-                            throw new IllegalNullValueException("No basket item found with uid: " +
-                                                                        shoppingItemUid);
-                        }
-
-                        // update the basket item
-                        oldBasketItem.setQuantity(basketItem.getQuantity());
-                        oldBasketItem.setPricePerUnit(basketItem.getPricePerUnit());
-                        applicationGraph.shopSyncsService()
-                                .updateShoppingBasket(shopSyncUid, shoppingBasket);
-
-                        if (onSuccessRunnable != null) {
-                            onSuccessRunnable.run();
-                        }
-                    } else {
-                        Log.e(TAG,
-                              "updateBasketItem: failed to fetch shopping basket with uid: " +
-                                      shoppingBasketUid, task.getException());
-                        throw new TaskFailureException(task,
-                                                       "Failed to fetch shopping basket with" +
-                                                               " uid: " + shoppingBasketUid);
+        // only the basket item is written, not the whole shopping basket
+        applicationGraph.shopSyncsService().updateBasketItem(
+                shopSyncUid, basketItem, onSuccessRunnable, errorHandle -> {
+                    Log.e(TAG, "updateBasketItem: failed to update basket item with uid: " +
+                            shoppingItemUid + ": " + errorHandle.errorMessage());
+                    if (onFailureRunnable != null) {
+                        onFailureRunnable.run();
                     }
                 });
     }
 
     private void purchaseBasketItem(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "purchaseBasketItem: purchasing basket item");
+        Logs.d(TAG, "purchaseBasketItem: purchasing basket item");
 
         Runnable onSuccessRunnable = props.get(Constants.ON_SUCCESS, Runnable.class);
         Runnable onFailureRunnable = props.get(Constants.ON_FAILURE, Runnable.class);
@@ -876,8 +955,8 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
         }
 
         Consumer<PurchasedItemModel> onSuccess = purchasedItem -> {
-            Log.d(TAG,
-                  "purchaseBasketItem: successfully created new purchased item = " + purchasedItem);
+            Logs.d(TAG, "purchaseBasketItem: successfully created new purchased item = {}",
+                    purchasedItem);
             if (onSuccessRunnable != null) {
                 onSuccessRunnable.run();
             }
@@ -896,7 +975,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
     }
 
     private void removeBasketItem(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "removeBasketItem: removing basket item");
+        Logs.d(TAG, "removeBasketItem: removing basket item");
 
         BasketItemModel basketItem = props.get(Constants.BASKET_ITEM, BasketItemModel.class);
         if (basketItem == null) {
@@ -909,17 +988,43 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                                   basketItem.getShoppingItemUid(), null, true);
     }
 
-    @SuppressLint("NotifyDataSetChanged")
     @SuppressWarnings("unchecked")
     private void initializePurchasedItems(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "initializePurchasedItems: initializing purchased items");
+        Logs.d(TAG, "initializePurchasedItems: initializing purchased items");
+
+        // fetch or initialize the purchased items list
+        List<PurchasedItemModel> purchasedItems =
+                (List<PurchasedItemModel>) props.get(PROP_PURCHASED_ITEMS);
+        if (purchasedItems == null) {
+            purchasedItems = new IndexedList<>();
+        }
+        Logs.d(TAG, "initializePurchasedItems: purchased items list = {}", purchasedItems);
+
+        // if there is an adapter, then the shown list is loaded page by page, starting over from
+        // the first page with the adapter of the shown fragment
+        PurchasedItemsAdapter adapter = props.get(Constants.ADAPTER, PurchasedItemsAdapter.class);
+        Logs.d(TAG, "initializePurchasedItems: adapter: {}", adapter);
+        if (adapter != null) {
+            purchasedItemsAdapter = adapter;
+            purchasedItemsPager.reset();
+            cancelPendingChildEvents();
+            loadMorePurchasedItems();
+            return;
+        }
 
+        // fetch the items consumer from the props if one exists
+        Consumer<List<PurchasedItemModel>> itemsConsumer =
+                (Consumer<List<PurchasedItemModel>>) props.get(Constants.CONSUMER);
+        Logs.d(TAG, "initializePurchasedItems: itemsConsumer: {}", itemsConsumer);
+
+        // without an adapter, every purchased item is fetched and passed to the consumer
+        List<PurchasedItemModel> items = purchasedItems;
         applicationGraph.shopSyncsService()
                 .getPurchasedItemsWithShopSyncUid(shopSyncUid)
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
-                        Log.d(TAG, "initializePurchasedItems: successfully fetched purchased " +
-                                "items");
+                        Logs.d(TAG,
+                                "initializePurchasedItems: successfully fetched purchased items");
 
                         DataSnapshot dataSnapshot = task.getResult();
                         if (dataSnapshot == null) {
@@ -927,51 +1032,21 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                             throw new IllegalNullValueException("DataSnapshot is null");
                         }
 
-                        // fetch or initialize the purchased items list
-                        List<PurchasedItemModel> purchasedItems =
-                                (List<PurchasedItemModel>) props.get(PROP_PURCHASED_ITEMS);
-                        if (purchasedItems == null) {
-                            purchasedItems = new ArraySetList<>();
-                        }
-                        Log.d(TAG,
-                              "initializePurchasedItems: purchased items list = " + purchasedItems);
-
-                        // fetch the adapter from the props if one exists
-                        PurchasedItemsAdapter adapter = props.get(Constants.ADAPTER,
-                                                                  PurchasedItemsAdapter.class);
-                        Log.d(TAG, "initializePurchasedItems: adapter: " + adapter);
-
-                        // fetch the items consumer from the props if one exists
-                        Consumer<List<PurchasedItemModel>> itemsConsumer =
-                                (Consumer<List<PurchasedItemModel>>) props.get(Constants.CONSUMER);
-                        Log.d(TAG, "initializePurchasedItems: itemsConsumer: " + itemsConsumer);
-
-                        // collect the purchased items from the data snapshot
-                        for (DataSnapshot child : dataSnapshot.getChildren()) {
-                            PurchasedItemModel purchasedItem =
-                                    child.getValue(PurchasedItemModel.class);
-                            if (purchasedItem == null) {
-                                Log.e(TAG, "initializePurchasedItems: no purchased item found " +
-                                        "with id: " + child.getKey());
-                                throw new IllegalNullValueException("No purchased item found with" +
-                                                                            " id: " + child.getKey());
+                        applicationGraph.snapshotDecoder().decodeChildren(
+                                dataSnapshot, PurchasedItemModel.class, fetchedPurchasedItems -> {
+                            for (PurchasedItemModel purchasedItem : fetchedPurchasedItems) {
+                                if (!items.contains(purchasedItem)) {
+                                    items.add(purchasedItem);
+                                }
                             }
-                            Log.d(TAG,
-                                  "initializePurchasedItems: purchased item: " + purchasedItem);
-                            if (!purchasedItems.contains(purchasedItem)) {
-                                purchasedItems.add(purchasedItem);
-                            }
-                        }
 
-                        // if the adapter is not null, then notify it of the data set change
-                        if (adapter != null) {
-                            adapter.notifyDataSetChanged();
-                        }
-
-                        // if the items consumer is not null, then pass the purchased items to it
-                        if (itemsConsumer != null) {
-                            itemsConsumer.accept(purchasedItems);
-                        }
+                            // if the items consumer is not null, then pass the purchased items
+                            // to it
+                            if (itemsConsumer != null) {
+                                itemsConsumer.accept(items);
+                            }
+                        }, errorHandle -> Log.e(TAG, "initializePurchasedItems: failed to " +
+                                "decode purchased items: " + errorHandle.errorMessage()));
                     } else {
                         Log.e(TAG, "initializePurchasedItems: failed to fetch purchased items",
                               task.getException());
@@ -979,8 +1054,27 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                 });
     }
 
+    private void loadMorePurchasedItems() {
+        PurchasedItemsAdapter adapter = purchasedItemsAdapter;
+        if (adapter == null) {
+            Log.e(TAG, "loadMorePurchasedItems: purchased items are not initialized");
+            return;
+        }
+
+        Consumer<ErrorHandle> onFailure = errorHandle -> Log.e(
+                TAG, "loadMorePurchasedItems: failed to fetch purchased items: " +
+                        errorHandle.errorMessage());
+
+        // decode the page off the main thread and merge the purchased items into the list
+        purchasedItemsPager.loadNextPage(children -> applicationGraph.snapshotDecoder()
+                .decodeChildren(children, PurchasedItemModel.class,
+                                fetchedPurchasedItems -> adapter.submitItems(
+                                        fetchedPurchasedItems, null),
+                                onFailure), onFailure);
+    }
+
     private void undoPurchase(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "undoPurchase: undoing purchase");
+        Logs.d(TAG, "undoPurchase: undoing purchase");
 
         // fetch the purchased item from the props and undo the purchase
         PurchasedItemModel purchasedItem = props.get(Constants.PURCHASED_ITEM,
@@ -1006,19 +1100,19 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                 .deletePurchasedItem(shopSyncUid, purchasedItem.getPurchasedItemUid())
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
-                        Log.d(TAG, "undoPurchase: successfully deleted purchased item");
+                        Logs.d(TAG, "undoPurchase: successfully deleted purchased item");
 
                         // re-add the shopping item to the shop sync
                         ShoppingItemModel addedShoppingItem = applicationGraph.shopSyncsService()
                                 .addShoppingItem(shopSyncUid, shoppingItem.getName(), true);
-                        Log.d(TAG, "undoPurchase: shopping item added to db: " + shoppingItem);
-                        Log.d(TAG,
-                              "undoPurchase: shopping item returned from db: " + addedShoppingItem);
+                        Logs.d(TAG, "undoPurchase: shopping item added to db: {}", shoppingItem);
+                        Logs.d(TAG, "undoPurchase: shopping item returned from db: {}",
+                                addedShoppingItem);
 
                         // re-add the basket item to the user's shopping basket
-                        Consumer<BasketItemModel> onSuccess = _basketItem -> Log.d(TAG,
-                                                                                   "undoPurchase:" +
-                                                                                           " successfully added basket item to db: " + basketItem);
+                        Consumer<BasketItemModel> onSuccess = _basketItem -> Logs.d(
+                                TAG, "undoPurchase: successfully added basket item to db: {}",
+                                basketItem);
                         Consumer<ErrorHandle> onFailure = error -> Log.e(TAG, "undoPurchase: " +
                                 "failed to add basket item to db due to error: " + error);
                         applicationGraph.shopSyncsService()
@@ -1034,7 +1128,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
     }
 
     private void deletePurchase(@NonNull String shopSyncUid, @NonNull Props props) {
-        Log.d(TAG, "deletePurchase: deleting purchase");
+        Logs.d(TAG, "deletePurchase: deleting purchase");
 
         // fetch the purchased item from the props and delete it
         PurchasedItemModel purchasedItem = props.get(Constants.PURCHASED_ITEM,
@@ -1047,7 +1141,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
                 .deletePurchasedItem(shopSyncUid, purchasedItem.getPurchasedItemUid())
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
-                        Log.d(TAG, "deletePurchase: successfully deleted purchased item");
+                        Logs.d(TAG, "deletePurchase: successfully deleted purchased item");
                     } else {
                         Log.e(TAG, "deletePurchase: failed to delete purchased item",
                               task.getException());
@@ -1056,7 +1150,7 @@ public class ShopSyncActivity extends BaseActivity implements CallbackReceiver {
     }
 
     private void handleItemsTypeChange(Button button) {
-        Log.d(TAG, "Items type button clicked: " + button.getText());
+        Logs.d(TAG, "Items type button clicked: {}", button.getText());
 
         itemTypeButtons.values().forEach(otherButton -> {
             otherButton.setBackgroundColor(Color.GRAY);
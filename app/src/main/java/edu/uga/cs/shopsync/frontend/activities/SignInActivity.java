@@ -2,7 +2,6 @@ package edu.uga.cs.shopsync.frontend.activities;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.TextView;
@@ -11,6 +10,7 @@ import android.widget.Toast;
 import edu.uga.cs.shopsync.ApplicationGraph;
 import edu.uga.cs.shopsync.ApplicationGraphSingleton;
 import edu.uga.cs.shopsync.R;
+import edu.uga.cs.shopsync.utils.Logs;
 
 public class SignInActivity extends BaseActivity {
 
@@ -44,7 +44,7 @@ public class SignInActivity extends BaseActivity {
         super.onCreate(savedInstanceState);
 
         if (applicationGraph.usersService().isCurrentUserSignedIn()) {
-            Log.d(TAG, "onCreate: user already signed in, redirecting to my account activity");
+            Logs.d(TAG, "onCreate: user already signed in, redirecting to my account activity");
 
             Toast.makeText(getApplicationContext(), "You're already signed in!",
                            Toast.LENGTH_SHORT).show();
@@ -73,7 +73,7 @@ public class SignInActivity extends BaseActivity {
     }
 
     private void onSignInButtonClick() {
-        Log.d(TAG, "onSignInButtonClick: sign in button clicked");
+        Logs.d(TAG, "onSignInButtonClick: sign in button clicked");
         textViewSignInError.setText("");
 
         String email = editTextSignInEmail.getText().toString();
@@ -84,14 +84,14 @@ public class SignInActivity extends BaseActivity {
                 .signInUser(email, password)
                 .addOnCompleteListener(this, task -> {
                     if (task.isSuccessful()) {
-                        Log.d(TAG, "signInUser: success");
+                        Logs.d(TAG, "signInUser: success");
                         Toast.makeText(getApplicationContext(), "Signed in user: " + email,
                                        Toast.LENGTH_SHORT).show();
 
                         Intent intent = new Intent(SignInActivity.this, MyAccountActivity.class);
                         startActivity(intent);
                     } else {
-                        Log.d(TAG, "signInUser: failure");
+                        Logs.d(TAG, "signInUser: failure");
                         Toast.makeText(getApplicationContext(), "Sign in failed!",
                                        Toast.LENGTH_SHORT).show();
 
@@ -14,22 +14,27 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.BatchingListUpdateCallback;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import edu.uga.cs.shopsync.R;
 import edu.uga.cs.shopsync.backend.models.BasketItemModel;
+import edu.uga.cs.shopsync.backend.services.SnapshotDecoder;
 import edu.uga.cs.shopsync.frontend.Constants;
 import edu.uga.cs.shopsync.frontend.utils.ChildEventListenerFragment;
+import edu.uga.cs.shopsync.frontend.utils.ItemListDiffer;
 import edu.uga.cs.shopsync.frontend.utils.TextWatcherAdapter;
 import edu.uga.cs.shopsync.utils.CallbackReceiver;
+import edu.uga.cs.shopsync.utils.IndexedList;
+import edu.uga.cs.shopsync.utils.Logs;
 import edu.uga.cs.shopsync.utils.Props;
 import edu.uga.cs.shopsync.utils.UtilMethods;
 
@@ -50,6 +55,7 @@ public class BasketItemsFragment extends ChildEventListenerFragment {
 
     private final List<BasketItemModel> basketItems;
     private final BasketItemsAdapter adapter;
+    private final BatchingListUpdateCallback listUpdateCallback;
 
     private CallbackReceiver callbackReceiver;
 
@@ -59,17 +65,20 @@ public class BasketItemsFragment extends ChildEventListenerFragment {
     public BasketItemsFragment() {
         super();
 
-        Log.d(TAG, "BasketItemsFragment: constructor called");
+        Logs.d(TAG, "BasketItemsFragment: constructor called");
 
-        basketItems = new ArrayList<>();
+        basketItems = new IndexedList<>();
         adapter = new BasketItemsAdapter();
+        // merges the notifications of a batch of child events into range notifications
+        listUpdateCallback =
+                new BatchingListUpdateCallback(new AdapterListUpdateCallback(adapter));
     }
 
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
                              @Nullable Bundle savedInstanceState) {
-        Log.d(TAG, "onCreateView: called");
+        Logs.d(TAG, "onCreateView: called");
 
         // if the activity does not implement CallbackReceiver, then throw an exception
         // otherwise, set the callbackReceiver to the activity
@@ -79,7 +88,7 @@ public class BasketItemsFragment extends ChildEventListenerFragment {
                 throw new ClassCastException("Activity must implement CallbackReceiver");
             }
 
-            Log.d(TAG, "onCreateView: Activity implements CallbackReceiver");
+            Logs.d(TAG, "onCreateView: Activity implements CallbackReceiver");
             callbackReceiver = (CallbackReceiver) getActivity();
         }
 
@@ -110,7 +119,7 @@ public class BasketItemsFragment extends ChildEventListenerFragment {
 
     @Override
     public void onStart() {
-        Log.d(TAG, "onStart: called");
+        Logs.d(TAG, "onStart: called");
         super.onStart();
 
         if (!(getActivity() instanceof CallbackReceiver)) {
@@ -118,58 +127,71 @@ public class BasketItemsFragment extends ChildEventListenerFragment {
             throw new ClassCastException("Activity must implement CallbackReceiver");
         }
 
-        Log.d(TAG, "onStart: Activity implements CallbackReceiver");
+        Logs.d(TAG, "onStart: Activity implements CallbackReceiver");
         callbackReceiver = (CallbackReceiver) getActivity();
     }
 
     @Override
     public void onDestroy() {
-        Log.d(TAG, "onDestroy: called");
+        Logs.d(TAG, "onDestroy: called");
         super.onDestroy();
 
-        Log.d(TAG, "onDestroy: setting callbackReceiver to null");
+        Logs.d(TAG, "onDestroy: setting callbackReceiver to null");
         callbackReceiver = null;
     }
 
+    @Override
+    protected void onChildEventBatchEnd() {
+        listUpdateCallback.dispatchLastEvent();
+    }
+
     @Override
     public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "onChildAdded: called with snapshot = " + snapshot + " and previous " +
-                "child name = " + previousChildName);
+        Logs.d(TAG, "onChildAdded: called with snapshot = {} and previous child name = {}",
+                snapshot, previousChildName);
 
-        BasketItemModel basketItem = snapshot.getValue(BasketItemModel.class);
+        BasketItemModel basketItem = SnapshotDecoder.decodeValue(snapshot, BasketItemModel.class);
         if (basketItem == null || basketItem.getShoppingItemUid() == null ||
                 basketItem.getShoppingItemUid().isBlank() ||
                 basketItem.getShoppingBasketUid() == null ||
                 basketItem.getShoppingBasketUid().isBlank()) {
-            Log.d(TAG, "onChildAdded: basketItem is null or has null or blank shoppingItemUid or " +
-                    "shoppingBasketUid. Snapshot = " + snapshot);
+            Logs.d(TAG, "onChildAdded: basketItem is null or has null or blank shoppingItemUid " +
+                    "or shoppingBasketUid. Snapshot = {}", snapshot);
             return;
         }
 
-        Log.d(TAG, "onChildAdded: basketItem = " + basketItem);
+        Logs.d(TAG, "onChildAdded: basketItem = {}", basketItem);
 
-        // TODO: very inefficient to add to beginning of array list, a better way to do this
+        // the initial population may already have added the item
+        int index = basketItems.indexOf(basketItem);
+        if (index != -1) {
+            basketItems.set(index, basketItem);
+            listUpdateCallback.onChanged(index, 1, null);
+            return;
+        }
+
+        // inserting at the head does not shift the items of an IndexedList
         basketItems.add(0, basketItem);
 
-        adapter.notifyItemInserted(0);
+        listUpdateCallback.onInserted(0, 1);
     }
 
     @Override
     public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "onChildChanged: called with snapshot = " + snapshot + " and previous " +
-                "child name = " + previousChildName);
+        Logs.d(TAG, "onChildChanged: called with snapshot = {} and previous child name = {}",
+                snapshot, previousChildName);
 
-        BasketItemModel basketItem = snapshot.getValue(BasketItemModel.class);
+        BasketItemModel basketItem = SnapshotDecoder.decodeValue(snapshot, BasketItemModel.class);
         if (basketItem == null || basketItem.getShoppingItemUid() == null ||
                 basketItem.getShoppingItemUid().isBlank() ||
                 basketItem.getShoppingBasketUid() == null ||
                 basketItem.getShoppingBasketUid().isBlank()) {
-            Log.d(TAG, "onChildAdded: basketItem is null or has null or blank shoppingItemUid or " +
-                    "shoppingBasketUid. Snapshot = " + snapshot);
+            Logs.d(TAG, "onChildAdded: basketItem is null or has null or blank shoppingItemUid " +
+                    "or shoppingBasketUid. Snapshot = {}", snapshot);
             return;
         }
 
-        Log.d(TAG, "onChildChanged: basketItem = " + basketItem);
+        Logs.d(TAG, "onChildChanged: basketItem = {}", basketItem);
 
         int index = basketItems.indexOf(basketItem);
         if (index == -1) {
@@ -178,13 +200,13 @@ public class BasketItemsFragment extends ChildEventListenerFragment {
         }
 
         basketItems.set(index, basketItem);
-        adapter.notifyItemChanged(index);
+        listUpdateCallback.onChanged(index, 1, null);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void onChildRemoved(@NonNull DataSnapshot snapshot) {
-        Log.d(TAG, "onChildRemoved: called with snapshot = " + snapshot);
+        Logs.d(TAG, "onChildRemoved: called with snapshot = {}", snapshot);
 
         String key = snapshot.getKey();
         if (key == null) {
@@ -194,24 +216,25 @@ public class BasketItemsFragment extends ChildEventListenerFragment {
         if (key.equals(Constants.BASKET_ITEMS_DB_KEY)) {
             try {
                 Map<String, Object> map = (Map<String, Object>) snapshot.getValue();
-                Log.d(TAG, "onChildRemoved: map = " + map);
+                Logs.d(TAG, "onChildRemoved: map = {}", map);
             } catch (Exception e) {
                 Log.e(TAG, "onChildRemoved: snapshot value is not a map for key = " + key, e);
                 return;
             }
         }
 
-        BasketItemModel basketItem = snapshot.getValue(BasketItemModel.class);
+        BasketItemModel basketItem = SnapshotDecoder.decodeValue(snapshot, BasketItemModel.class);
         if (basketItem == null || basketItem.getShoppingItemUid() == null ||
                 basketItem.getShoppingItemUid().isBlank() ||
                 basketItem.getShoppingBasketUid() == null ||
                 basketItem.getShoppingBasketUid().isBlank()) {
-            Log.d(TAG, "onChildRemoved: basketItem is null or has null or blank shoppingItemUid " +
-                    "or shoppingBasketUid. Basket item = " + basketItem + ", snapshot = " + snapshot);
+            Logs.d(TAG, "onChildRemoved: basketItem is null or has null or blank " +
+                    "shoppingItemUid or shoppingBasketUid. Basket item = {}, snapshot = {}",
+                    basketItem, snapshot);
             return;
         }
 
-        Log.d(TAG, "onChildRemoved: basketItem = " + basketItem);
+        Logs.d(TAG, "onChildRemoved: basketItem = {}", basketItem);
 
         int index = basketItems.indexOf(basketItem);
         if (index == -1) {
@@ -220,13 +243,13 @@ public class BasketItemsFragment extends ChildEventListenerFragment {
         }
 
         basketItems.remove(index);
-        adapter.notifyItemRemoved(index);
+        listUpdateCallback.onRemoved(index, 1);
     }
 
     @Override
     public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "onChildMoved: called with snapshot = " + snapshot + " and previous " +
-                "child name = " + previousChildName);
+        Logs.d(TAG, "onChildMoved: called with snapshot = {} and previous child name = {}",
+                snapshot, previousChildName);
     }
 
     @Override
@@ -236,6 +259,21 @@ public class BasketItemsFragment extends ChildEventListenerFragment {
 
     public class BasketItemsAdapter extends RecyclerView.Adapter<BasketItemsAdapter.ViewHolder> {
 
+        private final ItemListDiffer<BasketItemModel> differ =
+                new ItemListDiffer<>(this, basketItems, BasketItemModel::toMap);
+
+        /**
+         * Merges the fetched items into the list and notifies the adapter of the rows that
+         * changed. The diff is computed off the main thread.
+         *
+         * @param fetchedBasketItems the fetched items
+         * @param onApplied          the runnable that is run once the list is updated
+         */
+        public void submitItems(@NonNull List<BasketItemModel> fetchedBasketItems,
+                                @Nullable Runnable onApplied) {
+            differ.submit(fetchedBasketItems, onApplied);
+        }
+
         @NonNull
         @Override
         public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -279,7 +317,9 @@ public class BasketItemsFragment extends ChildEventListenerFragment {
             }
 
             void bind(BasketItemModel item) {
-                // fetch and display the item name
+                // fetch and display the item name, the tag lets late lookups detect a rebind
+                textViewItemName.setTag(item.getShoppingItemUid());
+                textViewItemName.setText("");
                 callbackReceiver.onCallback(ACTION_FETCH_ITEM_NAME_BY_SHOPPING_ITEM_UID, Props.of(
                         Pair.create(Constants.SHOPPING_ITEM, item.getShoppingItemUid()),
                         Pair.create(Constants.TEXT_VIEW, textViewItemName)));
@@ -464,7 +504,7 @@ public class BasketItemsFragment extends ChildEventListenerFragment {
                         Log.e(TAG, "bind: callbackReceiver is null");
                     } else {
                         Runnable onSuccess = () -> {
-                            Log.d(TAG, "purchase successful");
+                            Logs.d(TAG, "purchase successful");
                             Toast.makeText(getContext(), "Basket item purchased successfully",
                                            Toast.LENGTH_SHORT).show();
                         };
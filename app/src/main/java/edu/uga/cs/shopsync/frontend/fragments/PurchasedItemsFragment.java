@@ -11,6 +11,8 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.BatchingListUpdateCallback;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -24,10 +26,14 @@ import edu.uga.cs.shopsync.backend.exceptions.IllegalNullValueException;
 import edu.uga.cs.shopsync.backend.models.BasketItemModel;
 import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
 import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+import edu.uga.cs.shopsync.backend.services.SnapshotDecoder;
 import edu.uga.cs.shopsync.frontend.Constants;
 import edu.uga.cs.shopsync.frontend.utils.ChildEventListenerFragment;
-import edu.uga.cs.shopsync.utils.ArraySetList;
+import edu.uga.cs.shopsync.frontend.utils.ItemListDiffer;
+import edu.uga.cs.shopsync.frontend.utils.LoadMoreScrollListener;
 import edu.uga.cs.shopsync.utils.CallbackReceiver;
+import edu.uga.cs.shopsync.utils.IndexedList;
+import edu.uga.cs.shopsync.utils.Logs;
 import edu.uga.cs.shopsync.utils.Props;
 
 /**
@@ -41,10 +47,13 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
             "ACTION_INITIALIZE_PURCHASED_ITEMS";
     public static final String ACTION_UNDO_PURCHASE = "ACTION_UNDO_PURCHASE";
     public static final String ACTION_DELETE_PURCHASE = "ACTION_DELETE_PURCHASE";
+    public static final String ACTION_LOAD_MORE_PURCHASED_ITEMS =
+            "ACTION_LOAD_MORE_PURCHASED_ITEMS";
     public static final String PROP_PURCHASED_ITEMS = "PROP_PURCHASED_ITEMS";
 
     private final List<PurchasedItemModel> purchasedItems;
     private final PurchasedItemsAdapter adapter;
+    private final BatchingListUpdateCallback listUpdateCallback;
 
     private CallbackReceiver callbackReceiver;
 
@@ -54,11 +63,14 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
     public PurchasedItemsFragment() {
         super();
 
-        Log.d(TAG, "PurchasedItemsFragment: called");
+        Logs.d(TAG, "PurchasedItemsFragment: called");
 
         callbackReceiver = null;
-        purchasedItems = new ArraySetList<>();
+        purchasedItems = new IndexedList<>();
         adapter = new PurchasedItemsAdapter(purchasedItems);
+        // merges the notifications of a batch of child events into range notifications
+        listUpdateCallback =
+                new BatchingListUpdateCallback(new AdapterListUpdateCallback(adapter));
     }
 
     /**
@@ -79,7 +91,7 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
                              @Nullable Bundle savedInstanceState) {
-        Log.d(TAG, "onCreateView: called");
+        Logs.d(TAG, "onCreateView: called");
 
         // if the activity does not implement CallbackReceiver, then throw an exception
         // otherwise, set the callbackReceiver to the activity
@@ -89,7 +101,7 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
                 throw new ClassCastException("Activity must implement CallbackReceiver");
             }
 
-            Log.d(TAG, "onCreateView: Activity implements CallbackReceiver");
+            Logs.d(TAG, "onCreateView: Activity implements CallbackReceiver");
             callbackReceiver = (CallbackReceiver) getActivity();
         }
 
@@ -100,6 +112,13 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
         recyclerView.setLayoutManager(new LinearLayoutManager(getActivity()));
         recyclerView.setAdapter(adapter);
 
+        // load the next page of purchased items when the user scrolls close to the end of the list
+        recyclerView.addOnScrollListener(new LoadMoreScrollListener(() -> {
+            if (callbackReceiver != null) {
+                callbackReceiver.onCallback(ACTION_LOAD_MORE_PURCHASED_ITEMS, Props.of());
+            }
+        }));
+
         callbackReceiver.onCallback(ACTION_INITIALIZE_PURCHASED_ITEMS, Props.of(
                 Pair.create(PROP_PURCHASED_ITEMS, purchasedItems),
                 Pair.create(Constants.ADAPTER, adapter)));
@@ -109,7 +128,7 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
 
     @Override
     public void onStart() {
-        Log.d(TAG, "onStart: called");
+        Logs.d(TAG, "onStart: called");
         super.onStart();
 
         if (!(getActivity() instanceof CallbackReceiver)) {
@@ -117,95 +136,112 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
             throw new ClassCastException("Activity must implement CallbackReceiver");
         }
 
-        Log.d(TAG, "onStart: Activity implements CallbackReceiver");
+        Logs.d(TAG, "onStart: Activity implements CallbackReceiver");
         callbackReceiver = (CallbackReceiver) getActivity();
     }
 
     @Override
     public void onDestroy() {
-        Log.d(TAG, "onDestroy: called");
+        Logs.d(TAG, "onDestroy: called");
         super.onDestroy();
 
-        Log.d(TAG, "onDestroy: setting callbackReceiver to null");
+        Logs.d(TAG, "onDestroy: setting callbackReceiver to null");
         callbackReceiver = null;
     }
 
+    @Override
+    protected void onChildEventBatchEnd() {
+        listUpdateCallback.dispatchLastEvent();
+    }
+
     @Override
     public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "onChildAdded: called with snapshot = " + snapshot + " and previous " +
-                "child name = " + previousChildName);
+        Logs.d(TAG, "onChildAdded: called with snapshot = {} and previous child name = {}",
+                snapshot, previousChildName);
 
-        PurchasedItemModel purchasedItem = snapshot.getValue(PurchasedItemModel.class);
+        PurchasedItemModel purchasedItem =
+                SnapshotDecoder.decodeValue(snapshot, PurchasedItemModel.class);
         if (purchasedItem == null || purchasedItem.getPurchasedItemUid() == null ||
                 purchasedItem.getPurchasedItemUid().isBlank()) {
-            Log.d(TAG, "onChildAdded: purchasedItem is null or has null or blank uid. " +
-                    "Snapshot = " + snapshot);
+            Logs.d(TAG,
+                    "onChildAdded: purchasedItem is null or has null or blank uid. Snapshot = {}",
+                    snapshot);
             return;
         }
 
-        Log.d(TAG, "onChildAdded: purchasedItem = " + purchasedItem);
+        Logs.d(TAG, "onChildAdded: purchasedItem = {}", purchasedItem);
 
-        // TODO: very inefficient to add to beginning of array list, a better way to do this
-        // possibly implement a customer array or list adapter than allows for modifying
-        // the iteration order
+        // the initial population may already have added the item
+        int index = purchasedItems.indexOf(purchasedItem);
+        if (index != -1) {
+            purchasedItems.set(index, purchasedItem);
+            listUpdateCallback.onChanged(index, 1, null);
+            return;
+        }
+
+        // inserting at the head does not shift the items of an IndexedList
         purchasedItems.add(0, purchasedItem);
 
-        adapter.notifyItemInserted(0);
+        listUpdateCallback.onInserted(0, 1);
     }
 
     @Override
     public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "onChildChanged: called with snapshot = " + snapshot + " and previous " +
-                "child name = " + previousChildName);
+        Logs.d(TAG, "onChildChanged: called with snapshot = {} and previous child name = {}",
+                snapshot, previousChildName);
 
-        PurchasedItemModel purchasedItem = snapshot.getValue(PurchasedItemModel.class);
+        PurchasedItemModel purchasedItem =
+                SnapshotDecoder.decodeValue(snapshot, PurchasedItemModel.class);
         if (purchasedItem == null || purchasedItem.getPurchasedItemUid() == null ||
                 purchasedItem.getPurchasedItemUid().isBlank()) {
-            Log.d(TAG, "onChildAdded: purchasedItem is null or has null or blank uid. " +
-                    "Snapshot = " + snapshot);
+            Logs.d(TAG,
+                    "onChildAdded: purchasedItem is null or has null or blank uid. Snapshot = {}",
+                    snapshot);
             return;
         }
 
-        Log.d(TAG, "onChildChanged: purchasedItem = " + purchasedItem);
+        Logs.d(TAG, "onChildChanged: purchasedItem = {}", purchasedItem);
 
         int index = purchasedItems.indexOf(purchasedItem);
         if (index == -1) {
-            Log.d(TAG, "onChildChanged: purchasedItem not found in purchasedItems");
+            Logs.d(TAG, "onChildChanged: purchasedItem not found in purchasedItems");
             return;
         }
 
         purchasedItems.set(index, purchasedItem);
-        adapter.notifyItemChanged(index);
+        listUpdateCallback.onChanged(index, 1, null);
     }
 
     @Override
     public void onChildRemoved(@NonNull DataSnapshot snapshot) {
-        Log.d(TAG, "onChildRemoved: called with snapshot = " + snapshot);
+        Logs.d(TAG, "onChildRemoved: called with snapshot = {}", snapshot);
 
-        PurchasedItemModel purchasedItem = snapshot.getValue(PurchasedItemModel.class);
+        PurchasedItemModel purchasedItem =
+                SnapshotDecoder.decodeValue(snapshot, PurchasedItemModel.class);
         if (purchasedItem == null || purchasedItem.getPurchasedItemUid() == null ||
                 purchasedItem.getPurchasedItemUid().isBlank()) {
-            Log.d(TAG, "onChildAdded: purchasedItem is null or has null or blank uid. " +
-                    "Snapshot = " + snapshot);
+            Logs.d(TAG,
+                    "onChildAdded: purchasedItem is null or has null or blank uid. Snapshot = {}",
+                    snapshot);
             return;
         }
 
-        Log.d(TAG, "onChildRemoved: purchasedItem = " + purchasedItem);
+        Logs.d(TAG, "onChildRemoved: purchasedItem = {}", purchasedItem);
 
         int index = purchasedItems.indexOf(purchasedItem);
         if (index == -1) {
-            Log.d(TAG, "onChildRemoved: purchasedItem not found in purchasedItems");
+            Logs.d(TAG, "onChildRemoved: purchasedItem not found in purchasedItems");
             return;
         }
 
         purchasedItems.remove(index);
-        adapter.notifyItemRemoved(index);
+        listUpdateCallback.onRemoved(index, 1);
     }
 
     @Override
     public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "onChildMoved: called with snapshot = " + snapshot + " and previous " +
-                "child name = " + previousChildName);
+        Logs.d(TAG, "onChildMoved: called with snapshot = {} and previous child name = {}",
+                snapshot, previousChildName);
     }
 
     @Override
@@ -217,16 +253,30 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
             extends RecyclerView.Adapter<PurchasedItemsAdapter.ViewHolder> {
 
         private final List<PurchasedItemModel> purchasedItems;
+        private final ItemListDiffer<PurchasedItemModel> differ;
 
         PurchasedItemsAdapter(List<PurchasedItemModel> purchasedItems) {
-            Log.d(TAG, "PurchasedItemsAdapter: called");
+            Logs.d(TAG, "PurchasedItemsAdapter: called");
             this.purchasedItems = purchasedItems;
+            this.differ = new ItemListDiffer<>(this, purchasedItems, PurchasedItemModel::toMap);
+        }
+
+        /**
+         * Merges the fetched items into the list and notifies the adapter of the rows that
+         * changed. The diff is computed off the main thread.
+         *
+         * @param fetchedPurchasedItems the fetched items
+         * @param onApplied             the runnable that is run once the list is updated
+         */
+        public void submitItems(@NonNull List<PurchasedItemModel> fetchedPurchasedItems,
+                                @Nullable Runnable onApplied) {
+            differ.submit(fetchedPurchasedItems, onApplied);
         }
 
         @NonNull
         @Override
         public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-            Log.d(TAG, "onCreateViewHolder: called");
+            Logs.d(TAG, "onCreateViewHolder: called");
             View view = LayoutInflater.from(parent.getContext())
                     .inflate(R.layout.row_purchased_item, parent, false);
             return new ViewHolder(view);
@@ -234,8 +284,8 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            Log.d(TAG, "onBindViewHolder: called with position = " + position +
-                    " and item = " + purchasedItems.get(position));
+            Logs.d(TAG, "onBindViewHolder: called with position = {} and item = {}",
+                    position, purchasedItems.get(position));
             holder.bind(purchasedItems.get(position));
         }
 
@@ -256,7 +306,7 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
             ViewHolder(@NonNull View itemView) {
                 super(itemView);
 
-                Log.d(TAG, "ViewHolder: called");
+                Logs.d(TAG, "ViewHolder: called");
 
                 textViewItemName = itemView.findViewById(R.id.itemNameTextView);
                 textViewQuantity = itemView.findViewById(R.id.quantityTextView);
@@ -268,7 +318,7 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
             }
 
             void bind(@NonNull PurchasedItemModel purchasedItem) {
-                Log.d(TAG, "bind: called with purchasedItem = " + purchasedItem);
+                Logs.d(TAG, "bind: called with purchasedItem = {}", purchasedItem);
 
                 // fetch the shopping item
                 if (purchasedItem.getShoppingItem() == null) {
@@ -339,13 +389,13 @@ public class PurchasedItemsFragment extends ChildEventListenerFragment {
             }
 
             private void undoPurchase(@NonNull PurchasedItemModel purchasedItem) {
-                Log.d(TAG, "undoPurchase: called with purchasedItem = " + purchasedItem);
+                Logs.d(TAG, "undoPurchase: called with purchasedItem = {}", purchasedItem);
                 callbackReceiver.onCallback(ACTION_UNDO_PURCHASE, Props.of(
                         Pair.create(Constants.PURCHASED_ITEM, purchasedItem)));
             }
 
             private void deletePurchase(@NonNull PurchasedItemModel purchasedItem) {
-                Log.d(TAG, "deletePurchase: called with purchasedItem = " + purchasedItem);
+                Logs.d(TAG, "deletePurchase: called with purchasedItem = {}", purchasedItem);
                 callbackReceiver.onCallback(ACTION_DELETE_PURCHASE, Props.of(
                         Pair.create(Constants.PURCHASED_ITEM, purchasedItem)));
             }
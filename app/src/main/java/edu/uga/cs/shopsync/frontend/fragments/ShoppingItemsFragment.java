@@ -15,6 +15,8 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.BatchingListUpdateCallback;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -26,11 +28,15 @@ import java.util.List;
 import edu.uga.cs.shopsync.R;
 import edu.uga.cs.shopsync.backend.exceptions.IllegalNullValueException;
 import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+import edu.uga.cs.shopsync.backend.services.SnapshotDecoder;
 import edu.uga.cs.shopsync.frontend.Constants;
 import edu.uga.cs.shopsync.frontend.utils.ChildEventListenerFragment;
+import edu.uga.cs.shopsync.frontend.utils.ItemListDiffer;
+import edu.uga.cs.shopsync.frontend.utils.LoadMoreScrollListener;
 import edu.uga.cs.shopsync.frontend.utils.TextWatcherAdapter;
-import edu.uga.cs.shopsync.utils.ArraySetList;
 import edu.uga.cs.shopsync.utils.CallbackReceiver;
+import edu.uga.cs.shopsync.utils.IndexedList;
+import edu.uga.cs.shopsync.utils.Logs;
 import edu.uga.cs.shopsync.utils.Props;
 
 /**
@@ -46,28 +52,34 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
     public static final String ACTION_UPDATE_SHOPPING_ITEM = "ACTION_UPDATE_SHOPPING_ITEM";
     public static final String ACTION_MOVE_SHOPPING_ITEM_TO_BASKET = "ACTION_ADD_TO_BASKET";
     public static final String ACTION_DELETE_SHOPPING_ITEM = "ACTION_DELETE_SHOPPING_ITEM";
+    public static final String ACTION_LOAD_MORE_SHOPPING_ITEMS =
+            "ACTION_LOAD_MORE_SHOPPING_ITEMS";
     public static final String PROP_SHOPPING_ITEMS = "PROP_SHOPPING_ITEMS";
 
     private final List<ShoppingItemModel> shoppingItems;
     private final ShoppingItemsAdapter adapter;
+    private final BatchingListUpdateCallback listUpdateCallback;
 
     private CallbackReceiver callbackReceiver;
 
     public ShoppingItemsFragment() {
         super();
 
-        Log.d(TAG, "ShoppingItemsFragment: called");
+        Logs.d(TAG, "ShoppingItemsFragment: called");
 
         callbackReceiver = null;
-        shoppingItems = new ArraySetList<>();
+        shoppingItems = new IndexedList<>();
         adapter = new ShoppingItemsAdapter();
+        // merges the notifications of a batch of child events into range notifications
+        listUpdateCallback =
+                new BatchingListUpdateCallback(new AdapterListUpdateCallback(adapter));
     }
 
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
                              @Nullable Bundle savedInstanceState) {
-        Log.d(TAG, "onCreateView: called");
+        Logs.d(TAG, "onCreateView: called");
 
         // if the activity does not implement CallbackReceiver, then throw an exception
         // otherwise, set the callbackReceiver to the activity
@@ -77,7 +89,7 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
                 throw new ClassCastException("Activity must implement CallbackReceiver");
             }
 
-            Log.d(TAG, "onCreateView: Activity implements CallbackReceiver");
+            Logs.d(TAG, "onCreateView: Activity implements CallbackReceiver");
             callbackReceiver = (CallbackReceiver) getActivity();
         }
 
@@ -86,14 +98,14 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
         // add shopping item button
         Button addShoppingItemButton = view.findViewById(R.id.buttonAddShoppingItem);
         addShoppingItemButton.setOnClickListener(v -> {
-            Log.d(TAG, "onCreateView: add shopping item button clicked");
+            Logs.d(TAG, "onCreateView: add shopping item button clicked");
 
             if (callbackReceiver == null) {
                 Log.e(TAG, "onCreateView: callbackReceiver is null");
                 throw new IllegalNullValueException("callbackReceiver is null");
             }
 
-            Log.d(TAG, "onCreateView: calling callbackReceiver.onCallback");
+            Logs.d(TAG, "onCreateView: calling callbackReceiver.onCallback");
             callbackReceiver.onCallback(ACTION_ADD_SHOPPING_ITEM, Props.of());
         });
 
@@ -102,6 +114,13 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
         recyclerView.setLayoutManager(new LinearLayoutManager(getActivity()));
         recyclerView.setAdapter(adapter);
 
+        // load the next page of shopping items when the user scrolls close to the end of the list
+        recyclerView.addOnScrollListener(new LoadMoreScrollListener(() -> {
+            if (callbackReceiver != null) {
+                callbackReceiver.onCallback(ACTION_LOAD_MORE_SHOPPING_ITEMS, Props.of());
+            }
+        }));
+
         callbackReceiver.onCallback(ACTION_INITIALIZE_SHOPPING_ITEMS, Props.of(
                 Pair.create(PROP_SHOPPING_ITEMS, shoppingItems),
                 Pair.create(Constants.ADAPTER, adapter)));
@@ -111,7 +130,7 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
 
     @Override
     public void onStart() {
-        Log.d(TAG, "onStart: called");
+        Logs.d(TAG, "onStart: called");
         super.onStart();
 
         if (!(getActivity() instanceof CallbackReceiver)) {
@@ -119,54 +138,71 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
             throw new ClassCastException("Activity must implement CallbackReceiver");
         }
 
-        Log.d(TAG, "onStart: Activity implements CallbackReceiver");
+        Logs.d(TAG, "onStart: Activity implements CallbackReceiver");
         callbackReceiver = (CallbackReceiver) getActivity();
     }
 
     @Override
     public void onDestroy() {
-        Log.d(TAG, "onDestroy: called");
+        Logs.d(TAG, "onDestroy: called");
         super.onDestroy();
 
-        Log.d(TAG, "onDestroy: setting callbackReceiver to null");
+        Logs.d(TAG, "onDestroy: setting callbackReceiver to null");
         callbackReceiver = null;
     }
 
+    @Override
+    protected void onChildEventBatchEnd() {
+        listUpdateCallback.dispatchLastEvent();
+    }
+
     @Override
     public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "onChildAdded: called with snapshot = " + snapshot + " and " +
-                "previousChildName = " + previousChildName);
+        Logs.d(TAG, "onChildAdded: called with snapshot = {} and previousChildName = {}",
+                snapshot, previousChildName);
 
-        ShoppingItemModel shoppingItem = snapshot.getValue(ShoppingItemModel.class);
+        ShoppingItemModel shoppingItem =
+                SnapshotDecoder.decodeValue(snapshot, ShoppingItemModel.class);
         if (shoppingItem == null || shoppingItem.getShoppingItemUid() == null ||
                 shoppingItem.getShoppingItemUid().isBlank()) {
-            Log.d(TAG, "onChildAdded: shoppingItem is null or has a null or blank uid. " +
-                    "Snapshot = " + snapshot);
+            Logs.d(TAG,
+                    "onChildAdded: shoppingItem is null or has a null or blank uid. Snapshot = {}",
+                    snapshot);
             return;
         }
 
-        Log.d(TAG, "onChildAdded: shoppingItem = " + shoppingItem);
+        Logs.d(TAG, "onChildAdded: shoppingItem = {}", shoppingItem);
 
-        // TODO: very inefficient to add to beginning of array list, a better way to do this
+        // the initial population may already have added the item
+        int index = shoppingItems.indexOf(shoppingItem);
+        if (index != -1) {
+            shoppingItems.set(index, shoppingItem);
+            listUpdateCallback.onChanged(index, 1, null);
+            return;
+        }
+
+        // inserting at the head does not shift the items of an IndexedList
         shoppingItems.add(0, shoppingItem);
 
-        adapter.notifyItemInserted(0);
+        listUpdateCallback.onInserted(0, 1);
     }
 
     @Override
     public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "onChildChanged: called with snapshot = " + snapshot + " and " +
-                "previousChildName = " + previousChildName);
+        Logs.d(TAG, "onChildChanged: called with snapshot = {} and previousChildName = {}",
+                snapshot, previousChildName);
 
-        ShoppingItemModel shoppingItem = snapshot.getValue(ShoppingItemModel.class);
+        ShoppingItemModel shoppingItem =
+                SnapshotDecoder.decodeValue(snapshot, ShoppingItemModel.class);
         if (shoppingItem == null || shoppingItem.getShoppingItemUid() == null ||
                 shoppingItem.getShoppingItemUid().isBlank()) {
-            Log.d(TAG, "onChildAdded: shoppingItem is null or has a null or blank uid. " +
-                    "Snapshot = " + snapshot);
+            Logs.d(TAG,
+                    "onChildAdded: shoppingItem is null or has a null or blank uid. Snapshot = {}",
+                    snapshot);
             return;
         }
 
-        Log.d(TAG, "onChildChanged: shoppingItem = " + shoppingItem);
+        Logs.d(TAG, "onChildChanged: shoppingItem = {}", shoppingItem);
 
         int index = shoppingItems.indexOf(shoppingItem);
         if (index == -1) {
@@ -175,22 +211,24 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
         }
 
         shoppingItems.set(index, shoppingItem);
-        adapter.notifyItemChanged(index);
+        listUpdateCallback.onChanged(index, 1, null);
     }
 
     @Override
     public void onChildRemoved(@NonNull DataSnapshot snapshot) {
-        Log.d(TAG, "onChildRemoved: called with snapshot = " + snapshot);
+        Logs.d(TAG, "onChildRemoved: called with snapshot = {}", snapshot);
 
-        ShoppingItemModel shoppingItem = snapshot.getValue(ShoppingItemModel.class);
+        ShoppingItemModel shoppingItem =
+                SnapshotDecoder.decodeValue(snapshot, ShoppingItemModel.class);
         if (shoppingItem == null || shoppingItem.getShoppingItemUid() == null ||
                 shoppingItem.getShoppingItemUid().isBlank()) {
-            Log.d(TAG, "onChildAdded: shoppingItem is null or has a null or blank uid. " +
-                    "Snapshot = " + snapshot);
+            Logs.d(TAG,
+                    "onChildAdded: shoppingItem is null or has a null or blank uid. Snapshot = {}",
+                    snapshot);
             return;
         }
 
-        Log.d(TAG, "onChildRemoved: shoppingItem = " + shoppingItem);
+        Logs.d(TAG, "onChildRemoved: shoppingItem = {}", shoppingItem);
 
         int index = shoppingItems.indexOf(shoppingItem);
         if (index == -1) {
@@ -199,13 +237,13 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
         }
 
         shoppingItems.remove(index);
-        adapter.notifyItemRemoved(index);
+        listUpdateCallback.onRemoved(index, 1);
     }
 
     @Override
     public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
-        Log.d(TAG, "onChildMoved: called with snapshot = " + snapshot
-                + " and previousChildName = " + previousChildName);
+        Logs.d(TAG, "onChildMoved: called with snapshot = {} and previousChildName = {}",
+                snapshot, previousChildName);
     }
 
     @Override
@@ -219,10 +257,25 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
     public class ShoppingItemsAdapter
             extends RecyclerView.Adapter<ShoppingItemsAdapter.ViewHolder> {
 
+        private final ItemListDiffer<ShoppingItemModel> differ =
+                new ItemListDiffer<>(this, shoppingItems, ShoppingItemModel::toMap);
+
+        /**
+         * Merges the fetched items into the list and notifies the adapter of the rows that
+         * changed. The diff is computed off the main thread.
+         *
+         * @param fetchedShoppingItems the fetched items
+         * @param onApplied            the runnable that is run once the list is updated
+         */
+        public void submitItems(@NonNull List<ShoppingItemModel> fetchedShoppingItems,
+                                @Nullable Runnable onApplied) {
+            differ.submit(fetchedShoppingItems, onApplied);
+        }
+
         @NonNull
         @Override
         public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-            Log.d(TAG, "onCreateViewHolder: called");
+            Logs.d(TAG, "onCreateViewHolder: called");
             View view = LayoutInflater.from(parent.getContext())
                     .inflate(R.layout.row_shopping_item, parent, false);
             return new ViewHolder(view);
@@ -230,8 +283,8 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            Log.d(TAG, "onBindViewHolder: called with position = " + position
-                    + " and item = " + shoppingItems.get(position));
+            Logs.d(TAG, "onBindViewHolder: called with position = {} and item = {}",
+                    position, shoppingItems.get(position));
 
             // bind the view holder to the item
             holder.bind(shoppingItems.get(position));
@@ -254,7 +307,7 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
             ViewHolder(@NonNull View itemView) {
                 super(itemView);
 
-                Log.d(TAG, "ViewHolder: called");
+                Logs.d(TAG, "ViewHolder: called");
 
                 errorTextView = itemView.findViewById(R.id.textViewError);
                 errorTextView.setVisibility(View.GONE);
@@ -268,7 +321,7 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
             }
 
             void bind(ShoppingItemModel item) {
-                Log.d(TAG, "bind: called with item = " + item);
+                Logs.d(TAG, "bind: called with item = {}", item);
 
                 // update the database when the shopping item's text changes
                 TextWatcher itemTextWatcher = new TextWatcherAdapter() {
@@ -300,11 +353,11 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
                 buttonSetInBasket.setOnClickListener(v -> setItemInMyBasket(item));
                 // if the item is already in a user's basket, then disable the button
                 if (item.isInBasket()) {
-                    Log.d(TAG, "bind: item is already in a user's basket");
+                    Logs.d(TAG, "bind: item is already in a user's basket");
                     buttonSetInBasket.setTextColor(Color.GRAY);
                     buttonSetInBasket.setEnabled(false);
                 } else {
-                    Log.d(TAG, "bind: item is not in a user's basket");
+                    Logs.d(TAG, "bind: item is not in a user's basket");
                     buttonSetInBasket.setTextColor(Color.GREEN);
                     buttonSetInBasket.setEnabled(true);
                 }
@@ -329,7 +382,7 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
             }
 
             private void setItemInMyBasket(ShoppingItemModel shoppingItem) {
-                Log.d(TAG, "setItemInMyBasket: called");
+                Logs.d(TAG, "setItemInMyBasket: called");
 
                 if (callbackReceiver == null) {
                     Log.e(TAG, "setItemInMyBasket: callbackReceiver is null");
@@ -344,7 +397,7 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
                                                                   "your basket.",
                                                           Toast.LENGTH_SHORT).show();
 
-                Log.d(TAG, "setItemInMyBasket: calling callbackReceiver.onCallback");
+                Logs.d(TAG, "setItemInMyBasket: calling callbackReceiver.onCallback");
                 callbackReceiver.onCallback(ACTION_MOVE_SHOPPING_ITEM_TO_BASKET, Props.of(
                         Pair.create(Constants.SHOPPING_ITEM, shoppingItem),
                         Pair.create(Constants.ON_SUCCESS, onSuccess),
@@ -352,14 +405,14 @@ public class ShoppingItemsFragment extends ChildEventListenerFragment {
             }
 
             private void deleteItem(ShoppingItemModel shoppingItem) {
-                Log.d(TAG, "deleteItem: called");
+                Logs.d(TAG, "deleteItem: called");
 
                 if (callbackReceiver == null) {
                     Log.e(TAG, "deleteItem: callbackReceiver is null");
                     throw new IllegalNullValueException("callbackReceiver is null");
                 }
 
-                Log.d(TAG, "deleteItem: calling callbackReceiver.onCallback");
+                Logs.d(TAG, "deleteItem: calling callbackReceiver.onCallback");
                 callbackReceiver.onCallback(ACTION_DELETE_SHOPPING_ITEM, Props.of(
                         Pair.create(Constants.SHOPPING_ITEM, shoppingItem)));
             }
@@ -0,0 +1,224 @@
+package edu.uga.cs.shopsync.frontend.utils;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import edu.uga.cs.shopsync.utils.Logs;
+
+/**
+ * Child event listener that buffers child events and delivers them to a target listener in
+ * batches, at most once per frame. On the initial sync of a list, the database delivers an event
+ * per child back to back; batching them lets the target apply all of them before a single layout
+ * pass instead of one pass per event.
+ * <p>
+ * The events of a batch are delivered in the order they were received, between a call to the
+ * batch start runnable and a call to the batch end runnable. Cancellations are not buffered; the
+ * pending events are delivered first and then the cancellation. Once the listener is removed from
+ * its reference, {@link #cancel()} drops the events that were not delivered yet.
+ * <p>
+ * This class is not thread safe and is meant to be used from the main thread only, which is
+ * where the database callbacks are delivered.
+ */
+public class ChildEventCoalescer implements ChildEventListener {
+
+    private static final String TAG = "ChildEventCoalescer";
+
+    private enum ChildEventType {
+        ADDED, CHANGED, REMOVED, MOVED
+    }
+
+    private record ChildEvent(@NonNull ChildEventType type, @NonNull DataSnapshot snapshot,
+                              @Nullable String previousChildName) {
+    }
+
+    private final ChildEventListener target;
+    private final Runnable onBatchStart;
+    private final Runnable onBatchEnd;
+    private final Consumer<Runnable> frameScheduler;
+
+    private final List<ChildEvent> pendingEvents = new ArrayList<>();
+    private boolean flushScheduled = false;
+
+    private long batchCount = 0;
+    private long eventCount = 0;
+    private int lastBatchSize = 0;
+    private int maxBatchSize = 0;
+
+    /**
+     * Constructs a new ChildEventCoalescer that delivers the events on the next frame.
+     *
+     * @param target       the listener that the events are delivered to
+     * @param onBatchStart the runnable that is run before the events of a batch are delivered
+     * @param onBatchEnd   the runnable that is run after the events of a batch are delivered
+     */
+    public ChildEventCoalescer(@NonNull ChildEventListener target, @NonNull Runnable onBatchStart,
+                               @NonNull Runnable onBatchEnd) {
+        this(target, onBatchStart, onBatchEnd, runnable -> Choreographer.getInstance()
+                .postFrameCallback(frameTimeNanos -> runnable.run()));
+    }
+
+    /**
+     * Constructs a new ChildEventCoalescer. Used for testing only.
+     *
+     * @param target         the listener that the events are delivered to
+     * @param onBatchStart   the runnable that is run before the events of a batch are delivered
+     * @param onBatchEnd     the runnable that is run after the events of a batch are delivered
+     * @param frameScheduler the function that runs the given runnable on the next frame
+     */
+    ChildEventCoalescer(@NonNull ChildEventListener target, @NonNull Runnable onBatchStart,
+                        @NonNull Runnable onBatchEnd, @NonNull Consumer<Runnable> frameScheduler) {
+        this.target = target;
+        this.onBatchStart = onBatchStart;
+        this.onBatchEnd = onBatchEnd;
+        this.frameScheduler = frameScheduler;
+    }
+
+    @Override
+    public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        enqueue(new ChildEvent(ChildEventType.ADDED, snapshot, previousChildName));
+    }
+
+    @Override
+    public void onChildChanged(@NonNull DataSnapshot snapshot,
+                               @Nullable String previousChildName) {
+        enqueue(new ChildEvent(ChildEventType.CHANGED, snapshot, previousChildName));
+    }
+
+    @Override
+    public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+        enqueue(new ChildEvent(ChildEventType.REMOVED, snapshot, null));
+    }
+
+    @Override
+    public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        enqueue(new ChildEvent(ChildEventType.MOVED, snapshot, previousChildName));
+    }
+
+    @Override
+    public void onCancelled(@NonNull DatabaseError error) {
+        flush();
+        target.onCancelled(error);
+    }
+
+    /**
+     * Delivers all pending events to the target listener as a single batch. Does nothing if there
+     * are no pending events.
+     */
+    public void flush() {
+        flushScheduled = false;
+        if (pendingEvents.isEmpty()) {
+            return;
+        }
+
+        List<ChildEvent> batch = new ArrayList<>(pendingEvents);
+        pendingEvents.clear();
+        recordBatch(batch.size());
+        Logs.d(TAG, "flush: delivering {} child events", batch.size());
+
+        onBatchStart.run();
+        try {
+            for (ChildEvent event : batch) {
+                switch (event.type()) {
+                    case ADDED -> target.onChildAdded(event.snapshot(), event.previousChildName());
+                    case CHANGED -> target.onChildChanged(event.snapshot(),
+                                                          event.previousChildName());
+                    case REMOVED -> target.onChildRemoved(event.snapshot());
+                    case MOVED -> target.onChildMoved(event.snapshot(), event.previousChildName());
+                }
+            }
+        } finally {
+            onBatchEnd.run();
+        }
+    }
+
+    /**
+     * Drops all pending events without delivering them. A flush that is already scheduled then
+     * delivers nothing, so events of a listener that was removed never reach the target.
+     */
+    public void cancel() {
+        if (!pendingEvents.isEmpty()) {
+            Logs.d(TAG, "cancel: dropping {} child events", pendingEvents.size());
+            pendingEvents.clear();
+        }
+    }
+
+    /**
+     * Returns the number of events that are waiting to be delivered.
+     *
+     * @return the number of pending events
+     */
+    public int getPendingEventCount() {
+        return pendingEvents.size();
+    }
+
+    /**
+     * Returns the number of batches that were delivered.
+     *
+     * @return the number of batches
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Returns the number of events that were delivered in batches.
+     *
+     * @return the number of delivered events
+     */
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Returns the number of events in the last delivered batch.
+     *
+     * @return the size of the last batch
+     */
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * Returns the largest number of events that were delivered in a single batch.
+     *
+     * @return the maximum batch size
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns the average number of events per delivered batch.
+     *
+     * @return the average batch size, or zero if no batch was delivered
+     */
+    public double getAverageBatchSize() {
+        return batchCount == 0 ? 0 : (double) eventCount / batchCount;
+    }
+
+    private void enqueue(@NonNull ChildEvent event) {
+        pendingEvents.add(event);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            frameScheduler.accept(this::flush);
+        }
+    }
+
+    private void recordBatch(int size) {
+        batchCount++;
+        eventCount += size;
+        lastBatchSize = size;
+        maxBatchSize = Math.max(maxBatchSize, size);
+    }
+
+}
@@ -1,11 +1,42 @@
 package edu.uga.cs.shopsync.frontend.utils;
 
+import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 
 import com.google.firebase.database.ChildEventListener;
 
 /**
- * A fragment that implements the ChildEventListener interface.
+ * A fragment that implements the ChildEventListener interface. Child events should be passed to
+ * the listener returned by {@link #getChildEventCoalescer()}, which delivers them to the fragment
+ * in batches, at most once per frame, between calls to {@link #onChildEventBatchStart()} and
+ * {@link #onChildEventBatchEnd()}.
  */
 public abstract class ChildEventListenerFragment extends Fragment implements ChildEventListener {
+
+    private final ChildEventCoalescer childEventCoalescer =
+            new ChildEventCoalescer(this, this::onChildEventBatchStart,
+                                    this::onChildEventBatchEnd);
+
+    /**
+     * Returns the listener that batches child events before delivering them to this fragment.
+     *
+     * @return the child event coalescer of this fragment
+     */
+    public @NonNull ChildEventCoalescer getChildEventCoalescer() {
+        return childEventCoalescer;
+    }
+
+    /**
+     * Called before the child events of a batch are delivered.
+     */
+    protected void onChildEventBatchStart() {
+    }
+
+    /**
+     * Called after the child events of a batch are delivered. Fragments that buffer adapter
+     * notifications while a batch is delivered should dispatch them here.
+     */
+    protected void onChildEventBatchEnd() {
+    }
+
 }
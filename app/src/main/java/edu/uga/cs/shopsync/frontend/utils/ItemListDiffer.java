@@ -0,0 +1,175 @@
+package edu.uga.cs.shopsync.frontend.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import edu.uga.cs.shopsync.utils.Logs;
+
+/**
+ * Merges fetched items into the list that backs an adapter and notifies the adapter of only the
+ * rows that changed. The merge and the diff are computed on a background thread from an immutable
+ * snapshot of the list; the list is only modified on the main thread, once the diff is ready.
+ * <p>
+ * The list is still modified directly by the child event handlers, so if the list changed while
+ * the diff was computed, the diff is discarded and computed again from a new snapshot.
+ *
+ * @param <T> The type of the items.
+ */
+public class ItemListDiffer<T> {
+
+    private static final String TAG = "ItemListDiffer";
+
+    /**
+     * The executor shared by all differs. A single thread is enough since the diffs are small and
+     * it keeps the diffs of a list in the order they were submitted.
+     */
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final RecyclerView.Adapter<?> adapter;
+    private final List<T> items;
+    private final Function<T, Map<String, Object>> toMap;
+    private final Executor diffExecutor;
+    private final Executor mainExecutor;
+
+    /**
+     * Constructs a new ItemListDiffer.
+     *
+     * @param adapter the adapter to notify
+     * @param items   the list that backs the adapter
+     * @param toMap   the function that converts an item to its database values, which are
+     *                compared to decide whether a row has to be rebound
+     */
+    public ItemListDiffer(@NonNull RecyclerView.Adapter<?> adapter, @NonNull List<T> items,
+                          @NonNull Function<T, Map<String, Object>> toMap) {
+        this(adapter, items, toMap, DIFF_EXECUTOR, new Handler(Looper.getMainLooper())::post);
+    }
+
+    /**
+     * Constructs a new ItemListDiffer. Used for testing only.
+     *
+     * @param adapter      the adapter to notify
+     * @param items        the list that backs the adapter
+     * @param toMap        the function that converts an item to its database values
+     * @param diffExecutor the executor that computes the diffs
+     * @param mainExecutor the executor that runs on the main thread
+     */
+    ItemListDiffer(@NonNull RecyclerView.Adapter<?> adapter, @NonNull List<T> items,
+                   @NonNull Function<T, Map<String, Object>> toMap,
+                   @NonNull Executor diffExecutor, @NonNull Executor mainExecutor) {
+        this.adapter = adapter;
+        this.items = items;
+        this.toMap = toMap;
+        this.diffExecutor = diffExecutor;
+        this.mainExecutor = mainExecutor;
+    }
+
+    /**
+     * Merges the fetched items into the list. Fetched items that are not in the list are appended
+     * in the order they were fetched. Items that are already in the list are kept as they are,
+     * since a child event may have delivered a newer copy after the fetch was started. Must be
+     * called from the main thread.
+     *
+     * @param fetchedItems the fetched items
+     * @param onApplied    the runnable that is run on the main thread once the list is updated
+     */
+    public void submit(@NonNull List<T> fetchedItems, @Nullable Runnable onApplied) {
+        List<T> snapshot = List.copyOf(items);
+        List<T> fetched = List.copyOf(fetchedItems);
+
+        diffExecutor.execute(() -> {
+            List<T> merged = merge(snapshot, fetched);
+            DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(new Callback(snapshot,
+                                                                                 merged));
+
+            mainExecutor.execute(() -> {
+                if (!isUnchangedSince(snapshot)) {
+                    Logs.d(TAG, "submit: list changed while diffing, diffing again");
+                    submit(fetched, onApplied);
+                    return;
+                }
+
+                items.clear();
+                items.addAll(merged);
+                diffResult.dispatchUpdatesTo(adapter);
+
+                if (onApplied != null) {
+                    onApplied.run();
+                }
+            });
+        });
+    }
+
+    private boolean isUnchangedSince(@NonNull List<T> snapshot) {
+        if (items.size() != snapshot.size()) {
+            return false;
+        }
+
+        // compare references, since a child event replaces an item with an equal copy
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (items.get(i) != snapshot.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NonNull
+    private static <T> List<T> merge(@NonNull List<T> snapshot, @NonNull List<T> fetched) {
+        List<T> merged = new ArrayList<>(snapshot);
+        Set<T> present = new HashSet<>(snapshot);
+        for (T item : fetched) {
+            if (present.add(item)) {
+                merged.add(item);
+            }
+        }
+        return merged;
+    }
+
+    private class Callback extends DiffUtil.Callback {
+
+        private final List<T> oldItems;
+        private final List<T> newItems;
+
+        Callback(@NonNull List<T> oldItems, @NonNull List<T> newItems) {
+            this.oldItems = oldItems;
+            this.newItems = newItems;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldItems.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newItems.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return oldItems.get(oldItemPosition).equals(newItems.get(newItemPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return Objects.equals(toMap.apply(oldItems.get(oldItemPosition)),
+                                  toMap.apply(newItems.get(newItemPosition)));
+        }
+    }
+
+}
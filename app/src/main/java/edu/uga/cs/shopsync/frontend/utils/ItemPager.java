@@ -0,0 +1,198 @@
+package edu.uga.cs.shopsync.frontend.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import edu.uga.cs.shopsync.utils.ErrorHandle;
+import edu.uga.cs.shopsync.utils.ErrorType;
+import edu.uga.cs.shopsync.utils.Logs;
+
+/**
+ * Loads a collection page by page, newest first, and listens to the loaded pages only. Pages are
+ * ranges of keys: the first page holds the newest children, and every following page the
+ * children right before the oldest child loaded so far.
+ * <p>
+ * Every loaded page gets its own child event listener over its key range, so loading a page does
+ * not replay the events of the pages loaded before it. The range of the first page has no upper
+ * bound, so children that are added later, whose push ids are always the largest keys, are
+ * delivered to the listener as well.
+ * <p>
+ * This class is not thread safe and is meant to be used from the main thread only, which is
+ * where the database callbacks are delivered.
+ */
+public class ItemPager {
+
+    private static final String TAG = "ItemPager";
+
+    /**
+     * Loads a page of a collection.
+     */
+    public interface PageLoader {
+
+        /**
+         * Returns the task that attempts to get the last children of the collection, ordered by
+         * key, whose keys are smaller than the given key.
+         *
+         * @param endBeforeKey the key that all children of the page are smaller than, or null
+         *                     for the first page
+         * @param pageSize     the maximum number of children in the page
+         * @return the task that attempts to get the page
+         */
+        Task<DataSnapshot> loadPage(@Nullable String endBeforeKey, int pageSize);
+    }
+
+    /**
+     * Creates the queries over ranges of keys of a collection.
+     */
+    public interface WindowFactory {
+
+        /**
+         * Returns the query over the children of the collection whose keys are in the given range.
+         *
+         * @param startAtKey   the smallest key in the range, or null for no lower bound
+         * @param endBeforeKey the key right after the range, or null for no upper bound
+         * @return the query over the range
+         */
+        Query createWindow(@Nullable String startAtKey, @Nullable String endBeforeKey);
+    }
+
+    private final PageLoader pageLoader;
+    private final WindowFactory windowFactory;
+    private final ChildEventListener listener;
+    private final int pageSize;
+
+    private final List<Query> windows = new ArrayList<>();
+    private String oldestLoadedKey = null;
+    private boolean endReached = false;
+    private boolean loading = false;
+    private int generation = 0;
+
+    /**
+     * Constructs a new ItemPager.
+     *
+     * @param pageLoader    the loader of the pages
+     * @param windowFactory the factory of the queries over the loaded pages
+     * @param listener      the listener of the child events of the loaded pages
+     * @param pageSize      the maximum number of children in a page
+     */
+    public ItemPager(@NonNull PageLoader pageLoader, @NonNull WindowFactory windowFactory,
+                     @NonNull ChildEventListener listener, int pageSize) {
+        this.pageLoader = pageLoader;
+        this.windowFactory = windowFactory;
+        this.listener = listener;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Loads the next page and starts listening to it. Does nothing if a page is already being
+     * loaded or if every page was loaded.
+     *
+     * @param onPageLoaded the consumer that receives the children of the page, newest first
+     * @param onFailure    the consumer that consumes the error if the page could not be loaded
+     */
+    public void loadNextPage(@NonNull Consumer<List<DataSnapshot>> onPageLoaded,
+                             @Nullable Consumer<ErrorHandle> onFailure) {
+        if (loading || endReached) {
+            return;
+        }
+
+        loading = true;
+        int pageGeneration = generation;
+        String endBeforeKey = oldestLoadedKey;
+        Logs.d(TAG, "loadNextPage: loading page before key ({})", endBeforeKey);
+
+        pageLoader.loadPage(endBeforeKey, pageSize).addOnCompleteListener(task -> {
+            // the pager was reset while the page was loading
+            if (pageGeneration != generation) {
+                return;
+            }
+            loading = false;
+
+            DataSnapshot page = task.isSuccessful() ? task.getResult() : null;
+            if (page == null) {
+                Log.e(TAG, "loadNextPage: failed to load page before key (" + endBeforeKey + ")",
+                      task.getException());
+                if (onFailure != null) {
+                    onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED,
+                                                     "Failed to load page"));
+                }
+                return;
+            }
+
+            // the children of a page are in ascending key order
+            List<DataSnapshot> children = new ArrayList<>();
+            for (DataSnapshot child : page.getChildren()) {
+                children.add(child);
+            }
+            Collections.reverse(children);
+            endReached = children.size() < pageSize;
+
+            // an empty first page is listened to entirely, so the first children are delivered
+            if (!children.isEmpty() || endBeforeKey == null) {
+                String startAtKey = children.isEmpty() ? null :
+                        children.get(children.size() - 1).getKey();
+                Query window = windowFactory.createWindow(startAtKey, endBeforeKey);
+                window.addChildEventListener(listener);
+                windows.add(window);
+                oldestLoadedKey = startAtKey;
+            }
+
+            Logs.d(TAG, "loadNextPage: loaded {} children, end reached: {}",
+                    children.size(), endReached);
+            onPageLoaded.accept(children);
+        });
+    }
+
+    /**
+     * Stops listening to the loaded pages and forgets them, so the next page that is loaded is
+     * the first page again. A page that is being loaded is discarded.
+     */
+    public void reset() {
+        generation++;
+        windows.forEach(window -> window.removeEventListener(listener));
+        windows.clear();
+        oldestLoadedKey = null;
+        endReached = false;
+        loading = false;
+    }
+
+    /**
+     * Returns whether there may be pages that were not loaded yet.
+     *
+     * @return true if there may be more pages, false if every page was loaded
+     */
+    public boolean hasMorePages() {
+        return !endReached;
+    }
+
+    /**
+     * Returns whether a page is being loaded.
+     *
+     * @return true if a page is being loaded
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * Returns the number of loaded pages that are listened to.
+     *
+     * @return the number of listened windows
+     */
+    public int getWindowCount() {
+        return windows.size();
+    }
+
+}
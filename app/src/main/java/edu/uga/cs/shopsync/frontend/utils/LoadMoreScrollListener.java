@@ -0,0 +1,57 @@
+package edu.uga.cs.shopsync.frontend.utils;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Scroll listener that asks for more items when the user scrolls close to the end of a list
+ * that is laid out by a {@link LinearLayoutManager}.
+ */
+public class LoadMoreScrollListener extends RecyclerView.OnScrollListener {
+
+    /**
+     * The default number of rows from the end of the list at which more items are loaded.
+     */
+    public static final int DEFAULT_THRESHOLD = 10;
+
+    private final Runnable onLoadMore;
+    private final int threshold;
+
+    /**
+     * Constructs a new LoadMoreScrollListener that uses the default threshold.
+     *
+     * @param onLoadMore the runnable that loads more items, which may be called again before the
+     *                   items are loaded
+     */
+    public LoadMoreScrollListener(@NonNull Runnable onLoadMore) {
+        this(onLoadMore, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Constructs a new LoadMoreScrollListener.
+     *
+     * @param onLoadMore the runnable that loads more items, which may be called again before the
+     *                   items are loaded
+     * @param threshold  the number of rows from the end of the list at which more items are
+     *                   loaded
+     */
+    public LoadMoreScrollListener(@NonNull Runnable onLoadMore, int threshold) {
+        this.onLoadMore = onLoadMore;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy <= 0 || !(recyclerView.getLayoutManager() instanceof LinearLayoutManager
+                layoutManager)) {
+            return;
+        }
+
+        int lastVisiblePosition = layoutManager.findLastVisibleItemPosition();
+        if (lastVisiblePosition >= layoutManager.getItemCount() - threshold) {
+            onLoadMore.run();
+        }
+    }
+
+}
@@ -0,0 +1,185 @@
+package edu.uga.cs.shopsync.frontend.utils;
+
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import edu.uga.cs.shopsync.utils.Logs;
+
+/**
+ * In-memory index of shopping item names by shopping item uid for a single shop sync. The index
+ * is kept up to date from the shopping items child events and from the names that are watched,
+ * so names can be resolved without a database read. A watched name is listened to until it is
+ * unwatched, independent of which shopping items were loaded, and callers that ask for it before
+ * it arrives wait on the listener. On a miss of a name that is not watched, a single fetch is
+ * started with the loader and every caller that asks for the same uid while it is in flight
+ * waits on that fetch.
+ * <p>
+ * This class is not thread safe and is meant to be used from the main thread only, which is
+ * where the database callbacks are delivered.
+ */
+public class ShoppingItemNameIndex {
+
+    private static final String TAG = "ShoppingItemNameIndex";
+
+    private final Map<String, String> namesByShoppingItemUid = new HashMap<>();
+    private final Map<String, List<Consumer<String>>> pendingLookups = new HashMap<>();
+    private final Map<String, Runnable> watches = new HashMap<>();
+    private final BiConsumer<String, Consumer<String>> loader;
+    private final BiFunction<String, Consumer<String>, Runnable> watcher;
+
+    /**
+     * Constructs a new ShoppingItemNameIndex.
+     *
+     * @param loader  the function that fetches the name of the shopping item with the given uid
+     *                and passes it to the given consumer, or passes null if the fetch failed or
+     *                the shopping item does not exist
+     * @param watcher the function that starts listening to the name of the shopping item with
+     *                the given uid, passes every value of it to the given consumer, or null if
+     *                the shopping item does not exist, and returns the runnable that stops
+     *                listening
+     */
+    public ShoppingItemNameIndex(@NonNull BiConsumer<String, Consumer<String>> loader,
+                                 @NonNull BiFunction<String, Consumer<String>, Runnable> watcher) {
+        this.loader = loader;
+        this.watcher = watcher;
+    }
+
+    /**
+     * Adds or updates the name of the shopping item with the given uid. Any lookups waiting on
+     * the shopping item are completed with the new name.
+     *
+     * @param shoppingItemUid the shopping item's unique id
+     * @param name            the shopping item's name
+     */
+    public void put(@NonNull String shoppingItemUid, @NonNull String name) {
+        namesByShoppingItemUid.put(shoppingItemUid, name);
+
+        List<Consumer<String>> waiters = pendingLookups.remove(shoppingItemUid);
+        if (waiters != null) {
+            waiters.forEach(waiter -> waiter.accept(name));
+        }
+    }
+
+    /**
+     * Removes the shopping item with the given uid from the index.
+     *
+     * @param shoppingItemUid the shopping item's unique id
+     */
+    public void remove(@NonNull String shoppingItemUid) {
+        namesByShoppingItemUid.remove(shoppingItemUid);
+    }
+
+    /**
+     * Starts listening to the name of the shopping item with the given uid, unless it is already
+     * watched. The name stays indexed until the shopping item is unwatched.
+     *
+     * @param shoppingItemUid the shopping item's unique id
+     */
+    public void watch(@NonNull String shoppingItemUid) {
+        if (watches.containsKey(shoppingItemUid)) {
+            return;
+        }
+
+        Logs.d(TAG, "watch: watching name of shopping item {}", shoppingItemUid);
+        watches.put(shoppingItemUid, watcher.apply(shoppingItemUid, name -> {
+            if (name != null) {
+                put(shoppingItemUid, name);
+                return;
+            }
+
+            remove(shoppingItemUid);
+            completePendingLookups(shoppingItemUid);
+        }));
+    }
+
+    /**
+     * Stops listening to the name of the shopping item with the given uid.
+     *
+     * @param shoppingItemUid the shopping item's unique id
+     */
+    public void unwatch(@NonNull String shoppingItemUid) {
+        Runnable stopWatching = watches.remove(shoppingItemUid);
+        if (stopWatching != null) {
+            stopWatching.run();
+        }
+    }
+
+    /**
+     * Stops listening to the watched names and removes all shopping items from the index.
+     * Lookups that are in flight are not affected.
+     */
+    public void clear() {
+        watches.values().forEach(Runnable::run);
+        watches.clear();
+        namesByShoppingItemUid.clear();
+    }
+
+    /**
+     * Returns the indexed name of the shopping item with the given uid.
+     *
+     * @param shoppingItemUid the shopping item's unique id
+     * @return the shopping item's name, or null if it is not indexed
+     */
+    public @Nullable String getName(@NonNull String shoppingItemUid) {
+        return namesByShoppingItemUid.get(shoppingItemUid);
+    }
+
+    /**
+     * Resolves the name of the shopping item with the given uid. If the name is indexed, the
+     * consumer is called immediately. Otherwise, the consumer is called once the fetch for the
+     * shopping item completes, with null if the name could not be fetched.
+     *
+     * @param shoppingItemUid the shopping item's unique id
+     * @param onResolved      the consumer that receives the shopping item's name
+     */
+    public void resolve(@NonNull String shoppingItemUid, @NonNull Consumer<String> onResolved) {
+        String name = namesByShoppingItemUid.get(shoppingItemUid);
+        if (name != null) {
+            onResolved.accept(name);
+            return;
+        }
+
+        List<Consumer<String>> waiters = pendingLookups.get(shoppingItemUid);
+        if (waiters != null) {
+            waiters.add(onResolved);
+            return;
+        }
+
+        waiters = new ArrayList<>();
+        waiters.add(onResolved);
+        pendingLookups.put(shoppingItemUid, waiters);
+
+        // the listener of a watched name completes the lookup once the name arrives
+        if (watches.containsKey(shoppingItemUid)) {
+            return;
+        }
+
+        Logs.d(TAG, "resolve: fetching name of shopping item {}", shoppingItemUid);
+        loader.accept(shoppingItemUid, fetchedName -> {
+            if (fetchedName != null) {
+                put(shoppingItemUid, fetchedName);
+                return;
+            }
+
+            // the waiters are only completed if a child event did not already complete them
+            completePendingLookups(shoppingItemUid);
+        });
+    }
+
+    private void completePendingLookups(@NonNull String shoppingItemUid) {
+        List<Consumer<String>> waiters = pendingLookups.remove(shoppingItemUid);
+        if (waiters != null) {
+            waiters.forEach(waiter -> waiter.accept(null));
+        }
+    }
+
+}
@@ -4,4 +4,6 @@ public enum ErrorType {
     TASK_FAILED,
     ILLEGAL_NULL_VALUE,
     ENTITY_ALREADY_EXISTS,
+    TIMED_OUT,
+    CANCELLED,
 }
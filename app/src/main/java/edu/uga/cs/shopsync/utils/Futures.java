@@ -0,0 +1,217 @@
+package edu.uga.cs.shopsync.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import edu.uga.cs.shopsync.backend.exceptions.ErrorHandleException;
+import edu.uga.cs.shopsync.backend.exceptions.TaskFailureException;
+
+/**
+ * Utility methods for composing the calls of the services as {@link CompletableFuture}s. A future
+ * that fails holds an exception from which {@link #errorHandleOf(Throwable)} recovers the
+ * {@link ErrorHandle} of the failure, so failed futures are handled like failed callbacks.
+ * <p>
+ * Cancelling a future stops the stages that depend on it, but a database request that is already
+ * running is not stopped; its result is dropped. The stages of a future run on the thread that
+ * completes it, which is the main thread for database results but the deadline thread for
+ * futures that time out, so stages that touch views must run on the main executor.
+ */
+public final class Futures {
+
+    private static final String TAG = "Futures";
+
+    private Futures() {
+    }
+
+    /**
+     * Returns a future that completes with the result of the task, or fails with a
+     * {@link TaskFailureException} if the task fails.
+     *
+     * @param task the task
+     * @param <T>  the type of the result
+     * @return the future that completes with the result of the task
+     */
+    @NonNull
+    public static <T> CompletableFuture<T> fromTask(@NonNull Task<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        task.addOnCompleteListener(completedTask -> {
+            if (completedTask.isSuccessful()) {
+                future.complete(completedTask.getResult());
+            } else {
+                future.completeExceptionally(new TaskFailureException(completedTask,
+                                                                      "Task failed"));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Returns a future that completes with the value that the call passes to its success
+     * consumer, or fails with an {@link ErrorHandleException} if the call passes an error to its
+     * error consumer.
+     *
+     * @param call the call, which receives the success consumer and the error consumer
+     * @param <T>  the type of the value
+     * @return the future that completes with the value of the call
+     */
+    @NonNull
+    public static <T> CompletableFuture<T> fromCallbacks(
+            @NonNull BiConsumer<Consumer<T>, Consumer<ErrorHandle>> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            call.accept(future::complete, errorHandle -> future.completeExceptionally(
+                    new ErrorHandleException(errorHandle)));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Fails the future with an {@link ErrorHandleException} of type {@link ErrorType#TIMED_OUT}
+     * if it is not complete within the given time.
+     *
+     * @param future  the future
+     * @param timeout the time to wait for the future
+     * @param unit    the unit of the timeout
+     * @param <T>     the type of the value
+     * @return the given future
+     */
+    @NonNull
+    public static <T> CompletableFuture<T> withDeadline(
+            @NonNull CompletableFuture<T> future, long timeout, @NonNull TimeUnit unit) {
+        return withDeadline(future, timeout, unit, DeadlineScheduler.INSTANCE);
+    }
+
+    /**
+     * Fails the future if it is not complete within the given time. Used for testing only.
+     *
+     * @param future    the future
+     * @param timeout   the time to wait for the future
+     * @param unit      the unit of the timeout
+     * @param scheduler the scheduler that runs the deadline
+     * @param <T>       the type of the value
+     * @return the given future
+     */
+    @NonNull
+    static <T> CompletableFuture<T> withDeadline(
+            @NonNull CompletableFuture<T> future, long timeout, @NonNull TimeUnit unit,
+            @NonNull ScheduledExecutorService scheduler) {
+        if (future.isDone()) {
+            return future;
+        }
+
+        ScheduledFuture<?> deadline = scheduler.schedule(() -> {
+            if (future.completeExceptionally(new ErrorHandleException(new ErrorHandle(
+                    ErrorType.TIMED_OUT, "Deadline of " + unit.toMillis(timeout) +
+                    " ms exceeded")))) {
+                Log.w(TAG, "withDeadline: deadline of " + unit.toMillis(timeout) + " ms " +
+                        "exceeded");
+            }
+        }, timeout, unit);
+        future.whenComplete((value, throwable) -> deadline.cancel(false));
+        return future;
+    }
+
+    /**
+     * Returns a future that completes with the values of all the given futures, in the order of
+     * the futures. The returned future fails as soon as one of the futures fails, and then the
+     * other futures are cancelled. Cancelling the returned future cancels all the futures.
+     *
+     * @param futures the futures
+     * @param <T>     the type of the values
+     * @return the future that completes with the values of all the futures
+     */
+    @NonNull
+    public static <T> CompletableFuture<List<T>> allOf(
+            @NonNull List<? extends CompletableFuture<? extends T>> futures) {
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, throwable) -> {
+                    if (throwable != null) {
+                        result.completeExceptionally(unwrap(throwable));
+                        return;
+                    }
+
+                    List<T> values = new ArrayList<>(futures.size());
+                    for (CompletableFuture<? extends T> future : futures) {
+                        values.add(future.join());
+                    }
+                    result.complete(values);
+                });
+
+        // fail fast instead of waiting for the slowest future
+        for (CompletableFuture<? extends T> future : futures) {
+            future.whenComplete((value, throwable) -> {
+                if (throwable != null) {
+                    result.completeExceptionally(unwrap(throwable));
+                }
+            });
+        }
+        result.whenComplete((values, throwable) -> {
+            if (throwable != null) {
+                futures.forEach(future -> future.cancel(false));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns the error handle of the failure of a future.
+     *
+     * @param throwable the failure, as passed to the stages of the future
+     * @return the error handle of the failure
+     */
+    public static @NonNull ErrorHandle errorHandleOf(@Nullable Throwable throwable) {
+        Throwable cause = unwrap(throwable);
+        if (cause instanceof ErrorHandleException errorHandleException) {
+            return errorHandleException.getErrorHandle();
+        }
+        if (cause instanceof CancellationException) {
+            return new ErrorHandle(ErrorType.CANCELLED, "Cancelled");
+        }
+        return new ErrorHandle(ErrorType.TASK_FAILED, cause == null ? "Unknown failure" :
+                String.valueOf(cause.getMessage()));
+    }
+
+    private static Throwable unwrap(@Nullable Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) &&
+                cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Holds the thread that fails futures whose deadline passed. The thread is created on first
+     * use and does not keep the process alive.
+     */
+    private static final class DeadlineScheduler {
+
+        private static final ScheduledExecutorService INSTANCE =
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "shopsync-deadline");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+}
@@ -0,0 +1,134 @@
+package edu.uga.cs.shopsync.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative values, such as latencies and payload sizes, that can be recorded
+ * from any thread without locking. Values below 16 are counted exactly, and larger values are
+ * counted in buckets that are 12.5% wide, so percentiles are reported with that precision. Values
+ * of 2^40 and more are counted in the last bucket.
+ * <p>
+ * Recording only increments counters, so a snapshot taken while values are recorded may miss the
+ * values recorded during the snapshot.
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_LIMIT = 2 * SUB_BUCKET_COUNT;
+    private static final int MAX_EXPONENT = 39;
+
+    /**
+     * The number of buckets.
+     */
+    static final int BUCKET_COUNT =
+            EXACT_LIMIT + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the value. Negative values are recorded as zero.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(clamped));
+        sum.add(clamped);
+        max.accumulateAndGet(clamped, Math::max);
+    }
+
+    /**
+     * Returns a snapshot of the recorded values.
+     *
+     * @return the snapshot
+     */
+    public @NonNull Snapshot snapshot() {
+        long[] snapshotCounts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshotCounts[i] = counts.get(i);
+            count += snapshotCounts[i];
+        }
+
+        long snapshotMax = max.get();
+        double mean = count == 0 ? 0 : (double) sum.sum() / count;
+        return new Snapshot(count, mean, percentile(snapshotCounts, count, 50, snapshotMax),
+                            percentile(snapshotCounts, count, 95, snapshotMax),
+                            percentile(snapshotCounts, count, 99, snapshotMax), snapshotMax);
+    }
+
+    /**
+     * Returns the value below which the given percentage of the values fall, reported as the
+     * largest value of its bucket, but never more than the maximum.
+     */
+    private static long percentile(long[] counts, long count, double percentage, long max) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(count * percentage / 100);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the bucket of the non-negative value.
+     *
+     * @param value the value
+     * @return the index of the bucket
+     */
+    static int bucketOf(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        int bucket = EXACT_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT + subBucket;
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Returns the largest value of the bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the largest value of the bucket
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < EXACT_LIMIT) {
+            return bucket;
+        }
+
+        int exponent = (bucket - EXACT_LIMIT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS + 1;
+        int subBucket = (bucket - EXACT_LIMIT) % SUB_BUCKET_COUNT;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * The recorded values of a histogram at one point in time.
+     *
+     * @param count the number of values
+     * @param mean  the mean of the values
+     * @param p50   the median
+     * @param p95   the 95th percentile
+     * @param p99   the 99th percentile
+     * @param max   the largest value
+     */
+    public record Snapshot(long count, double mean, long p50, long p95, long p99, long max) {
+    }
+
+}
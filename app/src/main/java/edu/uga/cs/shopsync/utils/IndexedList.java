@@ -0,0 +1,320 @@
+package edu.uga.cs.shopsync.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A list of distinct elements that keeps a map from each element to its position. Looking up,
+ * replacing and removing an element by value, and inserting at either end, do not shift the
+ * elements of the list.
+ * <p>
+ * The elements are stored in slots of an array with free slots on both ends, so an element
+ * inserted at the head takes the slot before the current head. Removed elements leave an empty
+ * slot behind, and a Fenwick tree over the slots counts the elements before a slot, which turns
+ * a slot into a position and a position into a slot in O(log n). The slots are compacted once
+ * more than half of them are empty.
+ * <p>
+ * The complexity of the operations is:
+ * <ul>
+ *     <li>{@link #contains(Object)}: O(1)</li>
+ *     <li>{@link #get(int)}, {@link #set(int, Object)}, {@link #indexOf(Object)},
+ *     {@link #remove(int)} and {@link #remove(Object)}: O(log n)</li>
+ *     <li>{@link #add(Object)} and {@link #add(int, Object)} at the head or the tail: amortized
+ *     O(log n)</li>
+ *     <li>{@link #add(int, Object)} anywhere else: O(n)</li>
+ * </ul>
+ * Elements are identified by {@link Object#equals(Object)}, which for the models compares their
+ * uids, so an element can be found with a newer copy of itself. The list does not accept null
+ * elements or an element that is already in the list.
+ *
+ * @param <T> The type of elements in this list.
+ */
+public class IndexedList<T> extends AbstractList<T> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final Map<T, Integer> slotsByElement = new HashMap<>();
+    private Object[] slots;
+    private int[] tree;
+    private int head;
+    private int tail;
+
+    /**
+     * Constructs a new, empty IndexedList.
+     */
+    public IndexedList() {
+        slots = new Object[MIN_CAPACITY];
+        tree = new int[MIN_CAPACITY + 1];
+        head = MIN_CAPACITY / 2;
+        tail = head;
+    }
+
+    @Override
+    public int size() {
+        return slotsByElement.size();
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        //noinspection SuspiciousMethodCalls
+        return o != null && slotsByElement.containsKey(o);
+    }
+
+    @Override
+    public int indexOf(@Nullable Object o) {
+        //noinspection SuspiciousMethodCalls
+        Integer slot = o == null ? null : slotsByElement.get(o);
+        return slot == null ? -1 : countBefore(slot);
+    }
+
+    @Override
+    public int lastIndexOf(@Nullable Object o) {
+        // elements are distinct
+        return indexOf(o);
+    }
+
+    @Override
+    public T get(int index) {
+        return elementAt(slotOf(index));
+    }
+
+    /**
+     * Replaces the element at the given position. The new element must either be equal to the
+     * element it replaces, such as a newer copy of the same model, or not be in the list.
+     *
+     * @param index   the position of the element to replace
+     * @param element the new element
+     * @return the element that was replaced
+     * @throws IllegalArgumentException if the new element is elsewhere in the list
+     */
+    @Override
+    public T set(int index, @NonNull T element) {
+        Objects.requireNonNull(element);
+        int slot = slotOf(index);
+        T previous = elementAt(slot);
+
+        if (!previous.equals(element)) {
+            requireAbsent(element);
+        }
+
+        slotsByElement.remove(previous);
+        slotsByElement.put(element, slot);
+        slots[slot] = element;
+        return previous;
+    }
+
+    /**
+     * Appends the given element to the end of the list, unless it is already in the list.
+     *
+     * @param element the element to append
+     * @return true if the element was appended, false if it is already in the list
+     */
+    @Override
+    public boolean add(@NonNull T element) {
+        Objects.requireNonNull(element);
+        if (slotsByElement.containsKey(element)) {
+            return false;
+        }
+
+        if (tail == slots.length) {
+            compact();
+        }
+        put(tail++, element);
+        return true;
+    }
+
+    /**
+     * Inserts the given element at the given position.
+     *
+     * @param index   the position to insert the element at
+     * @param element the element to insert
+     * @throws IllegalArgumentException if the element is already in the list
+     */
+    @Override
+    public void add(int index, @NonNull T element) {
+        Objects.requireNonNull(element);
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        requireAbsent(element);
+
+        if (index == size()) {
+            add(element);
+        } else if (index == 0) {
+            if (head == 0) {
+                compact();
+            }
+            put(--head, element);
+        } else {
+            insertInMiddle(index, element);
+        }
+    }
+
+    @Override
+    public T remove(int index) {
+        int slot = slotOf(index);
+        T element = elementAt(slot);
+        removeSlot(slot, element);
+        return element;
+    }
+
+    @Override
+    public boolean remove(@Nullable Object o) {
+        //noinspection SuspiciousMethodCalls
+        Integer slot = o == null ? null : slotsByElement.get(o);
+        if (slot == null) {
+            return false;
+        }
+
+        removeSlot(slot, elementAt(slot));
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        slotsByElement.clear();
+        slots = new Object[MIN_CAPACITY];
+        tree = new int[MIN_CAPACITY + 1];
+        head = MIN_CAPACITY / 2;
+        tail = head;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int slot) {
+        return (T) slots[slot];
+    }
+
+    private void requireAbsent(@NonNull T element) {
+        if (slotsByElement.containsKey(element)) {
+            throw new IllegalArgumentException("Element is already in the list: " + element);
+        }
+    }
+
+    private void put(int slot, @NonNull T element) {
+        modCount++;
+        slots[slot] = element;
+        slotsByElement.put(element, slot);
+        updateTree(slot, 1);
+    }
+
+    private void removeSlot(int slot, @NonNull T element) {
+        modCount++;
+        slots[slot] = null;
+        slotsByElement.remove(element);
+        updateTree(slot, -1);
+
+        // skip the empty slots on the ends so that inserting there reuses them
+        while (head < tail && slots[head] == null) {
+            head++;
+        }
+        while (tail > head && slots[tail - 1] == null) {
+            tail--;
+        }
+
+        if (tail - head > MIN_CAPACITY && size() < (tail - head) / 2) {
+            compact();
+        }
+    }
+
+    private void insertInMiddle(int index, @NonNull T element) {
+        Object[] ordered = new Object[size() + 1];
+        int position = 0;
+        for (int slot = head; slot < tail; slot++) {
+            if (slots[slot] == null) {
+                continue;
+            }
+            if (position == index) {
+                ordered[position++] = element;
+            }
+            ordered[position++] = slots[slot];
+        }
+        rebuild(ordered);
+    }
+
+    /**
+     * Moves the elements to a new array with free slots on both ends.
+     */
+    private void compact() {
+        Object[] ordered = new Object[size()];
+        int position = 0;
+        for (int slot = head; slot < tail; slot++) {
+            if (slots[slot] != null) {
+                ordered[position++] = slots[slot];
+            }
+        }
+        rebuild(ordered);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rebuild(@NonNull Object[] ordered) {
+        modCount++;
+        int capacity = Math.max(MIN_CAPACITY, ordered.length * 2);
+        slots = new Object[capacity];
+        tree = new int[capacity + 1];
+        head = (capacity - ordered.length) / 2;
+        tail = head + ordered.length;
+
+        slotsByElement.clear();
+        for (int i = 0; i < ordered.length; i++) {
+            slots[head + i] = ordered[i];
+            slotsByElement.put((T) ordered[i], head + i);
+        }
+
+        // build the tree in linear time by pushing each node's count to its parent
+        for (int slot = head; slot < tail; slot++) {
+            tree[slot + 1] = 1;
+        }
+        for (int node = 1; node <= capacity; node++) {
+            int parent = node + (node & -node);
+            if (parent <= capacity) {
+                tree[parent] += tree[node];
+            }
+        }
+    }
+
+    private void updateTree(int slot, int delta) {
+        for (int node = slot + 1; node < tree.length; node += node & -node) {
+            tree[node] += delta;
+        }
+    }
+
+    /**
+     * Returns the number of elements in the slots before the given slot, which is the position of
+     * the element in the given slot.
+     */
+    private int countBefore(int slot) {
+        int count = 0;
+        for (int node = slot; node > 0; node -= node & -node) {
+            count += tree[node];
+        }
+        return count;
+    }
+
+    /**
+     * Returns the slot of the element at the given position.
+     */
+    private int slotOf(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        // descend the tree to the last slot that has at most index elements before it
+        int node = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = node + step;
+            if (next < tree.length && tree[next] <= remaining) {
+                node = next;
+                remaining -= tree[next];
+            }
+        }
+        return node;
+    }
+
+}
@@ -0,0 +1,155 @@
+package edu.uga.cs.shopsync.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.function.Supplier;
+
+import edu.uga.cs.shopsync.BuildConfig;
+
+/**
+ * Facade for debug logging that does no work for messages that are not logged. Messages take
+ * {@code {}} placeholders that are filled with the arguments only if the message is logged, so
+ * the arguments, such as models and snapshots, are never converted to strings otherwise. Messages
+ * that need more work than that can be passed as a supplier.
+ * <p>
+ * Debug messages are only logged in debug builds, and only while the minimum level allows them.
+ * Release builds that are minified drop the calls to {@code d} altogether, see
+ * {@code proguard-rules.pro}. Warnings and errors are always logged and go to {@link Log}
+ * directly.
+ */
+public final class Logs {
+
+    private static volatile int minLevel = BuildConfig.DEBUG ? Log.DEBUG : Log.INFO;
+
+    private Logs() {
+    }
+
+    /**
+     * Sets the lowest level that is logged. Debug messages are never logged in release builds,
+     * whatever the level.
+     *
+     * @param level the lowest level that is logged, such as {@link Log#DEBUG} or {@link Log#INFO}
+     */
+    public static void setMinLevel(int level) {
+        minLevel = level;
+    }
+
+    /**
+     * Returns whether debug messages are logged. Used to skip work that only serves debug
+     * messages.
+     *
+     * @return true if debug messages are logged
+     */
+    public static boolean isDebugEnabled() {
+        return BuildConfig.DEBUG && minLevel <= Log.DEBUG;
+    }
+
+    /**
+     * Logs the debug message.
+     *
+     * @param tag     the tag of the message
+     * @param message the message
+     */
+    public static void d(@NonNull String tag, @NonNull String message) {
+        if (isDebugEnabled()) {
+            Log.d(tag, message);
+        }
+    }
+
+    /**
+     * Logs the debug message with its placeholder filled with the argument.
+     *
+     * @param tag    the tag of the message
+     * @param format the message with one {@code {}} placeholder
+     * @param arg    the argument
+     */
+    public static void d(@NonNull String tag, @NonNull String format, @Nullable Object arg) {
+        if (isDebugEnabled()) {
+            Log.d(tag, format(format, arg));
+        }
+    }
+
+    /**
+     * Logs the debug message with its placeholders filled with the arguments.
+     *
+     * @param tag    the tag of the message
+     * @param format the message with two {@code {}} placeholders
+     * @param arg1   the first argument
+     * @param arg2   the second argument
+     */
+    public static void d(@NonNull String tag, @NonNull String format, @Nullable Object arg1,
+                         @Nullable Object arg2) {
+        if (isDebugEnabled()) {
+            Log.d(tag, format(format, arg1, arg2));
+        }
+    }
+
+    /**
+     * Logs the debug message with its placeholders filled with the arguments.
+     *
+     * @param tag    the tag of the message
+     * @param format the message with three {@code {}} placeholders
+     * @param arg1   the first argument
+     * @param arg2   the second argument
+     * @param arg3   the third argument
+     */
+    public static void d(@NonNull String tag, @NonNull String format, @Nullable Object arg1,
+                         @Nullable Object arg2, @Nullable Object arg3) {
+        if (isDebugEnabled()) {
+            Log.d(tag, format(format, arg1, arg2, arg3));
+        }
+    }
+
+    /**
+     * Logs the debug message with its placeholders filled with the arguments. The fixed arity
+     * overloads should be preferred, since they do not allocate an array for the arguments.
+     *
+     * @param tag    the tag of the message
+     * @param format the message with one {@code {}} placeholder per argument
+     * @param args   the arguments
+     */
+    public static void d(@NonNull String tag, @NonNull String format, @Nullable Object... args) {
+        if (isDebugEnabled()) {
+            Log.d(tag, format(format, args));
+        }
+    }
+
+    /**
+     * Logs the debug message that the supplier returns. The supplier is only called if the
+     * message is logged.
+     *
+     * @param tag     the tag of the message
+     * @param message the supplier of the message
+     */
+    public static void d(@NonNull String tag, @NonNull Supplier<String> message) {
+        if (isDebugEnabled()) {
+            Log.d(tag, message.get());
+        }
+    }
+
+    /**
+     * Fills the {@code {}} placeholders of the format with the arguments, in order. Placeholders
+     * without an argument are kept, and arguments without a placeholder are left out.
+     *
+     * @param format the format
+     * @param args   the arguments
+     * @return the formatted message
+     */
+    static @NonNull String format(@NonNull String format, @Nullable Object... args) {
+        StringBuilder message = new StringBuilder(format.length() + 16 * args.length);
+        int start = 0;
+        for (Object arg : args) {
+            int placeholder = format.indexOf("{}", start);
+            if (placeholder < 0) {
+                break;
+            }
+            message.append(format, start, placeholder).append(arg);
+            start = placeholder + 2;
+        }
+        return message.append(format, start, format.length()).toString();
+    }
+
+}
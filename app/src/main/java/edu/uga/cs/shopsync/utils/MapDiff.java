@@ -0,0 +1,88 @@
+package edu.uga.cs.shopsync.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Computes the smallest multi-path update that turns one tree of maps into another. Both trees
+ * must hold plain values only, which are maps, strings, numbers and booleans, the way they are
+ * stored in the database.
+ * <p>
+ * Maps that are in both trees are compared child by child, so a change deep in the tree is
+ * written at its own path and leaves its siblings alone. Children that are only in the updated
+ * tree are written whole, and children that are only in the baseline are removed. Empty maps
+ * are treated as missing, since the database does not store them, but a map that becomes empty
+ * is cleared child by child rather than removed at its own path.
+ */
+public final class MapDiff {
+
+    private MapDiff() {
+    }
+
+    /**
+     * Returns the updates that turn the baseline into the updated tree, keyed by their path.
+     *
+     * @param path     the path of both trees, which every key of the updates starts with
+     * @param baseline the tree as it was loaded, or null if it did not exist
+     * @param updated  the tree as it should be, or null if it should not exist
+     * @return the updates, which are empty if the trees are equal
+     */
+    public static @NonNull Map<String, Object> diff(@NonNull String path,
+                                                    @Nullable Map<String, ?> baseline,
+                                                    @Nullable Map<String, ?> updated) {
+        Map<String, Object> childUpdates = new HashMap<>();
+        diffValue(path, baseline, updated, childUpdates);
+        return childUpdates;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void diffValue(@NonNull String path, @Nullable Object baseline,
+                                  @Nullable Object updated,
+                                  @NonNull Map<String, Object> childUpdates) {
+        baseline = nullIfEmpty(baseline);
+        if (baseline instanceof Map && updated instanceof Map) {
+            // an updated map that is empty removes the children of the baseline one by one
+            diffMap(path, (Map<String, ?>) baseline, (Map<String, ?>) updated, childUpdates);
+            return;
+        }
+
+        updated = nullIfEmpty(updated);
+        if (!valueEquals(baseline, updated)) {
+            childUpdates.put(path, updated);
+        }
+    }
+
+    private static void diffMap(@NonNull String path, @NonNull Map<String, ?> baseline,
+                                @NonNull Map<String, ?> updated,
+                                @NonNull Map<String, Object> childUpdates) {
+        for (Map.Entry<String, ?> child : updated.entrySet()) {
+            diffValue(path + "/" + child.getKey(), baseline.get(child.getKey()), child.getValue(),
+                      childUpdates);
+        }
+
+        for (String key : baseline.keySet()) {
+            if (!updated.containsKey(key) && nullIfEmpty(baseline.get(key)) != null) {
+                childUpdates.put(path + "/" + key, null);
+            }
+        }
+    }
+
+    private static @Nullable Object nullIfEmpty(@Nullable Object value) {
+        // writing null at the path of a map would remove the children that others added in the
+        // meantime
+        return value instanceof Map<?, ?> map && map.isEmpty() ? null : value;
+    }
+
+    private static boolean valueEquals(@Nullable Object baseline, @Nullable Object updated) {
+        // the database returns whole numbers as longs, even if they were written as doubles
+        if (baseline instanceof Number a && updated instanceof Number b) {
+            return Double.compare(a.doubleValue(), b.doubleValue()) == 0;
+        }
+        return Objects.equals(baseline, updated);
+    }
+
+}
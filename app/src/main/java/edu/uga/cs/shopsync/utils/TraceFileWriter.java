@@ -0,0 +1,150 @@
+package edu.uga.cs.shopsync.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Writes trace events to rolling files in the JSON array format of Chrome traces. The current
+ * file is {@code trace.json}; once it is full, it is renamed to {@code trace.1.json}, the older
+ * files are shifted up and the oldest file is deleted.
+ * <p>
+ * The closing bracket of the array is never written, which Chrome and Perfetto accept, so a file
+ * can be opened while the app is still writing it. Events are written on a background thread, so
+ * the callers never wait for the disk.
+ */
+public class TraceFileWriter implements Consumer<String> {
+
+    private static final String TAG = "TraceFileWriter";
+
+    /**
+     * The default size in bytes at which a file is rolled.
+     */
+    public static final long DEFAULT_MAX_FILE_BYTES = 1024 * 1024;
+
+    /**
+     * The default number of files that are kept.
+     */
+    public static final int DEFAULT_MAX_FILES = 3;
+
+    private final File directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final Executor executor;
+
+    // only accessed on the executor
+    private Writer writer;
+    private long fileBytes;
+
+    /**
+     * Constructs a new TraceFileWriter that keeps {@link #DEFAULT_MAX_FILES} files of up to
+     * {@link #DEFAULT_MAX_FILE_BYTES} bytes each.
+     *
+     * @param directory the directory of the files, which is created if it does not exist
+     */
+    public TraceFileWriter(@NonNull File directory) {
+        this(directory, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILES,
+             Executors.newSingleThreadExecutor(runnable -> {
+                 Thread thread = new Thread(runnable, "shopsync-trace");
+                 thread.setDaemon(true);
+                 return thread;
+             }));
+    }
+
+    /**
+     * Constructs a new TraceFileWriter. Used for testing only.
+     *
+     * @param directory    the directory of the files
+     * @param maxFileBytes the size in bytes at which a file is rolled
+     * @param maxFiles     the number of files that are kept
+     * @param executor     the executor that writes the events, one at a time
+     */
+    TraceFileWriter(@NonNull File directory, long maxFileBytes, int maxFiles,
+                    @NonNull Executor executor) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.executor = executor;
+    }
+
+    /**
+     * Appends the event to the current file.
+     *
+     * @param event the trace event, as a JSON object
+     */
+    @Override
+    public void accept(@NonNull String event) {
+        executor.execute(() -> append(event));
+    }
+
+    /**
+     * Returns the file with the given index, where 0 is the current file.
+     *
+     * @param index the index of the file
+     * @return the file
+     */
+    @NonNull
+    File traceFile(int index) {
+        return new File(directory, index == 0 ? "trace.json" : "trace." + index + ".json");
+    }
+
+    private void append(String event) {
+        try {
+            if (writer != null && fileBytes >= maxFileBytes) {
+                writer.close();
+                writer = null;
+                roll();
+            }
+            if (writer == null) {
+                open();
+            }
+
+            String line = event + ",\n";
+            writer.write(line);
+            writer.flush();
+            fileBytes += line.getBytes(StandardCharsets.UTF_8).length;
+        } catch (IOException e) {
+            Log.e(TAG, "append: failed to write trace event", e);
+            writer = null;
+        }
+    }
+
+    private void open() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+
+        // a file left by an earlier process is rolled, so that every file starts its own array
+        if (traceFile(0).exists()) {
+            roll();
+        }
+        writer = new OutputStreamWriter(new FileOutputStream(traceFile(0)),
+                                        StandardCharsets.UTF_8);
+        writer.write("[\n");
+        fileBytes = 2;
+    }
+
+    private void roll() {
+        File oldest = traceFile(maxFiles - 1);
+        if (oldest.exists() && !oldest.delete()) {
+            Log.w(TAG, "roll: failed to delete " + oldest);
+        }
+        for (int index = maxFiles - 2; index >= 0; index--) {
+            File file = traceFile(index);
+            if (file.exists() && !file.renameTo(traceFile(index + 1))) {
+                Log.w(TAG, "roll: failed to rename " + file);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,356 @@
+package edu.uga.cs.shopsync.utils;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.android.gms.tasks.Task;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Traces the database calls as spans, each of which covers a call from its start until its result
+ * is delivered. A span started while another span is current becomes its child, so the spans of
+ * one flow, such as a purchase, form a tree.
+ * <p>
+ * The current span is kept per thread, so it is lost when a call continues in a callback. To
+ * carry it across, the callbacks of a span are wrapped with {@link Span#successListener},
+ * {@link Span#completeListener} or {@link Span#failureListener}, which make the span current
+ * while they run, and the result consumers of a call are wrapped with {@link Span#ending}, which
+ * ends the span once the result is delivered.
+ * <p>
+ * Ended spans are passed to the sink as Chrome trace events, which can be opened in
+ * {@code chrome://tracing} or Perfetto. Tracing is disabled until a sink is set, and spans of a
+ * disabled tracer do nothing, so the wrapped callbacks are the given callbacks.
+ */
+@Singleton
+public class Tracer {
+
+    private static final String TAG = "Tracer";
+
+    /**
+     * The category of the trace events.
+     */
+    static final String CATEGORY = "shopsync";
+
+    private final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+    private final AtomicLong nextSpanId = new AtomicLong(1);
+    private final LongSupplier clock;
+    private final Span disabledSpan = new Span(this, "disabled", 0, 0, null, 0, 0);
+
+    // null while tracing is disabled
+    private volatile Consumer<String> sink;
+
+    /**
+     * Constructs a new Tracer that measures time with the elapsed realtime clock.
+     */
+    @Inject
+    public Tracer() {
+        this(SystemClock::elapsedRealtimeNanos);
+    }
+
+    /**
+     * Constructs a new Tracer. Used for testing only.
+     *
+     * @param clock the clock that returns the current time in nanoseconds
+     */
+    Tracer(@NonNull LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Enables tracing. Spans started from now on are passed to the sink once they end.
+     *
+     * @param sink the sink that receives a trace event per line, such as a
+     *             {@link TraceFileWriter}
+     */
+    public void enable(@NonNull Consumer<String> sink) {
+        Logs.d(TAG, "enable: tracing enabled");
+        this.sink = sink;
+    }
+
+    /**
+     * Disables tracing. Spans that end from now on are dropped.
+     */
+    public void disable() {
+        Logs.d(TAG, "disable: tracing disabled");
+        sink = null;
+    }
+
+    /**
+     * Returns whether tracing is enabled.
+     *
+     * @return true if tracing is enabled
+     */
+    public boolean isEnabled() {
+        return sink != null;
+    }
+
+    /**
+     * Starts a span that is a child of the current span of this thread, if any. The span is not
+     * made current.
+     *
+     * @param name the name of the span, usually the name of the call
+     * @return the span
+     */
+    public @NonNull Span startSpan(@NonNull String name) {
+        Consumer<String> spanSink = sink;
+        if (spanSink == null) {
+            return disabledSpan;
+        }
+
+        Span parent = currentSpan.get();
+        long id = nextSpanId.getAndIncrement();
+        return new Span(this, name, id, parent != null ? parent.traceId : id, parent,
+                        clock.getAsLong(), Thread.currentThread().getId());
+    }
+
+    /**
+     * Traces the task as a child of the current span of this thread, from now until the task
+     * completes. A failed task ends its span with {@link ErrorType#TASK_FAILED}.
+     *
+     * @param name the name of the span
+     * @param task the task
+     * @param <T>  the type of the result of the task
+     * @return the given task
+     */
+    @NonNull
+    public <T> Task<T> traceTask(@NonNull String name, @NonNull Task<T> task) {
+        Span span = startSpan(name);
+        if (span != disabledSpan) {
+            task.addOnCompleteListener(completedTask -> span.end(
+                    completedTask.isSuccessful() ? null : ErrorType.TASK_FAILED));
+        }
+        return task;
+    }
+
+    /**
+     * Returns the current span of this thread.
+     *
+     * @return the current span, or null if there is none
+     */
+    public @Nullable Span getCurrentSpan() {
+        return currentSpan.get();
+    }
+
+    private @NonNull Scope makeCurrent(@Nullable Span span) {
+        Span previous = currentSpan.get();
+        currentSpan.set(span);
+        return () -> currentSpan.set(previous);
+    }
+
+    private void emit(@NonNull Span span, long endNanos, @Nullable ErrorType errorType) {
+        Consumer<String> spanSink = sink;
+        if (spanSink == null) {
+            return;
+        }
+
+        // nestable async events with the same id are drawn as one tree, nested by time
+        String common = "\"name\":" + quote(span.name) + ",\"cat\":\"" + CATEGORY + "\"," +
+                "\"id\":\"0x" + Long.toHexString(span.traceId) + "\",\"pid\":1,\"tid\":" +
+                span.threadId;
+        spanSink.accept("{" + common + ",\"ph\":\"b\",\"ts\":" + span.startNanos / 1000 +
+                                ",\"args\":{\"span\":" + span.id + ",\"parent\":" +
+                                (span.parent != null ? span.parent.id : 0) + "}}");
+        spanSink.accept("{" + common + ",\"ph\":\"e\",\"ts\":" + endNanos / 1000 +
+                                (errorType != null ? ",\"args\":{\"error\":\"" + errorType +
+                                        "\"}" : "") + "}");
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format(Locale.US, "\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Restores the span that was current before a span was made current.
+     */
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * A traced call. A span ends once; later attempts to end it are ignored.
+     */
+    public static final class Span {
+
+        private final Tracer tracer;
+        private final String name;
+        private final long id;
+        private final long traceId;
+        private final Span parent;
+        private final long startNanos;
+        private final long threadId;
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private Span(Tracer tracer, String name, long id, long traceId, Span parent,
+                     long startNanos, long threadId) {
+            this.tracer = tracer;
+            this.name = name;
+            this.id = id;
+            this.traceId = traceId;
+            this.parent = parent;
+            this.startNanos = startNanos;
+            this.threadId = threadId;
+        }
+
+        /**
+         * Returns the name of the span.
+         *
+         * @return the name
+         */
+        public @NonNull String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the parent of the span.
+         *
+         * @return the parent, or null if the span is the root of its trace
+         */
+        public @Nullable Span getParent() {
+            return parent;
+        }
+
+        /**
+         * Makes the span the current span of this thread until the returned scope is closed.
+         *
+         * @return the scope that restores the previous span
+         */
+        public @NonNull Scope makeCurrent() {
+            return isRecording() ? tracer.makeCurrent(this) : () -> {
+            };
+        }
+
+        /**
+         * Ends the span.
+         */
+        public void end() {
+            end(null);
+        }
+
+        /**
+         * Ends the span, recording the error that the call failed with, if any.
+         *
+         * @param errorType the type of the error, or null if the call succeeded
+         */
+        public void end(@Nullable ErrorType errorType) {
+            if (isRecording() && ended.compareAndSet(false, true)) {
+                tracer.emit(this, tracer.clock.getAsLong(), errorType);
+            }
+        }
+
+        /**
+         * Returns a consumer that ends the span and then passes the value to the given consumer,
+         * with the parent of the span current. If the value is an {@link ErrorHandle}, the span
+         * ends with its error.
+         *
+         * @param consumer the consumer of the result of the call, if any
+         * @param <T>      the type of the value
+         * @return the consumer that ends the span
+         */
+        @NonNull
+        public <T> Consumer<T> ending(@Nullable Consumer<T> consumer) {
+            if (!isRecording()) {
+                return consumer != null ? consumer : value -> {
+                };
+            }
+
+            return value -> {
+                end(value instanceof ErrorHandle errorHandle ? errorHandle.errorType() : null);
+                if (consumer != null) {
+                    try (Scope ignored = tracer.makeCurrent(parent)) {
+                        consumer.accept(value);
+                    }
+                }
+            };
+        }
+
+        /**
+         * Returns a listener that runs the given listener with the span current.
+         *
+         * @param listener the listener
+         * @param <T>      the type of the result of the task
+         * @return the listener that runs in the span
+         */
+        @NonNull
+        public <T> OnSuccessListener<T> successListener(@NonNull OnSuccessListener<T> listener) {
+            if (!isRecording()) {
+                return listener;
+            }
+
+            return result -> {
+                try (Scope ignored = makeCurrent()) {
+                    listener.onSuccess(result);
+                }
+            };
+        }
+
+        /**
+         * Returns a listener that runs the given listener with the span current.
+         *
+         * @param listener the listener
+         * @param <T>      the type of the result of the task
+         * @return the listener that runs in the span
+         */
+        @NonNull
+        public <T> OnCompleteListener<T> completeListener(
+                @NonNull OnCompleteListener<T> listener) {
+            if (!isRecording()) {
+                return listener;
+            }
+
+            return task -> {
+                try (Scope ignored = makeCurrent()) {
+                    listener.onComplete(task);
+                }
+            };
+        }
+
+        /**
+         * Returns a listener that runs the given listener with the span current.
+         *
+         * @param listener the listener
+         * @return the listener that runs in the span
+         */
+        public @NonNull OnFailureListener failureListener(@NonNull OnFailureListener listener) {
+            if (!isRecording()) {
+                return listener;
+            }
+
+            return exception -> {
+                try (Scope ignored = makeCurrent()) {
+                    listener.onFailure(exception);
+                }
+            };
+        }
+
+        private boolean isRecording() {
+            return this != tracer.disabledSpan;
+        }
+    }
+
+}
@@ -1,5 +1,15 @@
 package edu.uga.cs.shopsync.utils;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.uga.cs.shopsync.backend.models.BasketItemModel;
+import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
+
 /**
  * Utility methods.
  */
@@ -48,4 +58,38 @@ public class UtilMethods {
         return isDouble;
     }
 
+    /**
+     * Returns the cost of the purchased item, or zero if it has no basket item.
+     *
+     * @param purchasedItem the purchased item
+     * @return the cost of the purchased item
+     */
+    public static double costOf(@Nullable PurchasedItemModel purchasedItem) {
+        if (purchasedItem == null || purchasedItem.getBasketItem() == null) {
+            return 0;
+        }
+        BasketItemModel basketItem = purchasedItem.getBasketItem();
+        return basketItem.getQuantity() * basketItem.getPricePerUnit();
+    }
+
+    /**
+     * Computes the total cost of the purchases of each user from the given purchased items. The
+     * purchaser of an item is the owner of the shopping basket it was purchased from.
+     *
+     * @param purchasedItems the purchased items
+     * @return the total cost of the purchases of each user, keyed by user uid
+     */
+    public static Map<String, Double> computeCostsByUserUid(
+            @NonNull Collection<PurchasedItemModel> purchasedItems) {
+        Map<String, Double> costsByUserUid = new HashMap<>();
+        for (PurchasedItemModel purchasedItem : purchasedItems) {
+            BasketItemModel basketItem = purchasedItem.getBasketItem();
+            if (basketItem != null && basketItem.getShoppingBasketUid() != null) {
+                costsByUserUid.merge(basketItem.getShoppingBasketUid(), costOf(purchasedItem),
+                                     Double::sum);
+            }
+        }
+        return costsByUserUid;
+    }
+
 }
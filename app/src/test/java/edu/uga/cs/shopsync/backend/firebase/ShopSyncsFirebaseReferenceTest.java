@@ -3,29 +3,47 @@ package edu.uga.cs.shopsync.backend.firebase;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.BASKET_ITEMS_NESTED_COLLECTION;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.COSTS_BACKFILLED_FIELD;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.COSTS_COLLECTION;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.IN_BASKET_FIELD;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.MEMBER_COUNT_FIELD;
 import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.NAME_FIELD;
 import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.PURCHASED_ITEMS_NESTED_COLLECTION;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.PURCHASED_ITEM_BASKET_ITEM_UID_PATH;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.PURCHASED_ITEM_COUNT_FIELD;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.PURCHASED_ITEM_SHOPPING_ITEM_UID_PATH;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.PURCHASED_ITEM_USER_UID_PATH;
 import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.SHOPPING_BASKETS_NESTED_COLLECTION;
 import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.SHOPPING_ITEMS_NESTED_COLLECTION;
-import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.USER_UID_FIELD;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.SHOPPING_ITEM_COUNT_FIELD;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.SHOP_SYNCS_COLLECTION;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.SHOP_SYNC_SUMMARIES_COLLECTION;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.TOTAL_COST_FIELD;
+import static edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference.VERSION_FIELD;
 
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.MutableData;
 import com.google.firebase.database.Query;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.Transaction;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -34,12 +52,15 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import edu.uga.cs.shopsync.backend.models.BasketItemModel;
 import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
 import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+import edu.uga.cs.shopsync.backend.models.ShopSyncSummaryModel;
 import edu.uga.cs.shopsync.backend.models.ShoppingBasketModel;
 import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
 import edu.uga.cs.shopsync.utils.DataWrapper;
@@ -55,7 +76,16 @@ public class ShopSyncsFirebaseReferenceTest {
     private static final String TEST_USER_UID = "testUserUid";
     private static final String TEST_SHOPPING_ITEM_UID = "testItemUid";
     private static final String TEST_PURCHASED_ITEM_UID = "testPurchasedItemUid";
-
+    private static final String SHOP_SYNC_PATH = "/" + SHOP_SYNCS_COLLECTION + "/" +
+            TEST_SHOP_SYNC_UID;
+    private static final String SUMMARY_PATH = "/" + SHOP_SYNC_SUMMARIES_COLLECTION + "/" +
+            TEST_SHOP_SYNC_UID;
+    private static final String COSTS_PATH = "/" + COSTS_COLLECTION + "/" + TEST_SHOP_SYNC_UID;
+    private static final String VERSION_PATH = SHOP_SYNC_PATH + "/" + VERSION_FIELD;
+    private static final String PURCHASED_ITEM_PATH = SHOP_SYNC_PATH + "/" +
+            PURCHASED_ITEMS_NESTED_COLLECTION + "/" + TEST_PURCHASED_ITEM_UID;
+
+    private DatabaseReference mockRootReference;
     private DatabaseReference mockShopSyncsCollection;
     private DatabaseReference mockShopSyncChildReference;
 
@@ -76,6 +106,9 @@ public class ShopSyncsFirebaseReferenceTest {
     @Before
 
     public void setUp() {
+        // set up mock root reference
+        mockRootReference = mock(DatabaseReference.class);
+
         // set up mock shop syncs collection
         mockShopSyncsCollection = mock(DatabaseReference.class);
         mockShopSyncChildReference = mock(DatabaseReference.class);
@@ -115,7 +148,8 @@ public class ShopSyncsFirebaseReferenceTest {
         mockVoidTask = mock(Task.class);
 
         // spies
-        shopSyncsFirebaseReference = spy(new ShopSyncsFirebaseReference(mockShopSyncsCollection));
+        shopSyncsFirebaseReference = spy(new ShopSyncsFirebaseReference(mockShopSyncsCollection,
+                                                                        mockRootReference));
     }
 
     @Test
@@ -172,6 +206,12 @@ public class ShopSyncsFirebaseReferenceTest {
         when(mockShopSyncsCollection.push()).thenReturn(mockNewEntryReference);
         when(mockNewEntryReference.getKey()).thenReturn(TEST_SHOP_SYNC_UID);
 
+        DataWrapper<Map<String, Object>> childUpdatesWrapper = new DataWrapper<>(null);
+        when(mockRootReference.updateChildren(anyMap())).thenAnswer(invocation -> {
+            childUpdatesWrapper.set(invocation.getArgument(0));
+            return mockVoidTask;
+        });
+
         // Act
         ShopSyncModel result = shopSyncsFirebaseReference.addShopSync(
                 TEST_NAME, TEST_DESCRIPTION, null, null, null);
@@ -181,7 +221,237 @@ public class ShopSyncsFirebaseReferenceTest {
         assertEquals(expectedShopSync, result);
         verify(mockShopSyncsCollection).push();
         verify(mockNewEntryReference).getKey();
-        verify(mockShopSyncChildReference).setValue(result);
+        verify(mockShopSyncChildReference, times(0)).setValue(any());
+
+        Map<String, Object> childUpdates = childUpdatesWrapper.get();
+        assertNotNull(childUpdates);
+        assertEquals(3, childUpdates.size());
+        assertEquals(result.toMap(), childUpdates.get(SHOP_SYNC_PATH));
+        assertEquals(Map.of(COSTS_BACKFILLED_FIELD, true), childUpdates.get(COSTS_PATH));
+
+        Map<String, Object> summaryValues = (Map<String, Object>) childUpdates.get(SUMMARY_PATH);
+        assertNotNull(summaryValues);
+        assertEquals(TEST_NAME, summaryValues.get("name"));
+        assertEquals(TEST_DESCRIPTION, summaryValues.get("description"));
+        assertEquals(0L, summaryValues.get(MEMBER_COUNT_FIELD));
+        assertEquals(0L, summaryValues.get(SHOPPING_ITEM_COUNT_FIELD));
+    }
+
+    @Test
+    public void testKeepShopSyncSynced() {
+        // Arrange
+        DatabaseReference mockSummariesCollection = mock(DatabaseReference.class);
+        DatabaseReference mockSummaryReference = mock(DatabaseReference.class);
+        when(mockRootReference.child(SHOP_SYNC_SUMMARIES_COLLECTION))
+                .thenReturn(mockSummariesCollection);
+        when(mockSummariesCollection.child(TEST_SHOP_SYNC_UID)).thenReturn(mockSummaryReference);
+        DatabaseReference mockCostsCollection = mock(DatabaseReference.class);
+        DatabaseReference mockCostsReference = mock(DatabaseReference.class);
+        when(mockRootReference.child(COSTS_COLLECTION)).thenReturn(mockCostsCollection);
+        when(mockCostsCollection.child(TEST_SHOP_SYNC_UID)).thenReturn(mockCostsReference);
+
+        // Act
+        shopSyncsFirebaseReference.keepShopSyncSynced(TEST_SHOP_SYNC_UID, true);
+
+        // Assert
+        verify(mockShopSyncChildReference).keepSynced(true);
+        verify(mockSummaryReference).keepSynced(true);
+        verify(mockCostsReference).keepSynced(true);
+    }
+
+    @Test
+    public void testGetShopSyncSummaryWithUid() {
+        // Arrange
+        DatabaseReference mockSummariesCollection = mock(DatabaseReference.class);
+        DatabaseReference mockSummaryReference = mock(DatabaseReference.class);
+        when(mockRootReference.child(SHOP_SYNC_SUMMARIES_COLLECTION))
+                .thenReturn(mockSummariesCollection);
+        when(mockSummariesCollection.child(TEST_SHOP_SYNC_UID)).thenReturn(mockSummaryReference);
+        when(mockSummaryReference.get()).thenReturn(mockDataTask);
+
+        // Act
+        Task<DataSnapshot> result =
+                shopSyncsFirebaseReference.getShopSyncSummaryWithUid(TEST_SHOP_SYNC_UID);
+
+        // Assert
+        assertEquals(mockDataTask, result);
+        verify(mockShopSyncsCollection, times(0)).child(TEST_SHOP_SYNC_UID);
+    }
+
+    @Test
+    public void testSetShopSyncSummaryIfAbsent() {
+        // Arrange
+        DatabaseReference mockSummariesCollection = mock(DatabaseReference.class);
+        DatabaseReference mockSummaryReference = mock(DatabaseReference.class);
+        when(mockRootReference.child(SHOP_SYNC_SUMMARIES_COLLECTION))
+                .thenReturn(mockSummariesCollection);
+        when(mockSummariesCollection.child(TEST_SHOP_SYNC_UID)).thenReturn(mockSummaryReference);
+        MutableData summaryData = mockTransaction(mockSummaryReference, null);
+        ShopSyncSummaryModel summary = new ShopSyncSummaryModel(TEST_SHOP_SYNC_UID, TEST_NAME,
+                                                                TEST_DESCRIPTION, 1, 2, 0, 0);
+
+        // Act
+        Task<DataSnapshot> result = shopSyncsFirebaseReference.setShopSyncSummaryIfAbsent(summary);
+
+        // Assert
+        assertNotNull(result);
+        verify(summaryData).setValue(summary.toMap());
+        verify(mockRootReference, never()).updateChildren(anyMap());
+    }
+
+    @Test
+    public void testSetShopSyncSummaryIfAbsent_AlreadyStored() {
+        // Arrange
+        DatabaseReference mockSummariesCollection = mock(DatabaseReference.class);
+        DatabaseReference mockSummaryReference = mock(DatabaseReference.class);
+        when(mockRootReference.child(SHOP_SYNC_SUMMARIES_COLLECTION))
+                .thenReturn(mockSummariesCollection);
+        when(mockSummariesCollection.child(TEST_SHOP_SYNC_UID)).thenReturn(mockSummaryReference);
+        ShopSyncSummaryModel storedSummary = new ShopSyncSummaryModel(
+                TEST_SHOP_SYNC_UID, TEST_NAME, TEST_DESCRIPTION, 1, 3, 0, 0);
+        MutableData summaryData = mockTransaction(mockSummaryReference, storedSummary.toMap());
+
+        // Act
+        shopSyncsFirebaseReference.setShopSyncSummaryIfAbsent(new ShopSyncSummaryModel(
+                TEST_SHOP_SYNC_UID, TEST_NAME, TEST_DESCRIPTION, 1, 2, 0, 0));
+
+        // Assert
+        verify(summaryData, never()).setValue(any());
+        verify(mockRootReference, never()).updateChildren(anyMap());
+    }
+
+    @Test
+    public void testSetShopSyncSummaryIfAbsent_OnlyCounters() {
+        // Arrange
+        DatabaseReference mockSummariesCollection = mock(DatabaseReference.class);
+        DatabaseReference mockSummaryReference = mock(DatabaseReference.class);
+        when(mockRootReference.child(SHOP_SYNC_SUMMARIES_COLLECTION))
+                .thenReturn(mockSummariesCollection);
+        when(mockSummariesCollection.child(TEST_SHOP_SYNC_UID)).thenReturn(mockSummaryReference);
+
+        // an increment that reached the shop sync before its summary was backfilled
+        MutableData summaryData = mockTransaction(mockSummaryReference,
+                                                  Map.of(SHOPPING_ITEM_COUNT_FIELD, 1L));
+        ShopSyncSummaryModel summary = new ShopSyncSummaryModel(TEST_SHOP_SYNC_UID, TEST_NAME,
+                                                                TEST_DESCRIPTION, 1, 3, 0, 0);
+
+        // Act
+        shopSyncsFirebaseReference.setShopSyncSummaryIfAbsent(summary);
+
+        // Assert
+        verify(summaryData).setValue(summary.toMap());
+    }
+
+    @Test
+    public void testSummarizeShopSync() {
+        // Arrange
+        BasketItemModel firstBasketItem = new BasketItemModel(
+                TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 2, 10.0);
+        BasketItemModel secondBasketItem = new BasketItemModel(
+                TEST_USER_UID, "otherItemUid", 1, 2.5);
+        Map<String, PurchasedItemModel> purchasedItems = Map.of(
+                "first", new PurchasedItemModel("first", null, null, firstBasketItem),
+                "second", new PurchasedItemModel("second", null, null, secondBasketItem));
+        Map<String, ShoppingBasketModel> shoppingBaskets = Map.of(
+                TEST_USER_UID, new ShoppingBasketModel(TEST_USER_UID, new HashMap<>()),
+                "otherUserUid", new ShoppingBasketModel("otherUserUid", new HashMap<>()));
+        Map<String, ShoppingItemModel> shoppingItems = Map.of(
+                TEST_SHOPPING_ITEM_UID, new ShoppingItemModel(TEST_SHOPPING_ITEM_UID, "Item",
+                                                              false));
+        ShopSyncModel shopSync = new ShopSyncModel(TEST_SHOP_SYNC_UID, TEST_NAME,
+                                                   TEST_DESCRIPTION, shoppingItems,
+                                                   shoppingBaskets, purchasedItems);
+
+        // Act
+        ShopSyncSummaryModel result = shopSyncsFirebaseReference.summarizeShopSync(shopSync);
+
+        // Assert
+        assertEquals(TEST_SHOP_SYNC_UID, result.getUid());
+        assertEquals(TEST_NAME, result.getName());
+        assertEquals(TEST_DESCRIPTION, result.getDescription());
+        assertEquals(2, result.getMemberCount());
+        assertEquals(1, result.getShoppingItemCount());
+        assertEquals(2, result.getPurchasedItemCount());
+        assertEquals(22.5, result.getTotalCost(), 0.0001);
+    }
+
+    @Test
+    public void testGetCostsWithShopSyncUid() {
+        // Arrange
+        DatabaseReference mockCostsCollection = mock(DatabaseReference.class);
+        DatabaseReference mockCostsReference = mock(DatabaseReference.class);
+        when(mockRootReference.child(COSTS_COLLECTION)).thenReturn(mockCostsCollection);
+        when(mockCostsCollection.child(TEST_SHOP_SYNC_UID)).thenReturn(mockCostsReference);
+        when(mockCostsReference.get()).thenReturn(mockDataTask);
+
+        // Act
+        Task<DataSnapshot> result =
+                shopSyncsFirebaseReference.getCostsWithShopSyncUid(TEST_SHOP_SYNC_UID);
+
+        // Assert
+        assertEquals(mockDataTask, result);
+        verify(mockPurchasedItemsCollection, times(0)).get();
+    }
+
+    @Test
+    public void testBackfillCosts() {
+        // Arrange
+        DatabaseReference mockCostsCollection = mock(DatabaseReference.class);
+        DatabaseReference mockCostsReference = mock(DatabaseReference.class);
+        when(mockRootReference.child(COSTS_COLLECTION)).thenReturn(mockCostsCollection);
+        when(mockCostsCollection.child(TEST_SHOP_SYNC_UID)).thenReturn(mockCostsReference);
+
+        // a purchase after the upgrade created an entry before the ledger was backfilled
+        MutableData costsData = mockTransaction(
+                mockCostsReference, Map.of(TEST_USER_UID, 5.0, "otherUserUid", 2.0));
+
+        // Act
+        Task<DataSnapshot> result = shopSyncsFirebaseReference.backfillCosts(
+                TEST_SHOP_SYNC_UID, Map.of(TEST_USER_UID, 25.0));
+
+        // Assert
+        assertNotNull(result);
+        verify(costsData).setValue(Map.of(TEST_USER_UID, 25.0, "otherUserUid", 2.0,
+                                          COSTS_BACKFILLED_FIELD, true));
+        verify(mockRootReference, never()).updateChildren(anyMap());
+    }
+
+    @Test
+    public void testBackfillCosts_AlreadyBackfilled() {
+        // Arrange
+        DatabaseReference mockCostsCollection = mock(DatabaseReference.class);
+        DatabaseReference mockCostsReference = mock(DatabaseReference.class);
+        when(mockRootReference.child(COSTS_COLLECTION)).thenReturn(mockCostsCollection);
+        when(mockCostsCollection.child(TEST_SHOP_SYNC_UID)).thenReturn(mockCostsReference);
+        MutableData costsData = mockTransaction(
+                mockCostsReference, Map.of(TEST_USER_UID, 30.0, COSTS_BACKFILLED_FIELD, true));
+
+        // Act
+        shopSyncsFirebaseReference.backfillCosts(TEST_SHOP_SYNC_UID, Map.of(TEST_USER_UID, 25.0));
+
+        // Assert
+        verify(costsData, never()).setValue(any());
+    }
+
+    @Test
+    public void testSummarizeCosts() {
+        // Arrange
+        PurchasedItemModel first = new PurchasedItemModel(
+                "first", null, null,
+                new BasketItemModel(TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 2, 10.0));
+        PurchasedItemModel second = new PurchasedItemModel(
+                "second", null, null, new BasketItemModel(TEST_USER_UID, "otherItemUid", 1, 2.5));
+        PurchasedItemModel third = new PurchasedItemModel(
+                "third", null, null, new BasketItemModel("otherUserUid", "thirdItemUid", 4, 1.0));
+
+        // Act
+        Map<String, Double> result =
+                shopSyncsFirebaseReference.summarizeCosts(List.of(first, second, third));
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(22.5, result.get(TEST_USER_UID), 0.0001);
+        assertEquals(4.0, result.get("otherUserUid"), 0.0001);
     }
 
     @Test
@@ -200,35 +470,140 @@ public class ShopSyncsFirebaseReferenceTest {
     }
 
     @Test
-    public void testUpdateShopSync() {
+    public void testUpdateShopSyncWritesOnlyChangedFields() {
         // Arrange
-        ShopSyncModel updatedShopSync = new ShopSyncModel(
-                TEST_SHOP_SYNC_UID, "Updated Name",
-                "Updated Description", Collections.emptyMap(), Collections.emptyMap(),
-                Collections.emptyMap());
-        when(mockShopSyncsCollection.updateChildren(anyMap())).thenReturn(mockVoidTask);
+        ShopSyncModel baselineShopSync = newPopulatedShopSync();
+        ShopSyncModel updatedShopSync = ShopSyncModel.of(baselineShopSync.toValueMap());
+        updatedShopSync.setDescription("Updated Description");
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
 
         // Act
-        Task<Void> result = shopSyncsFirebaseReference.updateShopSync(updatedShopSync);
+        Task<Void> result = shopSyncsFirebaseReference.updateShopSync(baselineShopSync,
+                                                                      updatedShopSync);
 
         // Assert
         assertNotNull(result);
-        verify(mockShopSyncsCollection).updateChildren(anyMap());
+        Map<String, Object> expectedMap = Map.of(
+                SHOP_SYNC_PATH + "/description", "Updated Description",
+                SUMMARY_PATH + "/description", "Updated Description");
+        verify(mockRootReference).updateChildren(expectedMap);
+    }
+
+    @Test
+    public void testUpdateShopSyncKeepsConcurrentEdits() {
+        // Arrange
+        ShopSyncModel baselineShopSync = newPopulatedShopSync();
+        ShopSyncModel updatedShopSync = ShopSyncModel.of(baselineShopSync.toValueMap());
+        updatedShopSync.setName("Updated Name");
+        updatedShopSync.getShoppingBaskets().get(TEST_USER_UID).getBasketItems()
+                .get(TEST_SHOPPING_ITEM_UID).setQuantity(5);
+        DataWrapper<Map<String, Object>> childUpdatesWrapper = new DataWrapper<>(null);
+        when(mockRootReference.updateChildren(anyMap())).thenAnswer(invocation -> {
+            childUpdatesWrapper.set(invocation.getArgument(0));
+            return mockVoidTask;
+        });
+
+        // Act
+        shopSyncsFirebaseReference.updateShopSync(baselineShopSync, updatedShopSync);
+
+        // Assert
+        // the shop sync tree and the collections are never overwritten as a whole, so the
+        // children that other members change in the meantime are left as they are
+        Map<String, Object> childUpdates = childUpdatesWrapper.get();
+        assertNotNull(childUpdates);
+        String basketItemPath = SHOP_SYNC_PATH + "/" + SHOPPING_BASKETS_NESTED_COLLECTION + "/" +
+                TEST_USER_UID + "/" + BASKET_ITEMS_NESTED_COLLECTION + "/" +
+                TEST_SHOPPING_ITEM_UID;
+        Map<String, Object> expectedMap = Map.of(
+                SHOP_SYNC_PATH + "/" + NAME_FIELD, "Updated Name",
+                basketItemPath + "/quantity", 5L,
+                SUMMARY_PATH + "/" + NAME_FIELD, "Updated Name");
+        assertEquals(expectedMap, childUpdates);
+        assertFalse(childUpdates.containsKey(SHOP_SYNC_PATH));
+        assertFalse(childUpdates.containsKey(SHOP_SYNC_PATH + "/" +
+                                                     SHOPPING_ITEMS_NESTED_COLLECTION));
+        assertFalse(childUpdates.containsKey(SHOP_SYNC_PATH + "/" +
+                                                     PURCHASED_ITEMS_NESTED_COLLECTION));
+    }
+
+    @Test
+    public void testUpdateShopSyncAdjustsSummaryAndCosts() {
+        // Arrange
+        ShopSyncModel baselineShopSync = newPopulatedShopSync();
+        ShopSyncModel updatedShopSync = ShopSyncModel.of(baselineShopSync.toValueMap());
+        ShoppingItemModel newShoppingItem = new ShoppingItemModel("newItemUid", "New Item", false);
+        updatedShopSync.getShoppingItems().put("newItemUid", newShoppingItem);
+        PurchasedItemModel newPurchasedItem = new PurchasedItemModel(
+                "newPurchasedItemUid", null, null,
+                new BasketItemModel(TEST_USER_UID, "newItemUid", 2, 1.5));
+        updatedShopSync.getPurchasedItems().put("newPurchasedItemUid", newPurchasedItem);
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
+
+        // Act
+        shopSyncsFirebaseReference.updateShopSync(baselineShopSync, updatedShopSync);
+
+        // Assert
+        Map<String, Object> expectedMap = new HashMap<>();
+        expectedMap.put(SHOP_SYNC_PATH + "/" + SHOPPING_ITEMS_NESTED_COLLECTION + "/newItemUid",
+                        newShoppingItem.toMap());
+        expectedMap.put(SHOP_SYNC_PATH + "/" + PURCHASED_ITEMS_NESTED_COLLECTION +
+                                "/newPurchasedItemUid", newPurchasedItem.toMap());
+        expectedMap.put(SUMMARY_PATH + "/" + SHOPPING_ITEM_COUNT_FIELD, ServerValue.increment(1));
+        expectedMap.put(SUMMARY_PATH + "/" + PURCHASED_ITEM_COUNT_FIELD, ServerValue.increment(1));
+        expectedMap.put(SUMMARY_PATH + "/" + TOTAL_COST_FIELD, ServerValue.increment(3.0));
+        expectedMap.put(COSTS_PATH + "/" + TEST_USER_UID, ServerValue.increment(3.0));
+        verify(mockRootReference).updateChildren(expectedMap);
+    }
+
+    @Test
+    public void testUpdateShopSyncWithoutChanges() {
+        // Arrange
+        ShopSyncModel baselineShopSync = newPopulatedShopSync();
+        ShopSyncModel updatedShopSync = ShopSyncModel.of(baselineShopSync.toValueMap());
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
+
+        // Act
+        shopSyncsFirebaseReference.updateShopSync(baselineShopSync, updatedShopSync);
+
+        // Assert
+        verify(mockRootReference).updateChildren(Collections.emptyMap());
     }
 
     @Test
     public void testDeleteShopSync() {
         // Arrange
-        when(mockShopSyncsCollection.child(TEST_SHOP_SYNC_UID)).thenReturn(mockShopSyncChildReference);
-        when(mockShopSyncChildReference.removeValue()).thenReturn(mockVoidTask);
+        DataWrapper<Map<String, Object>> childUpdatesWrapper = new DataWrapper<>(null);
+        when(mockRootReference.updateChildren(anyMap())).thenAnswer(invocation -> {
+            childUpdatesWrapper.set(invocation.getArgument(0));
+            return mockVoidTask;
+        });
 
         // Act
-        Task<Void> result = shopSyncsFirebaseReference.deleteShopSync(TEST_SHOP_SYNC_UID);
+        Task<Void> result = shopSyncsFirebaseReference.deleteShopSync(
+                TEST_SHOP_SYNC_UID, List.of(TEST_USER_UID, "otherUserUid"));
 
         // Assert
         assertNotNull(result);
-        verify(mockShopSyncsCollection).child(TEST_SHOP_SYNC_UID);
-        verify(mockShopSyncChildReference).removeValue();
+        verify(mockRootReference, times(1)).updateChildren(anyMap());
+        Map<String, Object> childUpdates = childUpdatesWrapper.get();
+        assertNotNull(childUpdates);
+        assertEquals(6, childUpdates.size());
+        assertTrue(childUpdates.containsKey(SHOP_SYNC_PATH));
+        assertNull(childUpdates.get(SHOP_SYNC_PATH));
+        assertTrue(childUpdates.containsKey(SUMMARY_PATH));
+        assertNull(childUpdates.get(SUMMARY_PATH));
+        assertTrue(childUpdates.containsKey(COSTS_PATH));
+        assertNull(childUpdates.get(COSTS_PATH));
+        String shopSyncToUsersPath = "/" + UserShopSyncMapFirebaseReference.SHOP_SYNC_TO_USERS_MAP +
+                "/" + TEST_SHOP_SYNC_UID;
+        assertTrue(childUpdates.containsKey(shopSyncToUsersPath));
+        assertNull(childUpdates.get(shopSyncToUsersPath));
+        for (String userUid : List.of(TEST_USER_UID, "otherUserUid")) {
+            String userToShopSyncPath = UserShopSyncMapFirebaseReference.userToShopSyncPath(
+                    userUid, TEST_SHOP_SYNC_UID);
+            assertTrue(childUpdates.containsKey(userToShopSyncPath));
+            assertNull(childUpdates.get(userToShopSyncPath));
+        }
     }
 
     @Test
@@ -239,11 +614,10 @@ public class ShopSyncsFirebaseReferenceTest {
         when(mockShoppingItemsCollection.push()).thenReturn(mockNewEntryReference);
         when(mockNewEntryReference.getKey()).thenReturn(TEST_SHOPPING_ITEM_UID);
 
-        DataWrapper<ShoppingItemModel> actualShoppingItemWrapper = new DataWrapper<>(null);
-
-        when(mockShoppingItemChildReference.setValue(any())).thenAnswer(invocation -> {
-            actualShoppingItemWrapper.set(invocation.getArgument(0));
-            return null;
+        DataWrapper<Map<String, Object>> childUpdatesWrapper = new DataWrapper<>(null);
+        when(mockRootReference.updateChildren(anyMap())).thenAnswer(invocation -> {
+            childUpdatesWrapper.set(invocation.getArgument(0));
+            return mockVoidTask;
         });
 
         // Act
@@ -257,7 +631,14 @@ public class ShopSyncsFirebaseReferenceTest {
         assertEquals(testInBasket, result.isInBasket());
         verify(mockShoppingItemsCollection).push();
         verify(mockNewEntryReference).getKey();
-        verify(mockShoppingItemChildReference).setValue(result);
+
+        Map<String, Object> childUpdates = childUpdatesWrapper.get();
+        assertNotNull(childUpdates);
+        assertEquals(result.toMap(), childUpdates.get(
+                SHOP_SYNC_PATH + "/" + SHOPPING_ITEMS_NESTED_COLLECTION + "/" +
+                        TEST_SHOPPING_ITEM_UID));
+        assertEquals(ServerValue.increment(1),
+                     childUpdates.get(SUMMARY_PATH + "/" + SHOPPING_ITEM_COUNT_FIELD));
     }
 
     @Test
@@ -295,6 +676,61 @@ public class ShopSyncsFirebaseReferenceTest {
         verify(mockShoppingItemsReference).get();
     }
 
+    @Test
+    public void testGetShoppingItemsPage_FirstPage() {
+        // Arrange
+        Query mockOrderByKeyQuery = mock(Query.class);
+        Query mockLimitQuery = mock(Query.class);
+        when(mockShoppingItemsCollection.orderByKey()).thenReturn(mockOrderByKeyQuery);
+        when(mockOrderByKeyQuery.limitToLast(50)).thenReturn(mockLimitQuery);
+        when(mockLimitQuery.get()).thenReturn(mockDataTask);
+
+        // Act
+        Task<DataSnapshot> result =
+                shopSyncsFirebaseReference.getShoppingItemsPage(TEST_SHOP_SYNC_UID, null, 50);
+
+        // Assert
+        assertEquals(mockDataTask, result);
+        verify(mockOrderByKeyQuery, never()).endBefore(anyString());
+    }
+
+    @Test
+    public void testGetShoppingItemsPage_NextPage() {
+        // Arrange
+        Query mockOrderByKeyQuery = mock(Query.class);
+        Query mockEndBeforeQuery = mock(Query.class);
+        Query mockLimitQuery = mock(Query.class);
+        when(mockShoppingItemsCollection.orderByKey()).thenReturn(mockOrderByKeyQuery);
+        when(mockOrderByKeyQuery.endBefore("item50")).thenReturn(mockEndBeforeQuery);
+        when(mockEndBeforeQuery.limitToLast(50)).thenReturn(mockLimitQuery);
+        when(mockLimitQuery.get()).thenReturn(mockDataTask);
+
+        // Act
+        Task<DataSnapshot> result =
+                shopSyncsFirebaseReference.getShoppingItemsPage(TEST_SHOP_SYNC_UID, "item50", 50);
+
+        // Assert
+        assertEquals(mockDataTask, result);
+    }
+
+    @Test
+    public void testGetShoppingItemsWindow() {
+        // Arrange
+        Query mockOrderByKeyQuery = mock(Query.class);
+        Query mockStartAtQuery = mock(Query.class);
+        Query mockEndBeforeQuery = mock(Query.class);
+        when(mockShoppingItemsCollection.orderByKey()).thenReturn(mockOrderByKeyQuery);
+        when(mockOrderByKeyQuery.startAt("item1")).thenReturn(mockStartAtQuery);
+        when(mockStartAtQuery.endBefore("item50")).thenReturn(mockEndBeforeQuery);
+
+        // Act
+        Query result = shopSyncsFirebaseReference.getShoppingItemsWindow(TEST_SHOP_SYNC_UID,
+                                                                         "item1", "item50");
+
+        // Assert
+        assertEquals(mockEndBeforeQuery, result);
+    }
+
     @Test
     public void testGetShoppingItemsWithName() {
         // Arrange
@@ -339,7 +775,10 @@ public class ShopSyncsFirebaseReferenceTest {
     @Test
     public void testDeleteShoppingItem() {
         // Arrange
-        when(mockShoppingItemChildReference.removeValue()).thenReturn(mockVoidTask);
+        mockVersion(3L);
+        mockRead(mockShoppingItemChildReference,
+                 new ShoppingItemModel(TEST_SHOPPING_ITEM_UID, "Item", false).toMap());
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
 
         // Act
         Task<Void> result = shopSyncsFirebaseReference.deleteShoppingItem(
@@ -347,8 +786,26 @@ public class ShopSyncsFirebaseReferenceTest {
 
         // Assert
         assertNotNull(result);
-        verify(mockShoppingItemsCollection).child(TEST_SHOPPING_ITEM_UID);
-        verify(mockShoppingItemChildReference).removeValue();
+        Map<String, Object> expectedMap = new HashMap<>();
+        expectedMap.put(SHOP_SYNC_PATH + "/" + SHOPPING_ITEMS_NESTED_COLLECTION + "/" +
+                                TEST_SHOPPING_ITEM_UID, null);
+        expectedMap.put(SUMMARY_PATH + "/" + SHOPPING_ITEM_COUNT_FIELD, ServerValue.increment(-1));
+        expectedMap.put(VERSION_PATH, 4L);
+        verify(mockRootReference).updateChildren(expectedMap);
+        verify(mockShoppingItemChildReference, times(0)).removeValue();
+    }
+
+    @Test
+    public void testDeleteShoppingItem_AlreadyDeleted() {
+        // Arrange
+        mockVersion(3L);
+        mockRead(mockShoppingItemChildReference, null);
+
+        // Act
+        shopSyncsFirebaseReference.deleteShoppingItem(TEST_SHOP_SYNC_UID, TEST_SHOPPING_ITEM_UID);
+
+        // Assert
+        verify(mockRootReference, never()).updateChildren(anyMap());
     }
 
     @Test
@@ -383,7 +840,9 @@ public class ShopSyncsFirebaseReferenceTest {
     @Test
     public void testAddShoppingBasket() {
         // Arrange
-        when(mockShoppingBasketChildReference.setValue(any())).thenReturn(mockVoidTask);
+        mockVersion(null);
+        mockRead(mockShoppingBasketChildReference, null);
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
 
         // Act
         ShoppingBasketModel result = shopSyncsFirebaseReference.addShoppingBasket(
@@ -391,8 +850,103 @@ public class ShopSyncsFirebaseReferenceTest {
 
         // Assert
         assertNotNull(result);
-        verify(mockShoppingBasketsCollection).child(TEST_USER_UID);
-        verify(mockShoppingBasketChildReference).setValue(result);
+        verify(mockRootReference).updateChildren(Map.of(
+                SHOP_SYNC_PATH + "/" + SHOPPING_BASKETS_NESTED_COLLECTION + "/" + TEST_USER_UID,
+                result.toValueMap(),
+                SUMMARY_PATH + "/" + MEMBER_COUNT_FIELD, ServerValue.increment(1),
+                VERSION_PATH, 1L));
+    }
+
+    @Test
+    public void testAddShoppingBasket_AlreadyMember() {
+        // Arrange
+        mockVersion(3L);
+        mockRead(mockShoppingBasketChildReference,
+                 new ShoppingBasketModel(TEST_USER_UID, new HashMap<>()).toValueMap());
+
+        // Act
+        shopSyncsFirebaseReference.addShoppingBasket(TEST_SHOP_SYNC_UID, TEST_USER_UID);
+
+        // Assert
+        verify(mockRootReference, never()).updateChildren(anyMap());
+    }
+
+    @Test
+    public void testAddMembers() {
+        // Arrange
+        String otherUserUid = "otherUserUid";
+        DatabaseReference otherShoppingBasketReference = mock(DatabaseReference.class);
+        when(mockShoppingBasketsCollection.child(otherUserUid))
+                .thenReturn(otherShoppingBasketReference);
+        mockVersion(3L);
+        mockRead(mockShoppingBasketChildReference, null);
+        mockRead(otherShoppingBasketReference, null);
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
+
+        // Act
+        Task<Set<String>> result = shopSyncsFirebaseReference.addMembers(
+                TEST_SHOP_SYNC_UID, List.of(TEST_USER_UID, otherUserUid));
+
+        // Assert
+        assertNotNull(result);
+        Map<String, Object> expectedMap = new HashMap<>();
+        for (String userUid : List.of(TEST_USER_UID, otherUserUid)) {
+            expectedMap.put(UserShopSyncMapFirebaseReference.userToShopSyncPath(
+                    userUid, TEST_SHOP_SYNC_UID), true);
+            expectedMap.put(UserShopSyncMapFirebaseReference.shopSyncToUserPath(
+                    TEST_SHOP_SYNC_UID, userUid), true);
+            expectedMap.put(SHOP_SYNC_PATH + "/" + SHOPPING_BASKETS_NESTED_COLLECTION + "/" +
+                                    userUid,
+                            new ShoppingBasketModel(userUid, new HashMap<>()).toMap());
+        }
+        expectedMap.put(SUMMARY_PATH + "/" + MEMBER_COUNT_FIELD, ServerValue.increment(2));
+        expectedMap.put(VERSION_PATH, 4L);
+        verify(mockRootReference).updateChildren(expectedMap);
+    }
+
+    @Test
+    public void testAddMembers_ExistingMemberLeftUntouched() {
+        // Arrange
+        String otherUserUid = "otherUserUid";
+        DatabaseReference otherShoppingBasketReference = mock(DatabaseReference.class);
+        when(mockShoppingBasketsCollection.child(otherUserUid))
+                .thenReturn(otherShoppingBasketReference);
+        mockVersion(3L);
+        mockRead(mockShoppingBasketChildReference,
+                 new ShoppingBasketModel(TEST_USER_UID, new HashMap<>()).toValueMap());
+        mockRead(otherShoppingBasketReference, null);
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
+
+        // Act
+        shopSyncsFirebaseReference.addMembers(TEST_SHOP_SYNC_UID,
+                                              List.of(TEST_USER_UID, otherUserUid));
+
+        // Assert
+        Map<String, Object> expectedMap = new HashMap<>();
+        expectedMap.put(UserShopSyncMapFirebaseReference.userToShopSyncPath(
+                otherUserUid, TEST_SHOP_SYNC_UID), true);
+        expectedMap.put(UserShopSyncMapFirebaseReference.shopSyncToUserPath(
+                TEST_SHOP_SYNC_UID, otherUserUid), true);
+        expectedMap.put(SHOP_SYNC_PATH + "/" + SHOPPING_BASKETS_NESTED_COLLECTION + "/" +
+                                otherUserUid,
+                        new ShoppingBasketModel(otherUserUid, new HashMap<>()).toMap());
+        expectedMap.put(SUMMARY_PATH + "/" + MEMBER_COUNT_FIELD, ServerValue.increment(1));
+        expectedMap.put(VERSION_PATH, 4L);
+        verify(mockRootReference).updateChildren(expectedMap);
+    }
+
+    @Test
+    public void testAddMembers_AllAlreadyMembers() {
+        // Arrange
+        mockVersion(3L);
+        mockRead(mockShoppingBasketChildReference,
+                 new ShoppingBasketModel(TEST_USER_UID, new HashMap<>()).toValueMap());
+
+        // Act
+        shopSyncsFirebaseReference.addMembers(TEST_SHOP_SYNC_UID, List.of(TEST_USER_UID));
+
+        // Assert
+        verify(mockRootReference, never()).updateChildren(anyMap());
     }
 
     @Test
@@ -441,22 +995,18 @@ public class ShopSyncsFirebaseReferenceTest {
         doReturn(getShoppingBasketTask).when(shopSyncsFirebaseReference).getShoppingBasketWithUid(
                 TEST_SHOP_SYNC_UID, TEST_USER_UID);
         DataSnapshot getShoppingBasketData = mock(DataSnapshot.class);
-        when(getShoppingBasketData.getValue(ShoppingBasketModel.class)).thenReturn(shoppingBasket);
+        when(getShoppingBasketData.getValue()).thenReturn(shoppingBasket.toValueMap());
         when(getShoppingBasketTask.addOnSuccessListener(any())).thenAnswer(invocation -> {
             Object[] args = invocation.getArguments();
             ((OnSuccessListener<DataSnapshot>) args[0]).onSuccess(getShoppingBasketData);
             return null;
         });
 
-        DataWrapper<Boolean> setInBasketWrapper = new DataWrapper<>(true);
-        DatabaseReference inBasketRef = mock(DatabaseReference.class);
-        when(inBasketRef.setValue(anyBoolean())).thenAnswer(invocation -> {
-            setInBasketWrapper.set(invocation.getArgument(0));
-            return null;
+        DataWrapper<Map<String, Object>> childUpdatesWrapper = new DataWrapper<>(null);
+        when(mockRootReference.updateChildren(anyMap())).thenAnswer(invocation -> {
+            childUpdatesWrapper.set(invocation.getArgument(0));
+            return mockVoidTask;
         });
-        when(mockShoppingItemChildReference.child("inBasket")).thenReturn(inBasketRef);
-
-        when(mockShoppingBasketChildReference.removeValue()).thenReturn(mockVoidTask);
         when(mockVoidTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
             Object[] args = invocation.getArguments();
             ((OnCompleteListener<Void>) args[0]).onComplete(mockVoidTask);
@@ -472,9 +1022,21 @@ public class ShopSyncsFirebaseReferenceTest {
                 TEST_SHOP_SYNC_UID, TEST_USER_UID, onSuccess, onFailure);
 
         // Assert
-        verify(mockShoppingBasketsCollection).child(TEST_USER_UID);
-        verify(mockShoppingBasketChildReference).removeValue();
-        assertEquals(false, setInBasketWrapper.get());
+        verify(mockRootReference, times(1)).updateChildren(anyMap());
+        verify(mockShoppingBasketChildReference, times(0)).removeValue();
+
+        Map<String, Object> childUpdates = childUpdatesWrapper.get();
+        assertNotNull(childUpdates);
+        assertEquals(3, childUpdates.size());
+        assertEquals(false, childUpdates.get(
+                SHOP_SYNC_PATH + "/" + SHOPPING_ITEMS_NESTED_COLLECTION + "/" +
+                        TEST_SHOPPING_ITEM_UID + "/" + IN_BASKET_FIELD));
+        String shoppingBasketPath = SHOP_SYNC_PATH + "/" + SHOPPING_BASKETS_NESTED_COLLECTION +
+                "/" + TEST_USER_UID;
+        assertTrue(childUpdates.containsKey(shoppingBasketPath));
+        assertNull(childUpdates.get(shoppingBasketPath));
+        assertEquals(ServerValue.increment(-1),
+                     childUpdates.get(SUMMARY_PATH + "/" + MEMBER_COUNT_FIELD));
         verify(onSuccess).run();
         verify(onFailure, times(0)).accept(any(ErrorHandle.class));
     }
@@ -483,38 +1045,36 @@ public class ShopSyncsFirebaseReferenceTest {
 
     public void testAddBasketItem() {
         // Arrange
-        ShoppingBasketModel shoppingBasket = new ShoppingBasketModel(
-                TEST_USER_UID, new HashMap<>());
-
-        Task<DataSnapshot> getShoppingBasketTask = mock(Task.class);
-        doReturn(getShoppingBasketTask).when(shopSyncsFirebaseReference).getShoppingBasketWithUid(
-                TEST_SHOP_SYNC_UID, TEST_USER_UID);
-        DataSnapshot getShoppingBasketData = mock(DataSnapshot.class);
-        when(getShoppingBasketTask.isSuccessful()).thenReturn(true);
-        when(getShoppingBasketData.getValue(ShoppingBasketModel.class)).thenReturn(shoppingBasket);
-        when(getShoppingBasketTask.getResult()).thenReturn(getShoppingBasketData);
-        when(getShoppingBasketTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+        DatabaseReference mockBasketItemsCollection = mock(DatabaseReference.class);
+        doReturn(mockBasketItemsCollection).when(shopSyncsFirebaseReference)
+                .getBasketItemsCollection(TEST_SHOP_SYNC_UID, TEST_USER_UID);
+        DatabaseReference mockBasketItemChildReference = mock(DatabaseReference.class);
+        when(mockBasketItemsCollection.child(TEST_SHOPPING_ITEM_UID))
+                .thenReturn(mockBasketItemChildReference);
+
+        Task<DataSnapshot> getBasketItemTask = mock(Task.class);
+        when(mockBasketItemChildReference.get()).thenReturn(getBasketItemTask);
+        DataSnapshot getBasketItemData = mock(DataSnapshot.class);
+        when(getBasketItemData.exists()).thenReturn(false);
+        when(getBasketItemTask.isSuccessful()).thenReturn(true);
+        when(getBasketItemTask.getResult()).thenReturn(getBasketItemData);
+        when(getBasketItemTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
             Object[] args = invocation.getArguments();
-            ((OnCompleteListener<DataSnapshot>) args[0]).onComplete(getShoppingBasketTask);
+            ((OnCompleteListener<DataSnapshot>) args[0]).onComplete(getBasketItemTask);
             return null;
         });
 
-        DataWrapper<String> shopSyncUidWrapper = new DataWrapper<>(null);
-        DataWrapper<ShoppingBasketModel> shoppingBasketWrapper = new DataWrapper<>(null);
-        doAnswer(invocation -> {
+        DataWrapper<Map<String, Object>> childUpdatesWrapper = new DataWrapper<>(null);
+        when(mockRootReference.updateChildren(anyMap())).thenAnswer(invocation -> {
+            childUpdatesWrapper.set(invocation.getArgument(0));
+            return mockVoidTask;
+        });
+        when(mockVoidTask.isSuccessful()).thenReturn(true);
+        when(mockVoidTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
             Object[] args = invocation.getArguments();
-            shopSyncUidWrapper.set((String) args[0]);
-            shoppingBasketWrapper.set((ShoppingBasketModel) args[1]);
-            return null;
-        }).when(shopSyncsFirebaseReference).updateShoppingBasket(any(), any());
-
-        DataWrapper<Boolean> setInBasketWrapper = new DataWrapper<>(true);
-        DatabaseReference inBasketRef = mock(DatabaseReference.class);
-        when(inBasketRef.setValue(anyBoolean())).thenAnswer(invocation -> {
-            setInBasketWrapper.set(invocation.getArgument(0));
+            ((OnCompleteListener<Void>) args[0]).onComplete(mockVoidTask);
             return null;
         });
-        when(mockShoppingItemChildReference.child("inBasket")).thenReturn(inBasketRef);
 
         Consumer<BasketItemModel> mockOnSuccess = mock(Consumer.class);
 
@@ -528,93 +1088,136 @@ public class ShopSyncsFirebaseReferenceTest {
 
         // Assert
         verify(mockOnSuccess).accept(any(BasketItemModel.class));
-
-        ShoppingBasketModel updatedShoppingBasket = shoppingBasketWrapper.get();
-        assertNotNull(updatedShoppingBasket);
-
-        BasketItemModel basketItem =
-                updatedShoppingBasket.getBasketItems().get(TEST_SHOPPING_ITEM_UID);
-        assertNotNull(basketItem);
-        assertEquals(quantity, basketItem.getQuantity());
-        assertEquals(pricePerUnit, basketItem.getPricePerUnit(), 0.0);
-
-        assertEquals(TEST_SHOP_SYNC_UID, shopSyncUidWrapper.get());
-        assertEquals(true, setInBasketWrapper.get());
+        verify(shopSyncsFirebaseReference, times(0)).getShoppingBasketWithUid(any(), any());
+        verify(shopSyncsFirebaseReference, times(0)).updateShoppingBasket(any(), any());
+
+        Map<String, Object> childUpdates = childUpdatesWrapper.get();
+        assertNotNull(childUpdates);
+        assertEquals(2, childUpdates.size());
+
+        Map<String, Object> basketItemValues = (Map<String, Object>) childUpdates.get(
+                SHOP_SYNC_PATH + "/" + SHOPPING_BASKETS_NESTED_COLLECTION + "/" + TEST_USER_UID + "/" +
+                        BASKET_ITEMS_NESTED_COLLECTION + "/" + TEST_SHOPPING_ITEM_UID);
+        assertNotNull(basketItemValues);
+        assertEquals(quantity, basketItemValues.get("quantity"));
+        assertEquals(pricePerUnit, basketItemValues.get("pricePerUnit"));
+
+        assertEquals(true, childUpdates.get(
+                SHOP_SYNC_PATH + "/" + SHOPPING_ITEMS_NESTED_COLLECTION + "/" + TEST_SHOPPING_ITEM_UID + "/" +
+                        IN_BASKET_FIELD));
     }
 
     @Test
-
-    public void testDeleteBasketItem() {
+    public void testAddBasketItem_AlreadyExists() {
         // Arrange
-        Map<String, BasketItemModel> basketItems = new HashMap<>();
-        basketItems.put(TEST_SHOPPING_ITEM_UID, new BasketItemModel(
-                TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 1, 10.0));
-
-        ShoppingBasketModel shoppingBasket = new ShoppingBasketModel(TEST_USER_UID, basketItems);
-
-        DataSnapshot mockDataSnapshot = mock(DataSnapshot.class);
-        when(mockDataSnapshot.getValue(ShoppingBasketModel.class)).thenReturn(shoppingBasket);
-
-        Task<DataSnapshot> mockShoppingBasketDataTask = mock(Task.class);
-        when(mockShoppingBasketDataTask.isSuccessful()).thenReturn(true);
-        when(mockShoppingBasketDataTask.getResult()).thenReturn(mockDataSnapshot);
-        when(mockShoppingBasketDataTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+        DatabaseReference mockBasketItemsCollection = mock(DatabaseReference.class);
+        doReturn(mockBasketItemsCollection).when(shopSyncsFirebaseReference)
+                .getBasketItemsCollection(TEST_SHOP_SYNC_UID, TEST_USER_UID);
+        DatabaseReference mockBasketItemChildReference = mock(DatabaseReference.class);
+        when(mockBasketItemsCollection.child(TEST_SHOPPING_ITEM_UID))
+                .thenReturn(mockBasketItemChildReference);
+
+        Task<DataSnapshot> getBasketItemTask = mock(Task.class);
+        when(mockBasketItemChildReference.get()).thenReturn(getBasketItemTask);
+        DataSnapshot getBasketItemData = mock(DataSnapshot.class);
+        when(getBasketItemData.exists()).thenReturn(true);
+        when(getBasketItemTask.isSuccessful()).thenReturn(true);
+        when(getBasketItemTask.getResult()).thenReturn(getBasketItemData);
+        when(getBasketItemTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
             Object[] args = invocation.getArguments();
-            ((OnCompleteListener<DataSnapshot>) args[0]).onComplete(mockShoppingBasketDataTask);
+            ((OnCompleteListener<DataSnapshot>) args[0]).onComplete(getBasketItemTask);
             return null;
         });
 
-        doReturn(mockShoppingBasketDataTask).when(shopSyncsFirebaseReference)
-                .getShoppingBasketWithUid(TEST_SHOP_SYNC_UID, TEST_USER_UID);
+        Consumer<BasketItemModel> mockOnSuccess = mock(Consumer.class);
+        Consumer<ErrorHandle> mockOnFailure = mock(Consumer.class);
 
-        DataWrapper<String> shopSyncUidWrapper = new DataWrapper<>(null);
-        DataWrapper<ShoppingBasketModel> shoppingBasketWrapper = new DataWrapper<>(null);
-        doAnswer(invocation -> {
-            Object[] args = invocation.getArguments();
-            shopSyncUidWrapper.set((String) args[0]);
-            shoppingBasketWrapper.set((ShoppingBasketModel) args[1]);
-            return null;
-        }).when(shopSyncsFirebaseReference).updateShoppingBasket(any(), any());
+        // Act
+        shopSyncsFirebaseReference.addBasketItem(
+                TEST_SHOP_SYNC_UID, TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 2, 10.0,
+                mockOnSuccess, mockOnFailure);
 
-        ShoppingItemModel shoppingItem = new ShoppingItemModel(
-                TEST_SHOPPING_ITEM_UID, "Test Item", true);
+        // Assert
+        verify(mockOnSuccess, times(0)).accept(any(BasketItemModel.class));
+        verify(mockOnFailure).accept(any(ErrorHandle.class));
+        verify(mockRootReference, times(0)).updateChildren(anyMap());
+    }
 
-        DataSnapshot shoppingItemDataSnapshot = mock(DataSnapshot.class);
-        when(shoppingItemDataSnapshot.getValue(ShoppingItemModel.class)).thenReturn(shoppingItem);
+    @Test
+    public void testUpdateBasketItem() {
+        // Arrange
+        BasketItemModel updatedBasketItem = new BasketItemModel(
+                TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 3, 12.5);
 
-        Task<DataSnapshot> shoppingItemDataTask = mock(Task.class);
-        when(shoppingItemDataTask.isSuccessful()).thenReturn(true);
-        when(shoppingItemDataTask.getResult()).thenReturn(shoppingItemDataSnapshot);
-        when(shoppingItemDataTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
-            Object[] args = invocation.getArguments();
-            ((OnCompleteListener<DataSnapshot>) args[0]).onComplete(shoppingItemDataTask);
-            return null;
-        });
+        DatabaseReference mockBasketItemsCollection = mock(DatabaseReference.class);
+        doReturn(mockBasketItemsCollection).when(shopSyncsFirebaseReference)
+                .getBasketItemsCollection(TEST_SHOP_SYNC_UID, TEST_USER_UID);
+        when(mockBasketItemsCollection.updateChildren(anyMap())).thenReturn(mockVoidTask);
 
-        doReturn(shoppingItemDataTask).when(shopSyncsFirebaseReference).getShoppingItemWithUid(
-                TEST_SHOP_SYNC_UID, TEST_SHOPPING_ITEM_UID);
+        // Act
+        Task<Void> result = shopSyncsFirebaseReference.updateBasketItem(
+                TEST_SHOP_SYNC_UID, updatedBasketItem);
 
-        DataWrapper<ShoppingItemModel> shoppingItemDataWrapper = new DataWrapper<>(null);
-        doAnswer(invocation -> {
-            Object[] args = invocation.getArguments();
-            shoppingItemDataWrapper.set((ShoppingItemModel) args[1]);
-            return null;
-        }).when(shopSyncsFirebaseReference).updateShoppingItem(any(), any());
+        // Assert
+        assertNotNull(result);
+        Map<String, Object> expectedMap = Map.of("/" + TEST_SHOPPING_ITEM_UID,
+                                                 updatedBasketItem.toMap());
+        verify(mockBasketItemsCollection).updateChildren(expectedMap);
+        verify(shopSyncsFirebaseReference, times(0)).updateShoppingBasket(any(), any());
+    }
+
+    @Test
+
+    public void testDeleteBasketItem() {
+        // Arrange
+        DataWrapper<Map<String, Object>> childUpdatesWrapper = new DataWrapper<>(null);
+        when(mockRootReference.updateChildren(anyMap())).thenAnswer(invocation -> {
+            childUpdatesWrapper.set(invocation.getArgument(0));
+            return mockVoidTask;
+        });
 
         // Act
         shopSyncsFirebaseReference.deleteBasketItem(
                 TEST_SHOP_SYNC_UID, TEST_USER_UID, TEST_SHOPPING_ITEM_UID, null, true);
 
         // Assert
-        ShoppingBasketModel updatedShoppingBasket = shoppingBasketWrapper.get();
-        assertNotNull(updatedShoppingBasket);
-        assertTrue(basketItems.isEmpty());
+        verify(shopSyncsFirebaseReference, times(0)).getShoppingBasketWithUid(any(), any());
+        verify(shopSyncsFirebaseReference, times(0)).updateShoppingBasket(any(), any());
+
+        Map<String, Object> childUpdates = childUpdatesWrapper.get();
+        assertNotNull(childUpdates);
+        assertEquals(2, childUpdates.size());
+
+        String basketItemPath = SHOP_SYNC_PATH + "/" + SHOPPING_BASKETS_NESTED_COLLECTION + "/" +
+                TEST_USER_UID + "/" + BASKET_ITEMS_NESTED_COLLECTION + "/" + TEST_SHOPPING_ITEM_UID;
+        assertTrue(childUpdates.containsKey(basketItemPath));
+        assertNull(childUpdates.get(basketItemPath));
+
+        assertEquals(false, childUpdates.get(
+                SHOP_SYNC_PATH + "/" + SHOPPING_ITEMS_NESTED_COLLECTION + "/" + TEST_SHOPPING_ITEM_UID + "/" +
+                        IN_BASKET_FIELD));
+    }
+
+    @Test
+    public void testDeleteBasketItem_KeepInBasketStatus() {
+        // Arrange
+        DataWrapper<Map<String, Object>> childUpdatesWrapper = new DataWrapper<>(null);
+        when(mockRootReference.updateChildren(anyMap())).thenAnswer(invocation -> {
+            childUpdatesWrapper.set(invocation.getArgument(0));
+            return mockVoidTask;
+        });
 
-        ShoppingItemModel updatedShoppingItem = shoppingItemDataWrapper.get();
-        assertNotNull(updatedShoppingItem);
-        assertFalse(updatedShoppingItem.isInBasket());
+        // Act
+        shopSyncsFirebaseReference.deleteBasketItem(
+                TEST_SHOP_SYNC_UID, TEST_USER_UID, TEST_SHOPPING_ITEM_UID, null, false);
 
-        assertEquals(TEST_SHOP_SYNC_UID, shopSyncUidWrapper.get());
+        // Assert
+        Map<String, Object> childUpdates = childUpdatesWrapper.get();
+        assertNotNull(childUpdates);
+        assertEquals(1, childUpdates.size());
+        assertFalse(childUpdates.containsKey(
+                SHOP_SYNC_PATH + "/" + SHOPPING_ITEMS_NESTED_COLLECTION + "/" + TEST_SHOPPING_ITEM_UID + "/" +
+                        IN_BASKET_FIELD));
     }
 
 
@@ -623,7 +1226,7 @@ public class ShopSyncsFirebaseReferenceTest {
     public void testCheckIfPurchasedItemExistsForBasketItem() {
         // Arrange
         Query mockOrderByChildQuery = mock(Query.class);
-        when(mockPurchasedItemsCollection.orderByChild("basketItem/uid"))
+        when(mockPurchasedItemsCollection.orderByChild(PURCHASED_ITEM_BASKET_ITEM_UID_PATH))
                 .thenReturn(mockOrderByChildQuery);
 
         Query mockEqualToQuery = mock(Query.class);
@@ -645,7 +1248,7 @@ public class ShopSyncsFirebaseReferenceTest {
                 TEST_SHOP_SYNC_UID, TEST_PURCHASED_ITEM_UID, mockResultConsumer);
 
         // Assert
-        verify(mockPurchasedItemsCollection).orderByChild("basketItem/uid");
+        verify(mockPurchasedItemsCollection).orderByChild(PURCHASED_ITEM_BASKET_ITEM_UID_PATH);
         verify(mockResultConsumer).accept(false);
     }
 
@@ -654,7 +1257,7 @@ public class ShopSyncsFirebaseReferenceTest {
     public void testCheckIfPurchasedItemExistsForShoppingItem() {
         // Arrange
         Query mockOrderByChildQuery = mock(Query.class);
-        when(mockPurchasedItemsCollection.orderByChild("shoppingItem/uid"))
+        when(mockPurchasedItemsCollection.orderByChild(PURCHASED_ITEM_SHOPPING_ITEM_UID_PATH))
                 .thenReturn(mockOrderByChildQuery);
 
         Query mockEqualToQuery = mock(Query.class);
@@ -676,10 +1279,147 @@ public class ShopSyncsFirebaseReferenceTest {
                 TEST_SHOP_SYNC_UID, TEST_SHOPPING_ITEM_UID, mockResultConsumer);
 
         // Assert
-        verify(mockPurchasedItemsCollection).orderByChild("shoppingItem/uid");
+        verify(mockPurchasedItemsCollection).orderByChild(PURCHASED_ITEM_SHOPPING_ITEM_UID_PATH);
         verify(mockResultConsumer).accept(false);
     }
 
+    @Test
+    public void testAddPurchasedItem() {
+        // Arrange
+        ShoppingItemModel shoppingItem = new ShoppingItemModel(
+                TEST_SHOPPING_ITEM_UID, "Test Item", true);
+        BasketItemModel basketItem = new BasketItemModel(
+                TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 2, 10.0);
+
+        mockVersion(3L);
+        mockRead(mockShoppingItemChildReference, shoppingItem.toMap());
+        mockRead(mockBasketItemReference(), basketItem.toMap());
+
+        when(mockPurchasedItemsCollection.push()).thenReturn(mockNewEntryReference);
+        when(mockNewEntryReference.getKey()).thenReturn(TEST_PURCHASED_ITEM_UID);
+
+        DataWrapper<Map<String, Object>> childUpdatesWrapper = new DataWrapper<>(null);
+        when(mockRootReference.updateChildren(anyMap())).thenAnswer(invocation -> {
+            childUpdatesWrapper.set(invocation.getArgument(0));
+            return mockVoidTask;
+        });
+        when(mockVoidTask.isSuccessful()).thenReturn(true);
+        when(mockVoidTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            ((OnCompleteListener<Void>) args[0]).onComplete(mockVoidTask);
+            return null;
+        });
+
+        Consumer<PurchasedItemModel> mockResultConsumer = mock(Consumer.class);
+        Consumer<ErrorHandle> mockOnFailure = mock(Consumer.class);
+
+        // Act
+        shopSyncsFirebaseReference.addPurchasedItem(
+                TEST_SHOP_SYNC_UID, TEST_USER_UID, basketItem, "test@test.com",
+                mockResultConsumer, mockOnFailure);
+
+        // Assert
+        verify(mockRootReference, times(1)).updateChildren(anyMap());
+        verify(mockShoppingItemChildReference, times(0)).removeValue();
+        verify(mockResultConsumer).accept(any(PurchasedItemModel.class));
+        verify(mockOnFailure, times(0)).accept(any(ErrorHandle.class));
+
+        Map<String, Object> childUpdates = childUpdatesWrapper.get();
+        assertNotNull(childUpdates);
+        assertEquals(8, childUpdates.size());
+        assertEquals(4L, childUpdates.get(VERSION_PATH));
+
+        String shopSyncPath = SHOP_SYNC_PATH + "/";
+        String basketItemPath = shopSyncPath + SHOPPING_BASKETS_NESTED_COLLECTION + "/" +
+                TEST_USER_UID + "/" + BASKET_ITEMS_NESTED_COLLECTION + "/" + TEST_SHOPPING_ITEM_UID;
+        assertTrue(childUpdates.containsKey(basketItemPath));
+        assertNull(childUpdates.get(basketItemPath));
+
+        String shoppingItemPath = shopSyncPath + SHOPPING_ITEMS_NESTED_COLLECTION + "/" +
+                TEST_SHOPPING_ITEM_UID;
+        assertTrue(childUpdates.containsKey(shoppingItemPath));
+        assertNull(childUpdates.get(shoppingItemPath));
+
+        Map<String, Object> purchasedItemValues = (Map<String, Object>) childUpdates.get(
+                shopSyncPath + PURCHASED_ITEMS_NESTED_COLLECTION + "/" + TEST_PURCHASED_ITEM_UID);
+        assertNotNull(purchasedItemValues);
+        assertEquals(TEST_PURCHASED_ITEM_UID, purchasedItemValues.get("purchasedItemUid"));
+        assertEquals(basketItem.toMap(), purchasedItemValues.get("basketItem"));
+
+        assertEquals(ServerValue.increment(-1),
+                     childUpdates.get(SUMMARY_PATH + "/" + SHOPPING_ITEM_COUNT_FIELD));
+        assertEquals(ServerValue.increment(1),
+                     childUpdates.get(SUMMARY_PATH + "/" + PURCHASED_ITEM_COUNT_FIELD));
+        assertEquals(ServerValue.increment(20.0),
+                     childUpdates.get(SUMMARY_PATH + "/" + TOTAL_COST_FIELD));
+        assertEquals(ServerValue.increment(20.0),
+                     childUpdates.get(COSTS_PATH + "/" + TEST_USER_UID));
+    }
+
+    @Test
+    public void testAddPurchasedItem_WriteFails() {
+        // Arrange
+        ShoppingItemModel shoppingItem = new ShoppingItemModel(
+                TEST_SHOPPING_ITEM_UID, "Test Item", true);
+        BasketItemModel basketItem = new BasketItemModel(
+                TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 2, 10.0);
+
+        mockVersion(3L);
+        mockRead(mockShoppingItemChildReference, shoppingItem.toMap());
+        mockRead(mockBasketItemReference(), basketItem.toMap());
+
+        when(mockPurchasedItemsCollection.push()).thenReturn(mockNewEntryReference);
+        when(mockNewEntryReference.getKey()).thenReturn(TEST_PURCHASED_ITEM_UID);
+
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
+        when(mockVoidTask.isSuccessful()).thenReturn(false);
+        when(mockVoidTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            ((OnCompleteListener<Void>) args[0]).onComplete(mockVoidTask);
+            return null;
+        });
+
+        Consumer<PurchasedItemModel> mockResultConsumer = mock(Consumer.class);
+        Consumer<ErrorHandle> mockOnFailure = mock(Consumer.class);
+
+        // Act
+        shopSyncsFirebaseReference.addPurchasedItem(
+                TEST_SHOP_SYNC_UID, TEST_USER_UID, basketItem, "test@test.com",
+                mockResultConsumer, mockOnFailure);
+
+        // Assert
+        verify(mockResultConsumer, times(0)).accept(any(PurchasedItemModel.class));
+        verify(mockOnFailure).accept(any(ErrorHandle.class));
+    }
+
+    @Test
+    public void testAddPurchasedItem_AlreadyPurchased() {
+        // Arrange
+        BasketItemModel basketItem = new BasketItemModel(
+                TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 2, 10.0);
+
+        // another member purchased the shopping item first
+        mockVersion(3L);
+        mockRead(mockShoppingItemChildReference, null);
+        mockRead(mockBasketItemReference(), basketItem.toMap());
+
+        when(mockPurchasedItemsCollection.push()).thenReturn(mockNewEntryReference);
+        when(mockNewEntryReference.getKey()).thenReturn(TEST_PURCHASED_ITEM_UID);
+
+        Consumer<PurchasedItemModel> mockResultConsumer = mock(Consumer.class);
+        Consumer<ErrorHandle> mockOnFailure = mock(Consumer.class);
+
+        // Act
+        shopSyncsFirebaseReference.addPurchasedItem(
+                TEST_SHOP_SYNC_UID, TEST_USER_UID, basketItem, "test@test.com",
+                mockResultConsumer, mockOnFailure);
+
+        // Assert
+        verify(mockRootReference, never()).updateChildren(anyMap());
+        verify(mockResultConsumer, never()).accept(any(PurchasedItemModel.class));
+        verify(mockOnFailure).accept(any(ErrorHandle.class));
+    }
+
     @Test
     public void testGetPurchasedItemWithUid() {
         // Arrange
@@ -710,11 +1450,46 @@ public class ShopSyncsFirebaseReferenceTest {
         verify(mockPurchasedItemsCollection).get();
     }
 
+    @Test
+    public void testGetPurchasedItemsPage() {
+        // Arrange
+        Query mockOrderByKeyQuery = mock(Query.class);
+        Query mockEndBeforeQuery = mock(Query.class);
+        Query mockLimitQuery = mock(Query.class);
+        when(mockPurchasedItemsCollection.orderByKey()).thenReturn(mockOrderByKeyQuery);
+        when(mockOrderByKeyQuery.endBefore("purchase50")).thenReturn(mockEndBeforeQuery);
+        when(mockEndBeforeQuery.limitToLast(50)).thenReturn(mockLimitQuery);
+        when(mockLimitQuery.get()).thenReturn(mockDataTask);
+
+        // Act
+        Task<DataSnapshot> result = shopSyncsFirebaseReference.getPurchasedItemsPage(
+                TEST_SHOP_SYNC_UID, "purchase50", 50);
+
+        // Assert
+        assertEquals(mockDataTask, result);
+    }
+
+    @Test
+    public void testGetPurchasedItemsWindow_Unbounded() {
+        // Arrange
+        Query mockOrderByKeyQuery = mock(Query.class);
+        when(mockPurchasedItemsCollection.orderByKey()).thenReturn(mockOrderByKeyQuery);
+
+        // Act
+        Query result = shopSyncsFirebaseReference.getPurchasedItemsWindow(TEST_SHOP_SYNC_UID,
+                                                                          null, null);
+
+        // Assert
+        assertEquals(mockOrderByKeyQuery, result);
+        verify(mockOrderByKeyQuery, never()).startAt(anyString());
+        verify(mockOrderByKeyQuery, never()).endBefore(anyString());
+    }
+
     @Test
     public void testGetPurchasedItemsWithUserUid() {
         // Arrange
         Query mockOrderByChildQuery = mock(Query.class);
-        when(mockPurchasedItemsCollection.orderByChild(USER_UID_FIELD))
+        when(mockPurchasedItemsCollection.orderByChild(PURCHASED_ITEM_USER_UID_PATH))
                 .thenReturn(mockOrderByChildQuery);
 
         Query mockEqualToQuery = mock(Query.class);
@@ -728,7 +1503,7 @@ public class ShopSyncsFirebaseReferenceTest {
 
         // Assert
         assertNotNull(result);
-        verify(mockPurchasedItemsCollection).orderByChild(USER_UID_FIELD);
+        verify(mockPurchasedItemsCollection).orderByChild(PURCHASED_ITEM_USER_UID_PATH);
         verify(mockOrderByChildQuery).equalTo(TEST_USER_UID);
         verify(mockEqualToQuery).get();
         assertEquals(mockDataTask, result);
@@ -737,9 +1512,15 @@ public class ShopSyncsFirebaseReferenceTest {
     @Test
     public void testUpdatePurchasedItem() {
         // Arrange
+        PurchasedItemModel oldPurchasedItem = new PurchasedItemModel(
+                TEST_PURCHASED_ITEM_UID, null, null,
+                new BasketItemModel(TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 2, 10.0));
         PurchasedItemModel updatedPurchasedItem = new PurchasedItemModel(
-                TEST_PURCHASED_ITEM_UID, null, null, null);
-        when(mockPurchasedItemsCollection.updateChildren(anyMap())).thenReturn(mockVoidTask);
+                TEST_PURCHASED_ITEM_UID, null, null,
+                new BasketItemModel(TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 3, 10.0));
+        mockVersion(3L);
+        mockRead(mockPurchasedItemChildReference, oldPurchasedItem.toMap());
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
 
         // Act
         Task<Void> result = shopSyncsFirebaseReference.updatePurchasedItem(
@@ -747,15 +1528,87 @@ public class ShopSyncsFirebaseReferenceTest {
 
         // Assert
         assertNotNull(result);
-        Map<String, Object> expectedMap = Map.of("/" + TEST_PURCHASED_ITEM_UID,
-                                                 updatedPurchasedItem.toMap());
-        verify(mockPurchasedItemsCollection).updateChildren(expectedMap);
+        Map<String, Object> expectedMap = Map.of(
+                PURCHASED_ITEM_PATH, updatedPurchasedItem.toMap(),
+                SUMMARY_PATH + "/" + TOTAL_COST_FIELD, ServerValue.increment(10.0),
+                COSTS_PATH + "/" + TEST_USER_UID, ServerValue.increment(10.0),
+                VERSION_PATH, 4L);
+        verify(mockRootReference).updateChildren(expectedMap);
+        verify(mockPurchasedItemsCollection, times(0)).updateChildren(anyMap());
+    }
+
+    @Test
+    public void testUpdatePurchasedItem_PurchaserChanged() {
+        // Arrange
+        PurchasedItemModel oldPurchasedItem = new PurchasedItemModel(
+                TEST_PURCHASED_ITEM_UID, null, null,
+                new BasketItemModel(TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 2, 10.0));
+        PurchasedItemModel updatedPurchasedItem = new PurchasedItemModel(
+                TEST_PURCHASED_ITEM_UID, null, null,
+                new BasketItemModel("otherUserUid", TEST_SHOPPING_ITEM_UID, 2, 10.0));
+        mockVersion(3L);
+        mockRead(mockPurchasedItemChildReference, oldPurchasedItem.toMap());
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
+
+        // Act
+        shopSyncsFirebaseReference.updatePurchasedItem(TEST_SHOP_SYNC_UID, updatedPurchasedItem);
+
+        // Assert
+        Map<String, Object> expectedMap = Map.of(
+                PURCHASED_ITEM_PATH, updatedPurchasedItem.toMap(),
+                SUMMARY_PATH + "/" + TOTAL_COST_FIELD, ServerValue.increment(0.0),
+                COSTS_PATH + "/" + TEST_USER_UID, ServerValue.increment(-20.0),
+                COSTS_PATH + "/otherUserUid", ServerValue.increment(20.0),
+                VERSION_PATH, 4L);
+        verify(mockRootReference).updateChildren(expectedMap);
+    }
+
+    @Test
+    public void testUpdatePurchasedItem_RejectedUpdateRetried() {
+        // Arrange
+        PurchasedItemModel concurrentPurchasedItem = new PurchasedItemModel(
+                TEST_PURCHASED_ITEM_UID, null, null,
+                new BasketItemModel(TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 4, 10.0));
+        PurchasedItemModel updatedPurchasedItem = new PurchasedItemModel(
+                TEST_PURCHASED_ITEM_UID, null, null,
+                new BasketItemModel(TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 3, 10.0));
+
+        // the first attempt reads the stale cache and is rejected, since another client bumped
+        // the version; the second attempt reads the concurrent edit on the server
+        mockVersion(3L, 4L);
+        mockRead(mockPurchasedItemChildReference, null, concurrentPurchasedItem.toMap());
+        Task<Void> rejectedTask = mockCompletedTask(false, null);
+        Task<Void> writtenTask = mockCompletedTask(true, null);
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(rejectedTask, writtenTask);
+
+        // Act
+        Task<Void> result = shopSyncsFirebaseReference.updatePurchasedItem(TEST_SHOP_SYNC_UID,
+                                                                           updatedPurchasedItem);
+
+        // Assert
+        assertNotNull(result);
+        verify(mockRootReference).updateChildren(Map.of(
+                PURCHASED_ITEM_PATH, updatedPurchasedItem.toMap(),
+                SUMMARY_PATH + "/" + PURCHASED_ITEM_COUNT_FIELD, ServerValue.increment(1),
+                SUMMARY_PATH + "/" + TOTAL_COST_FIELD, ServerValue.increment(30.0),
+                COSTS_PATH + "/" + TEST_USER_UID, ServerValue.increment(30.0),
+                VERSION_PATH, 4L));
+        verify(mockRootReference).updateChildren(Map.of(
+                PURCHASED_ITEM_PATH, updatedPurchasedItem.toMap(),
+                SUMMARY_PATH + "/" + TOTAL_COST_FIELD, ServerValue.increment(-10.0),
+                COSTS_PATH + "/" + TEST_USER_UID, ServerValue.increment(-10.0),
+                VERSION_PATH, 5L));
     }
 
     @Test
     public void testDeletePurchasedItem() {
         // Arrange
-        when(mockPurchasedItemChildReference.removeValue()).thenReturn(mockVoidTask);
+        PurchasedItemModel purchasedItem = new PurchasedItemModel(
+                TEST_PURCHASED_ITEM_UID, null, null,
+                new BasketItemModel(TEST_USER_UID, TEST_SHOPPING_ITEM_UID, 2, 10.0));
+        mockVersion(3L);
+        mockRead(mockPurchasedItemChildReference, purchasedItem.toMap());
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
 
         // Act
         Task<Void> result = shopSyncsFirebaseReference.deletePurchasedItem(
@@ -763,21 +1616,152 @@ public class ShopSyncsFirebaseReferenceTest {
 
         // Assert
         assertNotNull(result);
-        verify(mockPurchasedItemsCollection).child(TEST_PURCHASED_ITEM_UID);
-        verify(mockPurchasedItemChildReference).removeValue();
+        Map<String, Object> expectedMap = new HashMap<>();
+        expectedMap.put(PURCHASED_ITEM_PATH, null);
+        expectedMap.put(VERSION_PATH, 4L);
+        expectedMap.put(SUMMARY_PATH + "/" + PURCHASED_ITEM_COUNT_FIELD, ServerValue.increment(-1));
+        expectedMap.put(SUMMARY_PATH + "/" + TOTAL_COST_FIELD, ServerValue.increment(-20.0));
+        expectedMap.put(COSTS_PATH + "/" + TEST_USER_UID, ServerValue.increment(-20.0));
+        verify(mockRootReference).updateChildren(expectedMap);
+        verify(mockPurchasedItemChildReference, times(0)).removeValue();
+    }
+
+    @Test
+    public void testDeletePurchasedItem_AlreadyDeleted() {
+        // Arrange
+        mockVersion(3L);
+        mockRead(mockPurchasedItemChildReference, null);
+
+        // Act
+        shopSyncsFirebaseReference.deletePurchasedItem(TEST_SHOP_SYNC_UID,
+                                                       TEST_PURCHASED_ITEM_UID);
+
+        // Assert
+        verify(mockRootReference, never()).updateChildren(anyMap());
     }
 
     @Test
     public void testDeleteAllPurchasedItems() {
         // Arrange
-        when(mockPurchasedItemsCollection.removeValue()).thenReturn(mockVoidTask);
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(mockVoidTask);
 
         // Act
         Task<Void> result = shopSyncsFirebaseReference.deleteAllPurchasedItems(TEST_SHOP_SYNC_UID);
 
         // Assert
         assertNotNull(result);
-        verify(mockPurchasedItemsCollection).removeValue();
+        Map<String, Object> expectedMap = new HashMap<>();
+        expectedMap.put(SHOP_SYNC_PATH + "/" + PURCHASED_ITEMS_NESTED_COLLECTION, null);
+        expectedMap.put(SUMMARY_PATH + "/" + PURCHASED_ITEM_COUNT_FIELD, 0);
+        expectedMap.put(SUMMARY_PATH + "/" + TOTAL_COST_FIELD, 0);
+        expectedMap.put(COSTS_PATH, Map.of(COSTS_BACKFILLED_FIELD, true));
+        verify(mockRootReference).updateChildren(expectedMap);
+        verify(mockPurchasedItemsCollection, times(0)).removeValue();
+    }
+
+    private ShopSyncModel newPopulatedShopSync() {
+        BasketItemModel basketItem = new BasketItemModel(TEST_USER_UID, TEST_SHOPPING_ITEM_UID,
+                                                         2, 10.0);
+        Map<String, BasketItemModel> basketItems = new HashMap<>();
+        basketItems.put(TEST_SHOPPING_ITEM_UID, basketItem);
+        Map<String, ShoppingBasketModel> shoppingBaskets = new HashMap<>();
+        shoppingBaskets.put(TEST_USER_UID, new ShoppingBasketModel(TEST_USER_UID, basketItems));
+        Map<String, ShoppingItemModel> shoppingItems = new HashMap<>();
+        shoppingItems.put(TEST_SHOPPING_ITEM_UID,
+                          new ShoppingItemModel(TEST_SHOPPING_ITEM_UID, "Item", true));
+        Map<String, PurchasedItemModel> purchasedItems = new HashMap<>();
+        purchasedItems.put(TEST_PURCHASED_ITEM_UID, new PurchasedItemModel(
+                TEST_PURCHASED_ITEM_UID, null, null,
+                new BasketItemModel(TEST_USER_UID, "otherItemUid", 1, 2.5)));
+        return new ShopSyncModel(TEST_SHOP_SYNC_UID, TEST_NAME, TEST_DESCRIPTION, shoppingItems,
+                                 shoppingBaskets, purchasedItems);
+    }
+
+    /**
+     * Returns the reference to the basket item of the test shopping item in the shopping basket
+     * of the test user.
+     *
+     * @return the reference to the basket item
+     */
+    private DatabaseReference mockBasketItemReference() {
+        DatabaseReference basketItemsCollection = mock(DatabaseReference.class);
+        when(mockShoppingBasketChildReference.child(BASKET_ITEMS_NESTED_COLLECTION))
+                .thenReturn(basketItemsCollection);
+        DatabaseReference basketItemReference = mock(DatabaseReference.class);
+        when(basketItemsCollection.child(TEST_SHOPPING_ITEM_UID)).thenReturn(basketItemReference);
+        return basketItemReference;
+    }
+
+    /**
+     * Makes the version of the test shop sync read as the given value, and as the later values on
+     * the reads after the first.
+     *
+     * @param version       the version, or null if the shop sync has none yet
+     * @param laterVersions the versions of the later reads
+     */
+    private void mockVersion(Long version, Long... laterVersions) {
+        DatabaseReference versionReference = mock(DatabaseReference.class);
+        when(mockShopSyncChildReference.child(VERSION_FIELD)).thenReturn(versionReference);
+
+        DataSnapshot versionSnapshot = mock(DataSnapshot.class);
+        when(versionSnapshot.getValue(Long.class)).thenReturn(version, laterVersions);
+        Task<DataSnapshot> versionTask = mockCompletedTask(true, versionSnapshot);
+        when(versionReference.get()).thenReturn(versionTask);
+    }
+
+    /**
+     * Makes the node of the reference read as the given value, and as the later values on the
+     * reads after the first.
+     *
+     * @param reference   the reference to the node
+     * @param value       the value of the node, or null if it does not exist
+     * @param laterValues the values of the later reads
+     */
+    private static void mockRead(DatabaseReference reference, Object value,
+                                 Object... laterValues) {
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getValue()).thenReturn(value, laterValues);
+        Task<DataSnapshot> task = mockCompletedTask(true, snapshot);
+        when(reference.get()).thenReturn(task);
+    }
+
+    /**
+     * Returns a task that has completed and calls its complete listeners at once.
+     *
+     * @param successful if the task was successful
+     * @param result     the result of the task
+     * @return the task
+     */
+    private static <T> Task<T> mockCompletedTask(boolean successful, T result) {
+        Task<T> task = mock(Task.class);
+        when(task.isSuccessful()).thenReturn(successful);
+        if (successful) {
+            when(task.getResult()).thenReturn(result);
+        }
+        when(task.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            ((OnCompleteListener<T>) invocation.getArgument(0)).onComplete(task);
+            return task;
+        });
+        return task;
+    }
+
+    /**
+     * Makes a transaction on the reference run once with the given current value and commit.
+     *
+     * @param reference    the reference that the transaction runs on
+     * @param currentValue the current value of the node, or null if it does not exist
+     * @return the data that the transaction changes
+     */
+    private static MutableData mockTransaction(DatabaseReference reference, Object currentValue) {
+        MutableData currentData = mock(MutableData.class);
+        when(currentData.getValue()).thenReturn(currentValue);
+        doAnswer(invocation -> {
+            Transaction.Handler handler = invocation.getArgument(0);
+            handler.doTransaction(currentData);
+            handler.onComplete(null, true, null);
+            return null;
+        }).when(reference).runTransaction(any(Transaction.Handler.class));
+        return currentData;
     }
 }
 
@@ -5,9 +5,9 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
-import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -20,7 +20,9 @@ import com.google.firebase.database.DatabaseReference;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import edu.uga.cs.shopsync.utils.DataWrapper;
 
@@ -33,16 +35,19 @@ public class UserShopSyncMapFirebaseReferenceTest {
     private UserShopSyncMapFirebaseReference firebaseReference;
     private DatabaseReference mockUserToShopSyncsMapReference;
     private DatabaseReference mockShopSyncToUsersMapReference;
+    private DatabaseReference mockRootReference;
 
     @Before
     public void setUp() {
         // mocks
         mockUserToShopSyncsMapReference = mock(DatabaseReference.class);
         mockShopSyncToUsersMapReference = mock(DatabaseReference.class);
+        mockRootReference = mock(DatabaseReference.class);
 
         // spies
         firebaseReference = spy(new UserShopSyncMapFirebaseReference(
-                mockUserToShopSyncsMapReference, mockShopSyncToUsersMapReference));
+                mockUserToShopSyncsMapReference, mockShopSyncToUsersMapReference,
+                mockRootReference));
     }
 
     @Test
@@ -172,31 +177,17 @@ public class UserShopSyncMapFirebaseReferenceTest {
 
         when(mockDataTask.getResult()).thenReturn(mockDataSnapshot);
 
-        DataWrapper<String> userUidWrapper = new DataWrapper<>(null);
-        DataWrapper<String> shopSyncUidWrapper = new DataWrapper<>(null);
-        doAnswer(invocation -> {
-            Object[] args = invocation.getArguments();
-            userUidWrapper.set((String) args[0]);
-            shopSyncUidWrapper.set((String) args[1]);
-            return null;
-        }).when(firebaseReference).removeUserShopSyncMapping(TEST_USER_UID, TEST_SHOP_SYNC_UID);
-
-        DatabaseReference userShopSyncRef = mock(DatabaseReference.class);
-        when(mockUserToShopSyncsMapReference.child(TEST_USER_UID)).thenReturn(userShopSyncRef);
-        when(userShopSyncRef.removeValue()).thenReturn(null);
-
         // Act
         firebaseReference.removeUser(TEST_USER_UID);
 
         // Assert
-        verify(firebaseReference).removeUserShopSyncMapping(TEST_USER_UID, TEST_SHOP_SYNC_UID);
-        String userUid = userUidWrapper.get();
-        assertNotNull(userUid);
-        assertSame(TEST_USER_UID, userUid);
-        String shopSyncUid = shopSyncUidWrapper.get();
-        assertNotNull(shopSyncUid);
-        assertSame(TEST_SHOP_SYNC_UID, shopSyncUid);
-        verify(userShopSyncRef).removeValue();
+        Map<String, Object> expectedUpdates = new HashMap<>();
+        expectedUpdates.put(UserShopSyncMapFirebaseReference.shopSyncToUserPath(
+                TEST_SHOP_SYNC_UID, TEST_USER_UID), null);
+        expectedUpdates.put("/" + UserShopSyncMapFirebaseReference.USER_TO_SHOP_SYNCS_MAP + "/" +
+                                    TEST_USER_UID, null);
+        verify(mockRootReference).updateChildren(expectedUpdates);
+        verify(firebaseReference, never()).removeUserShopSyncMapping(any(), any());
     }
 
     @Test
@@ -222,31 +213,17 @@ public class UserShopSyncMapFirebaseReferenceTest {
 
         when(mockDataTask.getResult()).thenReturn(mockDataSnapshot);
 
-        DataWrapper<String> userUidWrapper = new DataWrapper<>(null);
-        DataWrapper<String> shopSyncUidWrapper = new DataWrapper<>(null);
-        doAnswer(invocation -> {
-            Object[] args = invocation.getArguments();
-            userUidWrapper.set((String) args[0]);
-            shopSyncUidWrapper.set((String) args[1]);
-            return null;
-        }).when(firebaseReference).removeUserShopSyncMapping(TEST_USER_UID, TEST_SHOP_SYNC_UID);
-
-        DatabaseReference shopSyncUsersRef = mock(DatabaseReference.class);
-        when(mockShopSyncToUsersMapReference.child(TEST_SHOP_SYNC_UID)).thenReturn(shopSyncUsersRef);
-        when(shopSyncUsersRef.removeValue()).thenReturn(null);
-
         // Act
         firebaseReference.removeShopSync(TEST_SHOP_SYNC_UID);
 
         // Assert
-        verify(firebaseReference).removeUserShopSyncMapping(TEST_USER_UID, TEST_SHOP_SYNC_UID);
-        String userUid = userUidWrapper.get();
-        assertNotNull(userUid);
-        assertSame(TEST_USER_UID, userUid);
-        String shopSyncUid = shopSyncUidWrapper.get();
-        assertNotNull(shopSyncUid);
-        assertSame(TEST_SHOP_SYNC_UID, shopSyncUid);
-        verify(shopSyncUsersRef).removeValue();
+        Map<String, Object> expectedUpdates = new HashMap<>();
+        expectedUpdates.put(UserShopSyncMapFirebaseReference.userToShopSyncPath(
+                TEST_USER_UID, TEST_SHOP_SYNC_UID), null);
+        expectedUpdates.put("/" + UserShopSyncMapFirebaseReference.SHOP_SYNC_TO_USERS_MAP + "/" +
+                                    TEST_SHOP_SYNC_UID, null);
+        verify(mockRootReference).updateChildren(expectedUpdates);
+        verify(firebaseReference, never()).removeUserShopSyncMapping(any(), any());
     }
 
 
@@ -9,12 +9,16 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static edu.uga.cs.shopsync.backend.firebase.UsersFirebaseReference.EMAIL_INDEX_COLLECTION;
 import static edu.uga.cs.shopsync.backend.firebase.UsersFirebaseReference.USER_EMAIL_FIELD;
+import static edu.uga.cs.shopsync.backend.firebase.UsersFirebaseReference.USER_PROFILES_COLLECTION;
 
 import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.auth.AuthCredential;
 import com.google.firebase.auth.AuthResult;
@@ -30,6 +34,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.List;
+import java.util.Map;
+
 import edu.uga.cs.shopsync.backend.models.UserProfileModel;
 import edu.uga.cs.shopsync.utils.DataWrapper;
 import edu.uga.cs.shopsync.utils.ErrorHandle;
@@ -41,12 +48,15 @@ public class UsersFirebaseReferenceTest {
 
     private static final String TEST_UID = "testUid";
     private static final String TEST_EMAIL = "test@email.com";
+    private static final String TEST_EMAIL_KEY = "test@email%2Ecom";
     private static final String TEST_USERNAME = "testUser";
     private static final String TEST_PASSWORD = "Password123!";
     private static final String TEST_NEW_PASSWORD = "NewPassword123!";
 
     private FirebaseAuth mockFirebaseAuth;
+    private DatabaseReference mockRootReference;
     private DatabaseReference mockUsersCollection;
+    private DatabaseReference mockEmailIndexCollection;
     private FirebaseUser mockFirebaseUser;
     private Task<AuthResult> mockAuthTask;
     private Task<DataSnapshot> mockDataTask;
@@ -60,7 +70,9 @@ public class UsersFirebaseReferenceTest {
     public void setUp() {
         // mocks
         mockFirebaseAuth = mock(FirebaseAuth.class);
+        mockRootReference = mock(DatabaseReference.class);
         mockUsersCollection = mock(DatabaseReference.class);
+        mockEmailIndexCollection = mock(DatabaseReference.class);
         mockFirebaseUser = mock(FirebaseUser.class);
         mockAuthTask = mock(Task.class);
         mockDataTask = mock(Task.class);
@@ -69,7 +81,9 @@ public class UsersFirebaseReferenceTest {
 
         // spies
         usersFirebaseReference = spy(new UsersFirebaseReference(mockFirebaseAuth,
-                                                                mockUsersCollection));
+                                                                mockRootReference,
+                                                                mockUsersCollection,
+                                                                mockEmailIndexCollection));
     }
 
     @Test
@@ -105,6 +119,9 @@ public class UsersFirebaseReferenceTest {
         assertEquals(TEST_UID, userUid);
         assertEquals(TEST_EMAIL, userProfile.getEmail());
         assertEquals(TEST_USERNAME, userProfile.getUsername());
+        verify(mockRootReference).updateChildren(Map.of(
+                "/" + USER_PROFILES_COLLECTION + "/" + TEST_UID, userProfile,
+                "/" + EMAIL_INDEX_COLLECTION + "/" + TEST_EMAIL_KEY, TEST_UID));
         Boolean onSuccessResult = onSuccessCalled.get();
         assertNotNull(onSuccessResult);
         assertTrue(onSuccessResult);
@@ -194,6 +211,29 @@ public class UsersFirebaseReferenceTest {
         assertTrue(result.isSuccessful());
     }
 
+    @Test
+    public void testSignInUser_Success_IndexesOwnEmail() {
+        // Arrange
+        when(mockFirebaseAuth.signInWithEmailAndPassword(TEST_EMAIL, TEST_PASSWORD))
+                .thenReturn(mockAuthTask);
+        when(mockAuthTask.addOnSuccessListener(any())).thenAnswer(invocation -> {
+            ((OnSuccessListener<AuthResult>) invocation.getArgument(0)).onSuccess(null);
+            return mockAuthTask;
+        });
+        when(mockFirebaseAuth.getCurrentUser()).thenReturn(mockFirebaseUser);
+        when(mockFirebaseUser.getUid()).thenReturn(TEST_UID);
+        when(mockFirebaseUser.getEmail()).thenReturn(TEST_EMAIL);
+
+        DatabaseReference mockEmailIndexEntry = mock(DatabaseReference.class);
+        when(mockEmailIndexCollection.child(TEST_EMAIL_KEY)).thenReturn(mockEmailIndexEntry);
+
+        // Act
+        usersFirebaseReference.signInUser(TEST_EMAIL, TEST_PASSWORD);
+
+        // Assert
+        verify(mockEmailIndexEntry).setValue(TEST_UID);
+    }
+
     @Test
     public void testSignInUser_Failure() {
         // Arrange
@@ -269,6 +309,113 @@ public class UsersFirebaseReferenceTest {
         verify(mockQuery).equalTo(TEST_EMAIL);
     }
 
+    @Test
+    public void testNormalizeEmail() {
+        // Act
+        String key = UsersFirebaseReference.normalizeEmail("  First.Last#1@Example.COM ");
+
+        // Assert
+        assertEquals("first%2Elast%231@example%2Ecom", key);
+    }
+
+    @Test
+    public void testGetUserUidWithEmail() {
+        // Arrange
+        DatabaseReference mockEmailIndexEntry = mock(DatabaseReference.class);
+        when(mockEmailIndexCollection.child(TEST_EMAIL_KEY)).thenReturn(mockEmailIndexEntry);
+        when(mockEmailIndexEntry.get()).thenReturn(mockDataTask);
+
+        // Act
+        Task<DataSnapshot> result = usersFirebaseReference.getUserUidWithEmail(TEST_EMAIL);
+
+        // Assert
+        assertEquals(mockDataTask, result);
+        verify(mockEmailIndexCollection).child(TEST_EMAIL_KEY);
+    }
+
+    @Test
+    public void testResolveEmails_IndexedEmails() {
+        // Arrange
+        String otherEmail = "other@email.com";
+        doReturn(mockCompletedTask(mockUidSnapshot(TEST_UID))).when(usersFirebaseReference)
+                .getUserUidWithEmail(TEST_EMAIL);
+        doReturn(mockCompletedTask(mockUidSnapshot("otherUid"))).when(usersFirebaseReference)
+                .getUserUidWithEmail(otherEmail);
+
+        DataWrapper<Map<String, String>> result = new DataWrapper<>();
+        DataWrapper<ErrorHandle> error = new DataWrapper<>();
+
+        // Act
+        usersFirebaseReference.resolveEmails(List.of(TEST_EMAIL, otherEmail, TEST_EMAIL),
+                                             result::set, error::set);
+
+        // Assert
+        assertEquals(Map.of(TEST_EMAIL, TEST_UID, otherEmail, "otherUid"), result.get());
+        assertNull(error.get());
+        verify(usersFirebaseReference, never()).getUserProfileWithEmail(any());
+    }
+
+    @Test
+    public void testResolveEmails_UnindexedEmail_FallsBackToProfiles() {
+        // Arrange
+        doReturn(mockCompletedTask(mockUidSnapshot(null))).when(usersFirebaseReference)
+                .getUserUidWithEmail(TEST_EMAIL);
+
+        DataSnapshot profile = mock(DataSnapshot.class);
+        when(profile.getKey()).thenReturn(TEST_UID);
+        DataSnapshot profiles = mock(DataSnapshot.class);
+        when(profiles.getChildren()).thenReturn(List.of(profile));
+        doReturn(mockCompletedTask(profiles)).when(usersFirebaseReference)
+                .getUserProfileWithEmail(TEST_EMAIL);
+
+        DataWrapper<Map<String, String>> result = new DataWrapper<>();
+
+        // Act
+        usersFirebaseReference.resolveEmails(List.of(TEST_EMAIL), result::set, null);
+
+        // Assert
+        assertEquals(Map.of(TEST_EMAIL, TEST_UID), result.get());
+        verify(mockEmailIndexCollection, never()).child(any());
+    }
+
+    @Test
+    public void testResolveEmails_UnknownEmail_IsLeftOut() {
+        // Arrange
+        doReturn(mockCompletedTask(mockUidSnapshot(null))).when(usersFirebaseReference)
+                .getUserUidWithEmail(TEST_EMAIL);
+        DataSnapshot profiles = mock(DataSnapshot.class);
+        when(profiles.getChildren()).thenReturn(List.of());
+        doReturn(mockCompletedTask(profiles)).when(usersFirebaseReference)
+                .getUserProfileWithEmail(TEST_EMAIL);
+
+        DataWrapper<Map<String, String>> result = new DataWrapper<>();
+
+        // Act
+        usersFirebaseReference.resolveEmails(List.of(TEST_EMAIL), result::set, null);
+
+        // Assert
+        assertNotNull(result.get());
+        assertTrue(result.get().isEmpty());
+    }
+
+    @Test
+    public void testResolveEmails_Failure() {
+        // Arrange
+        doReturn(mockCompletedTask(null)).when(usersFirebaseReference)
+                .getUserUidWithEmail(TEST_EMAIL);
+
+        DataWrapper<Map<String, String>> result = new DataWrapper<>();
+        DataWrapper<ErrorHandle> error = new DataWrapper<>();
+
+        // Act
+        usersFirebaseReference.resolveEmails(List.of(TEST_EMAIL), result::set, error::set);
+
+        // Assert
+        assertNull(result.get());
+        assertNotNull(error.get());
+        assertEquals(ErrorType.TASK_FAILED, error.get().errorType());
+    }
+
 
     @Test
     public void testUpdateUserProfile() {
@@ -347,6 +494,8 @@ public class UsersFirebaseReferenceTest {
         DatabaseReference userRef = mock(DatabaseReference.class);
         when(mockUsersCollection.child(TEST_UID)).thenReturn(userRef);
         when(userRef.removeValue()).thenReturn(mockVoidTask);
+        DatabaseReference emailIndexEntry = mock(DatabaseReference.class);
+        when(mockEmailIndexCollection.child(TEST_EMAIL_KEY)).thenReturn(emailIndexEntry);
 
         DataWrapper<Boolean> successful = new DataWrapper<>(false);
         DataWrapper<Boolean> failure = new DataWrapper<>(false);
@@ -360,6 +509,7 @@ public class UsersFirebaseReferenceTest {
         // Assert
         assertEquals(TEST_UID, result);
         verify(userRef).removeValue();
+        verify(emailIndexEntry).removeValue();
         Boolean successfulResult = successful.get();
         assertNotNull(successfulResult);
         assertTrue(successfulResult);
@@ -438,7 +588,7 @@ public class UsersFirebaseReferenceTest {
 
     
     private void setUpTaskGetUserProfileWithEmail(boolean existsValue, boolean successfulValue) {
-        doReturn(mockDataTask).when(usersFirebaseReference).getUserProfileWithEmail(any());
+        doReturn(mockDataTask).when(usersFirebaseReference).getUserUidWithEmail(any());
         when(mockDataTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
             Object[] args = invocation.getArguments();
             ((OnCompleteListener<DataSnapshot>) args[0]).onComplete(mockDataTask);
@@ -466,13 +616,36 @@ public class UsersFirebaseReferenceTest {
     }
 
     private void setUpInsertUserIntoDatabase(DataWrapper<UserProfileModel> userProfileDataWrapper) {
-        DatabaseReference childUserCollection = mock(DatabaseReference.class);
-        when(mockUsersCollection.child(any())).thenReturn(childUserCollection);
-        when(childUserCollection.setValue(any())).thenAnswer(invocation -> {
-            Object[] args = invocation.getArguments();
-            userProfileDataWrapper.set((UserProfileModel) args[0]);
-            return null;
+        when(mockRootReference.updateChildren(any())).thenAnswer(invocation -> {
+            Map<String, Object> childUpdates = invocation.getArgument(0);
+            userProfileDataWrapper.set((UserProfileModel) childUpdates.get(
+                    "/" + USER_PROFILES_COLLECTION + "/" + TEST_UID));
+            return mockVoidTask;
         });
+        when(mockVoidTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            ((OnCompleteListener<Void>) invocation.getArgument(0)).onComplete(mockVoidTask);
+            return mockVoidTask;
+        });
+        when(mockVoidTask.isSuccessful()).thenReturn(true);
+    }
+
+    private Task<DataSnapshot> mockCompletedTask(DataSnapshot result) {
+        Task<DataSnapshot> task = mock(Task.class);
+        when(task.isSuccessful()).thenReturn(result != null);
+        if (result != null) {
+            when(task.getResult()).thenReturn(result);
+        }
+        when(task.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            ((OnCompleteListener<DataSnapshot>) invocation.getArgument(0)).onComplete(task);
+            return task;
+        });
+        return task;
+    }
+
+    private DataSnapshot mockUidSnapshot(String userUid) {
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getValue(String.class)).thenReturn(userUid);
+        return snapshot;
     }
 
 }
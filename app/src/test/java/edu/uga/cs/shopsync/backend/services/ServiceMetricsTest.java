@@ -0,0 +1,171 @@
+package edu.uga.cs.shopsync.backend.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.DataSnapshot;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import edu.uga.cs.shopsync.utils.ErrorHandle;
+import edu.uga.cs.shopsync.utils.ErrorType;
+import edu.uga.cs.shopsync.utils.Histogram;
+
+@SuppressWarnings("unchecked")
+public class ServiceMetricsTest {
+
+    private AtomicLong nanos;
+    private ServiceMetrics serviceMetrics;
+
+    @Before
+    public void setUp() {
+        nanos = new AtomicLong();
+        serviceMetrics = new ServiceMetrics(nanos::get, 2);
+    }
+
+    @Test
+    public void testRecordOnSuccess() {
+        // Arrange
+        Consumer<String> onSuccess = mock(Consumer.class);
+        long startTime = serviceMetrics.startTime();
+
+        // Act
+        Consumer<String> recordingOnSuccess =
+                serviceMetrics.recordOnSuccess("operation", startTime, onSuccess);
+        nanos.set(5_000_000);
+        recordingOnSuccess.accept("value");
+
+        // Assert
+        verify(onSuccess).accept("value");
+        Histogram.Snapshot latency = serviceMetrics.getLatencyMicros("operation");
+        assertEquals(1, latency.count());
+        assertEquals(5000, latency.p50());
+    }
+
+    @Test
+    public void testRecordOnSuccess_PayloadIsSampled() {
+        // Arrange
+        Map<String, Object> value = Map.of("name", "Item");
+        Consumer<Map<String, Object>> recordingOnSuccess = serviceMetrics.recordOnSuccess(
+                "operation", serviceMetrics.startTime(), null, map -> map);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            recordingOnSuccess.accept(value);
+        }
+
+        // Assert
+        assertEquals(4, serviceMetrics.getLatencyMicros("operation").count());
+        Histogram.Snapshot payload = serviceMetrics.getPayloadBytes("operation");
+        assertEquals(2, payload.count());
+        assertEquals(16, payload.max());
+    }
+
+    @Test
+    public void testRecordOnFailure() {
+        // Arrange
+        Consumer<ErrorHandle> onFailure = mock(Consumer.class);
+        ErrorHandle errorHandle = new ErrorHandle(ErrorType.TIMED_OUT, "timed out");
+
+        // Act
+        Consumer<ErrorHandle> recordingOnFailure =
+                serviceMetrics.recordOnFailure("operation", onFailure);
+        recordingOnFailure.accept(errorHandle);
+        recordingOnFailure.accept(errorHandle);
+
+        // Assert
+        verify(onFailure, times(2)).accept(errorHandle);
+        assertEquals(2, serviceMetrics.getErrorCount("operation", ErrorType.TIMED_OUT));
+        assertEquals(0, serviceMetrics.getErrorCount("operation", ErrorType.TASK_FAILED));
+        assertEquals(0, serviceMetrics.getLatencyMicros("operation").count());
+    }
+
+    @Test
+    public void testRecordTask() {
+        // Arrange
+        Task<DataSnapshot> succeeded = mockCompletedTask(true, mock(DataSnapshot.class));
+        Task<DataSnapshot> failed = mockCompletedTask(false, null);
+
+        // Act
+        Task<DataSnapshot> result = serviceMetrics.recordTask("operation", succeeded);
+        serviceMetrics.recordTask("operation", failed);
+
+        // Assert
+        assertSame(succeeded, result);
+        assertEquals(1, serviceMetrics.getLatencyMicros("operation").count());
+        assertEquals(1, serviceMetrics.getErrorCount("operation", ErrorType.TASK_FAILED));
+    }
+
+    @Test
+    public void testEstimatePayloadSize() {
+        // Act & Assert
+        assertEquals(4, ServiceMetrics.estimatePayloadSize(null));
+        assertEquals(6, ServiceMetrics.estimatePayloadSize("Item"));
+        assertEquals(3, ServiceMetrics.estimatePayloadSize(2.5));
+        assertEquals(16, ServiceMetrics.estimatePayloadSize(Map.of("name", "Item")));
+        assertEquals(6, ServiceMetrics.estimatePayloadSize(List.of(1L, 2L)));
+    }
+
+    @Test
+    public void testEstimatePayloadSize_Snapshot() {
+        // Arrange
+        DataSnapshot child = mock(DataSnapshot.class);
+        when(child.getKey()).thenReturn("name");
+        when(child.getValue()).thenReturn("Item");
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.hasChildren()).thenReturn(true);
+        when(snapshot.getChildren()).thenReturn(List.of(child));
+
+        // Act
+        long size = ServiceMetrics.estimatePayloadSize(snapshot);
+
+        // Assert
+        assertEquals(ServiceMetrics.estimatePayloadSize(Map.of("name", "Item")), size);
+    }
+
+    @Test
+    public void testDump() {
+        // Arrange
+        serviceMetrics.recordSuccess("getShopSyncWithUid", serviceMetrics.startTime());
+        serviceMetrics.recordFailure("addBasketItem", ErrorType.ENTITY_ALREADY_EXISTS);
+
+        // Act
+        String report = serviceMetrics.dump();
+
+        // Assert
+        String[] lines = report.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("addBasketItem: count 0, p50 0.0 ms, p95 0.0 ms, p99 0.0 ms, max 0.0 ms, " +
+                             "ENTITY_ALREADY_EXISTS 1", lines[0]);
+        assertEquals("getShopSyncWithUid: count 1, p50 0.0 ms, p95 0.0 ms, p99 0.0 ms, " +
+                             "max 0.0 ms", lines[1]);
+    }
+
+    private static Task<DataSnapshot> mockCompletedTask(boolean successful,
+                                                        DataSnapshot result) {
+        Task<DataSnapshot> task = mock(Task.class);
+        when(task.isSuccessful()).thenReturn(successful);
+        if (successful) {
+            when(task.getResult()).thenReturn(result);
+        }
+        when(task.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            ((OnCompleteListener<DataSnapshot>) invocation.getArgument(0)).onComplete(task);
+            return task;
+        });
+        return task;
+    }
+
+}
@@ -1,17 +1,21 @@
 package edu.uga.cs.shopsync.backend.services;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
@@ -20,9 +24,14 @@ import com.google.firebase.database.DataSnapshot;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import edu.uga.cs.shopsync.backend.firebase.ShopSyncsFirebaseReference;
@@ -30,9 +39,15 @@ import edu.uga.cs.shopsync.backend.firebase.UserShopSyncMapFirebaseReference;
 import edu.uga.cs.shopsync.backend.models.BasketItemModel;
 import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
 import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+import edu.uga.cs.shopsync.backend.models.ShopSyncSummaryModel;
 import edu.uga.cs.shopsync.backend.models.ShoppingBasketModel;
 import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+import edu.uga.cs.shopsync.frontend.dtos.ShopSyncDto;
+import edu.uga.cs.shopsync.utils.DataWrapper;
 import edu.uga.cs.shopsync.utils.ErrorHandle;
+import edu.uga.cs.shopsync.utils.ErrorType;
+import edu.uga.cs.shopsync.utils.Futures;
+import edu.uga.cs.shopsync.utils.Tracer;
 
 @RunWith(MockitoJUnitRunner.class)
 @SuppressWarnings("unchecked")
@@ -41,6 +56,8 @@ public class ShopSyncsServiceTest {
     private UsersService mockUsersService;
     private ShopSyncsFirebaseReference shopSyncsFirebaseReference;
     private UserShopSyncMapFirebaseReference userShopSyncMapFirebaseReference;
+    private WriteOutbox mockWriteOutbox;
+    private ServiceMetrics serviceMetrics;
     private ShopSyncsService shopSyncsService;
 
     @Before
@@ -49,10 +66,18 @@ public class ShopSyncsServiceTest {
         mockUsersService = mock(UsersService.class);
         shopSyncsFirebaseReference = mock(ShopSyncsFirebaseReference.class);
         userShopSyncMapFirebaseReference = mock(UserShopSyncMapFirebaseReference.class);
+        mockWriteOutbox = mock(WriteOutbox.class);
+
+        // every payload is sampled
+        serviceMetrics = new ServiceMetrics(() -> 0L, 1);
 
         // spies
         shopSyncsService = spy(new ShopSyncsService(mockUsersService, shopSyncsFirebaseReference,
-                                                    userShopSyncMapFirebaseReference));
+                                                    userShopSyncMapFirebaseReference,
+                                                    mockWriteOutbox,
+                                                    new SnapshotDecoder(Runnable::run,
+                                                                        Runnable::run),
+                                                    serviceMetrics, new Tracer()));
     }
 
     @Test
@@ -229,21 +254,464 @@ public class ShopSyncsServiceTest {
         verify(onError).accept(any(ErrorHandle.class));
     }
 
+    @Test
+    public void testGetShopSyncSummary_Stored() {
+        // Arrange
+        ShopSyncSummaryModel summary = new ShopSyncSummaryModel("shop1", "Shop 1", "Groceries",
+                                                                2, 3, 1, 12.5);
+        Task<DataSnapshot> summaryTask = mockCompletedTask(
+                mockValueSnapshot(ShopSyncSummaryModel.class, summary));
+        when(shopSyncsFirebaseReference.getShopSyncSummaryWithUid("shop1"))
+                .thenReturn(summaryTask);
+
+        DataWrapper<ShopSyncSummaryModel> resultWrapper = new DataWrapper<>(null);
+
+        // Act
+        shopSyncsService.getShopSyncSummary("shop1", resultWrapper::set, null);
+
+        // Assert
+        assertSame(summary, resultWrapper.get());
+        verify(shopSyncsFirebaseReference, never()).getShopSyncWithUid(anyString());
+        verify(shopSyncsFirebaseReference, never()).setShopSyncSummaryIfAbsent(any());
+    }
+
+    @Test
+    public void testGetShopSyncSummary_Backfill() {
+        // Arrange
+        Task<DataSnapshot> summaryTask = mockCompletedTask(
+                mockValueSnapshot(ShopSyncSummaryModel.class, null));
+        when(shopSyncsFirebaseReference.getShopSyncSummaryWithUid("shop1"))
+                .thenReturn(summaryTask);
+
+        ShopSyncModel shopSync = new ShopSyncModel("shop1", "Shop 1", "Groceries", null, null,
+                                                   null);
+        Task<DataSnapshot> shopSyncTask = mockCompletedTask(
+                mockMapSnapshot(shopSync.toMap()));
+        when(shopSyncsFirebaseReference.getShopSyncWithUid("shop1")).thenReturn(shopSyncTask);
+
+        ShopSyncSummaryModel summary = new ShopSyncSummaryModel("shop1", "Shop 1", "Groceries",
+                                                                0, 0, 0, 0);
+        when(shopSyncsFirebaseReference.summarizeShopSync(shopSync)).thenReturn(summary);
+        Task<DataSnapshot> setTask = mockCompletedTask(
+                mockValueSnapshot(ShopSyncSummaryModel.class, summary));
+        when(shopSyncsFirebaseReference.setShopSyncSummaryIfAbsent(summary)).thenReturn(setTask);
+
+        DataWrapper<ShopSyncSummaryModel> resultWrapper = new DataWrapper<>(null);
+
+        // Act
+        shopSyncsService.getShopSyncSummary("shop1", resultWrapper::set, null);
+
+        // Assert
+        assertSame(summary, resultWrapper.get());
+        verify(shopSyncsFirebaseReference).setShopSyncSummaryIfAbsent(summary);
+    }
+
+    @Test
+    public void testGetShopSyncSummary_BackfillStoredByOtherClient() {
+        // Arrange
+        Task<DataSnapshot> summaryTask = mockCompletedTask(
+                mockValueSnapshot(ShopSyncSummaryModel.class, null));
+        when(shopSyncsFirebaseReference.getShopSyncSummaryWithUid("shop1"))
+                .thenReturn(summaryTask);
+
+        ShopSyncModel shopSync = new ShopSyncModel("shop1", "Shop 1", "Groceries", null, null,
+                                                   null);
+        Task<DataSnapshot> shopSyncTask = mockCompletedTask(
+                mockMapSnapshot(shopSync.toMap()));
+        when(shopSyncsFirebaseReference.getShopSyncWithUid("shop1")).thenReturn(shopSyncTask);
+
+        ShopSyncSummaryModel summary = new ShopSyncSummaryModel("shop1", "Shop 1", "Groceries",
+                                                                0, 0, 0, 0);
+        when(shopSyncsFirebaseReference.summarizeShopSync(shopSync)).thenReturn(summary);
+
+        // the other client also counted a shopping item that was added after the read
+        ShopSyncSummaryModel storedSummary = new ShopSyncSummaryModel(
+                "shop1", "Shop 1", "Groceries", 0, 1, 0, 0);
+        Task<DataSnapshot> setTask = mockCompletedTask(
+                mockValueSnapshot(ShopSyncSummaryModel.class, storedSummary));
+        when(shopSyncsFirebaseReference.setShopSyncSummaryIfAbsent(summary)).thenReturn(setTask);
+
+        DataWrapper<ShopSyncSummaryModel> resultWrapper = new DataWrapper<>(null);
+
+        // Act
+        shopSyncsService.getShopSyncSummary("shop1", resultWrapper::set, null);
+
+        // Assert
+        assertSame(storedSummary, resultWrapper.get());
+    }
+
+    @Test
+    public void testGetShopSyncSummary_BackfillOnlyCounters() {
+        // Arrange
+        ShopSyncSummaryModel countersOnly = new ShopSyncSummaryModel(null, null, null, 0, 1, 0,
+                                                                     0);
+        Task<DataSnapshot> summaryTask = mockCompletedTask(
+                mockValueSnapshot(ShopSyncSummaryModel.class, countersOnly));
+        when(shopSyncsFirebaseReference.getShopSyncSummaryWithUid("shop1"))
+                .thenReturn(summaryTask);
+
+        ShopSyncModel shopSync = new ShopSyncModel("shop1", "Shop 1", "Groceries", null, null,
+                                                   null);
+        Task<DataSnapshot> shopSyncTask = mockCompletedTask(
+                mockMapSnapshot(shopSync.toMap()));
+        when(shopSyncsFirebaseReference.getShopSyncWithUid("shop1")).thenReturn(shopSyncTask);
+
+        ShopSyncSummaryModel summary = new ShopSyncSummaryModel("shop1", "Shop 1", "Groceries",
+                                                                0, 1, 0, 0);
+        when(shopSyncsFirebaseReference.summarizeShopSync(shopSync)).thenReturn(summary);
+        Task<DataSnapshot> setTask = mockCompletedTask(
+                mockValueSnapshot(ShopSyncSummaryModel.class, summary));
+        when(shopSyncsFirebaseReference.setShopSyncSummaryIfAbsent(summary)).thenReturn(setTask);
+
+        DataWrapper<ShopSyncSummaryModel> resultWrapper = new DataWrapper<>(null);
+
+        // Act
+        shopSyncsService.getShopSyncSummary("shop1", resultWrapper::set, null);
+
+        // Assert
+        assertSame(summary, resultWrapper.get());
+        verify(shopSyncsFirebaseReference).setShopSyncSummaryIfAbsent(summary);
+    }
+
+    @Test
+    public void testGetShopSyncSummary_Missing() {
+        // Arrange
+        Task<DataSnapshot> summaryTask = mockCompletedTask(
+                mockValueSnapshot(ShopSyncSummaryModel.class, null));
+        when(shopSyncsFirebaseReference.getShopSyncSummaryWithUid("shop1"))
+                .thenReturn(summaryTask);
+        Task<DataSnapshot> shopSyncTask = mockCompletedTask(
+                mockMapSnapshot(null));
+        when(shopSyncsFirebaseReference.getShopSyncWithUid("shop1")).thenReturn(shopSyncTask);
+
+        DataWrapper<ShopSyncSummaryModel> resultWrapper = new DataWrapper<>(
+                new ShopSyncSummaryModel());
+        Consumer<ErrorHandle> onFailure = mock(Consumer.class);
+
+        // Act
+        shopSyncsService.getShopSyncSummary("shop1", resultWrapper::set, onFailure);
+
+        // Assert
+        assertNull(resultWrapper.get());
+        verify(shopSyncsFirebaseReference, never()).setShopSyncSummaryIfAbsent(any());
+        verify(onFailure, never()).accept(any());
+    }
+
+    @Test
+    public void testGetShopSyncAsync() {
+        // Arrange
+        ShopSyncModel shopSync = new ShopSyncModel("shop1", "Shop 1", "Groceries", null, null,
+                                                   null);
+        Task<DataSnapshot> shopSyncTask = mockCompletedTask(mockMapSnapshot(shopSync.toMap()));
+        when(shopSyncsFirebaseReference.getShopSyncWithUid("shop1")).thenReturn(shopSyncTask);
+
+        // Act
+        CompletableFuture<ShopSyncModel> result = shopSyncsService.getShopSyncAsync("shop1");
+
+        // Assert
+        assertTrue(result.isDone());
+        assertEquals(shopSync, result.join());
+        assertEquals("Shop 1", result.join().getName());
+    }
+
+    @Test
+    public void testGetShopSyncSummaryAsync_Failure() {
+        // Arrange
+        Task<DataSnapshot> summaryTask = mock(Task.class);
+        when(summaryTask.isSuccessful()).thenReturn(false);
+        when(summaryTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            ((OnCompleteListener<DataSnapshot>) invocation.getArgument(0)).onComplete(summaryTask);
+            return summaryTask;
+        });
+        when(shopSyncsFirebaseReference.getShopSyncSummaryWithUid("shop1"))
+                .thenReturn(summaryTask);
+
+        // Act
+        CompletableFuture<ShopSyncSummaryModel> result =
+                shopSyncsService.getShopSyncSummaryAsync("shop1");
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        ErrorHandle errorHandle = result.handle((summary, throwable) ->
+                Futures.errorHandleOf(throwable)).join();
+        assertEquals(ErrorType.TASK_FAILED, errorHandle.errorType());
+        assertEquals("Failed to get shop sync summary", errorHandle.errorMessage());
+    }
+
+    @Test
+    public void testGetCostsForShopSync_Stored() {
+        // Arrange
+        DataSnapshot costsSnapshot = mockCostsSnapshot(true, Map.of("user1", 12.5));
+        Task<DataSnapshot> costsTask = mockCompletedTask(costsSnapshot);
+        when(shopSyncsFirebaseReference.getCostsWithShopSyncUid("shop1")).thenReturn(costsTask);
+
+        DataWrapper<Map<String, Double>> resultWrapper = new DataWrapper<>(null);
+
+        // Act
+        shopSyncsService.getCostsForShopSync("shop1", resultWrapper::set, null);
+
+        // Assert
+        assertEquals(Map.of("user1", 12.5), resultWrapper.get());
+        verify(shopSyncsFirebaseReference, never()).getPurchasedItemsWithShopSyncUid(anyString());
+        verify(shopSyncsFirebaseReference, never()).backfillCosts(anyString(), any());
+    }
+
+    @Test
+    public void testGetCostsForShopSync_Backfill() {
+        // Arrange
+        // a purchase after the upgrade created an entry, but the ledger was never backfilled
+        DataSnapshot costsSnapshot = mockCostsSnapshot(false, Map.of("user2", 3.0));
+        Task<DataSnapshot> costsTask = mockCompletedTask(costsSnapshot);
+        when(shopSyncsFirebaseReference.getCostsWithShopSyncUid("shop1")).thenReturn(costsTask);
+
+        PurchasedItemModel purchasedItem = new PurchasedItemModel(
+                "purchase1", "user1@example.com", null,
+                new BasketItemModel("user1", "item1", 2, 5.0));
+        DataSnapshot purchasedItemsSnapshot = mock(DataSnapshot.class);
+        when(purchasedItemsSnapshot.getChildren()).thenReturn(
+                List.of(mockMapSnapshot(purchasedItem.toMap())));
+        Task<DataSnapshot> purchasedItemsTask = mockCompletedTask(purchasedItemsSnapshot);
+        when(shopSyncsFirebaseReference.getPurchasedItemsWithShopSyncUid("shop1"))
+                .thenReturn(purchasedItemsTask);
+
+        Map<String, Double> costs = Map.of("user1", 10.0);
+        when(shopSyncsFirebaseReference.summarizeCosts(List.of(purchasedItem))).thenReturn(costs);
+        Task<DataSnapshot> backfillTask = mockCompletedTask(
+                mockCostsSnapshot(true, Map.of("user1", 10.0, "user2", 3.0)));
+        when(shopSyncsFirebaseReference.backfillCosts("shop1", costs)).thenReturn(backfillTask);
+
+        DataWrapper<Map<String, Double>> resultWrapper = new DataWrapper<>(null);
+
+        // Act
+        shopSyncsService.getCostsForShopSync("shop1", resultWrapper::set, null);
+
+        // Assert
+        assertEquals(Map.of("user1", 10.0, "user2", 3.0), resultWrapper.get());
+        verify(shopSyncsFirebaseReference).backfillCosts("shop1", costs);
+    }
+
+    @Test
+    public void testGetShopSyncDtos_Success() {
+        // Arrange
+        ShopSyncSummaryModel summary = new ShopSyncSummaryModel("shop1", "Shop 1", "Groceries",
+                                                                1, 0, 0, 0);
+        Task<DataSnapshot> summaryTask = mockCompletedTask(
+                mockValueSnapshot(ShopSyncSummaryModel.class, summary));
+        DataSnapshot usersSnapshot = mock(DataSnapshot.class);
+        DataSnapshot userSnapshot = mock(DataSnapshot.class);
+        when(userSnapshot.getKey()).thenReturn("user1");
+        when(usersSnapshot.getChildren()).thenReturn(List.of(userSnapshot));
+        Task<DataSnapshot> usersTask = mockCompletedTask(usersSnapshot);
+
+        when(shopSyncsFirebaseReference.getShopSyncSummaryWithUid("shop1"))
+                .thenReturn(summaryTask);
+        when(userShopSyncMapFirebaseReference.getUsersAssociatedWithShopSync("shop1"))
+                .thenReturn(usersTask);
+
+        // "shop2" no longer exists, so it has neither a summary nor a shop sync
+        Task<DataSnapshot> missingSummaryTask = mockCompletedTask(
+                mockValueSnapshot(ShopSyncSummaryModel.class, null));
+        Task<DataSnapshot> missingShopSyncTask = mockCompletedTask(
+                mockMapSnapshot(null));
+        Task<DataSnapshot> missingUsersTask = mockCompletedTask(mock(DataSnapshot.class));
+        when(shopSyncsFirebaseReference.getShopSyncSummaryWithUid("shop2"))
+                .thenReturn(missingSummaryTask);
+        when(shopSyncsFirebaseReference.getShopSyncWithUid("shop2"))
+                .thenReturn(missingShopSyncTask);
+        when(userShopSyncMapFirebaseReference.getUsersAssociatedWithShopSync("shop2"))
+                .thenReturn(missingUsersTask);
+
+        DataWrapper<List<ShopSyncDto>> resultWrapper = new DataWrapper<>(null);
+        Consumer<ErrorHandle> onFailure = mock(Consumer.class);
+
+        // Act
+        shopSyncsService.getShopSyncDtos(List.of("shop1", "shop2"), resultWrapper::set,
+                                         onFailure);
+
+        // Assert
+        List<ShopSyncDto> result = resultWrapper.get();
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals("shop1", result.get(0).getUid());
+        assertEquals("Shop 1", result.get(0).getName());
+        assertEquals("Groceries", result.get(0).getDescription());
+        assertEquals(List.of("user1"), result.get(0).getUserUids());
+        verify(shopSyncsFirebaseReference, never()).getShopSyncWithUid("shop1");
+        verify(onFailure, never()).accept(any());
+    }
+
+    @Test
+    public void testGetShopSyncDtos_Failure() {
+        // Arrange
+        Task<DataSnapshot> failedTask = mock(Task.class);
+        when(failedTask.isSuccessful()).thenReturn(false);
+        when(failedTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            ((OnCompleteListener<DataSnapshot>) args[0]).onComplete(failedTask);
+            return failedTask;
+        });
+        when(shopSyncsFirebaseReference.getShopSyncSummaryWithUid("shop1"))
+                .thenReturn(failedTask);
+        when(userShopSyncMapFirebaseReference.getUsersAssociatedWithShopSync("shop1"))
+                .thenReturn(failedTask);
+
+        Consumer<List<ShopSyncDto>> onSuccess = mock(Consumer.class);
+        Consumer<ErrorHandle> onFailure = mock(Consumer.class);
+
+        // Act
+        shopSyncsService.getShopSyncDtos(List.of("shop1"), onSuccess, onFailure);
+
+        // Assert
+        verify(onSuccess, never()).accept(any());
+        verify(onFailure, times(1)).accept(any(ErrorHandle.class));
+    }
+
+    @Test
+    public void testGetShopSyncDtos_BoundedConcurrency() {
+        // Arrange
+        List<String> shopSyncUids = new ArrayList<>();
+        for (int i = 0; i < ShopSyncsService.MAX_CONCURRENT_SHOP_SYNC_LOADS + 4; i++) {
+            shopSyncUids.add("shop" + i);
+        }
+
+        // tasks that never complete, so no load ever finishes
+        Task<DataSnapshot> pendingTask = mock(Task.class);
+        when(shopSyncsFirebaseReference.getShopSyncSummaryWithUid(anyString()))
+                .thenReturn(pendingTask);
+        when(userShopSyncMapFirebaseReference.getUsersAssociatedWithShopSync(anyString()))
+                .thenReturn(pendingTask);
+
+        // Act
+        shopSyncsService.getShopSyncDtos(shopSyncUids, mock(Consumer.class), null);
+
+        // Assert
+        verify(userShopSyncMapFirebaseReference,
+               times(ShopSyncsService.MAX_CONCURRENT_SHOP_SYNC_LOADS))
+                .getUsersAssociatedWithShopSync(anyString());
+    }
+
+    @Test
+    public void testInviteUsers_Success() {
+        // Arrange
+        List<String> emails = List.of("new@example.com", "member@example.com",
+                                      "unknown@example.com", " ");
+        doAnswer(invocation -> {
+            Consumer<Map<String, String>> onSuccess = invocation.getArgument(1);
+            onSuccess.accept(Map.of("new@example.com", "newUser",
+                                    "member@example.com", "memberUser"));
+            return null;
+        }).when(mockUsersService).resolveEmails(any(), any(), any());
+
+        // memberUser is already a member, so only newUser is added
+        Task<Set<String>> addMembersTask = mock(Task.class);
+        when(addMembersTask.isSuccessful()).thenReturn(true);
+        when(addMembersTask.getResult()).thenReturn(Set.of("newUser"));
+        when(addMembersTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            ((OnCompleteListener<Set<String>>) invocation.getArgument(0))
+                    .onComplete(addMembersTask);
+            return addMembersTask;
+        });
+        when(shopSyncsFirebaseReference.addMembers(eq("shop1"), any()))
+                .thenReturn(addMembersTask);
+
+        DataWrapper<InvitationResult> resultWrapper = new DataWrapper<>();
+        Consumer<ErrorHandle> onFailure = mock(Consumer.class);
+
+        // Act
+        shopSyncsService.inviteUsers("shop1", emails, resultWrapper::set, onFailure);
+
+        // Assert
+        verify(mockUsersService).resolveEmails(
+                eq(Set.of("new@example.com", "member@example.com", "unknown@example.com")),
+                any(), any());
+        verify(shopSyncsFirebaseReference).addMembers("shop1", Set.of("newUser", "memberUser"));
+        InvitationResult result = resultWrapper.get();
+        assertNotNull(result);
+        assertEquals(List.of("new@example.com", "member@example.com", "unknown@example.com"),
+                     new ArrayList<>(result.outcomes().keySet()));
+        assertEquals(List.of("new@example.com"),
+                     result.getEmailsWithOutcome(InvitationResult.Outcome.INVITED));
+        assertEquals(List.of("member@example.com"),
+                     result.getEmailsWithOutcome(InvitationResult.Outcome.ALREADY_MEMBER));
+        assertEquals(List.of("unknown@example.com"),
+                     result.getEmailsWithOutcome(InvitationResult.Outcome.NOT_FOUND));
+        verify(onFailure, never()).accept(any());
+    }
+
+    @Test
+    public void testInviteUsers_NoUsersFound_DoesNotWrite() {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<Map<String, String>> onSuccess = invocation.getArgument(1);
+            onSuccess.accept(Map.of());
+            return null;
+        }).when(mockUsersService).resolveEmails(any(), any(), any());
+
+        DataWrapper<InvitationResult> resultWrapper = new DataWrapper<>();
+
+        // Act
+        shopSyncsService.inviteUsers("shop1", List.of("unknown@example.com"), resultWrapper::set,
+                                     null);
+
+        // Assert
+        assertNotNull(resultWrapper.get());
+        assertEquals(Map.of("unknown@example.com", InvitationResult.Outcome.NOT_FOUND),
+                     resultWrapper.get().outcomes());
+        verify(shopSyncsFirebaseReference, never()).addMembers(any(), any());
+    }
+
+    @Test
+    public void testInviteUsers_ResolveFailure() {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<ErrorHandle> onFailure = invocation.getArgument(2);
+            onFailure.accept(new ErrorHandle(ErrorType.TASK_FAILED, "Failed to resolve emails"));
+            return null;
+        }).when(mockUsersService).resolveEmails(any(), any(), any());
+
+        Consumer<InvitationResult> onSuccess = mock(Consumer.class);
+        Consumer<ErrorHandle> onFailure = mock(Consumer.class);
+
+        // Act
+        shopSyncsService.inviteUsers("shop1", List.of("new@example.com"), onSuccess, onFailure);
+
+        // Assert
+        verify(onSuccess, never()).accept(any());
+        verify(onFailure, times(1)).accept(any(ErrorHandle.class));
+        verify(shopSyncsFirebaseReference, never()).addMembers(any(), any());
+    }
+
+    @Test
+    public void testGetShopSyncDtos_Empty() {
+        // Arrange
+        Consumer<List<ShopSyncDto>> onSuccess = mock(Consumer.class);
+
+        // Act
+        shopSyncsService.getShopSyncDtos(List.of(), onSuccess, null);
+
+        // Assert
+        verify(onSuccess).accept(List.of());
+    }
+
     @Test
     public void testUpdateShopSync() {
         // Arrange
+        ShopSyncModel baselineShopSync = new ShopSyncModel("uid", "shop1", "Shop", null, null,
+                                                           null);
         ShopSyncModel updatedShopSync = new ShopSyncModel("uid", "shop1", "Updated Shop", null,
                                                           null, null);
 
         Task<Void> mockVoidTask = mock(Task.class);
-        when(shopSyncsFirebaseReference.updateShopSync(updatedShopSync)).thenReturn(mockVoidTask);
+        when(shopSyncsFirebaseReference.updateShopSync(baselineShopSync, updatedShopSync))
+                .thenReturn(mockVoidTask);
 
         // Act
-        Task<Void> result = shopSyncsService.updateShopSync(updatedShopSync);
+        Task<Void> result = shopSyncsService.updateShopSync(baselineShopSync, updatedShopSync);
 
         // Assert
         assertNotNull(result);
         assertSame(mockVoidTask, result);
+        verify(mockWriteOutbox).flush();
     }
 
     @Test
@@ -251,6 +719,14 @@ public class ShopSyncsServiceTest {
         // Arrange
         String shopSyncUid = "shop1";
 
+        DataSnapshot memberSnapshot = mock(DataSnapshot.class);
+        when(memberSnapshot.getKey()).thenReturn("user1");
+        DataSnapshot membersSnapshot = mock(DataSnapshot.class);
+        when(membersSnapshot.getChildren()).thenReturn(List.of(memberSnapshot));
+        Task<DataSnapshot> membersTask = mockCompletedTask(membersSnapshot);
+        when(userShopSyncMapFirebaseReference.getUsersAssociatedWithShopSync(shopSyncUid))
+                .thenReturn(membersTask);
+
         Task<Void> mockVoidTask = mock(Task.class);
         when(mockVoidTask.isSuccessful()).thenReturn(true);
         when(mockVoidTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
@@ -258,37 +734,38 @@ public class ShopSyncsServiceTest {
             ((OnCompleteListener<Void>) args[0]).onComplete(mockVoidTask);
             return mockVoidTask;
         });
-        when(shopSyncsFirebaseReference.deleteShopSync(shopSyncUid)).thenReturn(mockVoidTask);
+        when(shopSyncsFirebaseReference.deleteShopSync(shopSyncUid, List.of("user1")))
+                .thenReturn(mockVoidTask);
 
         // Act
         shopSyncsService.deleteShopSync(shopSyncUid);
 
         // Assert
-        verify(userShopSyncMapFirebaseReference).removeShopSync(shopSyncUid);
-        verify(shopSyncsFirebaseReference).deleteShopSync(shopSyncUid);
+        verify(mockWriteOutbox).flush();
+        verify(shopSyncsFirebaseReference).deleteShopSync(shopSyncUid, List.of("user1"));
+        verify(userShopSyncMapFirebaseReference, never()).removeShopSync(any());
     }
 
     @Test
-    public void testDeleteShopSync_Failure() {
+    public void testDeleteShopSync_FailureToLoadMembers() {
         // Arrange
         String shopSyncUid = "shop1";
 
-        Task<Void> mockVoidTask = mock(Task.class);
-        when(mockVoidTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+        Task<DataSnapshot> failedTask = mock(Task.class);
+        when(failedTask.isSuccessful()).thenReturn(false);
+        when(failedTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
             Object[] args = invocation.getArguments();
-            ((OnCompleteListener<Void>) args[0]).onComplete(mockVoidTask);
-            return mockVoidTask;
+            ((OnCompleteListener<DataSnapshot>) args[0]).onComplete(failedTask);
+            return failedTask;
         });
-        when(mockVoidTask.isSuccessful()).thenReturn(false);
-
-        when(shopSyncsFirebaseReference.deleteShopSync(shopSyncUid)).thenReturn(mockVoidTask);
+        when(userShopSyncMapFirebaseReference.getUsersAssociatedWithShopSync(shopSyncUid))
+                .thenReturn(failedTask);
 
         // Act
         shopSyncsService.deleteShopSync(shopSyncUid);
 
         // Assert
-        verify(userShopSyncMapFirebaseReference, never()).removeShopSync(shopSyncUid);
-        verify(shopSyncsFirebaseReference).deleteShopSync(shopSyncUid);
+        verify(shopSyncsFirebaseReference, never()).deleteShopSync(any(), any());
     }
 
     @Test
@@ -366,16 +843,36 @@ public class ShopSyncsServiceTest {
         // Arrange
         String shopSyncUid = "shop1";
         ShoppingItemModel updatedShoppingItem = mock(ShoppingItemModel.class);
+        Map<String, Object> updates = Map.of("/shop_syncs/shop1/shoppingItems/item1", "value");
+        when(shopSyncsFirebaseReference.buildShoppingItemUpdates(shopSyncUid, updatedShoppingItem))
+                .thenReturn(updates);
+        Runnable onSuccess = mock(Runnable.class);
 
-        Task<Void> mockVoidTask = mock(Task.class);
-        when(shopSyncsFirebaseReference.updateShoppingItem(shopSyncUid, updatedShoppingItem)).thenReturn(mockVoidTask);
+        // Act
+        shopSyncsService.updateShoppingItem(shopSyncUid, updatedShoppingItem, onSuccess, null);
+
+        // Assert
+        verify(mockWriteOutbox).enqueue(updates, onSuccess, null);
+        verify(shopSyncsFirebaseReference, never()).updateShoppingItem(any(), any());
+    }
+
+    @Test
+    public void testUpdateBasketItem() {
+        // Arrange
+        String shopSyncUid = "shop1";
+        BasketItemModel updatedBasketItem = new BasketItemModel("user1", "item1", 2, 1.5);
+        Map<String, Object> updates = Map.of(
+                "/shop_syncs/shop1/shoppingBaskets/user1/basketItems/item1", "value");
+        when(shopSyncsFirebaseReference.buildBasketItemUpdates(shopSyncUid, updatedBasketItem))
+                .thenReturn(updates);
+        Consumer<ErrorHandle> onFailure = mock(Consumer.class);
 
         // Act
-        Task<Void> result = shopSyncsService.updateShoppingItem(shopSyncUid, updatedShoppingItem);
+        shopSyncsService.updateBasketItem(shopSyncUid, updatedBasketItem, null, onFailure);
 
         // Assert
-        assertNotNull(result);
-        assertSame(mockVoidTask, result);
+        verify(mockWriteOutbox).enqueue(updates, null, onFailure);
+        verify(shopSyncsFirebaseReference, never()).updateBasketItem(any(), any());
     }
 
     @Test
@@ -510,9 +1007,28 @@ public class ShopSyncsServiceTest {
                                        pricePerUnit, mockSuccessConsumer, mockFailureConsumer);
 
         // Assert
-        verify(shopSyncsFirebaseReference).addBasketItem(shopSyncUid, shoppingBasketUid,
-                                                         shoppingItemUid, quantity, pricePerUnit,
-                                                         mockSuccessConsumer, mockFailureConsumer);
+        ArgumentCaptor<Consumer<BasketItemModel>> successCaptor =
+                ArgumentCaptor.forClass(Consumer.class);
+        ArgumentCaptor<Consumer<ErrorHandle>> failureCaptor =
+                ArgumentCaptor.forClass(Consumer.class);
+        verify(shopSyncsFirebaseReference).addBasketItem(eq(shopSyncUid), eq(shoppingBasketUid),
+                                                         eq(shoppingItemUid), eq(quantity),
+                                                         eq(pricePerUnit), successCaptor.capture(),
+                                                         failureCaptor.capture());
+
+        // the consumers are passed on once the call is recorded
+        BasketItemModel basketItem = new BasketItemModel(shoppingBasketUid, shoppingItemUid,
+                                                         quantity, pricePerUnit);
+        successCaptor.getValue().accept(basketItem);
+        verify(mockSuccessConsumer).accept(basketItem);
+        ErrorHandle errorHandle = new ErrorHandle(ErrorType.ENTITY_ALREADY_EXISTS, "exists");
+        failureCaptor.getValue().accept(errorHandle);
+        verify(mockFailureConsumer).accept(errorHandle);
+
+        assertEquals(1, serviceMetrics.getLatencyMicros("addBasketItem").count());
+        assertEquals(1, serviceMetrics.getPayloadBytes("addBasketItem").count());
+        assertEquals(1, serviceMetrics.getErrorCount("addBasketItem",
+                                                     ErrorType.ENTITY_ALREADY_EXISTS));
     }
 
     @Test
@@ -576,10 +1092,46 @@ public class ShopSyncsServiceTest {
                                           mockSuccessConsumer, null);
 
         // Assert
+        ArgumentCaptor<Consumer<PurchasedItemModel>> successCaptor =
+                ArgumentCaptor.forClass(Consumer.class);
         verify(shopSyncsFirebaseReference).addPurchasedItem(eq(shopSyncUid),
                                                             eq(shoppingBasketUid),
                                                             eq(mockBasketItem), anyString(),
-                                                            eq(mockSuccessConsumer), isNull());
+                                                            successCaptor.capture(), any());
+
+        // the consumer is passed on once the call is recorded
+        PurchasedItemModel purchasedItem = mock(PurchasedItemModel.class);
+        successCaptor.getValue().accept(purchasedItem);
+        verify(mockSuccessConsumer).accept(purchasedItem);
+        assertEquals(1, serviceMetrics.getLatencyMicros("addPurchasedItem").count());
+    }
+
+    @Test
+    public void testAddPurchasedItem_Failure_TaskFailed() {
+        // Arrange
+        String shopSyncUid = "shop1";
+        String shoppingBasketUid = "basket1";
+        BasketItemModel mockBasketItem = mock(BasketItemModel.class);
+        Consumer<ErrorHandle> mockFailureConsumer = mock(Consumer.class);
+
+        Task<DataSnapshot> mockDataTask = mock(Task.class);
+        when(mockUsersService.getUserProfileWithUid(shoppingBasketUid)).thenReturn(mockDataTask);
+        when(mockDataTask.isSuccessful()).thenReturn(false);
+        when(mockDataTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            ((OnCompleteListener<DataSnapshot>) args[0]).onComplete(mockDataTask);
+            return mockDataTask;
+        });
+
+        // Act
+        shopSyncsService.addPurchasedItem(shopSyncUid, shoppingBasketUid, mockBasketItem, null,
+                                          mockFailureConsumer);
+
+        // Assert
+        verify(mockFailureConsumer).accept(any(ErrorHandle.class));
+        verify(shopSyncsFirebaseReference, never()).addPurchasedItem(any(), any(), any(), any(),
+                                                                     any(), any());
+        assertEquals(1, serviceMetrics.getErrorCount("addPurchasedItem", ErrorType.TASK_FAILED));
     }
 
     @Test
@@ -765,5 +1317,49 @@ public class ShopSyncsServiceTest {
         assertSame(mockVoidTask, result);
     }
 
-}
 
+    private static <T> DataSnapshot mockValueSnapshot(Class<T> valueType, T value) {
+        DataSnapshot dataSnapshot = mock(DataSnapshot.class);
+        when(dataSnapshot.getValue(valueType)).thenReturn(value);
+        return dataSnapshot;
+    }
+
+    private static DataSnapshot mockCostsSnapshot(boolean backfilled, Map<String, Double> costs) {
+        List<DataSnapshot> children = new ArrayList<>();
+        costs.forEach((userUid, cost) -> {
+            DataSnapshot child = mock(DataSnapshot.class);
+            when(child.getKey()).thenReturn(userUid);
+            when(child.getValue(Double.class)).thenReturn(cost);
+            children.add(child);
+        });
+        if (backfilled) {
+            DataSnapshot child = mock(DataSnapshot.class);
+            when(child.getKey()).thenReturn(ShopSyncsFirebaseReference.COSTS_BACKFILLED_FIELD);
+            children.add(child);
+        }
+
+        DataSnapshot costsSnapshot = mock(DataSnapshot.class, withSettings().lenient());
+        when(costsSnapshot.hasChild(ShopSyncsFirebaseReference.COSTS_BACKFILLED_FIELD))
+                .thenReturn(backfilled);
+        when(costsSnapshot.getChildren()).thenReturn(children);
+        return costsSnapshot;
+    }
+
+    private static DataSnapshot mockMapSnapshot(Map<String, Object> value) {
+        DataSnapshot dataSnapshot = mock(DataSnapshot.class);
+        when(dataSnapshot.getValue()).thenReturn(value);
+        return dataSnapshot;
+    }
+
+    private static Task<DataSnapshot> mockCompletedTask(DataSnapshot result) {
+        Task<DataSnapshot> task = mock(Task.class);
+        when(task.isSuccessful()).thenReturn(true);
+        when(task.getResult()).thenReturn(result);
+        when(task.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            ((OnCompleteListener<DataSnapshot>) args[0]).onComplete(task);
+            return task;
+        });
+        return task;
+    }
+}
@@ -0,0 +1,215 @@
+package edu.uga.cs.shopsync.backend.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.firebase.database.DataSnapshot;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import edu.uga.cs.shopsync.backend.models.BasketItemModel;
+import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
+import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+import edu.uga.cs.shopsync.utils.DataWrapper;
+import edu.uga.cs.shopsync.utils.ErrorHandle;
+
+@SuppressWarnings("unchecked")
+public class SnapshotDecoderTest {
+
+    private List<Runnable> decodeTasks;
+    private List<Runnable> mainTasks;
+    private SnapshotDecoder snapshotDecoder;
+
+    @Before
+    public void setUp() {
+        decodeTasks = new ArrayList<>();
+        mainTasks = new ArrayList<>();
+        snapshotDecoder = new SnapshotDecoder(decodeTasks::add, mainTasks::add);
+    }
+
+    @Test
+    public void testDecode_DecodesOnDecodeExecutorAndDeliversOnMainExecutor() {
+        // Arrange
+        ShopSyncModel shopSync = new ShopSyncModel("shop1", "Shop 1", "Groceries", null, null,
+                                                   null);
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getValue()).thenReturn(shopSync.toMap());
+        DataWrapper<ShopSyncModel> resultWrapper = new DataWrapper<>(null);
+
+        // Act
+        snapshotDecoder.decode(snapshot, ShopSyncModel.class, resultWrapper::set, null);
+
+        // Assert
+        verify(snapshot, never()).getValue();
+        runAll(decodeTasks);
+        verify(snapshot).getValue();
+        assertNull(resultWrapper.get());
+        runAll(mainTasks);
+        assertEquals(shopSync, resultWrapper.get());
+        assertEquals("Groceries", resultWrapper.get().getDescription());
+    }
+
+    @Test
+    public void testDecode_NullSnapshot() {
+        // Arrange
+        DataWrapper<ShopSyncModel> resultWrapper = new DataWrapper<>(new ShopSyncModel());
+
+        // Act
+        snapshotDecoder.decode(null, ShopSyncModel.class, resultWrapper::set, null);
+        runAll(decodeTasks);
+        runAll(mainTasks);
+
+        // Assert
+        assertNull(resultWrapper.get());
+    }
+
+    @Test
+    public void testDecode_Failure() {
+        // Arrange
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getValue()).thenReturn("not a shop sync");
+        Consumer<ShopSyncModel> onSuccess = mock(Consumer.class);
+        Consumer<ErrorHandle> onFailure = mock(Consumer.class);
+
+        // Act
+        snapshotDecoder.decode(snapshot, ShopSyncModel.class, onSuccess, onFailure);
+        runAll(decodeTasks);
+        runAll(mainTasks);
+
+        // Assert
+        verify(onSuccess, never()).accept(any());
+        verify(onFailure).accept(any(ErrorHandle.class));
+    }
+
+    @Test
+    public void testDecodeChildren_KeepsOrderAndSkipsEmptyChildren() {
+        // Arrange
+        ShoppingItemModel first = new ShoppingItemModel("item1", "Apples", false);
+        ShoppingItemModel second = new ShoppingItemModel("item2", "Pears", true);
+        DataSnapshot parent = mock(DataSnapshot.class);
+        when(parent.getChildren()).thenReturn(List.of(mockChild(first), mockChild(null),
+                                                      mockChild(second)));
+        DataWrapper<List<ShoppingItemModel>> resultWrapper = new DataWrapper<>(null);
+
+        // Act
+        snapshotDecoder.decodeChildren(parent, ShoppingItemModel.class, resultWrapper::set,
+                                       null);
+        runAll(decodeTasks);
+        runAll(mainTasks);
+
+        // Assert
+        assertEquals(List.of(first, second), resultWrapper.get());
+    }
+
+    @Test
+    public void testDecodeValue_DecodesNestedModels() {
+        // Arrange
+        Map<String, Object> basketItem = Map.of("shoppingBasketUid", "user1",
+                                                "shoppingItemUid", "item1",
+                                                "quantity", 2L, "pricePerUnit", 3L);
+        Map<String, Object> purchasedItem = Map.of("purchasedItemUid", "purchase1",
+                                                   "userEmail", "user1@example.com",
+                                                   "basketItem", basketItem);
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getValue()).thenReturn(Map.of(
+                "uid", "shop1",
+                "shoppingBaskets", Map.of("user1", Map.of("uid", "user1", "basketItems",
+                                                          Map.of("item1", basketItem))),
+                "purchasedItems", Map.of("purchase1", purchasedItem)));
+
+        // Act
+        ShopSyncModel shopSync = SnapshotDecoder.decodeValue(snapshot, ShopSyncModel.class);
+
+        // Assert
+        assertNotNull(shopSync);
+        BasketItemModel decodedBasketItem =
+                shopSync.getShoppingBaskets().get("user1").getBasketItems().get("item1");
+        assertEquals(2, decodedBasketItem.getQuantity());
+        assertEquals(3.0, decodedBasketItem.getPricePerUnit(), 0);
+        PurchasedItemModel decodedPurchasedItem = shopSync.getPurchasedItems().get("purchase1");
+        assertEquals("user1@example.com", decodedPurchasedItem.getUserEmail());
+        assertEquals(decodedBasketItem, decodedPurchasedItem.getBasketItem());
+        assertTrue(shopSync.getShoppingItems().isEmpty());
+    }
+
+    @Test
+    public void testDecodeChildren_NullSnapshot() {
+        // Arrange
+        DataWrapper<List<ShoppingItemModel>> resultWrapper = new DataWrapper<>(null);
+
+        // Act
+        snapshotDecoder.decodeChildren((DataSnapshot) null, ShoppingItemModel.class,
+                                       resultWrapper::set, null);
+        runAll(decodeTasks);
+        runAll(mainTasks);
+
+        // Assert
+        assertTrue(resultWrapper.get().isEmpty());
+    }
+
+    @Test
+    public void testNewDecodeExecutor_FullQueueIsRetriedOnThePool() throws Exception {
+        // Arrange
+        List<Runnable> retries = new ArrayList<>();
+        ThreadPoolExecutor executor = SnapshotDecoder.newDecodeExecutor(retries::add);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < SnapshotDecoder.DECODE_THREAD_COUNT +
+                SnapshotDecoder.DECODE_QUEUE_CAPACITY; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        DataWrapper<Thread> decodeThreadWrapper = new DataWrapper<>(null);
+        CountDownLatch decoded = new CountDownLatch(1);
+
+        // Act
+        executor.execute(() -> {
+            decodeThreadWrapper.set(Thread.currentThread());
+            decoded.countDown();
+        });
+
+        // Assert
+        assertNull(decodeThreadWrapper.get());
+        assertEquals(1, retries.size());
+        release.countDown();
+        runAll(retries);
+        assertTrue(decoded.await(5, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), decodeThreadWrapper.get());
+        executor.shutdown();
+    }
+
+    private static DataSnapshot mockChild(ShoppingItemModel value) {
+        DataSnapshot child = mock(DataSnapshot.class);
+        when(child.getValue()).thenReturn(value == null ? null : value.toMap());
+        return child;
+    }
+
+    private static void runAll(List<Runnable> tasks) {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+}
@@ -0,0 +1,190 @@
+package edu.uga.cs.shopsync.backend.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.DataSnapshot;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.function.Function;
+
+import edu.uga.cs.shopsync.utils.DataWrapper;
+
+@RunWith(MockitoJUnitRunner.class)
+@SuppressWarnings("unchecked")
+public class UserProfileCacheTest {
+
+    private static final long TTL_MILLIS = 1000;
+
+    private long now;
+    private Function<String, Task<DataSnapshot>> mockLoader;
+    private UserProfileCache userProfileCache;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        mockLoader = mock(Function.class);
+        userProfileCache = new UserProfileCache(2, TTL_MILLIS, () -> now);
+    }
+
+    @Test
+    public void testGet_Miss() {
+        // Arrange
+        Task<DataSnapshot> task = mockTask(true, true);
+        when(mockLoader.apply("user1")).thenReturn(task);
+
+        // Act
+        Task<DataSnapshot> result = userProfileCache.get("user1", mockLoader);
+
+        // Assert
+        assertSame(task, result);
+        assertEquals(0, userProfileCache.getHitCount());
+        assertEquals(1, userProfileCache.getMissCount());
+    }
+
+    @Test
+    public void testGet_Hit() {
+        // Arrange
+        Task<DataSnapshot> task = mockTask(true, true);
+        when(mockLoader.apply("user1")).thenReturn(task);
+        userProfileCache.get("user1", mockLoader);
+
+        // Act
+        now = TTL_MILLIS - 1;
+        Task<DataSnapshot> result = userProfileCache.get("user1", mockLoader);
+
+        // Assert
+        assertSame(task, result);
+        verify(mockLoader, times(1)).apply("user1");
+        assertEquals(1, userProfileCache.getHitCount());
+        assertEquals(1, userProfileCache.getMissCount());
+    }
+
+    @Test
+    public void testGet_Expired() {
+        // Arrange
+        Task<DataSnapshot> firstTask = mockTask(true, true);
+        Task<DataSnapshot> secondTask = mockTask(true, true);
+        when(mockLoader.apply("user1")).thenReturn(firstTask, secondTask);
+        userProfileCache.get("user1", mockLoader);
+
+        // Act
+        now = TTL_MILLIS;
+        Task<DataSnapshot> result = userProfileCache.get("user1", mockLoader);
+
+        // Assert
+        assertSame(secondTask, result);
+        verify(mockLoader, times(2)).apply("user1");
+        assertEquals(2, userProfileCache.getMissCount());
+    }
+
+    @Test
+    public void testGet_CoalescesInFlightReads() {
+        // Arrange
+        Task<DataSnapshot> pendingTask = mockTask(false, false);
+        when(mockLoader.apply("user1")).thenReturn(pendingTask);
+
+        // Act
+        Task<DataSnapshot> first = userProfileCache.get("user1", mockLoader);
+        now = TTL_MILLIS * 10;
+        Task<DataSnapshot> second = userProfileCache.get("user1", mockLoader);
+
+        // Assert
+        assertSame(first, second);
+        verify(mockLoader, times(1)).apply("user1");
+        assertEquals(1, userProfileCache.getHitCount());
+    }
+
+    @Test
+    public void testGet_FailedReadIsNotCached() {
+        // Arrange
+        DataWrapper<OnCompleteListener<DataSnapshot>> listenerWrapper = new DataWrapper<>(null);
+        Task<DataSnapshot> failedTask = mock(Task.class);
+        when(failedTask.isSuccessful()).thenReturn(false);
+        when(failedTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            listenerWrapper.set(invocation.getArgument(0));
+            return failedTask;
+        });
+        Task<DataSnapshot> retryTask = mockTask(false, false);
+        when(mockLoader.apply("user1")).thenReturn(failedTask, retryTask);
+
+        // Act
+        userProfileCache.get("user1", mockLoader);
+        listenerWrapper.get().onComplete(failedTask);
+        Task<DataSnapshot> result = userProfileCache.get("user1", mockLoader);
+
+        // Assert
+        assertSame(retryTask, result);
+        verify(mockLoader, times(2)).apply("user1");
+    }
+
+    @Test
+    public void testGet_EvictsLeastRecentlyUsed() {
+        // Arrange
+        when(mockLoader.apply(any())).thenAnswer(invocation -> mockTask(true, true));
+        userProfileCache.get("user1", mockLoader);
+        userProfileCache.get("user2", mockLoader);
+
+        // touch user1 so that user2 becomes the least recently used entry
+        userProfileCache.get("user1", mockLoader);
+
+        // Act
+        userProfileCache.get("user3", mockLoader);
+        userProfileCache.get("user1", mockLoader);
+        userProfileCache.get("user2", mockLoader);
+
+        // Assert
+        assertEquals(2, userProfileCache.size());
+        verify(mockLoader, times(1)).apply("user1");
+        verify(mockLoader, times(2)).apply("user2");
+        verify(mockLoader, times(1)).apply("user3");
+    }
+
+    @Test
+    public void testInvalidate() {
+        // Arrange
+        when(mockLoader.apply("user1")).thenAnswer(invocation -> mockTask(true, true));
+        userProfileCache.get("user1", mockLoader);
+
+        // Act
+        userProfileCache.invalidate("user1");
+        userProfileCache.get("user1", mockLoader);
+
+        // Assert
+        verify(mockLoader, times(2)).apply("user1");
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        // Arrange
+        when(mockLoader.apply(any())).thenAnswer(invocation -> mockTask(true, true));
+        userProfileCache.get("user1", mockLoader);
+        userProfileCache.get("user2", mockLoader);
+
+        // Act
+        userProfileCache.invalidateAll();
+
+        // Assert
+        assertEquals(0, userProfileCache.size());
+    }
+
+    private static Task<DataSnapshot> mockTask(boolean complete, boolean successful) {
+        // not every test reads the task state, so these stubs are lenient
+        Task<DataSnapshot> task = mock(Task.class);
+        lenient().when(task.isComplete()).thenReturn(complete);
+        lenient().when(task.isSuccessful()).thenReturn(successful);
+        return task;
+    }
+}
@@ -1,30 +1,41 @@
 package edu.uga.cs.shopsync.backend.services;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.auth.AuthResult;
+import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.ValueEventListener;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import edu.uga.cs.shopsync.backend.firebase.UserShopSyncMapFirebaseReference;
 import edu.uga.cs.shopsync.backend.firebase.UsersFirebaseReference;
 import edu.uga.cs.shopsync.backend.models.UserProfileModel;
 import edu.uga.cs.shopsync.utils.ErrorHandle;
+import edu.uga.cs.shopsync.utils.ErrorType;
 
 @RunWith(MockitoJUnitRunner.class)
 @SuppressWarnings("unchecked")
@@ -36,6 +47,13 @@ public class UsersServiceTest {
     @Mock
     private UserShopSyncMapFirebaseReference mockUserShopSyncMapReference;
 
+    @Mock
+    private UserProfileCache mockUserProfileCache;
+
+    // payloads are never sampled, so that the snapshots of the tests are not walked
+    @Spy
+    private ServiceMetrics serviceMetrics = new ServiceMetrics(() -> 0L, Integer.MAX_VALUE);
+
     @InjectMocks
     private UsersService usersService;
 
@@ -69,8 +87,23 @@ public class UsersServiceTest {
         }
 
         // Assert
+        ArgumentCaptor<Consumer<UserProfileModel>> successCaptor =
+                ArgumentCaptor.forClass(Consumer.class);
+        ArgumentCaptor<Consumer<ErrorHandle>> errorCaptor = ArgumentCaptor.forClass(Consumer.class);
         verify(mockFirebaseReference, times(1))
-                .createUser(email, username, password, mockSuccessConsumer, mockErrorConsumer);
+                .createUser(eq(email), eq(username), eq(password), successCaptor.capture(),
+                            errorCaptor.capture());
+
+        // the consumers are passed on once the call is recorded
+        UserProfileModel userProfile = new UserProfileModel("userUid", email, username);
+        successCaptor.getValue().accept(userProfile);
+        verify(mockSuccessConsumer).accept(userProfile);
+        ErrorHandle errorHandle = new ErrorHandle(ErrorType.TASK_FAILED, "failed");
+        errorCaptor.getValue().accept(errorHandle);
+        verify(mockErrorConsumer).accept(errorHandle);
+
+        assertEquals(1, serviceMetrics.getLatencyMicros("createUser").count());
+        assertEquals(1, serviceMetrics.getErrorCount("createUser", ErrorType.TASK_FAILED));
     }
 
     @Test
@@ -96,6 +129,7 @@ public class UsersServiceTest {
         usersService.signOut();
 
         // Assert
+        verify(mockUserProfileCache, times(1)).invalidateAll();
         verify(mockFirebaseReference, times(1)).signOut();
     }
 
@@ -129,6 +163,59 @@ public class UsersServiceTest {
         assertTrue(result);
     }
 
+    @Test
+    public void testGetUserProfileWithUid() {
+        // Arrange
+        Task<DataSnapshot> mockTask = mock(Task.class);
+        when(mockUserProfileCache.get(eq("userUid"), any())).thenReturn(mockTask);
+
+        // Act
+        Task<DataSnapshot> result = usersService.getUserProfileWithUid("userUid");
+
+        // Assert
+        assertSame(mockTask, result);
+        verify(mockFirebaseReference, times(0)).getUserProfileWithUid(any());
+    }
+
+    @Test
+    public void testGetUserProfileAsync() {
+        // Arrange
+        UserProfileModel userProfile = new UserProfileModel("userUid", "user@example.com",
+                                                            "user");
+        DataSnapshot mockSnapshot = mock(DataSnapshot.class);
+        when(mockSnapshot.getValue(UserProfileModel.class)).thenReturn(userProfile);
+        Task<DataSnapshot> mockTask = mock(Task.class);
+        when(mockTask.isSuccessful()).thenReturn(true);
+        when(mockTask.getResult()).thenReturn(mockSnapshot);
+        when(mockTask.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            ((OnCompleteListener<DataSnapshot>) invocation.getArgument(0)).onComplete(mockTask);
+            return mockTask;
+        });
+        when(mockUserProfileCache.get(eq("userUid"), any())).thenReturn(mockTask);
+
+        // Act
+        CompletableFuture<UserProfileModel> result = usersService.getUserProfileAsync("userUid");
+
+        // Assert
+        assertTrue(result.isDone());
+        assertSame(userProfile, result.join());
+    }
+
+    @Test
+    public void testResolveEmails() {
+        // Arrange
+        List<String> emails = List.of("a@example.com", "b@example.com");
+        Consumer<Map<String, String>> mockSuccessConsumer = mock(Consumer.class);
+        Consumer<ErrorHandle> mockErrorConsumer = mock(Consumer.class);
+
+        // Act
+        usersService.resolveEmails(emails, mockSuccessConsumer, mockErrorConsumer);
+
+        // Assert
+        verify(mockFirebaseReference, times(1))
+                .resolveEmails(emails, mockSuccessConsumer, mockErrorConsumer);
+    }
+
     // Add more tests for the remaining methods...
 
     @Test
@@ -147,6 +234,7 @@ public class UsersServiceTest {
         verify(mockFirebaseReference, times(1))
                 .deleteCurrentUser(password, mockSuccessRunnable, mockFailureRunnable);
         verify(mockUserShopSyncMapReference, times(1)).removeUser("userUid");
+        verify(mockUserProfileCache, times(1)).invalidate("userUid");
     }
 }
 
@@ -0,0 +1,166 @@
+package edu.uga.cs.shopsync.backend.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.DatabaseReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import edu.uga.cs.shopsync.utils.DataWrapper;
+import edu.uga.cs.shopsync.utils.ErrorHandle;
+
+@RunWith(MockitoJUnitRunner.class)
+@SuppressWarnings("unchecked")
+public class WriteOutboxTest {
+
+    private static final long FLUSH_DELAY_MILLIS = 300;
+    private static final String QUANTITY_PATH = "/shop_syncs/shop1/shoppingBaskets/user1/" +
+            "basketItems/item1/quantity";
+    private static final String NAME_PATH = "/shop_syncs/shop1/shoppingItems/item2/name";
+
+    private long now;
+    private List<Runnable> scheduledFlushes;
+    private DatabaseReference mockRootReference;
+    private WriteOutbox writeOutbox;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        scheduledFlushes = new ArrayList<>();
+        mockRootReference = mock(DatabaseReference.class);
+        writeOutbox = new WriteOutbox(mockRootReference, FLUSH_DELAY_MILLIS,
+                                      (runnable, delay) -> scheduledFlushes.add(runnable),
+                                      () -> now);
+    }
+
+    @Test
+    public void testEnqueue_CoalescesWritesToTheSamePath() {
+        // Arrange
+        Task<Void> task = mockTask(true);
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(task);
+
+        // Act
+        writeOutbox.enqueue(Map.of(QUANTITY_PATH, 1L), null, null);
+        writeOutbox.enqueue(Map.of(QUANTITY_PATH, 2L), null, null);
+        writeOutbox.enqueue(Map.of(NAME_PATH, "Milk"), null, null);
+        scheduledFlushes.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(1, scheduledFlushes.size());
+        verify(mockRootReference, times(1)).updateChildren(Map.of(QUANTITY_PATH, 2L,
+                                                                  NAME_PATH, "Milk"));
+        assertEquals(3, writeOutbox.getEnqueuedWriteCount());
+        assertEquals(1, writeOutbox.getCoalescedWriteCount());
+        assertEquals(1, writeOutbox.getFlushCount());
+        assertEquals(0, writeOutbox.getQueueDepth());
+    }
+
+    @Test
+    public void testEnqueue_NothingIsWrittenBeforeTheFlush() {
+        // Act
+        writeOutbox.enqueue(Map.of(QUANTITY_PATH, 1L), null, null);
+
+        // Assert
+        verify(mockRootReference, never()).updateChildren(anyMap());
+        assertEquals(1, writeOutbox.getQueueDepth());
+    }
+
+    @Test
+    public void testEnqueue_OverlappingPathFlushesPendingWrites() {
+        // Arrange
+        Task<Void> task = mockTask(true);
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(task);
+        String basketItemPath = "/shop_syncs/shop1/shoppingBaskets/user1/basketItems/item1";
+
+        // Act
+        writeOutbox.enqueue(Map.of(QUANTITY_PATH, 1L), null, null);
+        writeOutbox.enqueue(Map.of(basketItemPath, Map.of("quantity", 3L)), null, null);
+
+        // Assert
+        verify(mockRootReference).updateChildren(Map.of(QUANTITY_PATH, 1L));
+        assertEquals(1, writeOutbox.getQueueDepth());
+    }
+
+    @Test
+    public void testFlush_RunsCallbacksAndRecordsLatency() {
+        // Arrange
+        DataWrapper<OnCompleteListener<Void>> listenerWrapper = new DataWrapper<>(null);
+        Task<Void> task = mock(Task.class);
+        when(task.isSuccessful()).thenReturn(true);
+        when(task.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            listenerWrapper.set(invocation.getArgument(0));
+            return task;
+        });
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(task);
+        Runnable firstOnSuccess = mock(Runnable.class);
+        Runnable secondOnSuccess = mock(Runnable.class);
+
+        // Act
+        writeOutbox.enqueue(Map.of(QUANTITY_PATH, 1L), firstOnSuccess, null);
+        writeOutbox.enqueue(Map.of(QUANTITY_PATH, 2L), secondOnSuccess, null);
+        writeOutbox.flush();
+        now = 120;
+        listenerWrapper.get().onComplete(task);
+
+        // Assert
+        verify(firstOnSuccess).run();
+        verify(secondOnSuccess).run();
+        assertEquals(120, writeOutbox.getLastFlushLatencyMillis());
+        assertEquals(120, writeOutbox.getMaxFlushLatencyMillis());
+        assertEquals(120.0, writeOutbox.getAverageFlushLatencyMillis(), 0.0001);
+    }
+
+    @Test
+    public void testFlush_Failure() {
+        // Arrange
+        Task<Void> task = mockTask(false);
+        when(mockRootReference.updateChildren(anyMap())).thenReturn(task);
+        Runnable onSuccess = mock(Runnable.class);
+        Consumer<ErrorHandle> onFailure = mock(Consumer.class);
+
+        // Act
+        writeOutbox.enqueue(Map.of(NAME_PATH, "Milk"), onSuccess, onFailure);
+        writeOutbox.flush();
+
+        // Assert
+        verify(onSuccess, never()).run();
+        verify(onFailure).accept(any(ErrorHandle.class));
+    }
+
+    @Test
+    public void testFlush_Empty() {
+        // Act
+        writeOutbox.flush();
+
+        // Assert
+        verify(mockRootReference, never()).updateChildren(anyMap());
+        assertEquals(0, writeOutbox.getFlushCount());
+    }
+
+    private static Task<Void> mockTask(boolean successful) {
+        Task<Void> task = mock(Task.class);
+        when(task.isSuccessful()).thenReturn(successful);
+        when(task.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            ((OnCompleteListener<Void>) invocation.getArgument(0)).onComplete(task);
+            return task;
+        });
+        return task;
+    }
+}
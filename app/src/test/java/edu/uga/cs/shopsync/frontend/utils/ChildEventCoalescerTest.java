@@ -0,0 +1,128 @@
+package edu.uga.cs.shopsync.frontend.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChildEventCoalescerTest {
+
+    private List<Runnable> scheduledFlushes;
+    private ChildEventListener mockTarget;
+    private Runnable mockOnBatchStart;
+    private Runnable mockOnBatchEnd;
+    private ChildEventCoalescer childEventCoalescer;
+
+    @Before
+    public void setUp() {
+        scheduledFlushes = new ArrayList<>();
+        mockTarget = mock(ChildEventListener.class);
+        mockOnBatchStart = mock(Runnable.class);
+        mockOnBatchEnd = mock(Runnable.class);
+        childEventCoalescer = new ChildEventCoalescer(mockTarget, mockOnBatchStart,
+                                                      mockOnBatchEnd, scheduledFlushes::add);
+    }
+
+    @Test
+    public void testEvents_DeliveredInOneBatchInOrder() {
+        // Arrange
+        DataSnapshot first = mock(DataSnapshot.class);
+        DataSnapshot second = mock(DataSnapshot.class);
+        DataSnapshot third = mock(DataSnapshot.class);
+
+        // Act
+        childEventCoalescer.onChildAdded(first, null);
+        childEventCoalescer.onChildAdded(second, "item1");
+        childEventCoalescer.onChildChanged(first, null);
+        childEventCoalescer.onChildRemoved(third);
+        verifyNoInteractions(mockTarget);
+        scheduledFlushes.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(1, scheduledFlushes.size());
+        InOrder inOrder = inOrder(mockOnBatchStart, mockTarget, mockOnBatchEnd);
+        inOrder.verify(mockOnBatchStart).run();
+        inOrder.verify(mockTarget).onChildAdded(first, null);
+        inOrder.verify(mockTarget).onChildAdded(second, "item1");
+        inOrder.verify(mockTarget).onChildChanged(first, null);
+        inOrder.verify(mockTarget).onChildRemoved(third);
+        inOrder.verify(mockOnBatchEnd).run();
+        assertEquals(0, childEventCoalescer.getPendingEventCount());
+    }
+
+    @Test
+    public void testCancel_ScheduledFlushDeliversNothing() {
+        // Arrange
+        childEventCoalescer.onChildAdded(mock(DataSnapshot.class), null);
+        childEventCoalescer.onChildRemoved(mock(DataSnapshot.class));
+
+        // Act
+        childEventCoalescer.cancel();
+        scheduledFlushes.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(1, scheduledFlushes.size());
+        assertEquals(0, childEventCoalescer.getPendingEventCount());
+        assertEquals(0, childEventCoalescer.getBatchCount());
+        verifyNoInteractions(mockTarget, mockOnBatchStart, mockOnBatchEnd);
+    }
+
+    @Test
+    public void testFlush_RecordsBatchSizes() {
+        // Act
+        childEventCoalescer.onChildAdded(mock(DataSnapshot.class), null);
+        childEventCoalescer.onChildAdded(mock(DataSnapshot.class), null);
+        childEventCoalescer.onChildAdded(mock(DataSnapshot.class), null);
+        childEventCoalescer.flush();
+        childEventCoalescer.onChildRemoved(mock(DataSnapshot.class));
+        childEventCoalescer.flush();
+
+        // Assert
+        assertEquals(2, childEventCoalescer.getBatchCount());
+        assertEquals(4, childEventCoalescer.getEventCount());
+        assertEquals(1, childEventCoalescer.getLastBatchSize());
+        assertEquals(3, childEventCoalescer.getMaxBatchSize());
+        assertEquals(2.0, childEventCoalescer.getAverageBatchSize(), 0.0001);
+    }
+
+    @Test
+    public void testFlush_Empty() {
+        // Act
+        childEventCoalescer.flush();
+
+        // Assert
+        verify(mockOnBatchStart, never()).run();
+        verify(mockOnBatchEnd, never()).run();
+        assertEquals(0, childEventCoalescer.getBatchCount());
+    }
+
+    @Test
+    public void testOnCancelled_DeliversPendingEventsFirst() {
+        // Arrange
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        DatabaseError error = mock(DatabaseError.class);
+        childEventCoalescer.onChildAdded(snapshot, null);
+
+        // Act
+        childEventCoalescer.onCancelled(error);
+
+        // Assert
+        InOrder inOrder = inOrder(mockTarget);
+        inOrder.verify(mockTarget).onChildAdded(snapshot, null);
+        inOrder.verify(mockTarget).onCancelled(error);
+    }
+
+}
@@ -0,0 +1,99 @@
+package edu.uga.cs.shopsync.frontend.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+import edu.uga.cs.shopsync.utils.IndexedList;
+
+public class ItemListDifferTest {
+
+    private List<Runnable> pendingDiffs;
+    private List<ShoppingItemModel> shoppingItems;
+    private RecyclerView.Adapter<?> mockAdapter;
+    private ItemListDiffer<ShoppingItemModel> differ;
+
+    @Before
+    public void setUp() {
+        pendingDiffs = new ArrayList<>();
+        shoppingItems = new IndexedList<>();
+        mockAdapter = mock(RecyclerView.Adapter.class);
+        Executor diffExecutor = pendingDiffs::add;
+        differ = new ItemListDiffer<>(mockAdapter, shoppingItems, ShoppingItemModel::toMap,
+                                      diffExecutor, Runnable::run);
+    }
+
+    @Test
+    public void testSubmit_AppendsNewItems() {
+        // Arrange
+        ShoppingItemModel milk = new ShoppingItemModel("item1", "Milk", false);
+        ShoppingItemModel eggs = new ShoppingItemModel("item2", "Eggs", false);
+        shoppingItems.add(milk);
+        Runnable onApplied = mock(Runnable.class);
+
+        // Act
+        differ.submit(List.of(new ShoppingItemModel("item1", "Milk", false), eggs), onApplied);
+        runPendingDiffs();
+
+        // Assert
+        assertEquals(List.of(milk, eggs), shoppingItems);
+        assertSame(milk, shoppingItems.get(0));
+        verify(mockAdapter).notifyItemRangeInserted(1, 1);
+        verify(mockAdapter, never()).notifyItemRangeChanged(anyInt(), anyInt(), any());
+        verify(onApplied).run();
+    }
+
+    @Test
+    public void testSubmit_NothingNew() {
+        // Arrange
+        ShoppingItemModel milk = new ShoppingItemModel("item1", "Milk", false);
+        shoppingItems.add(milk);
+
+        // Act
+        differ.submit(List.of(milk), null);
+        runPendingDiffs();
+
+        // Assert
+        assertEquals(List.of(milk), shoppingItems);
+        verify(mockAdapter, never()).notifyItemRangeInserted(anyInt(), anyInt());
+        verify(mockAdapter, never()).notifyDataSetChanged();
+    }
+
+    @Test
+    public void testSubmit_ListChangedWhileDiffing() {
+        // Arrange
+        ShoppingItemModel milk = new ShoppingItemModel("item1", "Milk", false);
+        ShoppingItemModel eggs = new ShoppingItemModel("item2", "Eggs", false);
+        differ.submit(List.of(milk), null);
+
+        // Act
+        shoppingItems.add(0, eggs);
+        runPendingDiffs();
+        runPendingDiffs();
+
+        // Assert
+        assertEquals(List.of(eggs, milk), shoppingItems);
+        verify(mockAdapter).notifyItemRangeInserted(1, 1);
+    }
+
+    private void runPendingDiffs() {
+        List<Runnable> diffs = new ArrayList<>(pendingDiffs);
+        pendingDiffs.clear();
+        diffs.forEach(Runnable::run);
+    }
+
+}
@@ -0,0 +1,162 @@
+package edu.uga.cs.shopsync.frontend.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.Query;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import edu.uga.cs.shopsync.utils.ErrorHandle;
+
+@SuppressWarnings("unchecked")
+public class ItemPagerTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    private List<String> loadedEndBeforeKeys;
+    private Map<String, Task<DataSnapshot>> pagesByEndBeforeKey;
+    private List<String> windows;
+    private Map<String, Query> queriesByWindow;
+    private ChildEventListener mockListener;
+    private ItemPager itemPager;
+
+    @Before
+    public void setUp() {
+        loadedEndBeforeKeys = new ArrayList<>();
+        pagesByEndBeforeKey = new HashMap<>();
+        windows = new ArrayList<>();
+        queriesByWindow = new HashMap<>();
+        mockListener = mock(ChildEventListener.class);
+        itemPager = new ItemPager((endBeforeKey, pageSize) -> {
+            loadedEndBeforeKeys.add(endBeforeKey);
+            return pagesByEndBeforeKey.get(String.valueOf(endBeforeKey));
+        }, (startAtKey, endBeforeKey) -> {
+            String window = startAtKey + ".." + endBeforeKey;
+            windows.add(window);
+            Query query = mock(Query.class);
+            queriesByWindow.put(window, query);
+            return query;
+        }, mockListener, PAGE_SIZE);
+    }
+
+    @Test
+    public void testLoadNextPage_PagesNewestFirstAndListensToLoadedPages() {
+        // Arrange
+        pagesByEndBeforeKey.put("null", mockPageTask(true, "item3", "item4"));
+        pagesByEndBeforeKey.put("item3", mockPageTask(true, "item1", "item2"));
+        List<String> loadedKeys = new ArrayList<>();
+        Consumer<List<DataSnapshot>> onPageLoaded =
+                children -> children.forEach(child -> loadedKeys.add(child.getKey()));
+
+        // Act
+        itemPager.loadNextPage(onPageLoaded, null);
+        itemPager.loadNextPage(onPageLoaded, null);
+
+        // Assert
+        assertEquals(List.of("item4", "item3", "item2", "item1"), loadedKeys);
+        assertEquals(Arrays.asList(null, "item3"), loadedEndBeforeKeys);
+        assertEquals(List.of("item3..null", "item1..item3"), windows);
+        verify(queriesByWindow.get("item3..null")).addChildEventListener(mockListener);
+        verify(queriesByWindow.get("item1..item3")).addChildEventListener(mockListener);
+        assertTrue(itemPager.hasMorePages());
+    }
+
+    @Test
+    public void testLoadNextPage_ShortPageEndsPaging() {
+        // Arrange
+        pagesByEndBeforeKey.put("null", mockPageTask(true, "item1"));
+
+        // Act
+        itemPager.loadNextPage(children -> {}, null);
+        itemPager.loadNextPage(children -> {}, null);
+
+        // Assert
+        assertFalse(itemPager.hasMorePages());
+        assertEquals(1, loadedEndBeforeKeys.size());
+    }
+
+    @Test
+    public void testLoadNextPage_EmptyFirstPageListensToEverything() {
+        // Arrange
+        pagesByEndBeforeKey.put("null", mockPageTask(true));
+
+        // Act
+        itemPager.loadNextPage(children -> {}, null);
+
+        // Assert
+        assertEquals(List.of("null..null"), windows);
+        assertFalse(itemPager.hasMorePages());
+    }
+
+    @Test
+    public void testLoadNextPage_Failure() {
+        // Arrange
+        pagesByEndBeforeKey.put("null", mockPageTask(false));
+        Consumer<List<DataSnapshot>> onPageLoaded = mock(Consumer.class);
+        Consumer<ErrorHandle> onFailure = mock(Consumer.class);
+
+        // Act
+        itemPager.loadNextPage(onPageLoaded, onFailure);
+
+        // Assert
+        verify(onFailure).accept(any(ErrorHandle.class));
+        assertEquals(0, itemPager.getWindowCount());
+        assertFalse(itemPager.isLoading());
+    }
+
+    @Test
+    public void testReset() {
+        // Arrange
+        pagesByEndBeforeKey.put("null", mockPageTask(true, "item1", "item2"));
+        itemPager.loadNextPage(children -> {}, null);
+
+        // Act
+        itemPager.reset();
+        itemPager.loadNextPage(children -> {}, null);
+
+        // Assert
+        verify(queriesByWindow.get("item1..null")).removeEventListener(mockListener);
+        assertEquals(Arrays.asList(null, null), loadedEndBeforeKeys);
+        assertEquals(1, itemPager.getWindowCount());
+    }
+
+    private static Task<DataSnapshot> mockPageTask(boolean successful, String... keys) {
+        Task<DataSnapshot> task = mock(Task.class);
+        when(task.isSuccessful()).thenReturn(successful);
+        if (successful) {
+            List<DataSnapshot> children = new ArrayList<>();
+            for (String key : keys) {
+                DataSnapshot child = mock(DataSnapshot.class);
+                when(child.getKey()).thenReturn(key);
+                children.add(child);
+            }
+            DataSnapshot page = mock(DataSnapshot.class);
+            when(page.getChildren()).thenReturn(children);
+            when(task.getResult()).thenReturn(page);
+        }
+        when(task.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            ((OnCompleteListener<DataSnapshot>) invocation.getArgument(0)).onComplete(task);
+            return task;
+        });
+        return task;
+    }
+
+}
@@ -0,0 +1,188 @@
+package edu.uga.cs.shopsync.frontend.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class ShoppingItemNameIndexTest {
+
+    private List<String> loadedUids;
+    private Map<String, Consumer<String>> pendingLoads;
+    private Map<String, Consumer<String>> watchedNames;
+    private List<String> unwatchedUids;
+    private ShoppingItemNameIndex shoppingItemNameIndex;
+
+    @Before
+    public void setUp() {
+        loadedUids = new ArrayList<>();
+        pendingLoads = new HashMap<>();
+        watchedNames = new HashMap<>();
+        unwatchedUids = new ArrayList<>();
+        shoppingItemNameIndex = new ShoppingItemNameIndex((shoppingItemUid, onLoaded) -> {
+            loadedUids.add(shoppingItemUid);
+            pendingLoads.put(shoppingItemUid, onLoaded);
+        }, (shoppingItemUid, onName) -> {
+            watchedNames.put(shoppingItemUid, onName);
+            return () -> unwatchedUids.add(shoppingItemUid);
+        });
+    }
+
+    @Test
+    public void testResolve_Hit() {
+        // Arrange
+        shoppingItemNameIndex.put("item1", "Milk");
+        List<String> names = new ArrayList<>();
+
+        // Act
+        shoppingItemNameIndex.resolve("item1", names::add);
+
+        // Assert
+        assertEquals(List.of("Milk"), names);
+        assertEquals(0, loadedUids.size());
+    }
+
+    @Test
+    public void testResolve_MissCoalescesLoads() {
+        // Arrange
+        List<String> names = new ArrayList<>();
+
+        // Act
+        shoppingItemNameIndex.resolve("item1", names::add);
+        shoppingItemNameIndex.resolve("item1", names::add);
+        pendingLoads.get("item1").accept("Milk");
+        shoppingItemNameIndex.resolve("item1", names::add);
+
+        // Assert
+        assertEquals(List.of("item1"), loadedUids);
+        assertEquals(List.of("Milk", "Milk", "Milk"), names);
+        assertEquals("Milk", shoppingItemNameIndex.getName("item1"));
+    }
+
+    @Test
+    public void testResolve_PutCompletesPendingLookup() {
+        // Arrange
+        List<String> names = new ArrayList<>();
+        shoppingItemNameIndex.resolve("item1", names::add);
+
+        // Act
+        shoppingItemNameIndex.put("item1", "Milk");
+        pendingLoads.get("item1").accept("Milk");
+
+        // Assert
+        assertEquals(List.of("Milk"), names);
+    }
+
+    @Test
+    public void testResolve_FailedLoadIsRetried() {
+        // Arrange
+        List<String> names = new ArrayList<>();
+        shoppingItemNameIndex.resolve("item1", names::add);
+
+        // Act
+        pendingLoads.get("item1").accept(null);
+        shoppingItemNameIndex.resolve("item1", names::add);
+
+        // Assert
+        assertEquals(1, names.size());
+        assertNull(names.get(0));
+        assertEquals(List.of("item1", "item1"), loadedUids);
+    }
+
+    @Test
+    public void testResolve_WatchedNameIsNotLoaded() {
+        // Arrange
+        List<String> names = new ArrayList<>();
+        shoppingItemNameIndex.watch("item1");
+
+        // Act
+        shoppingItemNameIndex.resolve("item1", names::add);
+        shoppingItemNameIndex.resolve("item1", names::add);
+        watchedNames.get("item1").accept("Milk");
+
+        // Assert
+        assertEquals(List.of("Milk", "Milk"), names);
+        assertEquals(0, loadedUids.size());
+    }
+
+    @Test
+    public void testWatch_NameChanged() {
+        // Arrange
+        shoppingItemNameIndex.watch("item1");
+        shoppingItemNameIndex.watch("item1");
+        watchedNames.get("item1").accept("Milk");
+
+        // Act
+        watchedNames.get("item1").accept("Oat milk");
+
+        // Assert
+        assertEquals("Oat milk", shoppingItemNameIndex.getName("item1"));
+        assertEquals(1, watchedNames.size());
+    }
+
+    @Test
+    public void testWatch_ShoppingItemDeleted() {
+        // Arrange
+        List<String> names = new ArrayList<>();
+        shoppingItemNameIndex.watch("item1");
+        shoppingItemNameIndex.resolve("item1", names::add);
+
+        // Act
+        watchedNames.get("item1").accept(null);
+
+        // Assert
+        assertEquals(1, names.size());
+        assertNull(names.get(0));
+        assertNull(shoppingItemNameIndex.getName("item1"));
+    }
+
+    @Test
+    public void testUnwatch() {
+        // Arrange
+        shoppingItemNameIndex.watch("item1");
+
+        // Act
+        shoppingItemNameIndex.unwatch("item1");
+        shoppingItemNameIndex.unwatch("item1");
+
+        // Assert
+        assertEquals(List.of("item1"), unwatchedUids);
+    }
+
+    @Test
+    public void testRemove() {
+        // Arrange
+        shoppingItemNameIndex.put("item1", "Milk");
+        shoppingItemNameIndex.put("item2", "Eggs");
+
+        // Act
+        shoppingItemNameIndex.remove("item1");
+
+        // Assert
+        assertNull(shoppingItemNameIndex.getName("item1"));
+        assertEquals("Eggs", shoppingItemNameIndex.getName("item2"));
+    }
+
+    @Test
+    public void testClear() {
+        // Arrange
+        shoppingItemNameIndex.put("item1", "Milk");
+
+        shoppingItemNameIndex.watch("item2");
+
+        // Act
+        shoppingItemNameIndex.clear();
+
+        // Assert
+        assertNull(shoppingItemNameIndex.getName("item1"));
+        assertEquals(List.of("item2"), unwatchedUids);
+    }
+
+}
@@ -0,0 +1,188 @@
+package edu.uga.cs.shopsync.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import edu.uga.cs.shopsync.backend.exceptions.ErrorHandleException;
+
+@SuppressWarnings("unchecked")
+public class FuturesTest {
+
+    @Test
+    public void testFromTask_Success() {
+        // Arrange
+        Task<String> task = mockCompletedTask(true, "value");
+
+        // Act
+        CompletableFuture<String> result = Futures.fromTask(task);
+
+        // Assert
+        assertTrue(result.isDone());
+        assertEquals("value", result.join());
+    }
+
+    @Test
+    public void testFromTask_Failure() {
+        // Arrange
+        Task<String> task = mockCompletedTask(false, null);
+
+        // Act
+        CompletableFuture<String> result = Futures.fromTask(task);
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(ErrorType.TASK_FAILED, errorHandleOf(result).errorType());
+    }
+
+    @Test
+    public void testFromCallbacks() {
+        // Arrange
+        ErrorHandle errorHandle = new ErrorHandle(ErrorType.ENTITY_ALREADY_EXISTS, "exists");
+
+        // Act
+        CompletableFuture<String> success = Futures.fromCallbacks(
+                (onSuccess, onFailure) -> onSuccess.accept("value"));
+        CompletableFuture<String> failure = Futures.fromCallbacks(
+                (onSuccess, onFailure) -> onFailure.accept(errorHandle));
+
+        // Assert
+        assertEquals("value", success.join());
+        assertSame(errorHandle, errorHandleOf(failure));
+    }
+
+    @Test
+    public void testWithDeadline_Exceeded() {
+        // Arrange
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        ScheduledFuture<?> deadline = mock(ScheduledFuture.class);
+        ArgumentCaptor<Runnable> deadlineCaptor = ArgumentCaptor.forClass(Runnable.class);
+        doReturn(deadline).when(scheduler).schedule(deadlineCaptor.capture(), eq(5L),
+                                                    eq(TimeUnit.SECONDS));
+        CompletableFuture<String> future = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<String> result = Futures.withDeadline(future, 5, TimeUnit.SECONDS,
+                                                                scheduler);
+        deadlineCaptor.getValue().run();
+
+        // Assert
+        assertSame(future, result);
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(ErrorType.TIMED_OUT, errorHandleOf(result).errorType());
+    }
+
+    @Test
+    public void testWithDeadline_CompletedInTime() {
+        // Arrange
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        ScheduledFuture<?> deadline = mock(ScheduledFuture.class);
+        doReturn(deadline).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+        CompletableFuture<String> future = new CompletableFuture<>();
+
+        // Act
+        Futures.withDeadline(future, 5, TimeUnit.SECONDS, scheduler);
+        future.complete("value");
+
+        // Assert
+        assertEquals("value", future.join());
+        verify(deadline).cancel(false);
+    }
+
+    @Test
+    public void testAllOf_KeepsOrder() {
+        // Arrange
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<List<String>> result = Futures.allOf(List.of(first, second));
+        second.complete("second");
+        assertFalse(result.isDone());
+        first.complete("first");
+
+        // Assert
+        assertEquals(List.of("first", "second"), result.join());
+    }
+
+    @Test
+    public void testAllOf_FailsFastAndCancelsTheRest() {
+        // Arrange
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        ErrorHandle errorHandle = new ErrorHandle(ErrorType.TASK_FAILED, "failed");
+
+        // Act
+        CompletableFuture<List<String>> result = Futures.allOf(List.of(first, second));
+        second.completeExceptionally(new ErrorHandleException(errorHandle));
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        assertSame(errorHandle, errorHandleOf(result));
+        assertTrue(first.isCancelled());
+    }
+
+    @Test
+    public void testAllOf_Cancelled() {
+        // Arrange
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<List<String>> result = Futures.allOf(List.of(first, second));
+        result.cancel(false);
+
+        // Assert
+        assertTrue(first.isCancelled());
+        assertTrue(second.isCancelled());
+        assertEquals(ErrorType.CANCELLED, errorHandleOf(result).errorType());
+    }
+
+    @Test
+    public void testAllOf_Empty() {
+        // Act
+        CompletableFuture<List<String>> result = Futures.allOf(List.of());
+
+        // Assert
+        assertTrue(result.isDone());
+        assertTrue(result.join().isEmpty());
+    }
+
+    private static ErrorHandle errorHandleOf(CompletableFuture<?> future) {
+        return future.handle((value, throwable) -> Futures.errorHandleOf(throwable)).join();
+    }
+
+    private static Task<String> mockCompletedTask(boolean successful, String result) {
+        Task<String> task = mock(Task.class);
+        when(task.isSuccessful()).thenReturn(successful);
+        if (successful) {
+            when(task.getResult()).thenReturn(result);
+        }
+        when(task.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            ((OnCompleteListener<String>) invocation.getArgument(0)).onComplete(task);
+            return task;
+        });
+        return task;
+    }
+
+}
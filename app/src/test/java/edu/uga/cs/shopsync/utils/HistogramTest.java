@@ -0,0 +1,107 @@
+package edu.uga.cs.shopsync.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 1_000_000; value++) {
+            // Act
+            long upperBound = Histogram.upperBoundOf(Histogram.bucketOf(value));
+
+            // Assert
+            assertTrue(upperBound >= value);
+            assertTrue(value < 16 ? upperBound == value : upperBound <= value * 1.125);
+        }
+    }
+
+    @Test
+    public void testBuckets_LargeValuesShareTheLastBucket() {
+        // Act
+        int bucket = Histogram.bucketOf(Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(Histogram.BUCKET_COUNT - 1, bucket);
+        assertEquals(Histogram.BUCKET_COUNT - 1, Histogram.bucketOf((1L << 40) - 1));
+    }
+
+    @Test
+    public void testSnapshot() {
+        // Arrange
+        Histogram histogram = new Histogram();
+
+        // Act
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        // Assert
+        assertEquals(100, snapshot.count());
+        assertEquals(50.5, snapshot.mean(), 0.001);
+        assertEquals(51, snapshot.p50());
+        assertEquals(95, snapshot.p95());
+        assertEquals(100, snapshot.p99());
+        assertEquals(100, snapshot.max());
+    }
+
+    @Test
+    public void testSnapshot_Empty() {
+        // Act
+        Histogram.Snapshot snapshot = new Histogram().snapshot();
+
+        // Assert
+        assertEquals(new Histogram.Snapshot(0, 0, 0, 0, 0, 0), snapshot);
+    }
+
+    @Test
+    public void testSnapshot_PercentilesNeverExceedTheMaximum() {
+        // Arrange
+        Histogram histogram = new Histogram();
+
+        // Act
+        histogram.record(5000);
+        histogram.record(-1);
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        // Assert
+        assertEquals(0, snapshot.p50());
+        assertEquals(5000, snapshot.p99());
+        assertEquals(5000, snapshot.max());
+    }
+
+    @Test
+    public void testRecord_Concurrently() throws InterruptedException {
+        // Arrange
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                for (int value = 0; value < 10_000; value++) {
+                    histogram.record(value);
+                }
+            }));
+        }
+
+        // Act
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        // Assert
+        assertEquals(40_000, snapshot.count());
+        assertEquals(9999, snapshot.max());
+    }
+
+}
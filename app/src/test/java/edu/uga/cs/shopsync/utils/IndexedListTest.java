@@ -0,0 +1,161 @@
+package edu.uga.cs.shopsync.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+
+public class IndexedListTest {
+
+    private IndexedList<String> indexedList;
+
+    @Before
+    public void setUp() {
+        indexedList = new IndexedList<>();
+    }
+
+    @Test
+    public void testAdd_HeadAndTail() {
+        // Act
+        indexedList.add("b");
+        indexedList.add(0, "a");
+        indexedList.add("c");
+        indexedList.add(indexedList.size(), "d");
+
+        // Assert
+        assertEquals(List.of("a", "b", "c", "d"), indexedList);
+        assertEquals(0, indexedList.indexOf("a"));
+        assertEquals(3, indexedList.indexOf("d"));
+        assertEquals(-1, indexedList.indexOf("e"));
+    }
+
+    @Test
+    public void testAdd_Middle() {
+        // Arrange
+        indexedList.addAll(List.of("a", "c"));
+
+        // Act
+        indexedList.add(1, "b");
+
+        // Assert
+        assertEquals(List.of("a", "b", "c"), indexedList);
+        assertEquals(1, indexedList.indexOf("b"));
+        assertEquals(2, indexedList.indexOf("c"));
+    }
+
+    @Test
+    public void testAdd_Duplicate() {
+        // Arrange
+        indexedList.add("a");
+
+        // Act and Assert
+        assertFalse(indexedList.add("a"));
+        assertThrows(IllegalArgumentException.class, () -> indexedList.add(0, "a"));
+        assertEquals(1, indexedList.size());
+    }
+
+    @Test
+    public void testRemove() {
+        // Arrange
+        indexedList.addAll(List.of("a", "b", "c", "d"));
+
+        // Act
+        assertTrue(indexedList.remove("b"));
+        String removed = indexedList.remove(2);
+
+        // Assert
+        assertEquals("d", removed);
+        assertEquals(List.of("a", "c"), indexedList);
+        assertEquals(1, indexedList.indexOf("c"));
+        assertFalse(indexedList.contains("b"));
+        assertFalse(indexedList.remove("b"));
+    }
+
+    @Test
+    public void testSet_ReplacesEqualElement() {
+        // Arrange
+        IndexedList<ShoppingItemModel> shoppingItems = new IndexedList<>();
+        shoppingItems.add(new ShoppingItemModel("item1", "Milk", false));
+        shoppingItems.add(0, new ShoppingItemModel("item2", "Eggs", false));
+        ShoppingItemModel updated = new ShoppingItemModel("item1", "Oat milk", true);
+
+        // Act
+        int index = shoppingItems.indexOf(updated);
+        shoppingItems.set(index, updated);
+
+        // Assert
+        assertEquals(1, index);
+        assertSame(updated, shoppingItems.get(1));
+        assertEquals(2, shoppingItems.size());
+    }
+
+    @Test
+    public void testSet_ElementElsewhereInTheList() {
+        // Arrange
+        indexedList.addAll(List.of("a", "b"));
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> indexedList.set(0, "b"));
+    }
+
+    @Test
+    public void testMatchesArrayList() {
+        // Arrange
+        Random random = new Random(42);
+        List<String> expected = new ArrayList<>();
+        int next = 0;
+
+        // Act and Assert
+        for (int i = 0; i < 5000; i++) {
+            int operation = random.nextInt(5);
+            if (operation == 0 || expected.isEmpty()) {
+                String element = "e" + next++;
+                expected.add(0, element);
+                indexedList.add(0, element);
+            } else if (operation == 1) {
+                String element = "e" + next++;
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, element);
+                indexedList.add(index, element);
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), indexedList.remove(index));
+            } else if (operation == 3) {
+                String element = expected.get(random.nextInt(expected.size()));
+                expected.remove(element);
+                assertTrue(indexedList.remove(element));
+            } else {
+                String element = expected.get(random.nextInt(expected.size()));
+                assertEquals(expected.indexOf(element), indexedList.indexOf(element));
+            }
+
+            assertEquals(expected.size(), indexedList.size());
+        }
+        assertEquals(expected, indexedList);
+    }
+
+    @Test
+    public void testClear() {
+        // Arrange
+        indexedList.addAll(List.of("a", "b"));
+
+        // Act
+        indexedList.clear();
+
+        // Assert
+        assertTrue(indexedList.isEmpty());
+        assertFalse(indexedList.contains("a"));
+        assertTrue(indexedList.add("a"));
+    }
+
+}
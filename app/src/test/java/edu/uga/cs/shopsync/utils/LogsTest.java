@@ -0,0 +1,48 @@
+package edu.uga.cs.shopsync.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class LogsTest {
+
+    @Test
+    public void testFormat() {
+        // Act
+        String result = Logs.format("shop sync uid ({}), changed paths {}", "uid",
+                                    List.of("/name"));
+
+        // Assert
+        assertEquals("shop sync uid (uid), changed paths [/name]", result);
+    }
+
+    @Test
+    public void testFormat_MissingArguments() {
+        // Act
+        String result = Logs.format("position = {} and item = {}", 1);
+
+        // Assert
+        assertEquals("position = 1 and item = {}", result);
+    }
+
+    @Test
+    public void testFormat_ExtraArguments() {
+        // Act
+        String result = Logs.format("position = {}", 1, "item");
+
+        // Assert
+        assertEquals("position = 1", result);
+    }
+
+    @Test
+    public void testFormat_NullArgument() {
+        // Act
+        String result = Logs.format("item = {}", (Object) null);
+
+        // Assert
+        assertEquals("item = null", result);
+    }
+
+}
@@ -0,0 +1,130 @@
+package edu.uga.cs.shopsync.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class MapDiffTest {
+
+    private static final String PATH = "/shop_syncs/shopSyncUid";
+
+    @Test
+    public void testDiff_EqualTrees() {
+        // Arrange
+        Map<String, Object> tree = Map.of("name", "Name",
+                                          "shoppingItems", Map.of("item", Map.of("name", "Item")));
+
+        // Act
+        Map<String, Object> result = MapDiff.diff(PATH, tree, Map.copyOf(tree));
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testDiff_NestedLeafChanged() {
+        // Arrange
+        Map<String, Object> baseline = Map.of(
+                "name", "Name",
+                "shoppingItems", Map.of("first", Map.of("name", "First", "inBasket", false),
+                                        "second", Map.of("name", "Second", "inBasket", false)));
+        Map<String, Object> updated = Map.of(
+                "name", "Name",
+                "shoppingItems", Map.of("first", Map.of("name", "First", "inBasket", true),
+                                        "second", Map.of("name", "Second", "inBasket", false)));
+
+        // Act
+        Map<String, Object> result = MapDiff.diff(PATH, baseline, updated);
+
+        // Assert
+        assertEquals(Map.of(PATH + "/shoppingItems/first/inBasket", true), result);
+    }
+
+    @Test
+    public void testDiff_ChildAdded() {
+        // Arrange
+        Map<String, Object> baseline = Map.of(
+                "shoppingItems", Map.of("first", Map.of("name", "A")));
+        Map<String, Object> updated = Map.of(
+                "shoppingItems", Map.of("first", Map.of("name", "A"),
+                                        "second", Map.of("name", "B")));
+
+        // Act
+        Map<String, Object> result = MapDiff.diff(PATH, baseline, updated);
+
+        // Assert
+        assertEquals(Map.of(PATH + "/shoppingItems/second", Map.of("name", "B")), result);
+    }
+
+    @Test
+    public void testDiff_ChildRemoved() {
+        // Arrange
+        Map<String, Object> baseline = Map.of(
+                "shoppingItems", Map.of("first", Map.of("name", "A"),
+                                        "second", Map.of("name", "B")));
+        Map<String, Object> updated = Map.of(
+                "shoppingItems", Map.of("first", Map.of("name", "A")));
+
+        // Act
+        Map<String, Object> result = MapDiff.diff(PATH, baseline, updated);
+
+        // Assert
+        Map<String, Object> expected = new HashMap<>();
+        expected.put(PATH + "/shoppingItems/second", null);
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testDiff_EmptyMapsAreMissing() {
+        // Arrange
+        Map<String, Object> baseline = new HashMap<>();
+        baseline.put("name", "Name");
+        baseline.put("shoppingItems", null);
+        Map<String, Object> updated = Map.of("name", "Name", "shoppingItems", Map.of());
+
+        // Act
+        Map<String, Object> result = MapDiff.diff(PATH, baseline, updated);
+
+        // Assert
+        // writing the empty map would remove the items that were added in the meantime
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testDiff_MapBecomesEmpty_ChildrenRemovedOneByOne() {
+        // Arrange
+        Map<String, Object> baseline = Map.of(
+                "name", "Name",
+                "shoppingItems", Map.of("first", Map.of("name", "A"),
+                                        "second", Map.of("name", "B")));
+        Map<String, Object> updated = Map.of("name", "Name", "shoppingItems", Map.of());
+
+        // Act
+        Map<String, Object> result = MapDiff.diff(PATH, baseline, updated);
+
+        // Assert
+        // removing the map itself would remove the items that were added in the meantime
+        Map<String, Object> expected = new HashMap<>();
+        expected.put(PATH + "/shoppingItems/first", null);
+        expected.put(PATH + "/shoppingItems/second", null);
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testDiff_NumbersComparedByValue() {
+        // Arrange
+        Map<String, Object> baseline = Map.of("quantity", 2L, "pricePerUnit", 3L);
+        Map<String, Object> updated = Map.of("quantity", 2.0, "pricePerUnit", 3.5);
+
+        // Act
+        Map<String, Object> result = MapDiff.diff(PATH, baseline, updated);
+
+        // Assert
+        assertEquals(Map.of(PATH + "/pricePerUnit", 3.5), result);
+    }
+
+}
@@ -0,0 +1,76 @@
+package edu.uga.cs.shopsync.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class TraceFileWriterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testAccept() throws IOException {
+        // Arrange
+        File directory = new File(temporaryFolder.getRoot(), "traces");
+        TraceFileWriter traceFileWriter = new TraceFileWriter(directory, 1024, 3, Runnable::run);
+
+        // Act
+        traceFileWriter.accept("{\"ph\":\"b\"}");
+        traceFileWriter.accept("{\"ph\":\"e\"}");
+
+        // Assert
+        assertEquals("[\n{\"ph\":\"b\"},\n{\"ph\":\"e\"},\n", read(traceFileWriter.traceFile(0)));
+        assertFalse(traceFileWriter.traceFile(1).exists());
+    }
+
+    @Test
+    public void testAccept_RollsFullFiles() throws IOException {
+        // Arrange
+        TraceFileWriter traceFileWriter =
+                new TraceFileWriter(temporaryFolder.getRoot(), 10, 3, Runnable::run);
+
+        // Act
+        for (int event = 1; event <= 4; event++) {
+            traceFileWriter.accept("{\"event\":" + event + "}");
+        }
+
+        // Assert
+        assertEquals("[\n{\"event\":4},\n", read(traceFileWriter.traceFile(0)));
+        assertEquals("[\n{\"event\":3},\n", read(traceFileWriter.traceFile(1)));
+        assertEquals("[\n{\"event\":2},\n", read(traceFileWriter.traceFile(2)));
+        assertFalse(traceFileWriter.traceFile(3).exists());
+    }
+
+    @Test
+    public void testAccept_RollsFileOfEarlierProcess() throws IOException {
+        // Arrange
+        TraceFileWriter earlierWriter =
+                new TraceFileWriter(temporaryFolder.getRoot(), 1024, 3, Runnable::run);
+        earlierWriter.accept("{\"event\":1}");
+        TraceFileWriter traceFileWriter =
+                new TraceFileWriter(temporaryFolder.getRoot(), 1024, 3, Runnable::run);
+
+        // Act
+        traceFileWriter.accept("{\"event\":2}");
+
+        // Assert
+        assertEquals("[\n{\"event\":2},\n", read(traceFileWriter.traceFile(0)));
+        assertTrue(traceFileWriter.traceFile(1).exists());
+        assertEquals("[\n{\"event\":1},\n", read(traceFileWriter.traceFile(1)));
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+}
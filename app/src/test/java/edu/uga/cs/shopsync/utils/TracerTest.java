@@ -0,0 +1,181 @@
+package edu.uga.cs.shopsync.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.android.gms.tasks.Task;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+@SuppressWarnings("unchecked")
+public class TracerTest {
+
+    private AtomicLong nanos;
+    private List<String> events;
+    private Tracer tracer;
+
+    @Before
+    public void setUp() {
+        nanos = new AtomicLong();
+        events = new ArrayList<>();
+        tracer = new Tracer(nanos::get);
+    }
+
+    @Test
+    public void testDisabled() {
+        // Arrange
+        Consumer<String> consumer = mock(Consumer.class);
+        OnSuccessListener<String> listener = mock(OnSuccessListener.class);
+        Task<String> task = mock(Task.class);
+
+        // Act
+        Tracer.Span span = tracer.startSpan("operation");
+        Consumer<String> endingConsumer = span.ending(consumer);
+        OnSuccessListener<String> successListener = span.successListener(listener);
+        tracer.traceTask("task", task);
+        span.end();
+
+        // Assert
+        assertFalse(tracer.isEnabled());
+        assertSame(consumer, endingConsumer);
+        assertSame(listener, successListener);
+        verifyNoInteractions(task);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testStartSpan_ChildOfCurrentSpan() {
+        // Arrange
+        tracer.enable(events::add);
+        Tracer.Span parent = tracer.startSpan("parent");
+
+        // Act
+        Tracer.Span child;
+        try (Tracer.Scope ignored = parent.makeCurrent()) {
+            child = tracer.startSpan("child");
+        }
+        Tracer.Span sibling = tracer.startSpan("sibling");
+
+        // Assert
+        assertSame(parent, child.getParent());
+        assertNull(sibling.getParent());
+        assertNull(tracer.getCurrentSpan());
+    }
+
+    @Test
+    public void testEnd() {
+        // Arrange
+        tracer.enable(events::add);
+        nanos.set(1_000_000);
+        Tracer.Span parent = tracer.startSpan("parent");
+        Tracer.Span child;
+        try (Tracer.Scope ignored = parent.makeCurrent()) {
+            child = tracer.startSpan("child");
+        }
+
+        // Act
+        nanos.set(3_000_000);
+        child.end(ErrorType.TASK_FAILED);
+        child.end();
+
+        // Assert
+        long threadId = Thread.currentThread().getId();
+        String common = "\"name\":\"child\",\"cat\":\"shopsync\",\"id\":\"0x1\",\"pid\":1," +
+                "\"tid\":" + threadId;
+        assertEquals(List.of("{" + common + ",\"ph\":\"b\",\"ts\":1000," +
+                                     "\"args\":{\"span\":2,\"parent\":1}}",
+                             "{" + common + ",\"ph\":\"e\",\"ts\":3000," +
+                                     "\"args\":{\"error\":\"TASK_FAILED\"}}"), events);
+    }
+
+    @Test
+    public void testEnding() {
+        // Arrange
+        tracer.enable(events::add);
+        Tracer.Span parent = tracer.startSpan("parent");
+        Tracer.Span child;
+        try (Tracer.Scope ignored = parent.makeCurrent()) {
+            child = tracer.startSpan("child");
+        }
+        AtomicReference<Tracer.Span> currentSpan = new AtomicReference<>();
+        Consumer<ErrorHandle> onFailure = errorHandle -> currentSpan.set(tracer.getCurrentSpan());
+
+        // Act
+        child.ending(onFailure).accept(new ErrorHandle(ErrorType.TIMED_OUT, "timed out"));
+
+        // Assert
+        assertSame(parent, currentSpan.get());
+        assertNull(tracer.getCurrentSpan());
+        assertEquals(2, events.size());
+        assertTrue(events.get(1).endsWith(",\"args\":{\"error\":\"TIMED_OUT\"}}"));
+    }
+
+    @Test
+    public void testSuccessListener() {
+        // Arrange
+        tracer.enable(events::add);
+        Tracer.Span span = tracer.startSpan("operation");
+        AtomicReference<Tracer.Span> currentSpan = new AtomicReference<>();
+
+        // Act
+        span.<String>successListener(result -> currentSpan.set(tracer.getCurrentSpan()))
+                .onSuccess("result");
+
+        // Assert
+        assertSame(span, currentSpan.get());
+        assertNull(tracer.getCurrentSpan());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testTraceTask() {
+        // Arrange
+        tracer.enable(events::add);
+        Task<String> task = mock(Task.class);
+        when(task.isSuccessful()).thenReturn(false);
+        when(task.addOnCompleteListener(any())).thenAnswer(invocation -> {
+            ((OnCompleteListener<String>) invocation.getArgument(0)).onComplete(task);
+            return task;
+        });
+
+        // Act
+        Task<String> result = tracer.traceTask("task", task);
+
+        // Assert
+        assertSame(task, result);
+        verify(task).addOnCompleteListener(any());
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).startsWith("{\"name\":\"task\","));
+        assertTrue(events.get(1).endsWith(",\"args\":{\"error\":\"TASK_FAILED\"}}"));
+    }
+
+    @Test
+    public void testEnd_NameIsEscaped() {
+        // Arrange
+        tracer.enable(events::add);
+
+        // Act
+        tracer.startSpan("say \"hi\"\n").end();
+
+        // Assert
+        assertTrue(events.get(0).startsWith("{\"name\":\"say \\\"hi\\\"\\u000a\","));
+    }
+
+}
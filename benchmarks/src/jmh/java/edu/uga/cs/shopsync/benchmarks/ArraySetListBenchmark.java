@@ -0,0 +1,66 @@
+package edu.uga.cs.shopsync.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.uga.cs.shopsync.utils.ArraySetList;
+
+/**
+ * Measures the {@link ArraySetList} operations that the item adapters run on every child event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ArraySetListBenchmark {
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private ArraySetList<String> list;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        list = new ArraySetList<>();
+        for (int i = 0; i < size; i++) {
+            list.add("item" + i);
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public boolean addThenRemoveLast() {
+        list.add("extra");
+        return list.remove(list.size() - 1) != null;
+    }
+
+    @Benchmark
+    public boolean containsPresent() {
+        next = (next + 1) % size;
+        return list.contains("item" + next);
+    }
+
+    @Benchmark
+    public boolean containsAbsent() {
+        return list.contains("missing");
+    }
+
+    @Benchmark
+    public boolean removeThenAddMiddle() {
+        // the element is put back so that every invocation sees the same size
+        String element = "item" + (size / 2);
+        boolean removed = list.remove(element);
+        list.add(size / 2, element);
+        return removed;
+    }
+
+}
@@ -0,0 +1,47 @@
+package edu.uga.cs.shopsync.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
+import edu.uga.cs.shopsync.utils.UtilMethods;
+
+/**
+ * Measures computing the per user costs from the purchased items, which is what settling the cost
+ * of a shop sync without a cost ledger falls back to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CostAggregationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int purchasedItemCount;
+
+    private List<PurchasedItemModel> purchasedItems;
+
+    @Setup
+    public void setUp() {
+        purchasedItems = new ArrayList<>(purchasedItemCount);
+        for (int i = 0; i < purchasedItemCount; i++) {
+            purchasedItems.add(Fixtures.purchasedItem(i));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Double> computeCostsByUserUid() {
+        return UtilMethods.computeCostsByUserUid(purchasedItems);
+    }
+
+}
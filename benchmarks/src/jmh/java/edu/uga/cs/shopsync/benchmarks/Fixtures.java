@@ -0,0 +1,132 @@
+package edu.uga.cs.shopsync.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import edu.uga.cs.shopsync.backend.models.BasketItemModel;
+import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
+import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+import edu.uga.cs.shopsync.backend.models.ShoppingBasketModel;
+import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+
+/**
+ * Builds the models that the benchmarks run against.
+ */
+final class Fixtures {
+
+    /**
+     * The number of users that the purchased items are spread over.
+     */
+    static final int USER_COUNT = 4;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Returns a purchased item that belongs to one of {@link #USER_COUNT} users.
+     *
+     * @param index the index of the purchased item
+     * @return the purchased item
+     */
+    static PurchasedItemModel purchasedItem(int index) {
+        String userUid = "user" + (index % USER_COUNT);
+        BasketItemModel basketItem = new BasketItemModel(userUid, "item" + index,
+                                                         1 + index % 5, 0.99 + index % 20);
+        ShoppingItemModel shoppingItem = new ShoppingItemModel("item" + index, "Item " + index,
+                                                               false);
+        return new PurchasedItemModel("purchase" + index, userUid + "@example.com",
+                                      shoppingItem, basketItem);
+    }
+
+    /**
+     * Returns a shop sync with the given number of shopping items and purchased items, and
+     * {@link #USER_COUNT} shopping baskets.
+     *
+     * @param itemCount the number of shopping items and of purchased items
+     * @return the shop sync
+     */
+    static ShopSyncModel shopSync(int itemCount) {
+        Map<String, ShoppingItemModel> shoppingItems = new HashMap<>();
+        Map<String, PurchasedItemModel> purchasedItems = new HashMap<>();
+        for (int i = 0; i < itemCount; i++) {
+            shoppingItems.put("item" + i, new ShoppingItemModel("item" + i, "Item " + i, false));
+            PurchasedItemModel purchasedItem = purchasedItem(itemCount + i);
+            purchasedItems.put(purchasedItem.getPurchasedItemUid(), purchasedItem);
+        }
+
+        Map<String, ShoppingBasketModel> shoppingBaskets = new HashMap<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            shoppingBaskets.put("user" + i, new ShoppingBasketModel("user" + i, new HashMap<>()));
+        }
+
+        return new ShopSyncModel("shopSync", "Benchmark", "Shop sync used by the benchmarks",
+                                 shoppingItems, shoppingBaskets, purchasedItems);
+    }
+
+    /**
+     * Returns the value that the database returns for the given shop sync: nested models are
+     * maps, and whole numbers are longs.
+     *
+     * @param shopSync the shop sync
+     * @return the database value of the shop sync
+     */
+    static Map<String, Object> databaseValue(ShopSyncModel shopSync) {
+        Map<String, Object> value = shopSync.toMap();
+        value.put("shoppingItems", databaseValues(shopSync.getShoppingItems(),
+                                                  ShoppingItemModel::toMap));
+        value.put("shoppingBaskets", databaseValues(shopSync.getShoppingBaskets(),
+                                                    Fixtures::databaseValue));
+        value.put("purchasedItems", databaseValues(shopSync.getPurchasedItems(),
+                                                   Fixtures::databaseValue));
+        return value;
+    }
+
+    /**
+     * Returns the value that the database returns for the given shopping basket.
+     *
+     * @param shoppingBasket the shopping basket
+     * @return the database value of the shopping basket
+     */
+    static Map<String, Object> databaseValue(ShoppingBasketModel shoppingBasket) {
+        Map<String, Object> value = shoppingBasket.toMap();
+        value.put("basketItems", databaseValues(shoppingBasket.getBasketItems(),
+                                                Fixtures::databaseValue));
+        return value;
+    }
+
+    /**
+     * Returns the value that the database returns for the given purchased item.
+     *
+     * @param purchasedItem the purchased item
+     * @return the database value of the purchased item
+     */
+    static Map<String, Object> databaseValue(PurchasedItemModel purchasedItem) {
+        Map<String, Object> value = purchasedItem.toMap();
+        value.put("basketItem", databaseValue(purchasedItem.getBasketItem()));
+        return value;
+    }
+
+    /**
+     * Returns the value that the database returns for the given basket item.
+     *
+     * @param basketItem the basket item
+     * @return the database value of the basket item
+     */
+    static Map<String, Object> databaseValue(BasketItemModel basketItem) {
+        Map<String, Object> value = basketItem.toMap();
+        double pricePerUnit = basketItem.getPricePerUnit();
+        if (pricePerUnit == Math.rint(pricePerUnit)) {
+            value.put("pricePerUnit", (long) pricePerUnit);
+        }
+        return value;
+    }
+
+    private static <T> Map<String, Object> databaseValues(
+            Map<String, T> models, Function<T, Map<String, Object>> toValue) {
+        Map<String, Object> values = new HashMap<>();
+        models.forEach((key, model) -> values.put(key, toValue.apply(model)));
+        return values;
+    }
+
+}
@@ -0,0 +1,63 @@
+package edu.uga.cs.shopsync.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.uga.cs.shopsync.utils.IndexedList;
+
+/**
+ * Measures the {@link IndexedList} operations that the item fragments run on every child event,
+ * for comparison with {@link ArraySetListBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IndexedListBenchmark {
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private IndexedList<String> list;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        list = new IndexedList<>();
+        for (int i = 0; i < size; i++) {
+            list.add("item" + i);
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public String addThenRemoveHead() {
+        list.add(0, "extra");
+        return list.remove(0);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        next = (next + 1) % size;
+        return list.indexOf("item" + next);
+    }
+
+    @Benchmark
+    public boolean removeThenAddTail() {
+        // the element is put back so that every invocation sees the same size
+        String element = "item" + next;
+        next = (next + 1) % size;
+        boolean removed = list.remove(element);
+        list.add(element);
+        return removed;
+    }
+
+}
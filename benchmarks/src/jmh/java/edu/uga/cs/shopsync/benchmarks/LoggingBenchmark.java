@@ -0,0 +1,85 @@
+package edu.uga.cs.shopsync.benchmarks;
+
+import android.util.Log;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import edu.uga.cs.shopsync.backend.models.ShoppingItemModel;
+import edu.uga.cs.shopsync.utils.Logs;
+
+/**
+ * Measures the debug messages logged when a shopping item is bound to its view and when a shop
+ * sync is written, built eagerly by concatenation as before and through {@link Logs}. Run with
+ * {@code -prof gc} to compare the bytes allocated per message, which is the cost that the app
+ * pays on every bind and write even when no one reads the log.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggingBenchmark {
+
+    private static final String TAG = "LoggingBenchmark";
+
+    @Param({"true", "false"})
+    public boolean debugEnabled;
+
+    private int position;
+    private ShoppingItemModel shoppingItem;
+    private String shopSyncUid;
+    private Map<String, Object> childUpdates;
+
+    @Setup
+    public void setUp() {
+        Logs.setMinLevel(debugEnabled ? Log.DEBUG : Log.INFO);
+
+        position = 42;
+        shoppingItem = new ShoppingItemModel("item42", "Item 42", false);
+        shopSyncUid = "shopSync";
+        childUpdates = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            childUpdates.put("/shop_syncs/shopSync/shoppingItems/item" + i + "/inBasket", true);
+        }
+    }
+
+    @Benchmark
+    public void bindEager() {
+        Log.d(TAG, "onBindViewHolder: called with position = " + position + " and item = " +
+                shoppingItem);
+    }
+
+    @Benchmark
+    public void bindParameterized() {
+        Logs.d(TAG, "onBindViewHolder: called with position = {} and item = {}", position,
+               shoppingItem);
+    }
+
+    @Benchmark
+    public void writeEager() {
+        Log.d(TAG, "updateShopSync: shop sync uid (" + shopSyncUid + "), changed paths " +
+                childUpdates.keySet());
+    }
+
+    @Benchmark
+    public void writeParameterized() {
+        Logs.d(TAG, "updateShopSync: shop sync uid ({}), changed paths {}", shopSyncUid,
+               childUpdates.keySet());
+    }
+
+    @Benchmark
+    public void writeSupplier() {
+        Logs.d(TAG, () -> "updateShopSync: shop sync uid (" + shopSyncUid + "), changed paths " +
+                childUpdates.keySet());
+    }
+
+}
@@ -0,0 +1,61 @@
+package edu.uga.cs.shopsync.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
+import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+
+/**
+ * Measures decoding the values read from the database to models, with the hand-written
+ * {@code fromMap} of the models against reflection.
+ * <p>
+ * Run with {@code -prof gc} to compare the allocations as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModelDecodingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int itemCount;
+
+    private Map<String, Object> shopSyncValue;
+    private Map<String, Object> purchasedItemValue;
+
+    @Setup
+    public void setUp() {
+        shopSyncValue = Fixtures.databaseValue(Fixtures.shopSync(itemCount));
+        purchasedItemValue = Fixtures.databaseValue(Fixtures.purchasedItem(0));
+    }
+
+    @Benchmark
+    public ShopSyncModel shopSyncHandWritten() {
+        return ShopSyncModel.of(shopSyncValue);
+    }
+
+    @Benchmark
+    public ShopSyncModel shopSyncReflective() {
+        return ReflectiveMapper.decode(shopSyncValue, ShopSyncModel.class);
+    }
+
+    @Benchmark
+    public PurchasedItemModel purchasedItemHandWritten() {
+        return PurchasedItemModel.of(purchasedItemValue);
+    }
+
+    @Benchmark
+    public PurchasedItemModel purchasedItemReflective() {
+        return ReflectiveMapper.decode(purchasedItemValue, PurchasedItemModel.class);
+    }
+
+}
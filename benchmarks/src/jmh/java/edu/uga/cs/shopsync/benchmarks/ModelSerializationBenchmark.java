@@ -0,0 +1,57 @@
+package edu.uga.cs.shopsync.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import edu.uga.cs.shopsync.backend.models.PurchasedItemModel;
+import edu.uga.cs.shopsync.backend.models.ShopSyncModel;
+
+/**
+ * Measures converting the models to and from the maps that are written to the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModelSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int itemCount;
+
+    private ShopSyncModel shopSync;
+    private Map<String, Object> shopSyncMap;
+    private PurchasedItemModel purchasedItem;
+
+    @Setup
+    public void setUp() {
+        shopSync = Fixtures.shopSync(itemCount);
+        shopSyncMap = shopSync.toMap();
+        purchasedItem = Fixtures.purchasedItem(0);
+    }
+
+    @Benchmark
+    public Map<String, Object> shopSyncToMap() {
+        return shopSync.toMap();
+    }
+
+    @Benchmark
+    public ShopSyncModel shopSyncFromMap() {
+        ShopSyncModel result = new ShopSyncModel();
+        result.fromMap(shopSyncMap);
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, Object> purchasedItemToMap() {
+        return purchasedItem.toMap();
+    }
+
+}
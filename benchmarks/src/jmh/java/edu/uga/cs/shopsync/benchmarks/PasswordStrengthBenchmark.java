@@ -0,0 +1,32 @@
+package edu.uga.cs.shopsync.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.uga.cs.shopsync.utils.PasswordStrength;
+
+/**
+ * Measures {@link PasswordStrength#calculate(String)}, which runs on every keystroke of the
+ * registration form.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PasswordStrengthBenchmark {
+
+    @Param({"short", "password", "Passw0rd!", "aLongerPassphraseWith-Symbols-And-D1gits"})
+    public String password;
+
+    @Benchmark
+    public PasswordStrength.PasswordStrengthCalculationResult calculate() {
+        return PasswordStrength.calculate(password);
+    }
+
+}
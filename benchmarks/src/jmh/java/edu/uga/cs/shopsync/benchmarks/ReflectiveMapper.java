@@ -0,0 +1,87 @@
+package edu.uga.cs.shopsync.benchmarks;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes database values to models through their setters, found by reflection, the same way
+ * that {@code DataSnapshot.getValue(Class)} does. The database client cannot run outside of
+ * Android, so this stands in for it as the baseline of {@link ModelDecodingBenchmark}. Like the
+ * database client, the setters of a class are looked up once and cached.
+ */
+final class ReflectiveMapper {
+
+    private static final Map<Class<?>, Map<String, Method>> SETTERS = new ConcurrentHashMap<>();
+
+    private ReflectiveMapper() {
+    }
+
+    /**
+     * Decodes the database value to a model of the given type.
+     *
+     * @param value the database value, a map of property names to values
+     * @param type  the type of the model
+     * @param <T>   the type of the model
+     * @return the model
+     */
+    static <T> T decode(Map<String, Object> value, Class<T> type) {
+        try {
+            T model = type.getDeclaredConstructor().newInstance();
+            Map<String, Method> setters = SETTERS.computeIfAbsent(type, ReflectiveMapper::setters);
+            for (Map.Entry<String, Object> property : value.entrySet()) {
+                Method setter = setters.get(property.getKey());
+                if (setter != null) {
+                    setter.invoke(model, convert(property.getValue(),
+                                                 setter.getGenericParameterTypes()[0]));
+                }
+            }
+            return model;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to decode " + type.getSimpleName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object convert(Object value, Type type) {
+        if (value == null) {
+            return null;
+        }
+
+        if (type instanceof ParameterizedType parameterizedType) {
+            // a map of models keyed by uid
+            Type valueType = parameterizedType.getActualTypeArguments()[1];
+            Map<String, Object> converted = new HashMap<>();
+            ((Map<String, Object>) value).forEach(
+                    (key, child) -> converted.put(key, convert(child, valueType)));
+            return converted;
+        }
+
+        if (type == long.class || type == Long.class) {
+            return ((Number) value).longValue();
+        }
+        if (type == double.class || type == Double.class) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Map && type instanceof Class<?> modelType) {
+            return decode((Map<String, Object>) value, modelType);
+        }
+        return value;
+    }
+
+    private static Map<String, Method> setters(Class<?> type) {
+        Map<String, Method> setters = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            String name = method.getName();
+            if (name.startsWith("set") && name.length() > 3 &&
+                    method.getParameterCount() == 1) {
+                setters.put(Character.toLowerCase(name.charAt(3)) + name.substring(4), method);
+            }
+        }
+        return setters;
+    }
+
+}
@@ -0,0 +1,13 @@
+package android.graphics;
+
+/**
+ * Stand-in for the Android class of the same name, so that the app sources that reference it can
+ * be compiled for the JVM benchmarks.
+ */
+public class Color {
+
+    public static final int RED = 0xFFFF0000;
+    public static final int YELLOW = 0xFFFFFF00;
+    public static final int GREEN = 0xFF00FF00;
+
+}
@@ -0,0 +1,23 @@
+package android.util;
+
+/**
+ * Stand-in for the Android class of the same name, so that the app sources that reference it can
+ * be compiled for the JVM benchmarks. Messages are kept in a field instead of being printed, so
+ * that building them is measured but not optimized away.
+ */
+public final class Log {
+
+    public static final int DEBUG = 3;
+    public static final int INFO = 4;
+
+    private static volatile String lastMessage;
+
+    private Log() {
+    }
+
+    public static int d(String tag, String msg) {
+        lastMessage = msg;
+        return 0;
+    }
+
+}
@@ -0,0 +1,12 @@
+package edu.uga.cs.shopsync;
+
+/**
+ * Stand-in for the generated build config class, so that the app sources that reference it can
+ * be compiled for the JVM benchmarks. The benchmarks run as a debug build, since release builds
+ * do not log debug messages at all.
+ */
+public final class BuildConfig {
+
+    public static final boolean DEBUG = true;
+
+}
@@ -0,0 +1,15 @@
+package edu.uga.cs.shopsync;
+
+/**
+ * Stand-in for the generated resource class, so that the app sources that reference it can be
+ * compiled for the JVM benchmarks. Only the resources those sources use are declared.
+ */
+public final class R {
+
+    public static final class string {
+        public static final int weak = 1;
+        public static final int medium = 2;
+        public static final int strong = 3;
+    }
+
+}